@@ -0,0 +1,344 @@
+package com.candyrush.benchmark;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.TeamColor;
+import com.candyrush.storage.DatabaseInitializer;
+import com.candyrush.storage.DatabaseSettings;
+import com.candyrush.storage.StorageCodecs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Builds a populated database through DatabaseInitializer for the storage benchmarks
+ * The data is deterministic for a given size, so results of different builds are comparable:
+ * players with lifetime totals (a few of them murderers), closed rounds with team scores,
+ * player stats and round players, one running round, and chests left over from the latest rounds.
+ * Templates are cached in the work directory by size and copied for every benchmark trial.
+ */
+public class BenchmarkDataGenerator {
+
+    /** Bump when the generated data changes, so cached templates are rebuilt */
+    private static final int GENERATOR_VERSION = 1;
+
+    public static final int PARTICIPANTS_PER_ROUND = 40;
+    public static final int ACTIVE_ROUND_PLAYERS = 200;
+    public static final int CHESTS_PER_ROUND = 150;
+    public static final int STALE_CHEST_ROUNDS = 20;
+    public static final String WORLD = "world";
+
+    /** Closed round without chests, free for benchmarks that add and remove chests */
+    public static final int SPARE_ROUND_ID = 1;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final int players;
+    private final int rounds;
+    private final UUID[] uuids;
+
+    public BenchmarkDataGenerator(int players, int rounds) {
+        if (rounds <= STALE_CHEST_ROUNDS) {
+            throw new IllegalArgumentException("rounds must be greater than " + STALE_CHEST_ROUNDS);
+        }
+        this.players = players;
+        this.rounds = rounds;
+        this.uuids = new UUID[players];
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < players; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+    }
+
+    /**
+     * Player UUIDs in insertion order
+     */
+    public UUID[] getUuids() {
+        return uuids;
+    }
+
+    /**
+     * ID of the running round (the one after the closed rounds)
+     */
+    public int getActiveRoundId() {
+        return rounds + 1;
+    }
+
+    /**
+     * Get the cached template for this size, building it first if needed
+     * @param workDir Directory holding the templates
+     * @return Template database file (never opened by benchmarks, copy it first)
+     */
+    public File template(File workDir) throws SQLException, IOException {
+        File template = new File(workDir, "template-" + players + "p-" + rounds + "r-v" + GENERATOR_VERSION
+                + "-s" + DatabaseInitializer.SCHEMA_VERSION + ".db");
+        if (template.isFile()) {
+            return template;
+        }
+
+        workDir.mkdirs();
+        File building = new File(workDir, template.getName() + ".building");
+        deleteDatabase(building);
+
+        long start = System.nanoTime();
+        DatabaseInitializer db = open(building);
+        try {
+            generate(db);
+            db.executeWrite(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+                }
+                return null;
+            });
+        } finally {
+            db.close();
+        }
+        Files.move(building.toPath(), template.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        deleteDatabase(building);
+
+        System.out.printf("Generated %s (%,d bytes) in %.1f s%n", template.getName(), template.length(),
+                (System.nanoTime() - start) / 1e9);
+        return template;
+    }
+
+    /**
+     * Copy a template to a fresh database file for one trial
+     */
+    public static File copyTemplate(File template, File target) throws IOException {
+        deleteDatabase(target);
+        Files.copy(template.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Open a database the way the plugin does with the default settings
+     */
+    public static DatabaseInitializer open(File file) throws SQLException {
+        DatabaseInitializer db = new DatabaseInitializer(
+            new DatabaseSettings(file, DatabaseSettings.Engine.SINGLE_WRITER, 4, 5000),
+            Logger.getLogger("CandyRush-Benchmark"));
+        db.initialize();
+        return db;
+    }
+
+    /**
+     * Delete a database file with its WAL and shared-memory files
+     */
+    public static void deleteDatabase(File file) throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(new File(file.getPath() + "-wal").toPath());
+        Files.deleteIfExists(new File(file.getPath() + "-shm").toPath());
+    }
+
+    private void generate(DatabaseInitializer db) throws SQLException {
+        long now = System.currentTimeMillis() / 1000;
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int from = 0; from < players; from += BATCH_SIZE) {
+            int to = Math.min(players, from + BATCH_SIZE);
+            int first = from;
+            db.executeTransaction(conn -> {
+                insertPlayers(conn, first, to, now, random);
+                return null;
+            });
+        }
+
+        int roundsPerBatch = Math.max(1, BATCH_SIZE / PARTICIPANTS_PER_ROUND);
+        for (int from = 1; from <= rounds; from += roundsPerBatch) {
+            int to = Math.min(rounds, from + roundsPerBatch - 1);
+            int first = from;
+            db.executeTransaction(conn -> {
+                insertRounds(conn, first, to, now, random);
+                return null;
+            });
+        }
+
+        db.executeTransaction(conn -> {
+            insertActiveRound(conn, now, random);
+            insertTotals(conn);
+            insertChests(conn, now, random);
+            return null;
+        });
+    }
+
+    private void insertPlayers(Connection conn, int from, int to, long now, SplittableRandom random) throws SQLException {
+        try (PreparedStatement player = conn.prepareStatement(
+                     "INSERT INTO players (uuid, name, points, kills, deaths, is_murderer, murderer_until, " +
+                     "last_seen, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)");
+             PreparedStatement totals = conn.prepareStatement(
+                     "INSERT INTO player_totals (player_uuid, games_played, wins, best_round_points, updated_at) " +
+                     "VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int i = from; i < to; i++) {
+                // Long tail: most players have a few points, some have thousands
+                int points = (int) (Math.pow(random.nextDouble(), 4) * 20_000);
+                int roll = random.nextInt(100);
+                boolean murderer = roll < 5;
+                long murdererUntil = !murderer ? 0 : roll == 0 ? now + 600 + random.nextInt(86_400) : now - 1 - random.nextInt(86_400);
+                long lastSeen = now - random.nextInt(90 * 86_400);
+
+                StorageCodecs.bindUuid(player, 1, uuids[i]);
+                player.setString(2, "Player" + i);
+                player.setInt(3, points);
+                player.setInt(4, random.nextInt(500));
+                player.setInt(5, random.nextInt(500));
+                player.setInt(6, murderer ? 1 : 0);
+                player.setLong(7, murdererUntil);
+                player.setLong(8, lastSeen);
+                player.setLong(9, lastSeen - random.nextInt(365 * 86_400));
+                player.setLong(10, lastSeen);
+                player.addBatch();
+
+                int games = random.nextInt(200);
+                StorageCodecs.bindUuid(totals, 1, uuids[i]);
+                totals.setInt(2, games);
+                totals.setInt(3, games / 4);
+                totals.setInt(4, random.nextInt(2_000));
+                totals.setLong(5, lastSeen);
+                totals.addBatch();
+            }
+            player.executeBatch();
+            totals.executeBatch();
+        }
+    }
+
+    private void insertRounds(Connection conn, int from, int to, long now, SplittableRandom random) throws SQLException {
+        TeamColor[] teams = TeamColor.values();
+
+        try (PreparedStatement round = conn.prepareStatement(
+                     "INSERT INTO game_rounds (id, started_at, ended_at, winner_team, total_players, " +
+                     "duration_seconds, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement teamScore = conn.prepareStatement(
+                     "INSERT INTO team_scores (round_id, team_color, final_points, total_kills, total_deaths, " +
+                     "players_count, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement stats = conn.prepareStatement(
+                     "INSERT INTO player_stats (round_id, player_uuid, team_color, points_earned, kills, deaths, " +
+                     "chests_opened, food_deposited, became_murderer, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement roundPlayer = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO round_players (round_id, player_uuid, team_color, points, updated_at) " +
+                     "VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int id = from; id <= to; id++) {
+                // One round every 20 minutes, oldest first
+                long startedAt = now - (long) (rounds - id + 1) * 1_200;
+                int duration = 900 + random.nextInt(300);
+
+                round.setInt(1, id);
+                round.setLong(2, startedAt);
+                round.setLong(3, startedAt + duration);
+                StorageCodecs.TEAM_COLOR.bind(round, 4, teams[random.nextInt(teams.length)]);
+                round.setInt(5, PARTICIPANTS_PER_ROUND);
+                round.setInt(6, duration);
+                round.setLong(7, startedAt);
+                round.addBatch();
+
+                for (TeamColor team : teams) {
+                    teamScore.setInt(1, id);
+                    StorageCodecs.TEAM_COLOR.bind(teamScore, 2, team);
+                    teamScore.setInt(3, random.nextInt(5_000));
+                    teamScore.setInt(4, random.nextInt(50));
+                    teamScore.setInt(5, random.nextInt(50));
+                    teamScore.setInt(6, PARTICIPANTS_PER_ROUND / teams.length);
+                    teamScore.setLong(7, startedAt + duration);
+                    teamScore.addBatch();
+                }
+
+                for (int p = 0; p < PARTICIPANTS_PER_ROUND; p++) {
+                    UUID uuid = uuids[random.nextInt(players)];
+                    TeamColor team = teams[p % teams.length];
+                    int points = random.nextInt(500);
+
+                    stats.setInt(1, id);
+                    StorageCodecs.bindUuid(stats, 2, uuid);
+                    StorageCodecs.TEAM_COLOR.bind(stats, 3, team);
+                    stats.setInt(4, points);
+                    stats.setInt(5, random.nextInt(10));
+                    stats.setInt(6, random.nextInt(10));
+                    stats.setInt(7, random.nextInt(30));
+                    stats.setInt(8, random.nextInt(20));
+                    stats.setInt(9, random.nextInt(20) == 0 ? 1 : 0);
+                    stats.setLong(10, startedAt + duration);
+                    stats.addBatch();
+
+                    roundPlayer.setInt(1, id);
+                    StorageCodecs.bindUuid(roundPlayer, 2, uuid);
+                    StorageCodecs.TEAM_COLOR.bind(roundPlayer, 3, team);
+                    roundPlayer.setInt(4, points);
+                    roundPlayer.setLong(5, startedAt + duration);
+                    roundPlayer.addBatch();
+                }
+            }
+            round.executeBatch();
+            teamScore.executeBatch();
+            stats.executeBatch();
+            roundPlayer.executeBatch();
+        }
+    }
+
+    private void insertActiveRound(Connection conn, long now, SplittableRandom random) throws SQLException {
+        TeamColor[] teams = TeamColor.values();
+        int roundId = getActiveRoundId();
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO game_rounds (id, started_at, total_players, created_at) VALUES ("
+                    + roundId + ", " + now + ", " + ACTIVE_ROUND_PLAYERS + ", " + now + ")");
+        }
+
+        try (PreparedStatement roundPlayer = conn.prepareStatement(
+                "INSERT OR IGNORE INTO round_players (round_id, player_uuid, team_color, points, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?)")) {
+            for (int p = 0; p < ACTIVE_ROUND_PLAYERS; p++) {
+                roundPlayer.setInt(1, roundId);
+                StorageCodecs.bindUuid(roundPlayer, 2, uuids[random.nextInt(players)]);
+                StorageCodecs.TEAM_COLOR.bind(roundPlayer, 3, teams[p % teams.length]);
+                roundPlayer.setInt(4, random.nextInt(300));
+                roundPlayer.setLong(5, now);
+                roundPlayer.addBatch();
+            }
+            roundPlayer.executeBatch();
+        }
+    }
+
+    private void insertTotals(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT OR REPLACE INTO game_totals (id, games_played, total_duration_seconds) " +
+                    "SELECT 1, COUNT(*), COALESCE(SUM(duration_seconds), 0) FROM game_rounds WHERE ended_at IS NOT NULL");
+            stmt.executeUpdate("INSERT OR REPLACE INTO team_totals (team_color, wins, games, points, kills, deaths) " +
+                    "SELECT s.team_color, (SELECT COUNT(*) FROM game_rounds r WHERE r.winner_team = s.team_color), " +
+                    "COUNT(*), SUM(s.final_points), SUM(s.total_kills), SUM(s.total_deaths) " +
+                    "FROM team_scores s GROUP BY s.team_color");
+        }
+    }
+
+    private void insertChests(Connection conn, long now, SplittableRandom random) throws SQLException {
+        ChestType[] types = ChestType.values();
+
+        try (PreparedStatement chest = conn.prepareStatement(
+                "INSERT INTO treasure_chests (round_id, world, x, y, z, chest_type, spawned_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            // Chests of the latest closed rounds that were never cleaned up, plus the running round's
+            for (int roundId = rounds - STALE_CHEST_ROUNDS + 1; roundId <= getActiveRoundId(); roundId++) {
+                for (int c = 0; c < CHESTS_PER_ROUND; c++) {
+                    chest.setInt(1, roundId);
+                    chest.setString(2, WORLD);
+                    chest.setInt(3, random.nextInt(2_000) - 1_000);
+                    chest.setInt(4, 60 + random.nextInt(20));
+                    chest.setInt(5, random.nextInt(2_000) - 1_000);
+                    StorageCodecs.CHEST_TYPE.bind(chest, 6, types[random.nextInt(types.length)]);
+                    chest.setLong(7, now);
+                    chest.addBatch();
+                }
+            }
+            chest.executeBatch();
+        }
+    }
+}
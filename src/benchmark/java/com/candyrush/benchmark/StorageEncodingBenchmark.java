@@ -0,0 +1,273 @@
+package com.candyrush.benchmark;
+
+import com.candyrush.models.PlayerData;
+import com.candyrush.models.TeamColor;
+import com.candyrush.storage.DatabaseInitializer;
+import com.candyrush.storage.DatabaseSettings;
+import com.candyrush.storage.PlayerDataStorageImpl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * Compares the version 0 schema (TEXT UUIDs, enum names) with the compact encoding
+ * Builds a version 0 database, measures it, migrates a copy through DatabaseInitializer
+ * and measures again: file size, table/index size and loadPlayer/getTopPlayers latency.
+ *
+ * Usage: gradle storageBenchmark [-Prows=1000000] [-Pqueries=20000]
+ */
+public class StorageEncodingBenchmark {
+
+    private static final int ROUND_ID = 1;
+    private static final int TOP_LIMIT = 10;
+
+    private final int rows;
+    private final int queries;
+    private final File workDir;
+    private final UUID[] uuids;
+
+    public StorageEncodingBenchmark(int rows, int queries, File workDir) {
+        this.rows = rows;
+        this.queries = queries;
+        this.workDir = workDir;
+        this.uuids = new UUID[rows];
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rows; i++) {
+            uuids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        File workDir = new File(args.length > 2 ? args[2] : "build/benchmark");
+
+        new StorageEncodingBenchmark(rows, queries, workDir).run();
+    }
+
+    public void run() throws Exception {
+        workDir.mkdirs();
+        File legacyFile = new File(workDir, "candyrush-v0.db");
+        File compactFile = new File(workDir, "candyrush-v1.db");
+        Files.deleteIfExists(legacyFile.toPath());
+        Files.deleteIfExists(compactFile.toPath());
+
+        System.out.println("Rows: " + rows + ", queries per measurement: " + queries);
+
+        long start = System.nanoTime();
+        createLegacyDatabase(legacyFile);
+        System.out.printf("Built version 0 database in %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+        Files.copy(legacyFile.toPath(), compactFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        System.out.println();
+        System.out.println("== Version 0 (TEXT UUIDs, enum names) ==");
+        reportSize(legacyFile);
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + legacyFile.getPath())) {
+            measure("loadPlayer", () -> legacyLoadPlayer(conn, randomUuid()));
+            measure("getTopPlayers(" + TOP_LIMIT + ")", () -> legacyTopPlayers(conn));
+        }
+
+        System.out.println();
+        System.out.println("== Version " + DatabaseInitializer.SCHEMA_VERSION + " (BLOB UUIDs, integer enums) ==");
+        DatabaseInitializer database = new DatabaseInitializer(
+                new DatabaseSettings(compactFile, DatabaseSettings.Engine.SINGLE_WRITER, 2, 5000),
+                Logger.getLogger("StorageEncodingBenchmark"));
+        start = System.nanoTime();
+        database.initialize();
+        System.out.printf("Migration (including VACUUM): %.1f s%n", (System.nanoTime() - start) / 1e9);
+
+        try {
+            reportSize(compactFile);
+            PlayerDataStorageImpl storage = new PlayerDataStorageImpl(database);
+            storage.setActiveRound(ROUND_ID);
+            measure("loadPlayer", () -> storage.loadPlayer(randomUuid()).orElseThrow());
+            measure("getTopPlayers(" + TOP_LIMIT + ")", () -> storage.getTopPlayers(TOP_LIMIT));
+        } finally {
+            database.close();
+        }
+    }
+
+    /**
+     * Create the pre-migration schema and fill it with one round of players
+     */
+    private void createLegacyDatabase(File file) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+             Statement stmt = conn.createStatement()) {
+
+            stmt.executeUpdate("CREATE TABLE players (uuid TEXT PRIMARY KEY, name TEXT NOT NULL, team_color TEXT, " +
+                    "points INTEGER DEFAULT 0, kills INTEGER DEFAULT 0, deaths INTEGER DEFAULT 0, " +
+                    "is_murderer INTEGER DEFAULT 0, murderer_until INTEGER, last_seen INTEGER, " +
+                    "created_at INTEGER NOT NULL, updated_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE game_rounds (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "started_at INTEGER NOT NULL, ended_at INTEGER, winner_team TEXT, total_players INTEGER DEFAULT 0, " +
+                    "duration_seconds INTEGER, created_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE round_players (round_id INTEGER NOT NULL, player_uuid TEXT NOT NULL, " +
+                    "team_color TEXT, points INTEGER DEFAULT 0, updated_at INTEGER NOT NULL, " +
+                    "PRIMARY KEY (round_id, player_uuid)) WITHOUT ROWID");
+            stmt.executeUpdate("CREATE INDEX idx_players_team ON players(team_color)");
+            stmt.executeUpdate("CREATE INDEX idx_players_points ON players(points DESC)");
+            stmt.executeUpdate("CREATE INDEX idx_round_players_team ON round_players(round_id, team_color)");
+
+            long now = System.currentTimeMillis() / 1000;
+            stmt.executeUpdate("INSERT INTO game_rounds (id, started_at, winner_team, total_players, created_at) " +
+                    "VALUES (" + ROUND_ID + ", " + now + ", 'RED', " + rows + ", " + now + ")");
+
+            TeamColor[] teams = TeamColor.values();
+            SplittableRandom random = new SplittableRandom(7);
+            conn.setAutoCommit(false);
+            try (PreparedStatement player = conn.prepareStatement(
+                         "INSERT INTO players VALUES (?, ?, NULL, ?, ?, ?, 0, 0, ?, ?, ?)");
+                 PreparedStatement roundPlayer = conn.prepareStatement(
+                         "INSERT INTO round_players VALUES (?, ?, ?, ?, ?)")) {
+
+                for (int i = 0; i < rows; i++) {
+                    String uuid = uuids[i].toString();
+                    player.setString(1, uuid);
+                    player.setString(2, "Player" + i);
+                    player.setInt(3, random.nextInt(100_000));
+                    player.setInt(4, random.nextInt(500));
+                    player.setInt(5, random.nextInt(500));
+                    player.setLong(6, now);
+                    player.setLong(7, now);
+                    player.setLong(8, now);
+                    player.addBatch();
+
+                    roundPlayer.setInt(1, ROUND_ID);
+                    roundPlayer.setString(2, uuid);
+                    roundPlayer.setString(3, teams[i % teams.length].name());
+                    roundPlayer.setInt(4, random.nextInt(1_000));
+                    roundPlayer.setLong(5, now);
+                    roundPlayer.addBatch();
+
+                    if (i % 10_000 == 9_999) {
+                        player.executeBatch();
+                        roundPlayer.executeBatch();
+                    }
+                }
+                player.executeBatch();
+                roundPlayer.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     * loadPlayer as implemented before the compact encoding
+     */
+    private PlayerData legacyLoadPlayer(Connection conn, UUID uuid) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT p.*, rp.team_color AS round_team_color, rp.points AS round_points FROM players p " +
+                "LEFT JOIN round_players rp ON rp.player_uuid = p.uuid AND rp.round_id = ? WHERE p.uuid = ?")) {
+            stmt.setInt(1, ROUND_ID);
+            stmt.setString(2, uuid.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Missing player " + uuid);
+                }
+                return parseLegacyPlayer(rs);
+            }
+        }
+    }
+
+    /**
+     * getTopPlayers as implemented before the compact encoding
+     */
+    private int legacyTopPlayers(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT p.*, rp.team_color AS round_team_color, rp.points AS round_points FROM players p " +
+                "LEFT JOIN round_players rp ON rp.player_uuid = p.uuid AND rp.round_id = ? " +
+                "ORDER BY p.points DESC LIMIT ?")) {
+            stmt.setInt(1, ROUND_ID);
+            stmt.setInt(2, TOP_LIMIT);
+            int count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    parseLegacyPlayer(rs);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private PlayerData parseLegacyPlayer(ResultSet rs) throws SQLException {
+        String teamColor = rs.getString("round_team_color");
+        return new PlayerData(
+                UUID.fromString(rs.getString("uuid")),
+                rs.getString("name"),
+                teamColor != null ? TeamColor.valueOf(teamColor) : null,
+                rs.getInt("round_points"),
+                rs.getInt("points"),
+                0,
+                0,
+                rs.getInt("kills"),
+                rs.getInt("deaths"),
+                rs.getInt("is_murderer") == 1,
+                rs.getLong("murderer_until"),
+                rs.getLong("last_seen"),
+                rs.getLong("created_at"),
+                rs.getLong("updated_at"));
+    }
+
+    /**
+     * Print the file size and, when the driver has the dbstat table, the bytes used by tables and indexes
+     */
+    private void reportSize(File file) throws SQLException {
+        System.out.printf("File size:  %,d bytes%n", file.length());
+
+        String sql = "SELECT m.type, SUM(s.pgsize) FROM dbstat s JOIN sqlite_master m ON m.name = s.name " +
+                "GROUP BY m.type";
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.getPath());
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String label = rs.getString(1).equals("index") ? "Indexes:" : "Tables:";
+                System.out.printf("%-11s %,d bytes%n", label, rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            System.out.println("Table/index sizes unavailable (driver built without dbstat)");
+        }
+    }
+
+    private void measure(String name, Query query) throws Exception {
+        // Warm up the page cache and the JIT before timing
+        for (int i = 0; i < Math.min(queries, 2_000); i++) {
+            query.run();
+        }
+
+        long[] samples = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        double mean = Arrays.stream(samples).average().orElse(0);
+        System.out.printf("%-20s mean %8.1f us   p50 %8.1f us   p99 %8.1f us%n", name,
+                mean / 1_000, samples[samples.length / 2] / 1_000.0, samples[(int) (samples.length * 0.99)] / 1_000.0);
+    }
+
+    private UUID randomUuid() {
+        return uuids[ThreadLocalRandom.current().nextInt(rows)];
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,206 @@
+package com.candyrush.benchmark;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.GameRound;
+import com.candyrush.models.PlayerData;
+import com.candyrush.storage.DatabaseInitializer;
+import com.candyrush.storage.GameStateStorageImpl;
+import com.candyrush.storage.PlayerDataStorageImpl;
+import com.candyrush.storage.TreasureChestStorage;
+import com.candyrush.storage.TreasureChestStorageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the player, round and chest storage as the database grows
+ * Every benchmark runs against a fresh copy of a generated database (see BenchmarkDataGenerator)
+ * opened through DatabaseInitializer with the plugin's default SQLite settings.
+ *
+ * Usage: gradle storageJmh [-Pplayers=10000,100000,1000000] [-Prounds=2000] [-Pbench=loadPlayer]
+ * Results are written as JMH JSON to build/benchmark/storage-jmh.json (or -Presult=file)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class StorageScalingBenchmark {
+
+    /** Work directory for templates and trial copies, passed on by the Gradle task */
+    public static final String WORK_DIR_PROPERTY = "candyrush.benchmark.dir";
+
+    private static final int TOP_LIMIT = 10;
+    private static final int SAVE_POOL_SIZE = 1024;
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    @Param({"10000", "100000", "1000000"})
+    public int players;
+
+    @Param({"2000"})
+    public int rounds;
+
+    private DatabaseInitializer db;
+    private PlayerDataStorageImpl playerStorage;
+    private GameStateStorageImpl gameStateStorage;
+    private TreasureChestStorageImpl chestStorage;
+    private UUID[] uuids;
+    private int activeRoundId;
+    private List<PlayerData> savePool;
+    private List<TreasureChestStorage.ChestPlacement> spareChests;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws Exception {
+        File workDir = new File(System.getProperty(WORK_DIR_PROPERTY, "build/benchmark"));
+        BenchmarkDataGenerator generator = new BenchmarkDataGenerator(players, rounds);
+        File template = generator.template(workDir);
+        File trial = BenchmarkDataGenerator.copyTemplate(template, new File(workDir, "trial.db"));
+
+        db = BenchmarkDataGenerator.open(trial);
+        playerStorage = new PlayerDataStorageImpl(db);
+        gameStateStorage = new GameStateStorageImpl(db);
+        chestStorage = new TreasureChestStorageImpl(db);
+        uuids = generator.getUuids();
+        activeRoundId = generator.getActiveRoundId();
+        playerStorage.setActiveRound(activeRoundId);
+        random = new SplittableRandom(1);
+
+        // Players kept loaded like online players, so saves merge against a known sync state
+        savePool = new ArrayList<>(SAVE_POOL_SIZE);
+        for (int i = 0; i < SAVE_POOL_SIZE; i++) {
+            savePool.add(playerStorage.loadPlayer(randomUuid()).orElseThrow());
+        }
+
+        spareChests = new ArrayList<>(BenchmarkDataGenerator.CHESTS_PER_ROUND);
+        long now = System.currentTimeMillis() / 1000;
+        for (int c = 0; c < BenchmarkDataGenerator.CHESTS_PER_ROUND; c++) {
+            spareChests.add(new TreasureChestStorage.ChestPlacement(BenchmarkDataGenerator.SPARE_ROUND_ID,
+                BenchmarkDataGenerator.WORLD, c, 64, -c, ChestType.CHEST, now));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        if (db != null) {
+            db.close();
+        }
+    }
+
+    @Benchmark
+    public PlayerData loadPlayer() throws SQLException {
+        return playerStorage.loadPlayer(randomUuid()).orElseThrow();
+    }
+
+    @Benchmark
+    public PlayerData savePlayer() throws SQLException {
+        PlayerData player = savePool.get(next++ & (SAVE_POOL_SIZE - 1));
+        player.addPoints(1);
+        playerStorage.savePlayer(player);
+        return player;
+    }
+
+    @Benchmark
+    public List<PlayerData> getTopPlayers() throws SQLException {
+        return playerStorage.getTopPlayers(TOP_LIMIT);
+    }
+
+    @Benchmark
+    public List<PlayerData> getActiveMurderers() throws SQLException {
+        return playerStorage.getActiveMurderers();
+    }
+
+    /**
+     * Points are reset by starting a round: round points live in round_players keyed by the round,
+     * so a new round starts every player at zero without touching the players table
+     */
+    @Benchmark
+    public GameRound startRound() throws SQLException {
+        GameRound round = new GameRound(BenchmarkDataGenerator.ACTIVE_ROUND_PLAYERS);
+        int roundId = gameStateStorage.createGameRound(round);
+        playerStorage.setActiveRound(roundId);
+        return round;
+    }
+
+    /**
+     * Chests left over from earlier rounds, loaded when a round starts
+     */
+    @Benchmark
+    public List<TreasureChestStorage.StoredChest> loadStaleChests() throws SQLException {
+        return chestStorage.loadStaleChests(activeRoundId);
+    }
+
+    /**
+     * Removal of the leftover chests once their blocks are gone
+     */
+    @Benchmark
+    public int deleteStaleChests(StaleChests staleChests) throws SQLException {
+        return chestStorage.deleteChests(staleChests.ids);
+    }
+
+    /**
+     * Maintenance purge of an old round's chests: one batch, including writing them back first
+     */
+    @Benchmark
+    public int purgeRoundChests() throws SQLException {
+        chestStorage.saveChests(spareChests);
+        return chestStorage.deleteRoundChests(Collections.singletonList(BenchmarkDataGenerator.SPARE_ROUND_ID),
+            PURGE_BATCH_SIZE);
+    }
+
+    private UUID randomUuid() {
+        return uuids[random.nextInt(players)];
+    }
+
+    private List<Integer> loadSpareChestIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>(BenchmarkDataGenerator.CHESTS_PER_ROUND);
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM treasure_chests WHERE round_id = ?")) {
+            stmt.setInt(1, BenchmarkDataGenerator.SPARE_ROUND_ID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Leftover chests for deleteStaleChests, placed before every invocation outside the measurement
+     */
+    @State(Scope.Benchmark)
+    public static class StaleChests {
+        private List<Integer> ids;
+
+        @Setup(Level.Invocation)
+        public void place(StorageScalingBenchmark benchmark) throws SQLException {
+            benchmark.chestStorage.saveChests(benchmark.spareChests);
+            ids = benchmark.loadSpareChestIds();
+        }
+    }
+}
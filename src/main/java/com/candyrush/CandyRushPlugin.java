@@ -6,13 +6,30 @@ import com.candyrush.commands.StatsCommand;
 import com.candyrush.integration.MythicMobsIntegration;
 import com.candyrush.listeners.*;
 import com.candyrush.managers.*;
+import com.candyrush.storage.AsyncGameStateStorage;
+import com.candyrush.storage.AsyncPlayerDataStorage;
 import com.candyrush.storage.DatabaseInitializer;
+import com.candyrush.storage.EventNpcStorage;
+import com.candyrush.storage.EventNpcStorageImpl;
+import com.candyrush.storage.ExportStorage;
+import com.candyrush.storage.ExportStorageImpl;
 import com.candyrush.storage.GameStateStorage;
 import com.candyrush.storage.GameStateStorageImpl;
 import com.candyrush.storage.PlayerDataStorage;
 import com.candyrush.storage.PlayerDataStorageImpl;
+import com.candyrush.storage.MaintenanceStorage;
+import com.candyrush.storage.MaintenanceStorageImpl;
+import com.candyrush.storage.MainThreadIoDetector;
+import com.candyrush.storage.RoundHistoryStorage;
+import com.candyrush.storage.RoundHistoryStorageImpl;
+import com.candyrush.storage.PointEventStorage;
+import com.candyrush.storage.PointEventStorageImpl;
+import com.candyrush.storage.StorageExecutor;
+import com.candyrush.storage.TreasureChestStorage;
+import com.candyrush.storage.TreasureChestStorageImpl;
 import com.candyrush.utils.ConfigManager;
 import com.candyrush.utils.LanguageManager;
+import com.candyrush.utils.MainThreadExecutor;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.sql.SQLException;
@@ -28,12 +45,31 @@ public class CandyRushPlugin extends JavaPlugin {
     private DatabaseInitializer databaseInitializer;
     private PlayerDataStorage playerDataStorage;
     private GameStateStorage gameStateStorage;
+    private TreasureChestStorage treasureChestStorage;
+    private EventNpcStorage eventNpcStorage;
+    private PointEventStorage pointEventStorage;
+    private MaintenanceStorage maintenanceStorage;
+    private RoundHistoryStorage roundHistoryStorage;
+    private ExportStorage exportStorage;
+    private StorageExecutor storageExecutor;
+    private AsyncPlayerDataStorage asyncPlayerDataStorage;
+    private AsyncGameStateStorage asyncGameStateStorage;
+    private MainThreadExecutor mainThreadExecutor;
     private MythicMobsIntegration mythicMobsIntegration;
 
     // Managers
+    private GameScheduler gameScheduler;
     private GameManager gameManager;
+    private MapCenterManager mapCenterManager;
+    private ChunkPrewarmManager chunkPrewarmManager;
     private TeamManager teamManager;
     private PlayerManager playerManager;
+    private LeaderboardManager leaderboardManager;
+    private StatsManager statsManager;
+    private PointLedgerManager pointLedgerManager;
+    private RoundCheckpointManager roundCheckpointManager;
+    private DatabaseMaintenanceManager databaseMaintenanceManager;
+    private StatsExportManager statsExportManager;
     private TreasureChestManager treasureChestManager;
     private PointConversionManager pointConversionManager;
     private EventNpcManager eventNpcManager;
@@ -78,47 +114,85 @@ public class CandyRushPlugin extends JavaPlugin {
             return;
         }
 
+        // Debug: catch database access on the server thread
+        MainThreadIoDetector ioDetector = new MainThreadIoDetector(
+            MainThreadIoDetector.Mode.parse(configManager.getMainThreadIoMode()),
+            getServer()::isPrimaryThread, configManager.getMainThreadIoStackDepth(), getLogger());
+        if (ioDetector.getMode() != MainThreadIoDetector.Mode.OFF) {
+            databaseInitializer.setMainThreadIoDetector(ioDetector);
+            getLogger().warning("Main-thread database access detection enabled (" + ioDetector.getMode() + ")");
+        }
+
         // Initialize storage layers
         playerDataStorage = new PlayerDataStorageImpl(databaseInitializer);
         gameStateStorage = new GameStateStorageImpl(databaseInitializer);
-        getLogger().info("Storage layers initialized");
+        treasureChestStorage = new TreasureChestStorageImpl(databaseInitializer);
+        eventNpcStorage = new EventNpcStorageImpl(databaseInitializer);
+        pointEventStorage = new PointEventStorageImpl(databaseInitializer);
+        maintenanceStorage = new MaintenanceStorageImpl(databaseInitializer);
+        roundHistoryStorage = new RoundHistoryStorageImpl(databaseInitializer);
+        exportStorage = new ExportStorageImpl(databaseInitializer);
+        storageExecutor = new StorageExecutor(StorageExecutor.Mode.parse(configManager.getStorageExecutorMode()),
+            configManager.getStorageThreads(), configManager.getStorageMaxInFlight(), configManager.getStorageQueueSize(), getLogger());
+        asyncPlayerDataStorage = new AsyncPlayerDataStorage(playerDataStorage, storageExecutor);
+        asyncGameStateStorage = new AsyncGameStateStorage(gameStateStorage, storageExecutor);
+        mainThreadExecutor = new MainThreadExecutor(this);
+        getLogger().info("Storage layers initialized (I/O executor: " + storageExecutor.getMode() + ")");
 
         // Initialize MythicMobs integration (if available)
         if (hasMythicMobs) {
             mythicMobsIntegration = new MythicMobsIntegration(this);
+            // Required mobs are validated once the bundled configs have been copied
             if (!mythicMobsIntegration.initialize()) {
                 getLogger().warning("Failed to initialize MythicMobs integration");
                 getLogger().warning("Boss and Event features will be disabled");
-            } else {
-                // Validate required mobs exist
-                if (!mythicMobsIntegration.validateRequiredMobs()) {
-                    getLogger().warning("Some required MythicMobs are missing - check warnings above");
-                    getLogger().warning("The plugin will continue, but events/bosses may not work correctly");
-                }
             }
         }
 
+        // Initialize the tick scheduler first: managers register their periodic jobs on initialize
+        gameScheduler = new GameScheduler(this);
+        gameScheduler.initialize();
+
         // Initialize managers
         gameManager = new GameManager(this);
+        mapCenterManager = new MapCenterManager(this);
+        chunkPrewarmManager = new ChunkPrewarmManager(this);
         teamManager = new TeamManager(this);
         playerManager = new PlayerManager(this);
+        leaderboardManager = new LeaderboardManager(this);
+        statsManager = new StatsManager(this);
+        pointLedgerManager = new PointLedgerManager(this);
         treasureChestManager = new TreasureChestManager(this);
         pointConversionManager = new PointConversionManager(this);
         eventNpcManager = new EventNpcManager(this);
         bossManager = new BossManager(this);
         scoreboardManager = new ScoreboardManager(this);
         shopManager = new ShopManager(this);
+        roundCheckpointManager = new RoundCheckpointManager(this);
+        databaseMaintenanceManager = new DatabaseMaintenanceManager(this);
+        statsExportManager = new StatsExportManager(this);
 
         gameManager.initialize();
+        mapCenterManager.initialize();
+        chunkPrewarmManager.initialize();
         teamManager.initialize();
         playerManager.initialize();
+        leaderboardManager.initialize();
+        statsManager.initialize();
+        pointLedgerManager.initialize();
         treasureChestManager.initialize();
         pointConversionManager.initialize();
         eventNpcManager.initialize();
         bossManager.initialize();
         scoreboardManager.initialize();
+        roundCheckpointManager.initialize();
+        databaseMaintenanceManager.initialize();
+        statsExportManager.initialize();
         getLogger().info("Game managers initialized");
 
+        // Resume or finalize a round interrupted by a crash
+        roundCheckpointManager.recoverUnfinishedRound();
+
         // Register event listeners
         getServer().getPluginManager().registerEvents(new PlayerConnectionListener(this), this);
         getServer().getPluginManager().registerEvents(new TreasureChestListener(this), this);
@@ -161,12 +235,36 @@ public class CandyRushPlugin extends JavaPlugin {
         if (gameManager != null) {
             gameManager.shutdown();
         }
+        if (mapCenterManager != null) {
+            mapCenterManager.shutdown();
+        }
+        if (chunkPrewarmManager != null) {
+            chunkPrewarmManager.shutdown();
+        }
         if (teamManager != null) {
             teamManager.shutdown();
         }
         if (playerManager != null) {
             playerManager.shutdown();
         }
+        if (leaderboardManager != null) {
+            leaderboardManager.shutdown();
+        }
+        if (statsManager != null) {
+            statsManager.shutdown();
+        }
+        if (pointLedgerManager != null) {
+            pointLedgerManager.shutdown();
+        }
+        if (roundCheckpointManager != null) {
+            roundCheckpointManager.shutdown();
+        }
+        if (databaseMaintenanceManager != null) {
+            databaseMaintenanceManager.shutdown();
+        }
+        if (statsExportManager != null) {
+            statsExportManager.shutdown();
+        }
         if (treasureChestManager != null) {
             treasureChestManager.shutdown();
         }
@@ -179,6 +277,14 @@ public class CandyRushPlugin extends JavaPlugin {
         if (bossManager != null) {
             bossManager.shutdown();
         }
+        if (gameScheduler != null) {
+            gameScheduler.shutdown();
+        }
+
+        // Finish pending storage calls before closing the database
+        if (storageExecutor != null) {
+            storageExecutor.shutdown();
+        }
 
         // Close database connections
         if (databaseInitializer != null) {
@@ -238,6 +344,86 @@ public class CandyRushPlugin extends JavaPlugin {
         return gameStateStorage;
     }
 
+    /**
+     * Get the treasure chest storage
+     * @return TreasureChestStorage instance
+     */
+    public TreasureChestStorage getTreasureChestStorage() {
+        return treasureChestStorage;
+    }
+
+    /**
+     * Get the event NPC storage
+     * @return EventNpcStorage instance
+     */
+    public EventNpcStorage getEventNpcStorage() {
+        return eventNpcStorage;
+    }
+
+    /**
+     * Get the point event storage
+     * @return PointEventStorage instance
+     */
+    public PointEventStorage getPointEventStorage() {
+        return pointEventStorage;
+    }
+
+    /**
+     * Get the database maintenance storage
+     * @return MaintenanceStorage instance
+     */
+    public MaintenanceStorage getMaintenanceStorage() {
+        return maintenanceStorage;
+    }
+
+    /**
+     * Get the round history storage
+     * @return RoundHistoryStorage instance
+     */
+    public RoundHistoryStorage getRoundHistoryStorage() {
+        return roundHistoryStorage;
+    }
+
+    /**
+     * Get the statistics export storage
+     * @return ExportStorage instance
+     */
+    public ExportStorage getExportStorage() {
+        return exportStorage;
+    }
+
+    /**
+     * Get the executor that runs blocking storage calls
+     * @return StorageExecutor instance
+     */
+    public StorageExecutor getStorageExecutor() {
+        return storageExecutor;
+    }
+
+    /**
+     * Get the non-blocking player data storage
+     * @return AsyncPlayerDataStorage instance
+     */
+    public AsyncPlayerDataStorage getAsyncPlayerDataStorage() {
+        return asyncPlayerDataStorage;
+    }
+
+    /**
+     * Get the non-blocking game state storage
+     * @return AsyncGameStateStorage instance
+     */
+    public AsyncGameStateStorage getAsyncGameStateStorage() {
+        return asyncGameStateStorage;
+    }
+
+    /**
+     * Get the executor that runs callbacks on the main thread
+     * @return MainThreadExecutor instance
+     */
+    public MainThreadExecutor getMainThreadExecutor() {
+        return mainThreadExecutor;
+    }
+
     /**
      * Get the MythicMobs integration
      * @return MythicMobsIntegration instance
@@ -246,6 +432,14 @@ public class CandyRushPlugin extends JavaPlugin {
         return mythicMobsIntegration;
     }
 
+    /**
+     * Get the game scheduler
+     * @return GameScheduler instance
+     */
+    public GameScheduler getGameScheduler() {
+        return gameScheduler;
+    }
+
     /**
      * Get the game manager
      * @return GameManager instance
@@ -254,6 +448,22 @@ public class CandyRushPlugin extends JavaPlugin {
         return gameManager;
     }
 
+    /**
+     * Get the map center manager
+     * @return MapCenterManager instance
+     */
+    public MapCenterManager getMapCenterManager() {
+        return mapCenterManager;
+    }
+
+    /**
+     * Get the chunk pre-warm manager
+     * @return ChunkPrewarmManager instance
+     */
+    public ChunkPrewarmManager getChunkPrewarmManager() {
+        return chunkPrewarmManager;
+    }
+
     /**
      * Get the team manager
      * @return TeamManager instance
@@ -270,6 +480,54 @@ public class CandyRushPlugin extends JavaPlugin {
         return playerManager;
     }
 
+    /**
+     * Get the leaderboard manager
+     * @return LeaderboardManager instance
+     */
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+
+    /**
+     * Get the stats manager
+     * @return StatsManager instance
+     */
+    public StatsManager getStatsManager() {
+        return statsManager;
+    }
+
+    /**
+     * Get the point ledger manager
+     * @return PointLedgerManager instance
+     */
+    public PointLedgerManager getPointLedgerManager() {
+        return pointLedgerManager;
+    }
+
+    /**
+     * Get the round checkpoint manager
+     * @return RoundCheckpointManager instance
+     */
+    public RoundCheckpointManager getRoundCheckpointManager() {
+        return roundCheckpointManager;
+    }
+
+    /**
+     * Get the database maintenance manager
+     * @return DatabaseMaintenanceManager instance
+     */
+    public DatabaseMaintenanceManager getDatabaseMaintenanceManager() {
+        return databaseMaintenanceManager;
+    }
+
+    /**
+     * Get the statistics export manager
+     * @return StatsExportManager instance
+     */
+    public StatsExportManager getStatsExportManager() {
+        return statsExportManager;
+    }
+
     /**
      * Get the treasure chest manager
      * @return TreasureChestManager instance
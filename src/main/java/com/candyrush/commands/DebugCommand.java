@@ -1,7 +1,19 @@
 package com.candyrush.commands;
 
 import com.candyrush.CandyRushPlugin;
+import com.candyrush.managers.ChunkPrewarmManager;
+import com.candyrush.managers.DatabaseMaintenanceManager;
+import com.candyrush.managers.GameScheduler;
+import com.candyrush.managers.MapCenterManager;
+import com.candyrush.managers.RoundCheckpointManager;
+import com.candyrush.managers.StatsExportManager;
 import com.candyrush.models.GameState;
+import com.candyrush.storage.DatabaseInitializer;
+import com.candyrush.storage.ExportStorage;
+import com.candyrush.storage.MainThreadIoDetector;
+import com.candyrush.storage.PlayerDataCache;
+import com.candyrush.storage.StorageExecutor;
+import com.candyrush.storage.StorageMetrics;
 import com.candyrush.utils.LanguageManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -9,8 +21,14 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * デバッグ用コマンド
@@ -18,6 +36,8 @@ import java.util.Map;
  */
 public class DebugCommand implements CommandExecutor {
 
+    private static final int IO_REPORT_LIMIT = 10;
+
     private final CandyRushPlugin plugin;
     private final LanguageManager lang;
 
@@ -57,6 +77,21 @@ public class DebugCommand implements CommandExecutor {
             case "clearcenter":
                 clearMapCenter(sender);
                 break;
+            case "db":
+                showDatabaseStats(sender);
+                break;
+            case "maintenance":
+                requestMaintenance(sender);
+                break;
+            case "export":
+                startExport(sender, args);
+                break;
+            case "io":
+                showMainThreadIo(sender, args);
+                break;
+            case "ticks":
+                showTickStats(sender, args);
+                break;
             default:
                 showHelp(sender);
                 break;
@@ -73,6 +108,11 @@ public class DebugCommand implements CommandExecutor {
         sender.sendMessage(lang.getMessage("admin.debug_reset"));
         sender.sendMessage(lang.getMessage("admin.debug_setcenter"));
         sender.sendMessage(lang.getMessage("admin.debug_clearcenter"));
+        sender.sendMessage(lang.getMessage("admin.debug_db"));
+        sender.sendMessage(lang.getMessage("admin.debug_maintenance"));
+        sender.sendMessage(lang.getMessage("admin.debug_export"));
+        sender.sendMessage(lang.getMessage("admin.debug_io"));
+        sender.sendMessage(lang.getMessage("admin.debug_ticks"));
     }
 
     private void showStatus(CommandSender sender) {
@@ -114,6 +154,25 @@ public class DebugCommand implements CommandExecutor {
             sender.sendMessage(lang.getMessage("admin.status_round", placeholders));
         }
 
+        // マップ中心の候補
+        if (!Bukkit.getWorlds().isEmpty()) {
+            org.bukkit.World world = Bukkit.getWorlds().get(0);
+            MapCenterManager mapCenters = plugin.getMapCenterManager();
+            placeholders.clear();
+            placeholders.put("count", String.valueOf(mapCenters.getCandidateCount(world)));
+            placeholders.put("searched", String.valueOf(mapCenters.getSearchedSteps(world)));
+            placeholders.put("total", String.valueOf(mapCenters.getTotalSteps()));
+            sender.sendMessage(lang.getMessage("admin.status_map_centers", placeholders));
+        }
+
+        // チャンクの事前読み込み
+        ChunkPrewarmManager prewarm = plugin.getChunkPrewarmManager();
+        placeholders.clear();
+        placeholders.put("loaded", String.valueOf(prewarm.getLoadedCount()));
+        placeholders.put("total", String.valueOf(prewarm.getTotalCount()));
+        placeholders.put("tickets", String.valueOf(prewarm.getTicketCount()));
+        sender.sendMessage(lang.getMessage("admin.status_prewarm", placeholders));
+
         // チーム情報
         sender.sendMessage(lang.getMessage("admin.status_teams_title"));
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -136,6 +195,12 @@ public class DebugCommand implements CommandExecutor {
             return;
         }
 
+        // 前のラウンドの後片付けが終わるまで開始できない
+        if (plugin.getGameManager().isTearingDown()) {
+            sender.sendMessage(lang.getMessage("admin.start_teardown"));
+            return;
+        }
+
         int onlinePlayers = Bukkit.getOnlinePlayers().size();
         if (onlinePlayers == 0) {
             sender.sendMessage(lang.getMessage("admin.start_no_players"));
@@ -229,4 +294,288 @@ public class DebugCommand implements CommandExecutor {
 
         plugin.getLogger().info("Map center cleared by " + sender.getName());
     }
+
+    private void showDatabaseStats(CommandSender sender) {
+        DatabaseInitializer database = plugin.getDatabaseInitializer();
+        StorageMetrics metrics = database.getMetrics();
+
+        sender.sendMessage(lang.getMessage("admin.db_title"));
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("engine", database.getEngine().name());
+        sender.sendMessage(lang.getMessage("admin.db_engine", placeholders));
+
+        placeholders.clear();
+        placeholders.put("count", String.valueOf(metrics.getWriteCount()));
+        placeholders.put("rate", formatDecimal(metrics.getWritesPerSecond()));
+        placeholders.put("failed", String.valueOf(metrics.getWriteFailures()));
+        placeholders.put("queue", String.valueOf(database.getWriteQueueDepth()));
+        sender.sendMessage(lang.getMessage("admin.db_writes", placeholders));
+
+        placeholders.clear();
+        placeholders.put("queue", formatDecimal(metrics.getAverageWriteQueueMillis()));
+        placeholders.put("exec", formatDecimal(metrics.getAverageWriteExecMillis()));
+        placeholders.put("max", formatDecimal(metrics.getMaxWriteExecMillis()));
+        sender.sendMessage(lang.getMessage("admin.db_write_latency", placeholders));
+
+        placeholders.clear();
+        placeholders.put("count", String.valueOf(metrics.getReadCount()));
+        placeholders.put("avg", formatDecimal(metrics.getAverageReadBorrowMillis()));
+        placeholders.put("max", formatDecimal(metrics.getMaxReadBorrowMillis()));
+        sender.sendMessage(lang.getMessage("admin.db_reads", placeholders));
+
+        StorageExecutor io = plugin.getStorageExecutor();
+        placeholders.clear();
+        placeholders.put("mode", io.getMode().name());
+        placeholders.put("running", String.valueOf(io.getActiveCount()));
+        placeholders.put("limit", String.valueOf(io.getMaxInFlight()));
+        placeholders.put("peak", String.valueOf(io.getPeakActiveCount()));
+        placeholders.put("queue", String.valueOf(io.getQueueDepth()));
+        placeholders.put("completed", String.valueOf(io.getCompletedCount()));
+        placeholders.put("rejected", String.valueOf(io.getRejectedCount()));
+        sender.sendMessage(lang.getMessage("admin.db_io_executor", placeholders));
+
+        placeholders.clear();
+        placeholders.put("pending", String.valueOf(plugin.getPlayerManager().getPendingWriteCount()));
+        sender.sendMessage(lang.getMessage("admin.db_pending_players", placeholders));
+
+        PlayerDataCache cache = plugin.getPlayerManager().getPlayerDataCache();
+        placeholders.clear();
+        placeholders.put("size", String.valueOf(cache.size()));
+        placeholders.put("pinned", String.valueOf(cache.getPinnedCount()));
+        placeholders.put("rate", formatDecimal(cache.getHitRate() * 100));
+        placeholders.put("negative", String.valueOf(cache.getNegativeHitCount()));
+        placeholders.put("misses", String.valueOf(cache.getMissCount()));
+        placeholders.put("evictions", String.valueOf(cache.getEvictionCount()));
+        sender.sendMessage(lang.getMessage("admin.db_cache", placeholders));
+
+        RoundCheckpointManager checkpoints = plugin.getRoundCheckpointManager();
+        placeholders.clear();
+        placeholders.put("count", String.valueOf(checkpoints.getWriteCount()));
+        placeholders.put("avg", formatDecimal(checkpoints.getAverageWriteMicros()));
+        placeholders.put("max", formatDecimal(checkpoints.getMaxWriteMicros()));
+        placeholders.put("size", String.valueOf(checkpoints.getLastSize()));
+        sender.sendMessage(lang.getMessage("admin.db_checkpoint", placeholders));
+
+        showMaintenanceStatus(sender);
+    }
+
+    private void requestMaintenance(CommandSender sender) {
+        if (plugin.getDatabaseMaintenanceManager().requestRun()) {
+            sender.sendMessage(lang.getMessage("admin.maintenance_requested"));
+        } else {
+            sender.sendMessage(lang.getMessage("admin.maintenance_disabled"));
+        }
+
+        showMaintenanceStatus(sender);
+    }
+
+    private void showMaintenanceStatus(CommandSender sender) {
+        DatabaseMaintenanceManager maintenance = plugin.getDatabaseMaintenanceManager();
+
+        String state;
+        if (!maintenance.isEnabled()) {
+            state = "admin.maintenance_state_disabled";
+        } else if (maintenance.isRunning()) {
+            state = "admin.maintenance_state_running";
+        } else {
+            state = "admin.maintenance_state_idle";
+        }
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("state", lang.getMessage(state));
+        placeholders.put("rounds", String.valueOf(maintenance.getPendingRoundCount()));
+        sender.sendMessage(lang.getMessage("admin.db_maintenance_pending", placeholders));
+
+        DatabaseMaintenanceManager.MaintenanceReport report = maintenance.getLastReport();
+        if (report == null) {
+            sender.sendMessage(lang.getMessage("admin.db_maintenance_none"));
+            return;
+        }
+
+        placeholders.clear();
+        placeholders.put("archived", String.valueOf(report.getRoundsArchived()));
+        placeholders.put("chests", String.valueOf(report.getChestRowsPurged()));
+        placeholders.put("npcs", String.valueOf(report.getNpcRowsPurged()));
+        placeholders.put("tables", String.valueOf(report.getTablesAnalyzed()));
+        placeholders.put("pages", String.valueOf(report.getPagesReleased()));
+        placeholders.put("frames", String.valueOf(Math.max(0, report.getWalFramesCheckpointed())));
+        placeholders.put("slices", String.valueOf(report.getSlices()));
+        placeholders.put("max", formatDecimal(report.getMaxSliceMillis()));
+        placeholders.put("failures", String.valueOf(report.getFailures()));
+        sender.sendMessage(lang.getMessage("admin.db_maintenance_last", placeholders));
+    }
+
+    /**
+     * 統計をファイルに書き出す
+     * 引数は順不同で、形式（ndjson / csv、省略時 ndjson）と対象（all / rounds / teams / players、省略時 all）
+     */
+    private void startExport(CommandSender sender, String[] args) {
+        StatsExportManager.Format format = StatsExportManager.Format.NDJSON;
+        List<ExportStorage.Table> tables = new ArrayList<>();
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i].toLowerCase()) {
+                case "ndjson":
+                    format = StatsExportManager.Format.NDJSON;
+                    break;
+                case "csv":
+                    format = StatsExportManager.Format.CSV;
+                    break;
+                case "all":
+                    tables.addAll(Arrays.asList(ExportStorage.Table.values()));
+                    break;
+                case "rounds":
+                    tables.add(ExportStorage.Table.ROUNDS);
+                    break;
+                case "teams":
+                    tables.add(ExportStorage.Table.TEAM_SCORES);
+                    break;
+                case "players":
+                    tables.add(ExportStorage.Table.PLAYER_STATS);
+                    break;
+                default:
+                    sender.sendMessage(lang.getMessage("admin.export_usage"));
+                    return;
+            }
+        }
+        if (tables.isEmpty()) {
+            tables.addAll(Arrays.asList(ExportStorage.Table.values()));
+        }
+        List<ExportStorage.Table> distinct = tables.stream().distinct().collect(Collectors.toList());
+
+        CompletableFuture<StatsExportManager.ExportResult> export = plugin.getStatsExportManager().startExport(
+            distinct, format, progress -> {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("table", progress.getTable().getFileName());
+                placeholders.put("rows", String.valueOf(progress.getRows()));
+                placeholders.put("size", String.valueOf(progress.getBytes() / 1024));
+                sender.sendMessage(lang.getMessage("admin.export_progress", placeholders));
+            });
+        if (export == null) {
+            sender.sendMessage(lang.getMessage("admin.export_already_running"));
+            return;
+        }
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("tables", distinct.stream().map(ExportStorage.Table::getFileName).collect(Collectors.joining(", ")));
+        placeholders.put("format", format.name().toLowerCase());
+        sender.sendMessage(lang.getMessage("admin.export_started", placeholders));
+
+        export.whenComplete((result, error) -> {
+            Map<String, String> done = new HashMap<>();
+            if (error != null) {
+                done.put("error", String.valueOf(error.getMessage()));
+                sender.sendMessage(lang.getMessage("admin.export_failed", done));
+                return;
+            }
+
+            done.put("rows", String.valueOf(result.getRows()));
+            done.put("size", String.valueOf(result.getBytes() / 1024));
+            done.put("seconds", formatDecimal(result.getElapsedMillis() / 1000.0));
+            sender.sendMessage(lang.getMessage("admin.export_done", done));
+            for (File file : result.getFiles()) {
+                done.put("file", file.getName());
+                sender.sendMessage(lang.getMessage("admin.export_file", done));
+            }
+        });
+    }
+
+    /**
+     * メインスレッドからのデータベースアクセスを合計時間の多い順に表示
+     * 数字を指定するとその順位の呼び出し元のスタックを表示、reset で記録を消去
+     */
+    private void showMainThreadIo(CommandSender sender, String[] args) {
+        MainThreadIoDetector detector = plugin.getDatabaseInitializer().getMainThreadIoDetector();
+        if (detector == null) {
+            sender.sendMessage(lang.getMessage("admin.io_disabled"));
+            return;
+        }
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            detector.reset();
+            sender.sendMessage(lang.getMessage("admin.io_reset"));
+            return;
+        }
+
+        List<MainThreadIoDetector.SiteReport> report = detector.getReport(IO_REPORT_LIMIT);
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("mode", detector.getMode().name().toLowerCase());
+        sender.sendMessage(lang.getMessage("admin.io_title", placeholders));
+        if (report.isEmpty()) {
+            sender.sendMessage(lang.getMessage("admin.io_none"));
+            return;
+        }
+
+        if (args.length > 1) {
+            int rank;
+            try {
+                rank = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                rank = 0;
+            }
+            if (rank < 1 || rank > report.size()) {
+                sender.sendMessage(lang.getMessage("admin.io_usage"));
+                return;
+            }
+
+            MainThreadIoDetector.SiteReport site = report.get(rank - 1);
+            placeholders.put("rank", String.valueOf(rank));
+            placeholders.put("site", site.getSite());
+            sender.sendMessage(lang.getMessage("admin.io_stack_title", placeholders));
+            for (StackTraceElement frame : site.getStackSample()) {
+                placeholders.put("frame", frame.toString());
+                sender.sendMessage(lang.getMessage("admin.io_stack_frame", placeholders));
+            }
+            return;
+        }
+
+        for (int i = 0; i < report.size(); i++) {
+            MainThreadIoDetector.SiteReport site = report.get(i);
+            placeholders.put("rank", String.valueOf(i + 1));
+            placeholders.put("kind", site.getKind());
+            placeholders.put("site", site.getSite());
+            placeholders.put("count", String.valueOf(site.getCount()));
+            placeholders.put("total", formatDecimal(site.getTotalMillis()));
+            placeholders.put("max", formatDecimal(site.getMaxMillis()));
+            sender.sendMessage(lang.getMessage("admin.io_site", placeholders));
+        }
+    }
+
+    private void showTickStats(CommandSender sender, String[] args) {
+        GameScheduler scheduler = plugin.getGameScheduler();
+
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            scheduler.resetStats();
+            sender.sendMessage(lang.getMessage("admin.ticks_reset"));
+            return;
+        }
+
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("budget", formatDecimal(scheduler.getTickBudgetMillis()));
+        placeholders.put("over", String.valueOf(scheduler.getTicksOverBudget()));
+        placeholders.put("max", formatDecimal(scheduler.getMaxTickMillis()));
+        sender.sendMessage(lang.getMessage("admin.ticks_title", placeholders));
+
+        List<GameScheduler.JobStats> jobs = scheduler.getJobStats();
+        if (jobs.isEmpty()) {
+            sender.sendMessage(lang.getMessage("admin.ticks_none"));
+            return;
+        }
+
+        for (GameScheduler.JobStats job : jobs) {
+            placeholders.clear();
+            placeholders.put("name", job.getName());
+            placeholders.put("active", String.valueOf(job.getActive()));
+            placeholders.put("runs", String.valueOf(job.getRuns()));
+            placeholders.put("avg", formatDecimal(job.getAverageMillis()));
+            placeholders.put("max", formatDecimal(job.getMaxMillis()));
+            placeholders.put("deferred", String.valueOf(job.getDeferrals()));
+            sender.sendMessage(lang.getMessage("admin.ticks_job", placeholders));
+        }
+    }
+
+    private String formatDecimal(double value) {
+        return String.format("%.2f", value);
+    }
 }
\ No newline at end of file
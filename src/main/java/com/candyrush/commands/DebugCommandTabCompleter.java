@@ -20,7 +20,21 @@ public class DebugCommandTabCompleter implements TabCompleter {
         "stop",
         "reset",
         "setcenter",
-        "clearcenter"
+        "clearcenter",
+        "db",
+        "maintenance",
+        "export",
+        "io",
+        "ticks"
+    );
+
+    private static final List<String> EXPORT_OPTIONS = Arrays.asList(
+        "ndjson",
+        "csv",
+        "all",
+        "rounds",
+        "teams",
+        "players"
     );
 
     @Override
@@ -37,6 +51,19 @@ public class DebugCommandTabCompleter implements TabCompleter {
                 .collect(Collectors.toList());
         }
 
+        // io・ticks のリセット
+        if ((args[0].equalsIgnoreCase("io") || args[0].equalsIgnoreCase("ticks")) && args.length == 2) {
+            return "reset".startsWith(args[1].toLowerCase()) ? Arrays.asList("reset") : new ArrayList<>();
+        }
+
+        // export の形式・対象
+        if (args[0].equalsIgnoreCase("export")) {
+            String current = args[args.length - 1].toLowerCase();
+            return EXPORT_OPTIONS.stream()
+                .filter(option -> option.startsWith(current))
+                .collect(Collectors.toList());
+        }
+
         return new ArrayList<>();
     }
 }
@@ -4,28 +4,54 @@ import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.PlayerData;
 import com.candyrush.models.Team;
 import com.candyrush.models.TeamColor;
+import com.candyrush.storage.GameStateStorage;
+import com.candyrush.storage.GameTotals;
+import com.candyrush.storage.LeaderboardIndex;
+import com.candyrush.storage.RoundHistoryStorage;
+import com.candyrush.storage.StorageExecutor;
 import com.candyrush.utils.LanguageManager;
 import com.candyrush.utils.MessageUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
 
 /**
  * /stats コマンド - ゲーム統計とランキングを表示
  */
 public class StatsCommand implements CommandExecutor {
 
+    private static final int AROUND_RADIUS = 5;
+    private static final int HISTORY_PAGE_SIZE = 8;
+    private static final int DETAIL_PLAYER_LIMIT = 10;
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("MM/dd HH:mm").withZone(ZoneId.systemDefault());
+
     private final CandyRushPlugin plugin;
     private final LanguageManager lang;
+    // 履歴の続きを表示するためのカーソル（前のページの最後のラウンドID）
+    private final Map<UUID, Integer> historyCursors;
+    private final Map<UUID, Integer> roundsCursors;
 
     public StatsCommand(CandyRushPlugin plugin) {
         this.plugin = plugin;
         this.lang = plugin.getLanguageManager();
+        this.historyCursors = new HashMap<>();
+        this.roundsCursors = new HashMap<>();
     }
 
     @Override
@@ -55,6 +81,26 @@ public class StatsCommand implements CommandExecutor {
                 showTeamStats(player);
                 break;
 
+            case "rank":
+                showRank(player);
+                break;
+
+            case "around":
+                showPlayersAround(player);
+                break;
+
+            case "history":
+                showHistory(player, args.length > 1 && args[1].equalsIgnoreCase("more"));
+                break;
+
+            case "rounds":
+                showRounds(player, args.length > 1 && args[1].equalsIgnoreCase("more"));
+                break;
+
+            case "round":
+                showRoundDetail(player, args);
+                break;
+
             case "help":
                 showHelp(player);
                 break;
@@ -84,6 +130,8 @@ public class StatsCommand implements CommandExecutor {
         }
 
         viewer.sendMessage(MessageUtils.colorize("&eポイント: &6" + MessageUtils.formatPoints(data.getPoints())));
+        viewer.sendMessage(MessageUtils.colorize("&e累計ポイント: &6" + MessageUtils.formatPoints(data.getTotalPoints())));
+        viewer.sendMessage(MessageUtils.colorize("&e参加ゲーム: &f" + data.getGamesPlayed() + " &7| &e勝利: &a" + data.getWins()));
         viewer.sendMessage(MessageUtils.colorize("&eキル: &c" + data.getKills()));
         viewer.sendMessage(MessageUtils.colorize("&eデス: &7" + data.getDeaths()));
         viewer.sendMessage(MessageUtils.colorize("&eK/D: &b" + String.format("%.2f", data.getKDRatio())));
@@ -99,7 +147,7 @@ public class StatsCommand implements CommandExecutor {
      * トッププレイヤーランキングを表示
      */
     private void showTopPlayers(Player player) {
-        List<PlayerData> topPlayers = plugin.getPlayerManager().getTopPlayers(10);
+        List<LeaderboardIndex.Entry> topPlayers = plugin.getLeaderboardManager().getTopPlayers(10);
 
         player.sendMessage(MessageUtils.colorize("&6&l━━━━━━━━━━━━━━━━━━━━━━"));
         player.sendMessage(MessageUtils.colorize("&e&l  トッププレイヤー TOP 10"));
@@ -108,22 +156,55 @@ public class StatsCommand implements CommandExecutor {
         if (topPlayers.isEmpty()) {
             player.sendMessage(MessageUtils.colorize("&7データがありません"));
         } else {
-            int rank = 1;
-            for (PlayerData data : topPlayers) {
-                String rankColor = getRankColor(rank);
-                String teamName = data.getTeamColor() != null ?
-                        data.getTeamColor().getFormattedName() : "&7未所属";
+            for (LeaderboardIndex.Entry entry : topPlayers) {
+                String rankColor = getRankColor(entry.getRank());
 
                 player.sendMessage(MessageUtils.colorize(
-                        rankColor + rank + ". &f" + data.getName() +
-                        " &7[" + teamName + "&7] &6" + MessageUtils.formatPoints(data.getPoints()) + "pt"));
-                rank++;
+                        rankColor + entry.getRank() + ". &f" + entry.getName() +
+                        " &6" + MessageUtils.formatPoints(entry.getPoints()) + "pt"));
             }
         }
 
         player.sendMessage(MessageUtils.colorize("&6&l━━━━━━━━━━━━━━━━━━━━━━"));
     }
 
+    /**
+     * 自分の順位を表示
+     */
+    private void showRank(Player player) {
+        LeaderboardIndex.Entry entry = plugin.getLeaderboardManager().getEntry(player.getUniqueId());
+        if (entry == null) {
+            player.sendMessage(lang.getMessage("stats.not_ranked"));
+            return;
+        }
+
+        player.sendMessage(lang.getMessage("stats.your_rank", "rank", String.valueOf(entry.getRank())) +
+                MessageUtils.colorize(" &7/ " + plugin.getLeaderboardManager().getRankedCount()));
+        player.sendMessage(lang.getMessage("stats.your_points", "points", MessageUtils.formatPoints(entry.getPoints())));
+    }
+
+    /**
+     * 自分の前後の順位を表示
+     */
+    private void showPlayersAround(Player player) {
+        List<LeaderboardIndex.Entry> around = plugin.getLeaderboardManager()
+                .getPlayersAround(player.getUniqueId(), AROUND_RADIUS);
+        if (around.isEmpty()) {
+            player.sendMessage(lang.getMessage("stats.not_ranked"));
+            return;
+        }
+
+        player.sendMessage(lang.getMessage("stats.around_title"));
+        for (LeaderboardIndex.Entry entry : around) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("rank", String.valueOf(entry.getRank()));
+            placeholders.put("player", entry.getUuid().equals(player.getUniqueId())
+                    ? MessageUtils.colorize("&a&l" + entry.getName()) : entry.getName());
+            placeholders.put("points", MessageUtils.formatPoints(entry.getPoints()));
+            player.sendMessage(lang.getMessage("stats.player_entry", placeholders));
+        }
+    }
+
     /**
      * チーム統計を表示
      */
@@ -136,6 +217,7 @@ public class StatsCommand implements CommandExecutor {
 
         if (!plugin.getGameManager().isGameRunning()) {
             player.sendMessage(MessageUtils.colorize("&7ゲームが進行していません"));
+            showTeamTotals(player);
         } else {
             int rank = 1;
             for (Team team : ranking) {
@@ -155,6 +237,181 @@ public class StatsCommand implements CommandExecutor {
         player.sendMessage(MessageUtils.colorize("&b&l━━━━━━━━━━━━━━━━━━━━━━"));
     }
 
+    /**
+     * 全期間のチーム勝利数を表示（メモリ上のサマリーから取得）
+     */
+    private void showTeamTotals(Player player) {
+        GameTotals totals = plugin.getStatsManager().getTotals();
+
+        player.sendMessage(MessageUtils.colorize("&e総ゲーム数: &f" + totals.getGamesPlayed()));
+        for (TeamColor color : TeamColor.values()) {
+            GameTotals.TeamTotals team = totals.getTeam(color);
+            player.sendMessage(MessageUtils.colorize(
+                    "   " + color.getFormattedName() + " &e勝利: &a" + team.getWins() +
+                    " &7/ " + team.getGames() + "ゲーム"));
+        }
+    }
+
+    /**
+     * 自分の過去のラウンド成績を新しい順に表示
+     * @param more 前回の続きから表示する場合はtrue
+     */
+    private void showHistory(Player player, boolean more) {
+        UUID uuid = player.getUniqueId();
+        Integer cursor = more ? historyCursors.get(uuid) : null;
+        if (more && cursor == null) {
+            player.sendMessage(lang.getMessage("stats.history_empty"));
+            return;
+        }
+
+        loadHistory(player, () -> plugin.getRoundHistoryStorage().getPlayerHistory(uuid, cursor, HISTORY_PAGE_SIZE),
+            (RoundHistoryStorage.PlayerRoundResult result, Map<String, String> placeholders) -> {
+                placeholders.put("round", String.valueOf(result.roundId));
+                placeholders.put("date", DATE_FORMAT.format(Instant.ofEpochSecond(result.startedAt)));
+                placeholders.put("team", formatTeam(result.teamColor));
+                placeholders.put("points", MessageUtils.formatPoints(result.points));
+                placeholders.put("result", lang.getMessage(result.won ? "stats.history_won" : "stats.history_lost"));
+            },
+            result -> result.roundId, historyCursors, "stats.history_title", "stats.history_entry", "history");
+    }
+
+    /**
+     * 終了したラウンドの一覧を新しい順に表示
+     * @param more 前回の続きから表示する場合はtrue
+     */
+    private void showRounds(Player player, boolean more) {
+        Integer cursor = more ? roundsCursors.get(player.getUniqueId()) : null;
+        if (more && cursor == null) {
+            player.sendMessage(lang.getMessage("stats.history_empty"));
+            return;
+        }
+
+        loadHistory(player, () -> plugin.getRoundHistoryStorage().getRoundHistory(cursor, HISTORY_PAGE_SIZE),
+            (RoundHistoryStorage.RoundSummary round, Map<String, String> placeholders) -> {
+                placeholders.put("round", String.valueOf(round.roundId));
+                placeholders.put("date", DATE_FORMAT.format(Instant.ofEpochSecond(round.startedAt)));
+                placeholders.put("duration", MessageUtils.formatTime(round.durationSeconds));
+                placeholders.put("winner", formatWinner(round.winnerTeam));
+                placeholders.put("players", String.valueOf(round.totalPlayers));
+            },
+            round -> round.roundId, roundsCursors, "stats.rounds_title", "stats.rounds_entry", "rounds");
+    }
+
+    /**
+     * 履歴を1ページ分非同期でロードし、メインスレッドで表示する
+     * 最後の行のラウンドIDを次のページのカーソルとして記録する
+     */
+    private <T> void loadHistory(Player player, StorageExecutor.StorageTask<List<T>> query,
+                                 BiConsumer<T, Map<String, String>> formatter,
+                                 ToIntFunction<T> roundId, Map<UUID, Integer> cursors,
+                                 String titleKey, String entryKey, String subCommand) {
+        UUID uuid = player.getUniqueId();
+
+        plugin.getStorageExecutor().supply(query)
+            .whenCompleteAsync((rows, error) -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load round history", error);
+                    player.sendMessage(lang.getMessage("stats.history_failed"));
+                    return;
+                }
+                if (rows.isEmpty()) {
+                    cursors.remove(uuid);
+                    player.sendMessage(lang.getMessage("stats.history_empty"));
+                    return;
+                }
+
+                player.sendMessage(lang.getMessage(titleKey));
+                for (T row : rows) {
+                    Map<String, String> placeholders = new HashMap<>();
+                    formatter.accept(row, placeholders);
+                    player.sendMessage(lang.getMessage(entryKey, placeholders));
+                }
+
+                if (rows.size() < HISTORY_PAGE_SIZE) {
+                    cursors.remove(uuid);
+                } else {
+                    cursors.put(uuid, roundId.applyAsInt(rows.get(rows.size() - 1)));
+                    player.sendMessage(lang.getMessage("stats.history_more", "command", "/stats " + subCommand + " more"));
+                }
+            }, plugin.getMainThreadExecutor());
+    }
+
+    /**
+     * 1ラウンドの詳細（チーム成績と上位プレイヤー）を表示
+     */
+    private void showRoundDetail(Player player, String[] args) {
+        int roundId;
+        try {
+            roundId = Integer.parseInt(args.length > 1 ? args[1] : "");
+        } catch (NumberFormatException e) {
+            player.sendMessage(lang.getMessage("stats.round_usage"));
+            return;
+        }
+
+        plugin.getStorageExecutor().supply(() -> plugin.getRoundHistoryStorage().loadRoundDetail(roundId))
+            .whenCompleteAsync((detail, error) -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load round " + roundId, error);
+                    player.sendMessage(lang.getMessage("stats.history_failed"));
+                    return;
+                }
+                if (!detail.isPresent()) {
+                    player.sendMessage(lang.getMessage("stats.round_not_found", "round", String.valueOf(roundId)));
+                    return;
+                }
+
+                sendRoundDetail(player, detail.get());
+            }, plugin.getMainThreadExecutor());
+    }
+
+    private void sendRoundDetail(Player player, RoundHistoryStorage.RoundDetail detail) {
+        RoundHistoryStorage.RoundSummary summary = detail.summary;
+
+        player.sendMessage(lang.getMessage("stats.round_title", "round", String.valueOf(summary.roundId)));
+
+        Map<String, String> info = new HashMap<>();
+        info.put("date", DATE_FORMAT.format(Instant.ofEpochSecond(summary.startedAt)));
+        info.put("duration", MessageUtils.formatTime(summary.durationSeconds));
+        info.put("players", String.valueOf(summary.totalPlayers));
+        info.put("winner", formatWinner(summary.winnerTeam));
+        player.sendMessage(lang.getMessage("stats.round_info", info));
+
+        detail.teamScores.forEach((color, score) -> {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("team", color.getFormattedName());
+            placeholders.put("points", MessageUtils.formatPoints(score.points));
+            placeholders.put("kills", String.valueOf(score.kills));
+            placeholders.put("deaths", String.valueOf(score.deaths));
+            placeholders.put("players", String.valueOf(score.playersCount));
+            player.sendMessage(lang.getMessage("stats.round_team", placeholders));
+        });
+
+        List<GameStateStorage.RoundParticipant> participants = new ArrayList<>(detail.participants);
+        participants.sort(Comparator.comparingInt((GameStateStorage.RoundParticipant p) -> p.points).reversed());
+        for (GameStateStorage.RoundParticipant participant : participants.subList(0, Math.min(DETAIL_PLAYER_LIMIT, participants.size()))) {
+            String name = Bukkit.getOfflinePlayer(participant.uuid).getName();
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("player", name != null ? name : participant.uuid.toString().substring(0, 8));
+            placeholders.put("team", formatTeam(participant.teamColor));
+            placeholders.put("points", MessageUtils.formatPoints(participant.points));
+            player.sendMessage(lang.getMessage("stats.round_player", placeholders));
+        }
+    }
+
+    private String formatTeam(TeamColor color) {
+        return color != null ? color.getFormattedName() : MessageUtils.colorize("&7-");
+    }
+
+    private String formatWinner(TeamColor color) {
+        return color != null ? color.getFormattedName() : lang.getMessage("stats.no_winner");
+    }
+
     /**
      * ヘルプメッセージを表示
      */
@@ -162,7 +419,12 @@ public class StatsCommand implements CommandExecutor {
         player.sendMessage(lang.getMessage("stats.help"));
         player.sendMessage(lang.getMessage("stats.help_usage"));
         player.sendMessage(lang.getMessage("stats.help_top"));
+        player.sendMessage(lang.getMessage("stats.help_rank"));
+        player.sendMessage(lang.getMessage("stats.help_around"));
         player.sendMessage(lang.getMessage("stats.help_teams"));
+        player.sendMessage(lang.getMessage("stats.help_history"));
+        player.sendMessage(lang.getMessage("stats.help_rounds"));
+        player.sendMessage(lang.getMessage("stats.help_round"));
     }
 
     /**
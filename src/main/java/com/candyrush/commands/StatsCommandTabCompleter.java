@@ -17,6 +17,11 @@ public class StatsCommandTabCompleter implements TabCompleter {
     private static final List<String> SUBCOMMANDS = Arrays.asList(
         "top",
         "teams",
+        "rank",
+        "around",
+        "history",
+        "rounds",
+        "round",
         "help"
     );
 
@@ -29,6 +34,12 @@ public class StatsCommandTabCompleter implements TabCompleter {
                 .collect(Collectors.toList());
         }
 
+        // 第2引数（履歴の続き）
+        if (args.length == 2 && (args[0].equalsIgnoreCase("history") || args[0].equalsIgnoreCase("rounds"))
+                && "more".startsWith(args[1].toLowerCase())) {
+            return new ArrayList<>(Arrays.asList("more"));
+        }
+
         return new ArrayList<>();
     }
 }
@@ -36,10 +36,26 @@ public class MythicMobsIntegration {
             // MythicMobs is loaded if we got the instance
             // No need to check isLoaded() in newer versions
 
-            // Copy MythicMobs configuration files if they don't exist
-            copyMythicMobsConfigs();
-
             initialized = true;
+
+            // Copy MythicMobs configuration files if they don't exist (on the I/O threads),
+            // then reload MythicMobs and validate the mob types back on the main thread
+            java.io.File mythicMobsDataFolder = plugin.getServer().getPluginManager().getPlugin("MythicMobs").getDataFolder();
+            plugin.getStorageExecutor().supplyFile(() -> copyMythicMobsConfigs(mythicMobsDataFolder))
+                .thenAcceptAsync(copied -> {
+                    if (copied > 0) {
+                        reloadMythicMobs();
+                    }
+                    if (!validateRequiredMobs()) {
+                        plugin.getLogger().warning("Some required MythicMobs are missing - check warnings above");
+                        plugin.getLogger().warning("The plugin will continue, but events/bosses may not work correctly");
+                    }
+                }, plugin.getMainThreadExecutor())
+                .exceptionally(e -> {
+                    plugin.getLogger().warning("Failed to copy MythicMobs configs: " + e.getMessage());
+                    return null;
+                });
+
             plugin.getLogger().info("MythicMobs integration initialized successfully");
             return true;
 
@@ -205,11 +221,15 @@ public class MythicMobsIntegration {
 
     /**
      * Copy MythicMobs configuration files from plugin resources
+     * Runs on the I/O threads: only touches files, never the server
+     * @param mythicMobsDataFolder MythicMobs plugin folder
+     * @return Number of files copied
      */
-    private void copyMythicMobsConfigs() {
-        java.io.File mythicMobsFolder = new java.io.File(plugin.getServer().getPluginManager().getPlugin("MythicMobs").getDataFolder(), "Mobs");
-        java.io.File dropTablesFolder = new java.io.File(plugin.getServer().getPluginManager().getPlugin("MythicMobs").getDataFolder(), "DropTables");
-        java.io.File skillsFolder = new java.io.File(plugin.getServer().getPluginManager().getPlugin("MythicMobs").getDataFolder(), "Skills");
+    private int copyMythicMobsConfigs(java.io.File mythicMobsDataFolder) {
+        java.io.File mythicMobsFolder = new java.io.File(mythicMobsDataFolder, "Mobs");
+        java.io.File dropTablesFolder = new java.io.File(mythicMobsDataFolder, "DropTables");
+        java.io.File skillsFolder = new java.io.File(mythicMobsDataFolder, "Skills");
+        int copied = 0;
 
         if (!mythicMobsFolder.exists()) {
             mythicMobsFolder.mkdirs();
@@ -241,6 +261,7 @@ public class MythicMobsIntegration {
                     if (inputStream != null) {
                         java.nio.file.Files.copy(inputStream, targetFile.toPath());
                         plugin.getLogger().info("Copied MythicMobs config: " + fileName);
+                        copied++;
                         inputStream.close();
                     } else {
                         plugin.getLogger().warning("Could not find resource: mythicmobs/mobs/" + fileName);
@@ -265,6 +286,7 @@ public class MythicMobsIntegration {
                     if (inputStream != null) {
                         java.nio.file.Files.copy(inputStream, targetFile.toPath());
                         plugin.getLogger().info("Copied MythicMobs drop table: " + fileName);
+                        copied++;
                         inputStream.close();
                     } else {
                         plugin.getLogger().warning("Could not find resource: mythicmobs/droptables/" + fileName);
@@ -289,6 +311,7 @@ public class MythicMobsIntegration {
                     if (inputStream != null) {
                         java.nio.file.Files.copy(inputStream, targetFile.toPath());
                         plugin.getLogger().info("Copied MythicMobs skills: " + fileName);
+                        copied++;
                         inputStream.close();
                     } else {
                         plugin.getLogger().warning("Could not find resource: mythicmobs/skills/" + fileName);
@@ -299,7 +322,13 @@ public class MythicMobsIntegration {
             }
         }
 
-        // Reload MythicMobs to pick up new configurations
+        return copied;
+    }
+
+    /**
+     * Reload MythicMobs to pick up new configurations
+     */
+    private void reloadMythicMobs() {
         try {
             plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), "mm reload");
             plugin.getLogger().info("Reloaded MythicMobs configuration");
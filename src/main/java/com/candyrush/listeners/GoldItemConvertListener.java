@@ -2,6 +2,7 @@ package com.candyrush.listeners;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.GameState;
+import com.candyrush.models.PointSource;
 import com.candyrush.utils.MessageUtils;
 import org.bukkit.Material;
 import org.bukkit.Sound;
@@ -66,7 +67,7 @@ public class GoldItemConvertListener implements Listener {
         int totalPoints = pointsPerItem * amount;
 
         // ポイントを付与
-        plugin.getPlayerManager().addPoints(player.getUniqueId(), totalPoints);
+        plugin.getPlayerManager().addPoints(player.getUniqueId(), totalPoints, PointSource.GOLD_CONVERT);
 
         // アイテムを削除
         player.getInventory().setItemInMainHand(null);
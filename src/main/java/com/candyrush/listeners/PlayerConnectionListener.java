@@ -6,7 +6,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
@@ -20,9 +22,33 @@ public class PlayerConnectionListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * ログイン前（非同期スレッド）にプレイヤーデータを読み込む
+     * 他プラグインの許可判定が終わった後に実行するためMONITOR
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // 失敗しても参加は許可し、参加時の通常読み込みに任せる
+        plugin.getPlayerManager().preloadPlayerData(event.getUniqueId(), event.getName());
+    }
+
+    /**
+     * ログインが拒否された場合（満員・ホワイトリスト等）は先読みデータを破棄
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getPlayerManager().discardPreloadedData(event.getPlayer().getUniqueId());
+        }
+    }
+
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        // プレイヤーデータの読み込みまたは作成
+        // 先読み済みのプレイヤーデータを取得（未読み込みの場合のみDBアクセス）
         plugin.getPlayerManager().handlePlayerJoin(event.getPlayer());
 
         var player = event.getPlayer();
@@ -2,6 +2,7 @@ package com.candyrush.listeners;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.ChestType;
+import com.candyrush.models.PointSource;
 import com.candyrush.utils.MessageUtils;
 import org.bukkit.*;
 import org.bukkit.block.Block;
@@ -113,7 +114,7 @@ public class TreasureChestListener implements Listener {
             int points = calculateFoodPoints(clickedItem);
 
             // ポイントを加算
-            plugin.getPlayerManager().addPoints(player.getUniqueId(), points);
+            plugin.getPlayerManager().addPoints(player.getUniqueId(), points, PointSource.TREASURE_CHEST);
 
             // メッセージ表示
             MessageUtils.sendActionBar(player, "&e&l+" + points + "pt &7" + clickedItem.getType().name() + " x" + clickedItem.getAmount());
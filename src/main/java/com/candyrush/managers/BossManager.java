@@ -2,6 +2,7 @@ package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
 import com.candyrush.models.TeamColor;
 import com.candyrush.utils.MessageUtils;
 import io.lumine.mythic.core.mobs.ActiveMob;
@@ -25,6 +26,7 @@ public class BossManager {
     private final Set<UUID> activeBosses; // 現在アクティブなボスのUUID
     private final Map<UUID, UUID> bossOwners; // ボスUUID -> 召喚したプレイヤーUUID
     private final Map<UUID, org.bukkit.boss.BossBar> bossBars; // ボスUUID -> BossBar
+    private final Map<UUID, GameScheduler.Job> healthUpdateTasks; // ボスUUID -> HP更新ジョブ
     private int maxActiveBosses = 1; // 同時に存在できるボスの最大数
 
     public BossManager(CandyRushPlugin plugin) {
@@ -33,6 +35,7 @@ public class BossManager {
         this.activeBosses = ConcurrentHashMap.newKeySet();
         this.bossOwners = new ConcurrentHashMap<>();
         this.bossBars = new ConcurrentHashMap<>();
+        this.healthUpdateTasks = new ConcurrentHashMap<>();
     }
 
     /**
@@ -164,8 +167,7 @@ public class BossManager {
         // キラーにポイント付与
         int bossPoints = 500; // ボス討伐ボーナス
         PlayerData killerData = plugin.getPlayerManager().getOrCreatePlayerData(killer);
-        killerData.addPoints(bossPoints);
-        plugin.getPlayerManager().savePlayerData(killerData);
+        plugin.getPlayerManager().addPoints(killerData, bossPoints, PointSource.BOSS_KILL);
 
         // チームにもポイント付与
         TeamColor teamColor = killerData.getTeamColor();
@@ -265,33 +267,41 @@ public class BossManager {
      * ボスのHP更新タスクを開始
      */
     private void startBossHealthUpdateTask(UUID bossUuid, org.bukkit.entity.LivingEntity boss, org.bukkit.boss.BossBar bossBar) {
-        Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
-            @Override
-            public void run() {
-                // ボスが死んでいるか存在しない場合
-                if (!boss.isValid() || boss.isDead() || !activeBosses.contains(bossUuid)) {
-                    removeBossBar(bossUuid);
-                    return;
-                }
+        GameScheduler.Job task = plugin.getGameScheduler().schedule("boss-health", 0L, 10L, () -> {
+            // ボスが死んでいるか存在しない場合
+            if (!boss.isValid() || boss.isDead() || !activeBosses.contains(bossUuid)) {
+                removeBossBar(bossUuid);
+                return;
+            }
 
-                // HP更新
-                double healthPercentage = boss.getHealth() / boss.getMaxHealth();
-                bossBar.setProgress(Math.max(0.0, Math.min(1.0, healthPercentage)));
+            // HP更新
+            double healthPercentage = boss.getHealth() / boss.getMaxHealth();
+            bossBar.setProgress(Math.max(0.0, Math.min(1.0, healthPercentage)));
 
-                // 新しく参加したプレイヤーにも表示
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    if (!bossBar.getPlayers().contains(player)) {
-                        bossBar.addPlayer(player);
-                    }
+            // 新しく参加したプレイヤーにも表示
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (!bossBar.getPlayers().contains(player)) {
+                    bossBar.addPlayer(player);
                 }
             }
-        }, 0L, 10L); // 0.5秒ごとに更新
+        }); // 0.5秒ごとに更新
+
+        // ボスが死んだら removeBossBar で止める
+        GameScheduler.Job previous = healthUpdateTasks.put(bossUuid, task);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
     /**
      * ボスバーを削除
      */
     private void removeBossBar(UUID bossUuid) {
+        GameScheduler.Job task = healthUpdateTasks.remove(bossUuid);
+        if (task != null) {
+            task.cancel();
+        }
+
         org.bukkit.boss.BossBar bossBar = bossBars.remove(bossUuid);
         if (bossBar != null) {
             bossBar.removeAll();
@@ -0,0 +1,210 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.storage.StaleChestIndex;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * マップ範囲のチャンクを事前に読み込むマネージャー
+ * カウントダウン中に同時読み込み数を制限して非同期で読み込み、プラグインのチャンクチケットで保持する
+ * ゲーム開始時の宝箱・NPCの配置やテレポートで未読み込みのチャンクを読むことがなくなる
+ * チケットはラウンド終了時（またはカウントダウンの中止時）に解放する
+ */
+public class ChunkPrewarmManager {
+
+    private final CandyRushPlugin plugin;
+    private final Deque<Long> queue;
+    private final Set<Long> ticketed;
+    private GameScheduler.Job loadTask;
+    private CompletableFuture<Void> completion;
+    private World world;
+    private int generation;  // 中止した読み込みの完了を無視するため
+    private int inFlight;
+    private int loaded;
+    private int total;
+    private int nextReportPercent;
+    private long startedAt;
+
+    public ChunkPrewarmManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.queue = new ArrayDeque<>();
+        this.ticketed = new HashSet<>();
+        this.completion = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        plugin.getLogger().info("ChunkPrewarmManager initialized");
+    }
+
+    /**
+     * マップ範囲のチャンクの読み込みを開始（中心に近いチャンクから）
+     * 前回のチケットは解放する
+     * @param world ワールド
+     * @param center マップ中心
+     * @param radius マップ半径（ブロック）
+     */
+    public void start(World world, Location center, int radius) {
+        releaseTickets();
+        if (!plugin.getConfigManager().isChunkPrewarmEnabled()) {
+            return;
+        }
+
+        this.world = world;
+        int centerChunkX = center.getBlockX() >> 4;
+        int centerChunkZ = center.getBlockZ() >> 4;
+        int chunkRadius = radius >> 4;
+
+        // 宝箱の配置と同じ範囲（中心チャンクから半径分の正方形）
+        List<Long> chunks = new ArrayList<>();
+        for (int chunkX = centerChunkX - chunkRadius; chunkX <= centerChunkX + chunkRadius; chunkX++) {
+            for (int chunkZ = centerChunkZ - chunkRadius; chunkZ <= centerChunkZ + chunkRadius; chunkZ++) {
+                chunks.add(StaleChestIndex.chunkKey(chunkX, chunkZ));
+            }
+        }
+        chunks.sort(Comparator.comparingLong(key -> {
+            long dx = StaleChestIndex.chunkX(key) - centerChunkX;
+            long dz = StaleChestIndex.chunkZ(key) - centerChunkZ;
+            return dx * dx + dz * dz;
+        }));
+
+        queue.addAll(chunks);
+        total = chunks.size();
+        loaded = 0;
+        inFlight = 0;
+        nextReportPercent = 25;
+        startedAt = System.currentTimeMillis();
+        completion = new CompletableFuture<>();
+
+        loadTask = plugin.getGameScheduler().schedule("chunk-prewarm", 1L, 1L, this::issueLoads);
+        plugin.getLogger().info("Pre-warming " + total + " chunks around X=" + center.getBlockX() + ", Z="
+            + center.getBlockZ() + " (max " + plugin.getConfigManager().getChunkPrewarmMaxInFlight() + " in flight)");
+    }
+
+    /**
+     * 同時読み込み数の上限まで非同期の読み込みを発行
+     */
+    private void issueLoads() {
+        int maxInFlight = plugin.getConfigManager().getChunkPrewarmMaxInFlight();
+        int current = generation;
+
+        while (inFlight < maxInFlight && !queue.isEmpty()) {
+            long key = queue.poll();
+            int chunkX = StaleChestIndex.chunkX(key);
+            int chunkZ = StaleChestIndex.chunkZ(key);
+            inFlight++;
+
+            // 読み込み完了はメインスレッドで通知される
+            world.getChunkAtAsync(chunkX, chunkZ).whenComplete((chunk, error) -> {
+                if (current != generation) {
+                    return; // 中止済み
+                }
+                inFlight--;
+                if (error != null || chunk == null) {
+                    plugin.getLogger().fine("Failed to pre-warm chunk " + chunkX + ", " + chunkZ
+                        + (error != null ? ": " + error.getMessage() : ""));
+                } else if (chunk.addPluginChunkTicket(plugin)) {
+                    ticketed.add(key);
+                }
+                loaded++;
+                reportProgress();
+            });
+        }
+
+        if (queue.isEmpty() && loadTask != null) {
+            loadTask.cancel();
+            loadTask = null;
+        }
+    }
+
+    /**
+     * 25%ごとと完了時に進み具合をログに出す
+     */
+    private void reportProgress() {
+        if (loaded >= total) {
+            plugin.getLogger().info("Pre-warmed " + total + " chunks in " + (System.currentTimeMillis() - startedAt)
+                + "ms (" + ticketed.size() + " held)");
+            completion.complete(null);
+            return;
+        }
+
+        int percent = loaded * 100 / total;
+        if (percent >= nextReportPercent) {
+            plugin.getLogger().info("Chunk pre-warm " + percent + "% (" + loaded + "/" + total + ")");
+            nextReportPercent += 25;
+        }
+    }
+
+    /**
+     * 読み込みが終わると完了するFuture（開始していない場合・中止した場合は完了済み）
+     * 完了はメインスレッドで通知される
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * 読み込みを中止してチケットを解放（ラウンド終了時・カウントダウン中止時）
+     */
+    public void releaseTickets() {
+        generation++;
+        if (loadTask != null) {
+            loadTask.cancel();
+            loadTask = null;
+        }
+        queue.clear();
+        inFlight = 0;
+        completion.complete(null);  // 待っている処理を止めない
+
+        if (world != null && !ticketed.isEmpty()) {
+            for (long key : ticketed) {
+                world.removePluginChunkTicket(StaleChestIndex.chunkX(key), StaleChestIndex.chunkZ(key), plugin);
+            }
+            plugin.getLogger().info("Released " + ticketed.size() + " pre-warmed chunk tickets");
+        }
+        ticketed.clear();
+        total = 0;
+        loaded = 0;
+    }
+
+    /**
+     * 読み込んだチャンク数（デバッグ用）
+     */
+    public int getLoadedCount() {
+        return loaded;
+    }
+
+    /**
+     * 読み込む予定のチャンク数（デバッグ用）
+     */
+    public int getTotalCount() {
+        return total;
+    }
+
+    /**
+     * チケットで保持しているチャンク数（デバッグ用）
+     */
+    public int getTicketCount() {
+        return ticketed.size();
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        releaseTickets();
+        plugin.getLogger().info("ChunkPrewarmManager shutdown complete");
+    }
+}
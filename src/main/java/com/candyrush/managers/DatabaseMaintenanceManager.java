@@ -0,0 +1,456 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.GameState;
+import com.candyrush.storage.MaintenanceStorage;
+import com.candyrush.storage.StorageExecutor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * ラウンドが行われていない間（クールダウン・待機中）にデータベースを整理するマネージャー
+ * 保存期間を過ぎたラウンドのアーカイブ、終了したラウンドの宝箱・NPCレコードの削除、ANALYZE、
+ * インクリメンタルVACUUM、WALのチェックポイントを
+ * 小さな単位に分けてストレージスレッドで1つずつ実行する
+ * ゲームが始まると中断し、次のアイドル期間に続きから再開する
+ */
+public class DatabaseMaintenanceManager {
+
+    private final CandyRushPlugin plugin;
+    private final boolean enabled;
+    private final Set<Integer> clearedRounds;  // ワールドから片付け済みで、レコードを削除できるラウンド
+    private GameScheduler.Job sliceTask;
+    private MaintenanceRun currentRun;
+    private boolean sliceInFlight;
+    private boolean runRequested;
+    private long nextScheduledRunMillis;
+    private MaintenanceReport lastReport;
+
+    public DatabaseMaintenanceManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfigManager().isMaintenanceEnabled();
+        this.clearedRounds = new LinkedHashSet<>();
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        if (!enabled) {
+            plugin.getLogger().info("DatabaseMaintenanceManager disabled by config");
+            return;
+        }
+
+        nextScheduledRunMillis = System.currentTimeMillis() + getIntervalMillis();
+        long interval = Math.max(1, plugin.getConfigManager().getMaintenanceSliceIntervalTicks());
+        sliceTask = plugin.getGameScheduler().schedule("db-maintenance", interval, interval, this::tick);
+
+        plugin.getLogger().info("DatabaseMaintenanceManager initialized");
+    }
+
+    /**
+     * 宝箱・NPCを片付け終えたラウンドを登録（メインスレッドから呼ぶ）
+     * 次のアイドル期間にそのラウンドのレコードを削除する
+     * @param roundId ゲームラウンドID
+     */
+    public void markRoundCleared(int roundId) {
+        clearedRounds.add(roundId);
+        runRequested = true;
+    }
+
+    /**
+     * 次のアイドル期間にメンテナンスを実行するよう要求
+     * @return 無効化されている場合はfalse
+     */
+    public boolean requestRun() {
+        if (!enabled) {
+            return false;
+        }
+        runRequested = true;
+        return true;
+    }
+
+    /**
+     * 1単位分の処理を進める（タイマーから呼ばれる）
+     * 前の処理が終わっていない場合、ゲーム中、統計のエクスポート中は何もしない
+     */
+    private void tick() {
+        // エクスポート中はアーカイブでラウンドが移動して重複・欠落しないよう待つ
+        if (sliceInFlight || !isIdle() || plugin.getStatsExportManager().isRunning()) {
+            return;
+        }
+
+        if (currentRun == null) {
+            if (!runRequested && System.currentTimeMillis() < nextScheduledRunMillis) {
+                return;
+            }
+            runRequested = false;
+            currentRun = new MaintenanceRun(new ArrayList<>(clearedRounds), getArchiveCutoff());
+        }
+
+        runNextSlice(currentRun);
+    }
+
+    private boolean isIdle() {
+        GameState state = plugin.getGameManager().getCurrentState();
+        return state == GameState.WAITING || state == GameState.COOLDOWN;
+    }
+
+    /**
+     * 現在のステップの処理を1単位だけストレージスレッドに投げる
+     */
+    private void runNextSlice(MaintenanceRun run) {
+        MaintenanceStorage storage = plugin.getMaintenanceStorage();
+        int purgeBatchSize = Math.max(1, plugin.getConfigManager().getMaintenancePurgeBatchSize());
+        int vacuumPages = Math.max(1, plugin.getConfigManager().getMaintenanceVacuumPages());
+
+        switch (run.step) {
+            case ARCHIVE_ROUNDS:
+                int archiveBatchSize = Math.max(1, plugin.getConfigManager().getArchiveBatchSize());
+                runSlice(run, () -> plugin.getRoundHistoryStorage().archiveRounds(run.archiveCutoff, archiveBatchSize),
+                    archived -> {
+                        run.report.roundsArchived += archived;
+                        if (archived < archiveBatchSize) {
+                            run.nextStep();
+                        }
+                    });
+                break;
+            case PURGE_CHESTS:
+                runSlice(run, () -> plugin.getTreasureChestStorage().deleteRoundChests(run.roundIds, purgeBatchSize),
+                    deleted -> {
+                        run.report.chestRowsPurged += deleted;
+                        if (deleted < purgeBatchSize) {
+                            run.nextStep();
+                        }
+                    });
+                break;
+            case PURGE_NPCS:
+                runSlice(run, () -> plugin.getEventNpcStorage().deleteRoundNpcs(run.roundIds, purgeBatchSize),
+                    deleted -> {
+                        run.report.npcRowsPurged += deleted;
+                        if (deleted < purgeBatchSize) {
+                            run.nextStep();
+                        }
+                    });
+                break;
+            case ANALYZE:
+                if (run.tables == null) {
+                    runSlice(run, storage::getTableNames, tables -> {
+                        run.tables = new ArrayDeque<>(tables);
+                        if (run.tables.isEmpty()) {
+                            run.nextStep();
+                        }
+                    });
+                } else {
+                    String table = run.tables.poll();
+                    int analysisLimit = plugin.getConfigManager().getMaintenanceAnalysisLimit();
+                    runSlice(run, () -> {
+                        storage.analyze(table, analysisLimit);
+                        return null;
+                    }, ignored -> {
+                        run.report.tablesAnalyzed++;
+                        if (run.tables.isEmpty()) {
+                            run.nextStep();
+                        }
+                    });
+                }
+                break;
+            case INCREMENTAL_VACUUM:
+                runSlice(run, () -> storage.incrementalVacuum(vacuumPages), result -> {
+                    run.report.pagesReleased += result.getReleasedPages();
+                    if (result.getRemainingPages() == 0 || result.getReleasedPages() == 0) {
+                        run.nextStep();
+                    }
+                });
+                break;
+            case WAL_CHECKPOINT:
+                runSlice(run, storage::checkpointWal, result -> {
+                    run.report.walFramesCheckpointed = result.getCheckpointedFrames();
+                    run.report.walBusy = result.isBusy();
+                    run.nextStep();
+                });
+                break;
+            default:
+                finishRun(run);
+                break;
+        }
+    }
+
+    /**
+     * 処理を実行し、完了後にメインスレッドで結果を反映する
+     * 失敗したステップは飛ばして次に進む
+     */
+    private <T> void runSlice(MaintenanceRun run, StorageExecutor.StorageTask<T> task, Consumer<T> onComplete) {
+        sliceInFlight = true;
+        long[] elapsedNanos = new long[1];
+
+        plugin.getStorageExecutor().supply(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    elapsedNanos[0] = System.nanoTime() - start;
+                }
+            })
+            .whenCompleteAsync((result, error) -> {
+                sliceInFlight = false;
+                if (run != currentRun) {
+                    return;
+                }
+
+                run.report.recordSlice(elapsedNanos[0]);
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Database maintenance step " + run.step + " failed", error);
+                    run.report.failures++;
+                    if (run.step == Step.PURGE_CHESTS || run.step == Step.PURGE_NPCS) {
+                        run.purgeFailed = true;
+                    }
+                    run.nextStep();
+                } else {
+                    onComplete.accept(result);
+                }
+
+                if (run.step == Step.DONE) {
+                    finishRun(run);
+                }
+            }, plugin.getMainThreadExecutor());
+    }
+
+    /**
+     * メンテナンスを終了して結果を記録
+     */
+    private void finishRun(MaintenanceRun run) {
+        if (!run.purgeFailed) {
+            run.roundIds.forEach(clearedRounds::remove);
+        }
+
+        run.report.finish();
+        lastReport = run.report;
+        currentRun = null;
+        nextScheduledRunMillis = System.currentTimeMillis() + getIntervalMillis();
+
+        MaintenanceReport report = run.report;
+        plugin.getLogger().info(String.format(
+            "Database maintenance finished in %.1fs (%d slices, max %.2fms): archived %d rounds, "
+                + "purged %d chest and %d NPC rows, analyzed %d tables, released %d pages, checkpointed %d WAL frames%s",
+            report.getDurationMillis() / 1000.0, report.getSlices(), report.getMaxSliceMillis(), report.getRoundsArchived(),
+            report.getChestRowsPurged(), report.getNpcRowsPurged(), report.getTablesAnalyzed(),
+            report.getPagesReleased(), Math.max(0, report.getWalFramesCheckpointed()),
+            report.getFailures() > 0 ? " - " + report.getFailures() + " step(s) failed" : ""));
+    }
+
+    /**
+     * アーカイブ対象となるラウンド終了時刻の上限（エポック秒）
+     * @return 上限（アーカイブしない設定の場合は-1）
+     */
+    private long getArchiveCutoff() {
+        int retentionDays = plugin.getConfigManager().getArchiveRetentionDays();
+        if (retentionDays <= 0) {
+            return -1;
+        }
+        return System.currentTimeMillis() / 1000 - TimeUnit.DAYS.toSeconds(retentionDays);
+    }
+
+    private long getIntervalMillis() {
+        return TimeUnit.MINUTES.toMillis(Math.max(1, plugin.getConfigManager().getMaintenanceIntervalMinutes()));
+    }
+
+    /**
+     * 有効かどうか
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * メンテナンスを実行中かどうか（ゲーム中で一時停止している場合も含む）
+     */
+    public boolean isRunning() {
+        return currentRun != null;
+    }
+
+    /**
+     * レコード削除待ちのラウンド数を取得
+     */
+    public int getPendingRoundCount() {
+        return clearedRounds.size();
+    }
+
+    /**
+     * 最後に完了したメンテナンスの結果を取得
+     * @return 結果（まだ実行していない場合はnull）
+     */
+    public MaintenanceReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * クリーンアップ
+     * 実行中のメンテナンスは破棄し、削除待ちのレコードは次回のラウンド開始時のクリーンアップに任せる
+     */
+    public void shutdown() {
+        if (sliceTask != null) {
+            sliceTask.cancel();
+            sliceTask = null;
+        }
+        currentRun = null;
+
+        plugin.getLogger().info("DatabaseMaintenanceManager shutdown complete");
+    }
+
+    /**
+     * メンテナンスの手順
+     * VACUUMで動いたページもWALに書かれるため、チェックポイントを最後に行う
+     */
+    private enum Step {
+        ARCHIVE_ROUNDS,
+        PURGE_CHESTS,
+        PURGE_NPCS,
+        ANALYZE,
+        INCREMENTAL_VACUUM,
+        WAL_CHECKPOINT,
+        DONE
+    }
+
+    /**
+     * 実行中のメンテナンス1回分の状態（メインスレッドからのみ変更する）
+     */
+    private static class MaintenanceRun {
+        private final List<Integer> roundIds;
+        private final long archiveCutoff;
+        private final MaintenanceReport report;
+        private Step step;
+        private Deque<String> tables;
+        private boolean purgeFailed;
+
+        MaintenanceRun(List<Integer> roundIds, long archiveCutoff) {
+            this.roundIds = roundIds;
+            this.archiveCutoff = archiveCutoff;
+            this.report = new MaintenanceReport();
+            this.step = Step.ARCHIVE_ROUNDS;
+            if (isSkipped(step)) {
+                nextStep();
+            }
+        }
+
+        void nextStep() {
+            do {
+                step = Step.values()[step.ordinal() + 1];
+            } while (isSkipped(step));
+        }
+
+        /**
+         * 対象がないステップかどうか
+         */
+        private boolean isSkipped(Step candidate) {
+            switch (candidate) {
+                case ARCHIVE_ROUNDS:
+                    return archiveCutoff < 0;
+                case PURGE_CHESTS:
+                case PURGE_NPCS:
+                    return roundIds.isEmpty();
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * メンテナンス1回分の結果
+     */
+    public static class MaintenanceReport {
+        private final long startedAtMillis;
+        private long durationMillis;
+        private int slices;
+        private long maxSliceNanos;
+        private int roundsArchived;
+        private int chestRowsPurged;
+        private int npcRowsPurged;
+        private int tablesAnalyzed;
+        private int pagesReleased;
+        private int walFramesCheckpointed = -1;
+        private boolean walBusy;
+        private int failures;
+
+        MaintenanceReport() {
+            this.startedAtMillis = System.currentTimeMillis();
+        }
+
+        void recordSlice(long nanos) {
+            slices++;
+            maxSliceNanos = Math.max(maxSliceNanos, nanos);
+        }
+
+        void finish() {
+            durationMillis = System.currentTimeMillis() - startedAtMillis;
+        }
+
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        /**
+         * 開始から終了までの時間（ゲーム中の一時停止を含む）
+         */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getSlices() {
+            return slices;
+        }
+
+        /**
+         * 1単位の処理にかかった最大時間（ミリ秒）
+         */
+        public double getMaxSliceMillis() {
+            return maxSliceNanos / 1_000_000.0;
+        }
+
+        public int getRoundsArchived() {
+            return roundsArchived;
+        }
+
+        public int getChestRowsPurged() {
+            return chestRowsPurged;
+        }
+
+        public int getNpcRowsPurged() {
+            return npcRowsPurged;
+        }
+
+        public int getTablesAnalyzed() {
+            return tablesAnalyzed;
+        }
+
+        public int getPagesReleased() {
+            return pagesReleased;
+        }
+
+        /**
+         * @return チェックポイントしたWALフレーム数（WALモードでない・未実行の場合は-1）
+         */
+        public int getWalFramesCheckpointed() {
+            return walFramesCheckpointed;
+        }
+
+        /**
+         * @return 読み込み中の接続があり、WALを最後まで書き戻せなかった場合はtrue
+         */
+        public boolean isWalBusy() {
+            return walBusy;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.PointSource;
+import com.candyrush.storage.EventNpcStorage;
+import com.candyrush.storage.PendingBatch;
 import com.candyrush.utils.MessageUtils;
 import io.lumine.mythic.core.mobs.ActiveMob;
 import org.bukkit.*;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,12 +21,15 @@ import java.util.logging.Level;
  */
 public class EventNpcManager {
 
+    private static final long FLUSH_DELAY_TICKS = 20L;
+
     private final CandyRushPlugin plugin;
     private final Map<UUID, DefenseEvent> activeDefenseEvents;
     private final Map<UUID, NpcData> activeNpcs;  // Entity UUID -> NPC Data
     private final Map<UUID, Long> playerHelpMessageCooldown;  // Player UUID -> Last message time
     private final Map<UUID, Integer> playerDefenseClearCount;  // Player UUID -> Clear count
-    private BukkitTask proximityCheckTask;
+    private final PendingBatch<EventNpcStorage.NpcPlacement> pendingNpcInserts;  // DB保存待ちのNPC
+    private GameScheduler.Job proximityCheckTask;
     private Integer currentRoundId;
 
     public EventNpcManager(CandyRushPlugin plugin) {
@@ -36,6 +38,7 @@ public class EventNpcManager {
         this.activeNpcs = new ConcurrentHashMap<>();
         this.playerHelpMessageCooldown = new ConcurrentHashMap<>();
         this.playerDefenseClearCount = new ConcurrentHashMap<>();
+        this.pendingNpcInserts = new PendingBatch<>();
         this.currentRoundId = null;
     }
 
@@ -100,6 +103,8 @@ public class EventNpcManager {
                                 List<int[]> coordinates, int index) {
         if (index >= coordinates.size()) {
             plugin.getLogger().info("Spawned " + activeNpcs.size() + " event NPCs in the map");
+            // 配置完了時点で残りをまとめて保存
+            flushNpcInsertsAsync();
             return;
         }
 
@@ -174,9 +179,9 @@ public class EventNpcManager {
             NpcData npcData = new NpcData(entityUuid, location, npcType);
             activeNpcs.put(entityUuid, npcData);
 
-            // データベースに保存（UUIDを含む）
+            // データベース保存待ちに追加（UUIDを含む、まとめて非同期で保存）
             if (currentRoundId != null) {
-                saveNpcToDatabase(location, npcType, currentRoundId, entityUuid);
+                queueNpcInsert(location, npcType, currentRoundId, entityUuid);
             }
 
             plugin.getLogger().fine("Spawned event NPC at " + formatLocation(location) +
@@ -253,7 +258,7 @@ public class EventNpcManager {
             int rewardMax = plugin.getConfigManager().getRewardPointsMax();
             int reward = rewardMin + new Random().nextInt(rewardMax - rewardMin + 1);
 
-            plugin.getPlayerManager().addPoints(playerUuid, reward);
+            plugin.getPlayerManager().addPoints(playerUuid, reward, PointSource.DEFENSE_REWARD);
 
             // クリア回数をカウント
             int clearCount = playerDefenseClearCount.getOrDefault(playerUuid, 0) + 1;
@@ -352,7 +357,7 @@ public class EventNpcManager {
             proximityCheckTask.cancel();
         }
 
-        proximityCheckTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        proximityCheckTask = plugin.getGameScheduler().schedule("npc-proximity", 20L, 20L, () -> {
             if (!plugin.getGameManager().isGameRunning()) {
                 return;
             }
@@ -387,7 +392,7 @@ public class EventNpcManager {
                     }
                 }
             }
-        }, 20L, 20L); // 1秒ごとにチェック
+        }); // 1秒ごとにチェック
     }
 
     /**
@@ -424,6 +429,18 @@ public class EventNpcManager {
      * 全NPCを削除
      */
     public void removeAllNpcs() {
+        removeNpcs(beginNpcRemoval().keySet());
+        activeNpcs.clear();
+
+        plugin.getLogger().info("All event NPCs removed");
+    }
+
+    /**
+     * NPCの片付けを開始（防衛イベントを終了して、残っているNPCとスポーン位置を返す）
+     * 返したNPCは removeNpcs で少しずつ削除する（ゲーム終了後に複数tickに分けて片付けるため）
+     * @return NPCのエンティティUUIDとスポーン位置
+     */
+    public Map<UUID, Location> beginNpcRemoval() {
         // すべての防衛イベントを終了
         for (UUID playerUuid : new HashSet<>(activeDefenseEvents.keySet())) {
             DefenseEvent event = activeDefenseEvents.remove(playerUuid);
@@ -432,19 +449,30 @@ public class EventNpcManager {
             }
         }
 
-        // 全NPCエンティティを削除
-        for (UUID npcUuid : new HashSet<>(activeNpcs.keySet())) {
+        playerHelpMessageCooldown.clear();
+        playerDefenseClearCount.clear();
+
+        Map<UUID, Location> npcs = new HashMap<>();
+        for (NpcData data : activeNpcs.values()) {
+            npcs.put(data.getEntityUuid(), data.getSpawnLocation());
+        }
+        return npcs;
+    }
+
+    /**
+     * 指定したNPCのエンティティを削除
+     * @param npcUuids NPCのエンティティUUID
+     */
+    public void removeNpcs(Collection<UUID> npcUuids) {
+        for (UUID npcUuid : npcUuids) {
+            if (activeNpcs.remove(npcUuid) == null) {
+                continue;
+            }
             Entity npc = Bukkit.getEntity(npcUuid);
             if (npc != null && npc.isValid()) {
                 npc.remove();
             }
         }
-
-        activeNpcs.clear();
-        playerHelpMessageCooldown.clear();
-        playerDefenseClearCount.clear();
-
-        plugin.getLogger().info("All event NPCs removed");
     }
 
     /**
@@ -459,6 +487,7 @@ public class EventNpcManager {
      */
     public void shutdown() {
         removeAllNpcs();
+        flushNpcInsertsNow();
 
         if (proximityCheckTask != null) {
             proximityCheckTask.cancel();
@@ -470,27 +499,22 @@ public class EventNpcManager {
 
     /**
      * データベースから古いラウンドのNPCを削除
+     * 検索と削除は非同期、エンティティの削除のみメインスレッドで行う
      */
     private void deleteOldNpcsFromDatabase(int newRoundId, World world) {
-        try (Connection conn = plugin.getDatabaseInitializer().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT id, entity_uuid FROM event_npcs WHERE round_id != ? AND world = ?")) {
-
-            stmt.setInt(1, newRoundId);
-            stmt.setString(2, world.getName());
+        EventNpcStorage storage = plugin.getEventNpcStorage();
+        String worldName = world.getName();
 
-            ResultSet rs = stmt.executeQuery();
-            List<Integer> dbIdsToDelete = new ArrayList<>();
-            int deletedEntities = 0;
+        plugin.getStorageExecutor().supply(() -> storage.loadStaleNpcs(newRoundId, worldName))
+            .thenApplyAsync(npcs -> {
+                List<Integer> dbIdsToDelete = new ArrayList<>();
+                int deletedEntities = 0;
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String uuidString = rs.getString("entity_uuid");
+                for (EventNpcStorage.StoredNpc npc : npcs) {
+                    UUID entityUuid = npc.getEntityUuid();
 
-                // UUIDを使ってエンティティを削除
-                if (uuidString != null) {
-                    try {
-                        UUID entityUuid = UUID.fromString(uuidString);
+                    // UUIDを使ってエンティティを削除
+                    if (entityUuid != null) {
                         Entity entity = Bukkit.getEntity(entityUuid);
 
                         if (entity != null) {
@@ -498,60 +522,70 @@ public class EventNpcManager {
                             deletedEntities++;
                             plugin.getLogger().fine("Removed old NPC entity: " + entityUuid);
                         }
-                    } catch (IllegalArgumentException e) {
-                        plugin.getLogger().warning("Invalid UUID in database: " + uuidString);
                     }
-                }
-
-                dbIdsToDelete.add(id);
-            }
 
-            rs.close();
-
-            // データベースから削除
-            if (!dbIdsToDelete.isEmpty()) {
-                String placeholders = String.join(",", Collections.nCopies(dbIdsToDelete.size(), "?"));
-                try (PreparedStatement deleteStmt = conn.prepareStatement(
-                        "DELETE FROM event_npcs WHERE id IN (" + placeholders + ")")) {
-
-                    for (int i = 0; i < dbIdsToDelete.size(); i++) {
-                        deleteStmt.setInt(i + 1, dbIdsToDelete.get(i));
-                    }
-                    int deleted = deleteStmt.executeUpdate();
+                    dbIdsToDelete.add(npc.getId());
+                }
 
-                    plugin.getLogger().info("Deleted " + deleted + " old NPC records from database (" +
+                if (!dbIdsToDelete.isEmpty()) {
+                    plugin.getLogger().info("Deleting " + dbIdsToDelete.size() + " old NPC records from database (" +
                                           deletedEntities + " entities removed)");
                 }
-            }
+                return dbIdsToDelete;
+            }, plugin.getMainThreadExecutor())
+            .thenCompose(ids -> plugin.getStorageExecutor().supply(() -> storage.deleteNpcs(ids)))
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to delete old NPCs from database", e);
+                return 0;
+            });
+    }
 
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to delete old NPCs from database", e);
+    /**
+     * NPCをデータベース保存待ちに追加
+     * 連続したティックのスポーンは1トランザクションにまとめる
+     */
+    private void queueNpcInsert(Location location, String npcType, int roundId, UUID entityUuid) {
+        EventNpcStorage.NpcPlacement placement = new EventNpcStorage.NpcPlacement(
+            roundId, entityUuid, location.getWorld().getName(),
+            location.getX(), location.getY(), location.getZ(),
+            location.getYaw(), location.getPitch(), npcType, System.currentTimeMillis() / 1000);
+
+        if (pendingNpcInserts.add(placement)) {
+            Bukkit.getScheduler().runTaskLater(plugin, this::flushNpcInsertsAsync, FLUSH_DELAY_TICKS);
+        }
+    }
+
+    /**
+     * 保存待ちのNPCを非同期でまとめて保存
+     */
+    private void flushNpcInsertsAsync() {
+        List<EventNpcStorage.NpcPlacement> npcs = pendingNpcInserts.drain();
+        if (npcs.isEmpty()) {
+            return;
         }
+
+        EventNpcStorage storage = plugin.getEventNpcStorage();
+        plugin.getStorageExecutor().run(() -> storage.saveNpcs(npcs))
+            .whenComplete((ignored, e) -> {
+                if (e != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to save " + npcs.size() + " NPCs to database", e);
+                }
+            });
     }
 
     /**
-     * NPCをデータベースに保存
+     * 保存待ちのNPCを同期的に保存（シャットダウン時）
      */
-    private void saveNpcToDatabase(Location location, String npcType, int roundId, UUID entityUuid) {
-        try (Connection conn = plugin.getDatabaseInitializer().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "INSERT INTO event_npcs (round_id, entity_uuid, world, x, y, z, yaw, pitch, npc_type, spawned_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
-
-            stmt.setInt(1, roundId);
-            stmt.setString(2, entityUuid.toString());
-            stmt.setString(3, location.getWorld().getName());
-            stmt.setDouble(4, location.getX());
-            stmt.setDouble(5, location.getY());
-            stmt.setDouble(6, location.getZ());
-            stmt.setFloat(7, location.getYaw());
-            stmt.setFloat(8, location.getPitch());
-            stmt.setString(9, npcType);
-            stmt.setLong(10, System.currentTimeMillis() / 1000);
-
-            stmt.executeUpdate();
+    private void flushNpcInsertsNow() {
+        List<EventNpcStorage.NpcPlacement> npcs = pendingNpcInserts.drain();
+        if (npcs.isEmpty()) {
+            return;
+        }
 
+        try {
+            plugin.getEventNpcStorage().saveNpcs(npcs);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to save NPC to database at " + formatLocation(location), e);
+            plugin.getLogger().log(Level.WARNING, "Failed to save " + npcs.size() + " NPCs to database", e);
         }
     }
 
@@ -597,7 +631,7 @@ public class EventNpcManager {
         private final int totalDuration;
         private int currentWave;
         private int elapsedSeconds;
-        private BukkitTask task;
+        private GameScheduler.Job task;
 
         public DefenseEvent(Player player, Entity npc, Location npcLocation, NpcData npcData) {
             this.player = player;
@@ -617,7 +651,7 @@ public class EventNpcManager {
             // 最初の波をスポーン
             spawnWave();
 
-            task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            task = plugin.getGameScheduler().schedule("defense-event", 0L, 20L, () -> {
                 elapsedSeconds++;
 
                 // プレイヤーがオフラインになった場合
@@ -692,7 +726,7 @@ public class EventNpcManager {
                 if (elapsedSeconds >= totalDuration) {
                     endDefenseEvent(player.getUniqueId(), false, npc);
                 }
-            }, 0L, 20L); // 1秒ごと
+            }); // 1秒ごと
         }
 
         private void spawnWave() {
@@ -3,20 +3,23 @@ package com.candyrush.managers;
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.GameRound;
 import com.candyrush.models.GameState;
+import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
 import com.candyrush.models.Team;
 import com.candyrush.models.TeamColor;
+import com.candyrush.storage.RoundCheckpoint;
 import com.candyrush.utils.LanguageManager;
 import com.candyrush.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.StructureType;
 import org.bukkit.World;
+import org.bukkit.boss.BarColor;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 /**
  * ゲーム全体のライフサイクルと状態を管理するマネージャー
@@ -28,12 +31,16 @@ public class GameManager {
     private final LanguageManager lang;
     private GameState currentState;
     private GameRound currentRound;
-    private BukkitTask countdownTask;
-    private BukkitTask gameTimerTask;
-    private BukkitTask cooldownTask;
-    private BukkitTask timeCheckTask;
+    private GameScheduler.Job countdownTask;
+    private GameScheduler.Job gameTimerTask;
+    private GameScheduler.Job cooldownTask;
+    private GameScheduler.Job timeCheckTask;
+    private RoundPipeline startPipeline;
+    private RoundPipeline teardownPipeline;
     private int countdownSeconds;
     private int gameTimeRemaining;
+    private Location roundCenter;
+    private Location plannedCenter;  // カウントダウン中に決めた次のラウンドの中心
     private int cooldownSecondsRemaining;
 
     public GameManager(CandyRushPlugin plugin) {
@@ -53,6 +60,9 @@ public class GameManager {
         resetWorldBorder();
 
         // すべてのタスクをキャンセル
+        cancelStartPipeline();
+        plannedCenter = null;
+        plugin.getChunkPrewarmManager().releaseTickets();
         if (countdownTask != null) {
             countdownTask.cancel();
             countdownTask = null;
@@ -87,6 +97,14 @@ public class GameManager {
         return currentRound;
     }
 
+    /**
+     * 現在のラウンドのマップ中心を取得
+     * @return 中心座標（ラウンドが始まっていない場合はnull）
+     */
+    public Location getRoundCenter() {
+        return roundCenter;
+    }
+
     /**
      * ゲームが進行中かチェック
      */
@@ -105,7 +123,7 @@ public class GameManager {
      * ゲームを開始できるかチェック（最低人数の確認）
      */
     public boolean canStartGame() {
-        if (!currentState.canStart()) {
+        if (!currentState.canStart() || isTearingDown()) {
             return false;
         }
 
@@ -126,6 +144,12 @@ public class GameManager {
             return;
         }
 
+        // 前のラウンドの後片付けが終わるまで待つ（完了時にもう一度呼ばれる）
+        if (isTearingDown()) {
+            plugin.getLogger().info("Cannot start countdown - previous round teardown still running");
+            return;
+        }
+
         int onlinePlayers = Bukkit.getOnlinePlayers().size();
         int minPlayers = plugin.getConfigManager().getMinPlayers();
         plugin.getLogger().info("Player check - Online: " + onlinePlayers + ", Required: " + minPlayers);
@@ -151,8 +175,11 @@ public class GameManager {
         placeholders.put("seconds", String.valueOf(countdownSeconds));
         Bukkit.broadcastMessage(lang.getMessageWithPrefix("game.countdown_start", placeholders));
 
+        // カウントダウン中にマップ範囲のチャンクを読み込んでおく
+        prepareArena();
+
         // カウントダウンタスク開始
-        countdownTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        countdownTask = plugin.getGameScheduler().schedule("countdown", 0L, 20L, () -> {
             if (countdownSeconds <= 0) {
                 countdownTask.cancel();
                 startGame();
@@ -177,11 +204,26 @@ public class GameManager {
             }
 
             countdownSeconds--;
-        }, 0L, 20L); // 1秒ごと
+        }); // 1秒ごと
 
         plugin.getLogger().info("Countdown started: " + countdownSeconds + " seconds");
     }
 
+    /**
+     * 次のラウンドのマップ中心を決めて、範囲のチャンクの読み込みを開始
+     * 中心の候補がまだない場合はゲーム開始時に検索するため、ここでは何もしない
+     */
+    private void prepareArena() {
+        World world = Bukkit.getWorlds().get(0); // メインワールド
+        if (!hasConfiguredMapCenter() && !plugin.getMapCenterManager().hasCandidates(world)) {
+            plannedCenter = null;
+            return;
+        }
+
+        plannedCenter = getMapCenterLocation(world);
+        plugin.getChunkPrewarmManager().start(world, plannedCenter, plugin.getConfigManager().getMapRadius());
+    }
+
     /**
      * カウントダウンをキャンセル（人数不足の場合）
      */
@@ -197,6 +239,10 @@ public class GameManager {
 
         currentState = GameState.WAITING;
 
+        // 読み込んでおいたチャンクを解放
+        plannedCenter = null;
+        plugin.getChunkPrewarmManager().releaseTickets();
+
         Map<String, String> placeholders = new HashMap<>();
         placeholders.put("min", String.valueOf(plugin.getConfigManager().getMinPlayers()));
         Bukkit.broadcastMessage(lang.getMessageWithPrefix("game.insufficient_players", placeholders));
@@ -206,80 +252,226 @@ public class GameManager {
 
     /**
      * ゲーム開始
+     * 開始処理はステージに分けて複数tickで進める（1tickで全部行うと大きなマップでラグになるため）
      */
     private void startGame() {
         currentState = GameState.RUNNING;
 
         int playerCount = Bukkit.getOnlinePlayers().size();
         GameRound tempRound = new GameRound(playerCount);
+        currentRound = tempRound;
 
-        // データベースに保存してIDを取得
-        try {
-            int roundId = plugin.getGameStateStorage().createGameRound(tempRound);
-            plugin.getLogger().info("Game round created with ID: " + roundId);
-
-            // IDを持つ新しいインスタンスを作成
-            currentRound = new GameRound(
-                roundId,
-                tempRound.getStartedAt(),
-                tempRound.getEndedAt(),
-                tempRound.getWinnerTeam(),
-                tempRound.getTotalPlayers(),
-                tempRound.getDurationSeconds(),
-                tempRound.getCreatedAt()
-            );
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save game round", e);
-            currentRound = tempRound; // Fallback to temp instance without ID
-        }
-
-        // プレイヤーをチームに振り分け
-        plugin.getTeamManager().distributePlayersEvenly(new java.util.ArrayList<>(Bukkit.getOnlinePlayers()));
-
-        // ワールド設定
-        org.bukkit.World world = Bukkit.getWorlds().get(0); // メインワールド
+        World world = Bukkit.getWorlds().get(0); // メインワールド
         int mapRadius = plugin.getConfigManager().getMapRadius();
+        MapCenterManager mapCenters = plugin.getMapCenterManager();
+
+        startPipeline = new RoundPipeline(plugin, "round-start", "game.round_preparing", BarColor.GREEN)
+            // データベースに非同期で保存し、IDが確定してから次のステージへ
+            .stage("create-round", RoundPipeline.await(
+                () -> plugin.getAsyncGameStateStorage().createGameRound(tempRound),
+                (roundId, error) -> applyRoundId(tempRound, roundId, error)))
+            // ラウンド単位のスコアに切り替え（前ラウンドのポイントとチームはリセット）
+            .stage("start-scores", RoundPipeline.once(() -> {
+                plugin.getPlayerManager().startRound(currentRound.getId());
+                plugin.getPointLedgerManager().startRound(currentRound.getId());
+            }))
+            // プレイヤーをチームに振り分け
+            .stage("teams", RoundPipeline.once(() ->
+                plugin.getTeamManager().distributePlayersEvenly(new ArrayList<>(Bukkit.getOnlinePlayers()))))
+            // マップ中心がカウントダウン中に決まらなかった（候補がまだない）場合だけ、スポーンから構造物を検索
+            // （1tickに1種類、見つかった時点で終了）
+            .stage("structure-search", RoundPipeline.await(
+                () -> plannedCenter != null || hasConfiguredMapCenter() || mapCenters.hasCandidates(world)
+                    ? CompletableFuture.completedFuture(false) : mapCenters.searchFromSpawn(world),
+                (found, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.WARNING, "Map center structure search failed", error);
+                    }
+                }))
+            .stage("map-center", RoundPipeline.once(() -> {
+                if (plannedCenter != null) {
+                    roundCenter = plannedCenter;
+                    plannedCenter = null;
+                } else {
+                    roundCenter = getMapCenterLocation(world);
+                    plugin.getChunkPrewarmManager().start(world, roundCenter, mapRadius);
+                }
+                plugin.getLogger().info("Map center: X=" + roundCenter.getBlockX() + ", Z=" + roundCenter.getBlockZ());
+            }))
+            // マップ範囲のチャンクの読み込みが終わるまで待つ（カウントダウン中に終わっていれば待たない）
+            .stage("chunk-prewarm", RoundPipeline.await(() -> plugin.getChunkPrewarmManager().getCompletion(),
+                (result, error) -> { }))
+            // チーム拠点にコンクリートを配置してテレポート（1チームずつ）
+            .stage("team-bases", RoundPipeline.each(this::getOccupiedTeams,
+                teamColor -> setupTeamBaseAndTeleport(world, roundCenter, mapRadius, teamColor)))
+            // 全員のテレポート後にワールドボーダーと天候・時間を設定
+            .stage("world", RoundPipeline.once(() -> {
+                setupMapBarrier(world, roundCenter, mapRadius);
+                setupWorldConditions(world);
+            }))
+            // 宝箱・イベントNPCの配置を開始（配置自体はチャンクごとに数tickかけて進む）
+            .stage("chests", RoundPipeline.once(() ->
+                plugin.getTreasureChestManager().spawnTreasureChests(world, roundCenter, mapRadius, currentRound.getId())))
+            .stage("npcs", RoundPipeline.once(() ->
+                plugin.getEventNpcManager().spawnEventNpcs(world, roundCenter, mapRadius, currentRound.getId())))
+            // ショップアイテムの付与などプレイヤーごとの準備
+            .stage("players", RoundPipeline.each(Bukkit::getOnlinePlayers, this::preparePlayer))
+            // すべてのプレイヤーのネームタグを常に表示に設定
+            .stage("name-tags", RoundPipeline.each(Bukkit::getOnlinePlayers, this::setupNameTagVisibility));
+
+        startPipeline.start(() -> {
+            startPipeline = null;
+            beginRound(playerCount);
+        });
+    }
 
-        // マップ中心座標を取得（設定がある場合は固定座標、なければワールドスポーン）
-        org.bukkit.Location centerLocation = getMapCenterLocation(world);
-        plugin.getLogger().info("Map center: X=" + centerLocation.getBlockX() + ", Z=" + centerLocation.getBlockZ());
+    /**
+     * 作成したラウンドのIDを反映
+     */
+    private void applyRoundId(GameRound tempRound, Integer roundId, Throwable error) {
+        if (error != null) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to save game round", error);
+            // Fallback to temp instance without ID
+            return;
+        }
 
-        // チーム拠点にコンクリートを配置してテレポート（サーバー負荷を考慮して遅延処理）
-        setupTeamBasesAndTeleport(world, centerLocation, mapRadius);
+        plugin.getLogger().info("Game round created with ID: " + roundId);
+
+        // IDを持つ新しいインスタンスを作成
+        currentRound = new GameRound(
+            roundId,
+            tempRound.getStartedAt(),
+            tempRound.getEndedAt(),
+            tempRound.getWinnerTeam(),
+            tempRound.getTotalPlayers(),
+            tempRound.getDurationSeconds(),
+            tempRound.getCreatedAt()
+        );
+    }
 
-        // 天候と時間を設定
-        setupWorldConditions(world);
+    /**
+     * プレイヤーをラウンド用に準備
+     */
+    private void preparePlayer(Player player) {
+        if (!player.isOnline()) {
+            return;
+        }
 
-        // 宝箱を配置（roundIdを渡してデータベース管理）
-        plugin.getTreasureChestManager().spawnTreasureChests(world, centerLocation, mapRadius, currentRound.getId());
+        // ショップアイテムを付与（スロット9番目）
+        plugin.getShopManager().giveShopItem(player);
 
-        // イベントNPCを配置（roundIdを渡してデータベース管理）
-        plugin.getEventNpcManager().spawnEventNpcs(world, centerLocation, mapRadius, currentRound.getId());
+        // ネームタグを常に表示
+        player.setCanPickupItems(true);
 
-        // 全プレイヤーに通知とショップアイテムを付与
+        // 名前の色を更新（Murderer状態に応じて）
+        plugin.getPlayerManager().updatePlayerNameColor(player);
+    }
+
+    /**
+     * 開始処理の完了後にゲームを開始
+     */
+    private void beginRound(int playerCount) {
+        // 全プレイヤーに通知
         Bukkit.broadcastMessage(lang.getMessageWithPrefix("game.game_start"));
 
         for (Player player : Bukkit.getOnlinePlayers()) {
             MessageUtils.sendTitle(player, lang.getMessage("game.game_start"), "&e");
+        }
 
-            // ショップアイテムを付与（スロット9番目）
-            plugin.getShopManager().giveShopItem(player);
+        // ゲームタイマー開始
+        startGameTimer(plugin.getConfigManager().getGameDurationMinutes() * 60);
 
-            // ネームタグを常に表示
-            player.setCanPickupItems(true);
+        plugin.getLogger().info("Game started with " + playerCount + " players");
+    }
 
-            // 名前の色を更新（Murderer状態に応じて）
-            plugin.getPlayerManager().updatePlayerNameColor(player);
+    /**
+     * 開始処理の途中なら中止
+     */
+    private void cancelStartPipeline() {
+        if (startPipeline != null) {
+            startPipeline.cancel();
+            startPipeline = null;
         }
+    }
+
+    /**
+     * 中断したラウンドを再開（起動時）
+     * ワールドに残っている宝箱・拠点はそのまま使い、メモリ上の状態だけをチェックポイントから戻す
+     * 参加したプレイヤーは元のチームに戻る
+     * @param round データベース上の未終了ラウンド
+     * @param checkpoint 最後のチェックポイント
+     * @param world ラウンドのワールド
+     */
+    public void resumeRound(GameRound round, RoundCheckpoint checkpoint, World world) {
+        long downtimeSeconds = Math.max(0, (System.currentTimeMillis() - checkpoint.getCheckpointAtMillis()) / 1000);
 
-        // すべてのプレイヤーのネームタグを常に表示に設定
-        setupNameTagVisibility();
+        currentState = GameState.RUNNING;
+        currentRound = round;
+        roundCenter = new Location(world, checkpoint.getCenterX(), checkpoint.getCenterY(), checkpoint.getCenterZ());
 
-        // ゲームタイマー開始
-        int gameDuration = plugin.getConfigManager().getGameDurationMinutes() * 60;
-        gameTimeRemaining = gameDuration;
+        plugin.getPlayerManager().resumeRound(round.getId(), checkpoint.getPlayers(), downtimeSeconds);
+        plugin.getPointLedgerManager().resumeRound(round.getId());
+        plugin.getTeamManager().restoreTeams(checkpoint.getTeams(), checkpoint.getPlayers());
+        plugin.getTreasureChestManager().restoreChests(world, round.getId(), checkpoint.getChests());
+
+        setupMapBarrier(world, roundCenter, checkpoint.getMapRadius());
+        setupWorldConditions(world);
+        startGameTimer(checkpoint.getGameTimeRemaining());
+
+        plugin.getLogger().info("Resumed game round " + round.getId() + " after " + downtimeSeconds + "s downtime ("
+            + MessageUtils.formatTime(checkpoint.getGameTimeRemaining()) + " remaining)");
+    }
+
+    /**
+     * 中断したラウンドをチェックポイント時点のスコアで終了（起動時）
+     * 結果発表はせず、ラウンドの結果と累計統計だけを確定させる
+     * @param round データベース上の未終了ラウンド
+     * @param checkpoint 最後のチェックポイント
+     */
+    public void finalizeRecoveredRound(GameRound round, RoundCheckpoint checkpoint) {
+        // 参加者のポイントはプレイヤーデータから取るため、読み込みと書き戻しが終わってから確定させる
+        plugin.getPlayerManager().resumeRound(round.getId(), checkpoint.getPlayers(), 0)
+            .thenRun(() -> closeRecoveredRound(round, checkpoint));
+    }
+
+    /**
+     * チェックポイントのスコアでラウンドの結果を確定（メインスレッド）
+     */
+    private void closeRecoveredRound(GameRound round, RoundCheckpoint checkpoint) {
+        plugin.getTeamManager().restoreTeams(checkpoint.getTeams(), checkpoint.getPlayers());
+
+        TeamColor winnerTeam = determineWinner();
+        long endedAt = checkpoint.getCheckpointAtMillis() / 1000;
+        GameRound endedRound = new GameRound(
+            round.getId(),
+            round.getStartedAt(),
+            endedAt,
+            winnerTeam,
+            round.getTotalPlayers(),
+            (int) Math.max(0, endedAt - round.getStartedAt()),
+            round.getCreatedAt()
+        );
+        plugin.getStatsManager().closeRound(endedRound);
+        plugin.getTeamManager().resetAllTeams();
+
+        // 正常なシャットダウンで宝箱・NPCが片付いている場合だけレコードを削除できる
+        // それ以外はワールドに残ったものを次のラウンド開始時に削除する
+        if (checkpoint.hasFlag(RoundCheckpoint.FLAG_WORLD_CLEARED)) {
+            plugin.getDatabaseMaintenanceManager().markRoundCleared(round.getId());
+        }
 
-        gameTimerTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        plugin.getLogger().info("Finalized interrupted game round " + round.getId()
+            + " - Winner: " + (winnerTeam != null ? winnerTeam : "None"));
+    }
+
+    /**
+     * ゲームタイマーを開始
+     * @param seconds 残り時間（秒）
+     */
+    private void startGameTimer(int seconds) {
+        gameTimeRemaining = seconds;
+
+        gameTimerTask = plugin.getGameScheduler().schedule("game-timer", 20L, 20L, () -> {
             gameTimeRemaining--;
 
             // 残り時間の通知（特定のタイミング）
@@ -304,19 +496,21 @@ public class GameManager {
                 gameTimerTask.cancel();
                 endGame();
             }
-        }, 20L, 20L); // 1秒ごと
-
-        plugin.getLogger().info("Game started with " + playerCount + " players");
+        }); // 1秒ごと
     }
 
     /**
      * ゲーム終了
+     * 結果の保存は非同期で開始し、結果発表と宝箱・NPC・ボスの片付けはクールダウン中に複数tickで進める
      */
     public void endGame() {
         if (currentState != GameState.RUNNING) {
             return;
         }
 
+        // 開始処理の途中で終了した場合は残りのステージを中止
+        cancelStartPipeline();
+
         if (gameTimerTask != null) {
             gameTimerTask.cancel();
             gameTimerTask = null;
@@ -325,9 +519,12 @@ public class GameManager {
         // 時間チェックタスクを停止
         stopTimeCheckTask();
 
-        // 勝者チーム判定（TeamManagerが実装されたら追加）
+        // 勝者チーム判定
         TeamColor winnerTeam = determineWinner();
 
+        // データベースへの書き込み（非同期、完了は後片付けの最後に待つ）
+        List<CompletableFuture<?>> finalization = new ArrayList<>();
+
         if (currentRound != null) {
             // ゲーム終了情報を設定した新しいインスタンスを作成
             long now = System.currentTimeMillis() / 1000;
@@ -343,31 +540,88 @@ public class GameManager {
                 currentRound.getCreatedAt()
             );
 
-            // データベース更新
-            try {
-                plugin.getGameStateStorage().updateGameRound(endedRound);
-                plugin.getLogger().info("Game round ended and saved");
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to update game round", e);
+            // ラウンド終了・チームスコア・累計統計をまとめて保存（チームのリセット前に確定させる）
+            if (endedRound.getId() != null) {
+                finalization.add(plugin.getStatsManager().closeRound(endedRound));
             }
+            plugin.getRoundCheckpointManager().clear();
 
             currentRound = endedRound;
         }
 
-        // 結果発表
-        announceResults(winnerTeam);
+        // ラウンド中に溜まったプレイヤーデータの変更を書き込む
+        finalization.add(plugin.getPlayerManager().flushPendingWrites());
 
-        // クリーンアップ
-        cleanupGame();
+        // ポイント履歴の記録を止めて集計を確定（結果発表の内訳に使う）
+        finalization.add(plugin.getPointLedgerManager().endRound());
 
         // クールダウン開始
         startCooldown();
 
+        // 後片付け（完了するまで次のカウントダウンは始めない）
+        startTeardown(winnerTeam, currentRound != null ? currentRound.getId() : null, finalization);
+
         plugin.getLogger().info("Game ended - Winner: " + (winnerTeam != null ? winnerTeam : "None"));
     }
 
     /**
-     * ゲーム終了時のクリーンアップ
+     * ラウンドの後片付けを開始
+     * ブロック・エンティティの削除はチャンクごとにまとめて、1tickの予算内で少しずつ進める
+     * @param winnerTeam 勝者チーム
+     * @param roundId 終了したラウンドのID（保存できなかった場合はnull）
+     * @param finalization データベースへの書き込み
+     */
+    private void startTeardown(TeamColor winnerTeam, Integer roundId, List<CompletableFuture<?>> finalization) {
+        TreasureChestManager chests = plugin.getTreasureChestManager();
+        EventNpcManager npcs = plugin.getEventNpcManager();
+
+        teardownPipeline = new RoundPipeline(plugin, "round-end", null, null)
+            // 結果発表
+            .stage("announce", RoundPipeline.once(() -> announceResults(winnerTeam)))
+            .stage("results", RoundPipeline.each(Bukkit::getOnlinePlayers, player -> sendResults(player, winnerTeam)))
+            .stage("cooldown-notice", RoundPipeline.once(this::announceCooldown))
+            // 宝箱・イベントNPCをチャンクごとに削除
+            .stage("chests", RoundPipeline.eachChunk(chests::beginChestRemoval, location -> location,
+                chests::removeChests))
+            .stage("npcs", RoundPipeline.eachChunk(() -> npcs.beginNpcRemoval().entrySet(), Map.Entry::getValue,
+                batch -> npcs.removeNpcs(batch.stream().map(Map.Entry::getKey).collect(Collectors.toList()))))
+            // ボスを削除
+            .stage("bosses", RoundPipeline.once(() -> plugin.getBossManager().removeAllBosses()))
+            // 事前に読み込んだチャンクのチケットを解放
+            .stage("release-chunks", RoundPipeline.once(() -> plugin.getChunkPrewarmManager().releaseTickets()))
+            // チームをリセット
+            .stage("teams", RoundPipeline.once(() -> plugin.getTeamManager().resetAllTeams()))
+            // データベースへの書き込みの完了を待つ（失敗はそれぞれでログ済み）
+            .stage("finalize-db", RoundPipeline.await(
+                () -> CompletableFuture.allOf(finalization.toArray(new CompletableFuture<?>[0])),
+                (ignored, error) -> {}))
+            // 宝箱・NPCを片付けたラウンドのレコードはクールダウン中のメンテナンスで削除
+            .stage("mark-cleared", RoundPipeline.once(() -> {
+                if (roundId != null) {
+                    plugin.getDatabaseMaintenanceManager().markRoundCleared(roundId);
+                }
+            }));
+
+        teardownPipeline.start(() -> {
+            teardownPipeline = null;
+            plugin.getLogger().info("Game cleanup completed");
+
+            // 後片付けより先にクールダウンが終わっていた場合はここでカウントダウンを試みる
+            if (currentState == GameState.WAITING) {
+                tryStartCountdown();
+            }
+        });
+    }
+
+    /**
+     * 前のラウンドの後片付け中かチェック
+     */
+    public boolean isTearingDown() {
+        return teardownPipeline != null;
+    }
+
+    /**
+     * ゲーム終了時のクリーンアップ（プラグイン無効化時、1tickでまとめて行う）
      */
     private void cleanupGame() {
         // 宝箱を削除
@@ -415,14 +669,59 @@ public class GameManager {
             Bukkit.broadcastMessage(lang.getMessageWithPrefix("game.first_place", placeholders));
         }
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (winnerTeam != null) {
-                MessageUtils.sendTitle(player,
-                    lang.getMessage("game.game_end"),
-                    winnerTeam.getFormattedName());
-            } else {
-                MessageUtils.sendTitle(player, lang.getMessage("game.game_end"), "");
-            }
+        announceMvp();
+    }
+
+    /**
+     * プレイヤーにポイント内訳と結果のタイトルを送信
+     */
+    private void sendResults(Player player, TeamColor winnerTeam) {
+        if (!player.isOnline()) {
+            return;
+        }
+
+        sendPointBreakdown(player);
+        if (winnerTeam != null) {
+            MessageUtils.sendTitle(player,
+                lang.getMessage("game.game_end"),
+                winnerTeam.getFormattedName());
+        } else {
+            MessageUtils.sendTitle(player, lang.getMessage("game.game_end"), "");
+        }
+    }
+
+    /**
+     * 最も多くポイントを獲得したプレイヤーを発表
+     */
+    private void announceMvp() {
+        PointLedgerManager ledger = plugin.getPointLedgerManager();
+        ledger.getMvp().ifPresent(uuid -> {
+            String name = plugin.getPlayerManager().getCachedPlayerData(uuid)
+                .map(PlayerData::getName)
+                .orElseGet(() -> Bukkit.getOfflinePlayer(uuid).getName());
+
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("player", name != null ? name : uuid.toString());
+            placeholders.put("points", MessageUtils.formatPoints(ledger.getEarnedPoints(uuid)));
+            Bukkit.broadcastMessage(lang.getMessageWithPrefix("game.mvp", placeholders));
+        });
+    }
+
+    /**
+     * プレイヤーに獲得元ごとのポイント内訳を送信
+     */
+    private void sendPointBreakdown(Player player) {
+        Map<PointSource, Integer> breakdown = plugin.getPointLedgerManager().getBreakdown(player.getUniqueId());
+        if (breakdown.isEmpty()) {
+            return;
+        }
+
+        player.sendMessage(lang.getMessage("game.breakdown_title"));
+        for (Map.Entry<PointSource, Integer> entry : breakdown.entrySet()) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("source", lang.getMessage(entry.getKey().getMessageKey()));
+            placeholders.put("points", MessageUtils.formatPoints(entry.getValue()));
+            player.sendMessage(lang.getMessage("game.breakdown_entry", placeholders));
         }
     }
 
@@ -433,11 +732,7 @@ public class GameManager {
         currentState = GameState.COOLDOWN;
         cooldownSecondsRemaining = plugin.getConfigManager().getCooldownMinutes() * 60;
 
-        Bukkit.broadcastMessage(MessageUtils.colorize(
-            plugin.getConfigManager().getPrefix() +
-            "&e次のゲームまで &c" + plugin.getConfigManager().getCooldownMinutes() + "分 &eお待ちください"));
-
-        cooldownTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        cooldownTask = plugin.getGameScheduler().schedule("cooldown", 20L, 20L, () -> {
             cooldownSecondsRemaining--;
 
             // クールダウン終了
@@ -445,17 +740,27 @@ public class GameManager {
                 cooldownTask.cancel();
                 endCooldown();
             }
-        }, 20L, 20L);
+        });
 
         plugin.getLogger().info("Cooldown started: " + plugin.getConfigManager().getCooldownMinutes() + " minutes");
     }
 
+    /**
+     * クールダウンを通知（結果発表の後）
+     */
+    private void announceCooldown() {
+        Bukkit.broadcastMessage(MessageUtils.colorize(
+            plugin.getConfigManager().getPrefix() +
+            "&e次のゲームまで &c" + plugin.getConfigManager().getCooldownMinutes() + "分 &eお待ちください"));
+    }
+
     /**
      * クールダウン終了
      */
     private void endCooldown() {
         currentState = GameState.WAITING;
         currentRound = null;
+        roundCenter = null;
 
         Bukkit.broadcastMessage(MessageUtils.colorize(
             plugin.getConfigManager().getPrefix() +
@@ -482,142 +787,69 @@ public class GameManager {
     }
 
     /**
-     * ワールドの天候と時間を設定
+     * マップの中心座標が設定で固定されているかチェック
      */
+    private boolean hasConfiguredMapCenter() {
+        return plugin.getConfigManager().getMapCenterX() != null && plugin.getConfigManager().getMapCenterZ() != null;
+    }
+
     /**
      * マップの中心座標を取得
-     * 設定で固定されている場合はその座標、なければランダムに構造物を選択
+     * 設定で固定されている場合はその座標、なければ事前に検索しておいた構造物からランダムに選択
      */
-    private org.bukkit.Location getMapCenterLocation(org.bukkit.World world) {
-        Integer centerX = plugin.getConfigManager().getMapCenterX();
-        Integer centerZ = plugin.getConfigManager().getMapCenterZ();
-
-        if (centerX != null && centerZ != null) {
+    private Location getMapCenterLocation(World world) {
+        if (hasConfiguredMapCenter()) {
             // 設定で固定座標が指定されている場合
+            int centerX = plugin.getConfigManager().getMapCenterX();
+            int centerZ = plugin.getConfigManager().getMapCenterZ();
             int y = world.getHighestBlockYAt(centerX, centerZ);
             plugin.getLogger().info("Using configured map center: X=" + centerX + ", Z=" + centerZ);
-            return new org.bukkit.Location(world, centerX, y, centerZ);
-        } else {
-            // ランダムに地上の構造物を選択
-            plugin.getLogger().info("Searching for nearby structures to use as map center...");
-            Location structureLocation = findRandomStructure(world);
-
-            if (structureLocation != null) {
-                plugin.getLogger().info("Using random structure as map center: X=" + structureLocation.getBlockX() + ", Z=" + structureLocation.getBlockZ());
-                return structureLocation;
-            } else {
-                // 構造物が見つからない場合はワールドスポーン
-                org.bukkit.Location spawn = world.getSpawnLocation();
-                plugin.getLogger().warning("No structures found nearby, using world spawn as map center: X=" + spawn.getBlockX() + ", Z=" + spawn.getBlockZ());
-                return spawn;
-            }
+            return new Location(world, centerX, y, centerZ);
         }
+
+        return plugin.getMapCenterManager().pickCandidate(world).orElseGet(() -> {
+            // 構造物が見つからない場合はワールドスポーン
+            Location spawn = world.getSpawnLocation();
+            plugin.getLogger().warning("No structures found nearby, using world spawn as map center: X="
+                + spawn.getBlockX() + ", Z=" + spawn.getBlockZ());
+            return spawn;
+        });
     }
 
     /**
-     * ランダムに地上の構造物を検索して座標を返す
-     * 近い場所から複数見つけてランダムに選択
+     * プレイヤーがいるチーム
      */
-    private Location findRandomStructure(World world) {
-        Location spawnLocation = world.getSpawnLocation();
-        int searchRadius = 2000; // 2000ブロック範囲で検索（サーバー負荷を考慮）
-
-        // 検索対象の構造物タイプ（地上の構造物のみ）
-        List<StructureType> targetStructures = new ArrayList<>();
-
-        // Minecraft 1.21で利用可能な地上構造物
-        targetStructures.add(StructureType.VILLAGE);
-        targetStructures.add(StructureType.PILLAGER_OUTPOST);
-        targetStructures.add(StructureType.DESERT_PYRAMID);
-        targetStructures.add(StructureType.JUNGLE_PYRAMID);
-        targetStructures.add(StructureType.SWAMP_HUT);
-        targetStructures.add(StructureType.IGLOO);
-
-        if (targetStructures.isEmpty()) {
-            plugin.getLogger().warning("No structure types available for search");
-            return null;
-        }
-
-        // 複数の構造物を見つける
-        List<Location> foundStructures = new ArrayList<>();
-
-        for (StructureType structureType : targetStructures) {
-            try {
-                Location found = world.locateNearestStructure(spawnLocation, structureType, searchRadius, false);
-                if (found != null) {
-                    // 地上のY座標を取得
-                    int x = found.getBlockX();
-                    int z = found.getBlockZ();
-                    int y = world.getHighestBlockYAt(x, z);
-
-                    Location surfaceLocation = new Location(world, x, y, z);
-                    foundStructures.add(surfaceLocation);
-
-                    plugin.getLogger().info("Found structure: " + structureType.getName() + " at X=" + x + ", Z=" + z);
-                }
-            } catch (Exception e) {
-                plugin.getLogger().fine("Could not find structure " + structureType.getName() + ": " + e.getMessage());
+    private List<TeamColor> getOccupiedTeams() {
+        List<TeamColor> occupied = new ArrayList<>();
+        for (TeamColor teamColor : TeamColor.values()) {
+            Team team = plugin.getTeamManager().getTeam(teamColor);
+            if (team != null && team.getPlayerCount() > 0) {
+                occupied.add(teamColor);
             }
         }
-
-        if (foundStructures.isEmpty()) {
-            plugin.getLogger().warning("No structures found within " + searchRadius + " blocks");
-            return null;
-        }
-
-        // 見つかった構造物からランダムに1つ選択
-        Collections.shuffle(foundStructures);
-        Location selected = foundStructures.get(0);
-
-        plugin.getLogger().info("Randomly selected structure from " + foundStructures.size() + " candidates");
-        return selected;
+        return occupied;
     }
 
     /**
-     * チーム拠点にコンクリートを配置してプレイヤーをテレポート
+     * チーム拠点にコンクリートを配置してチームのプレイヤーをテレポート
      */
-    private void setupTeamBasesAndTeleport(org.bukkit.World world, org.bukkit.Location center, int mapRadius) {
-        // 各チームの拠点を設置してプレイヤーをテレポート
-        long delay = 5L; // 0.25秒後から開始
-        int totalTeams = 0;
+    private void setupTeamBaseAndTeleport(World world, Location center, int mapRadius, TeamColor teamColor) {
+        Team team = plugin.getTeamManager().getTeam(teamColor);
 
-        for (TeamColor teamColor : TeamColor.values()) {
-            Team team = plugin.getTeamManager().getTeam(teamColor);
-            if (team == null || team.getPlayerCount() == 0) {
-                continue;
-            }
+        // チーム拠点の座標を取得
+        Location baseLocation = plugin.getTeamManager().getTeamSpawnLocation(world, center, mapRadius, teamColor);
 
-            totalTeams++;
+        // コンクリートを配置
+        placeTeamConcrete(baseLocation, teamColor);
 
-            // チーム拠点の座標を取得
-            org.bukkit.Location baseLocation = plugin.getTeamManager().getTeamSpawnLocation(world, center, mapRadius, teamColor);
-
-            // コンクリート配置とテレポートを同時に実行（遅延処理）
-            final long currentDelay = delay;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                // コンクリートを配置
-                placeTeamConcrete(baseLocation, teamColor);
-
-                // このチームの全プレイヤーをテレポート
-                for (UUID playerUuid : team.getPlayerUuids()) {
-                    org.bukkit.entity.Player player = Bukkit.getPlayer(playerUuid);
-                    if (player != null && player.isOnline()) {
-                        player.teleport(baseLocation);
-                        plugin.getLogger().info("Teleported " + player.getName() + " to " + teamColor + " base");
-                    }
-                }
-            }, currentDelay);
-
-            delay += 3L; // 次のチームは0.15秒後
+        // このチームの全プレイヤーをテレポート
+        for (UUID playerUuid : team.getPlayerUuids()) {
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player != null && player.isOnline()) {
+                player.teleport(baseLocation);
+                plugin.getLogger().info("Teleported " + player.getName() + " to " + teamColor + " base");
+            }
         }
-
-        // 全プレイヤーのテレポート完了後にワールドボーダーを設定
-        // 最後のチームのテレポート + 10tick（0.5秒）後
-        long borderDelay = delay + 10L;
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            setupMapBarrier(world, center, mapRadius);
-            plugin.getLogger().info("World border activated after all players teleported");
-        }, borderDelay);
     }
 
     /**
@@ -708,6 +940,9 @@ public class GameManager {
         plugin.getLogger().info("World border set at center X=" + center.getBlockX() + ", Z=" + center.getBlockZ() + ", radius=" + mapRadius);
     }
 
+    /**
+     * ワールドの天候と時間を設定
+     */
     private void setupWorldConditions(org.bukkit.World world) {
         // 天候設定
         String weatherConfig = plugin.getConfigManager().getWeather();
@@ -745,7 +980,7 @@ public class GameManager {
             timeCheckTask.cancel();
         }
 
-        timeCheckTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        timeCheckTask = plugin.getGameScheduler().schedule("time-check", 200L, 200L, () -> {
             // ゲーム中でない場合はチェックしない
             if (currentState != GameState.RUNNING) {
                 return;
@@ -758,7 +993,7 @@ public class GameManager {
                 world.setTime(0);
                 plugin.getLogger().fine("Time reset to morning (night detected)");
             }
-        }, 200L, 200L); // 10秒ごとにチェック（200 ticks = 10秒）
+        }); // 10秒ごとにチェック（200 ticks = 10秒）
 
         plugin.getLogger().info("Time check task started - Auto-morning enabled");
     }
@@ -775,40 +1010,41 @@ public class GameManager {
     }
 
     /**
-     * すべてのプレイヤーのネームタグを常に表示に設定
+     * プレイヤーのスコアボードで全員のネームタグを常に表示に設定
      */
-    private void setupNameTagVisibility() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            // ネームタグを常に表示
-            org.bukkit.scoreboard.Scoreboard scoreboard = player.getScoreboard();
-            if (scoreboard == null || scoreboard == Bukkit.getScoreboardManager().getMainScoreboard()) {
-                scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
-                player.setScoreboard(scoreboard);
-            }
+    private void setupNameTagVisibility(Player player) {
+        if (!player.isOnline()) {
+            return;
+        }
 
-            // すべてのプレイヤーのチームを設定（ネームタグ表示用）
-            org.bukkit.scoreboard.Team nameTagTeam = scoreboard.getTeam("nametags");
-            if (nameTagTeam == null) {
-                nameTagTeam = scoreboard.registerNewTeam("nametags");
-            }
-            nameTagTeam.setOption(org.bukkit.scoreboard.Team.Option.NAME_TAG_VISIBILITY,
-                                  org.bukkit.scoreboard.Team.OptionStatus.ALWAYS);
+        // ネームタグを常に表示
+        org.bukkit.scoreboard.Scoreboard scoreboard = player.getScoreboard();
+        if (scoreboard == null || scoreboard == Bukkit.getScoreboardManager().getMainScoreboard()) {
+            scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
+            player.setScoreboard(scoreboard);
+        }
 
-            // すべてのプレイヤーをチームに追加
-            for (Player target : Bukkit.getOnlinePlayers()) {
-                if (!nameTagTeam.hasEntry(target.getName())) {
-                    nameTagTeam.addEntry(target.getName());
-                }
-            }
+        // すべてのプレイヤーのチームを設定（ネームタグ表示用）
+        org.bukkit.scoreboard.Team nameTagTeam = scoreboard.getTeam("nametags");
+        if (nameTagTeam == null) {
+            nameTagTeam = scoreboard.registerNewTeam("nametags");
         }
+        nameTagTeam.setOption(org.bukkit.scoreboard.Team.Option.NAME_TAG_VISIBILITY,
+                              org.bukkit.scoreboard.Team.OptionStatus.ALWAYS);
 
-        plugin.getLogger().info("Name tags set to ALWAYS visible for all players");
+        // すべてのプレイヤーをチームに追加
+        for (Player target : Bukkit.getOnlinePlayers()) {
+            if (!nameTagTeam.hasEntry(target.getName())) {
+                nameTagTeam.addEntry(target.getName());
+            }
+        }
     }
 
     /**
      * クリーンアップ（プラグイン無効化時）
      */
     public void shutdown() {
+        cancelStartPipeline();
         if (countdownTask != null) {
             countdownTask.cancel();
         }
@@ -827,6 +1063,13 @@ public class GameManager {
 
         // ゲーム中のクリーンアップ
         if (isGameRunning()) {
+            // 宝箱などを片付けるため、次回起動時は再開せず結果を確定させる
+            plugin.getRoundCheckpointManager().markWorldCleared();
+            cleanupGame();
+        } else if (teardownPipeline != null) {
+            // 後片付けの途中なら残りをまとめて行う（データベースへの書き込みは実行中のものが終わるまで待たれる）
+            teardownPipeline.cancel();
+            teardownPipeline = null;
             cleanupGame();
         }
 
@@ -0,0 +1,348 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ゲーム進行の周期処理をまとめて実行するスケジューラー
+ * 1本のBukkitタスクから毎tick呼ばれ、各ジョブの実行tickを周期内でずらして同じtickに重ならないようにする
+ * 1tickの予算を使い切ったら残りのジョブは次のtickへ1回だけ繰り越す（繰り越したジョブは次のtickで先に実行）
+ * ジョブ名ごとに実行回数・所要時間・繰り越し回数を記録する
+ * メインスレッドからのみ使用する
+ */
+public class GameScheduler {
+
+    private static final long DEFAULT_COST_NANOS = TimeUnit.MICROSECONDS.toNanos(50);  // 未計測のジョブの見積もり
+
+    private final CandyRushPlugin plugin;
+    private final Logger logger;
+    private final LongSupplier clock;
+    private final List<Job> jobs;
+    private final Map<String, JobStats> stats;
+    private BukkitTask tickTask;
+    private long budgetNanos;
+    private long currentTick;
+    private long ticksOverBudget;
+    private long maxTickNanos;
+
+    public GameScheduler(CandyRushPlugin plugin) {
+        this(plugin, plugin.getLogger(), System::nanoTime);
+    }
+
+    /**
+     * テスト用（initialize() を呼ばずに tick() を直接進める）
+     * @param clock ナノ秒の時刻
+     */
+    GameScheduler(Logger logger, LongSupplier clock, long budgetNanos) {
+        this(null, logger, clock);
+        this.budgetNanos = budgetNanos;
+    }
+
+    private GameScheduler(CandyRushPlugin plugin, Logger logger, LongSupplier clock) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.clock = clock;
+        this.jobs = new ArrayList<>();
+        this.stats = new LinkedHashMap<>();
+    }
+
+    /**
+     * スケジューラーを初期化（他のマネージャーより先に呼ぶ）
+     */
+    public void initialize() {
+        budgetNanos = (long) (plugin.getConfigManager().getSchedulerTickBudgetMillis() * 1_000_000);
+        tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+
+        logger.info("GameScheduler initialized (tick budget " + budgetNanos / 1000 + "µs)");
+    }
+
+    /**
+     * すべてのジョブを止めて終了
+     */
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        for (Job job : jobs) {
+            job.cancelled = true;
+        }
+        jobs.clear();
+    }
+
+    /**
+     * 周期ジョブを登録
+     * 実行tickは周期内で他のジョブと重なりにくい位置に決まるため、初回は delayTicks から最大 periodTicks-1 tick 遅れる
+     * @param name ジョブ名（統計の集計単位。同じ種類のジョブには同じ名前を付ける）
+     * @param delayTicks 初回実行までの最小tick数
+     * @param periodTicks 実行間隔（tick）
+     * @param work 処理内容
+     * @return ジョブ（cancel() で停止）
+     */
+    public Job schedule(String name, long delayTicks, long periodTicks, Runnable work) {
+        long period = Math.max(1, periodTicks);
+        long earliest = currentTick + Math.max(1, delayTicks);
+        long phase = choosePhase(period, earliest);
+
+        long nextRun = earliest + Math.floorMod(phase - earliest, period);
+        Job job = new Job(name, period, phase, nextRun, work, stats.computeIfAbsent(name, JobStats::new));
+        job.stats.active++;
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * 既存ジョブとの重なり（見積もりコスト）が最も小さい位相を選ぶ
+     * 周期 p と q のジョブは位相の差が gcd(p, q) の倍数のとき、q の実行 p/gcd 回に1回の割合で重なる
+     */
+    private long choosePhase(long period, long earliest) {
+        long bestPhase = Math.floorMod(earliest, period);
+        double bestLoad = Double.MAX_VALUE;
+
+        for (long offset = 0; offset < period; offset++) {
+            long phase = Math.floorMod(earliest + offset, period);
+            double load = 0;
+            for (Job other : jobs) {
+                if (other.cancelled) {
+                    continue;
+                }
+                long gcd = gcd(period, other.period);
+                if (Math.floorMod(phase - other.phase, gcd) == 0) {
+                    load += other.stats.estimatedCostNanos() * gcd / (double) other.period;
+                }
+            }
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestPhase = phase;
+            }
+        }
+        return bestPhase;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * 1tick分の処理
+     */
+    void tick() {
+        currentTick++;
+        long start = clock.getAsLong();
+        long deadline = start + budgetNanos;
+        boolean deferred = false;
+
+        Job[] snapshot = jobs.toArray(new Job[0]);
+
+        // 前のtickから繰り越したジョブを先に実行（予算に関係なく）
+        for (Job job : snapshot) {
+            if (job.overdue && !job.cancelled) {
+                run(job);
+            }
+        }
+
+        for (Job job : snapshot) {
+            if (job.cancelled || job.overdue || job.nextRun > currentTick) {
+                continue;
+            }
+            if (clock.getAsLong() >= deadline) {
+                job.overdue = true;
+                job.stats.deferrals++;
+                deferred = true;
+                continue;
+            }
+            run(job);
+        }
+
+        jobs.removeIf(job -> job.cancelled);
+
+        long elapsed = clock.getAsLong() - start;
+        maxTickNanos = Math.max(maxTickNanos, elapsed);
+        if (deferred || elapsed > budgetNanos) {
+            ticksOverBudget++;
+        }
+    }
+
+    private void run(Job job) {
+        job.overdue = false;
+        long start = clock.getAsLong();
+        try {
+            job.work.run();
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Scheduled job '" + job.name + "' failed", t);
+        }
+        job.stats.record(clock.getAsLong() - start);
+
+        // 位相を保ったまま次の実行tickへ
+        do {
+            job.nextRun += job.period;
+        } while (job.nextRun <= currentTick);
+    }
+
+    /**
+     * ジョブ名ごとの統計（合計時間の多い順）
+     */
+    public List<JobStats> getJobStats() {
+        List<JobStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparingLong(JobStats::getTotalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * 統計をリセット（実行中のジョブ数は保持）
+     */
+    public void resetStats() {
+        stats.values().removeIf(s -> s.active == 0);
+        for (JobStats s : stats.values()) {
+            s.reset();
+        }
+        ticksOverBudget = 0;
+        maxTickNanos = 0;
+    }
+
+    /**
+     * 経過tick数
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 予算を超えた（またはジョブを繰り越した）tick数
+     */
+    public long getTicksOverBudget() {
+        return ticksOverBudget;
+    }
+
+    public double getMaxTickMillis() {
+        return maxTickNanos / 1_000_000.0;
+    }
+
+    public double getTickBudgetMillis() {
+        return budgetNanos / 1_000_000.0;
+    }
+
+    /**
+     * 登録されたジョブ
+     */
+    public final class Job {
+        private final String name;
+        private final long period;
+        private final long phase;
+        private final Runnable work;
+        private final JobStats stats;
+        private long nextRun;
+        private boolean overdue;
+        private boolean cancelled;
+
+        private Job(String name, long period, long phase, long nextRun, Runnable work, JobStats stats) {
+            this.name = name;
+            this.period = period;
+            this.phase = phase;
+            this.nextRun = nextRun;
+            this.work = work;
+            this.stats = stats;
+        }
+
+        /**
+         * ジョブを停止（実行中のジョブ自身から呼んでもよい）
+         */
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                stats.active--;
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * ジョブ名ごとの実行統計
+     */
+    public static class JobStats {
+        private final String name;
+        private int active;
+        private long runs;
+        private long totalNanos;
+        private long maxNanos;
+        private long deferrals;
+
+        JobStats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            runs++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        void reset() {
+            runs = 0;
+            totalNanos = 0;
+            maxNanos = 0;
+            deferrals = 0;
+        }
+
+        long estimatedCostNanos() {
+            return runs > 0 ? totalNanos / runs : DEFAULT_COST_NANOS;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 実行中のジョブ数
+         */
+        public int getActive() {
+            return active;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getAverageMillis() {
+            return runs > 0 ? totalNanos / (double) runs / 1_000_000.0 : 0;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1_000_000.0;
+        }
+
+        /**
+         * 予算超過で次のtickへ繰り越した回数
+         */
+        public long getDeferrals() {
+            return deferrals;
+        }
+    }
+}
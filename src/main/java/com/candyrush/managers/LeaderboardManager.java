@@ -0,0 +1,111 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.PlayerData;
+import com.candyrush.storage.LeaderboardIndex;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * 累計ポイントのランキングを管理するマネージャー
+ * 起動時にデータベースから読み込み、以降はPlayerManager経由のポイント変更で差分更新する
+ * 上位・順位・周辺順位の取得はすべてメモリ上でO(log n)
+ */
+public class LeaderboardManager {
+
+    private final CandyRushPlugin plugin;
+    private final LeaderboardIndex index;
+    private volatile boolean loaded;
+
+    public LeaderboardManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.index = new LeaderboardIndex();
+        this.loaded = false;
+    }
+
+    /**
+     * マネージャーを初期化
+     * ランキングの読み込みはストレージスレッドで行う
+     */
+    public void initialize() {
+        plugin.getAsyncPlayerDataStorage().loadLeaderboard()
+            .thenAccept(entries -> {
+                index.load(entries);
+
+                // 読み込み中に変更されたプレイヤーをキャッシュの値で上書き
+                for (PlayerData data : plugin.getPlayerManager().getPlayerDataCache().values()) {
+                    update(data);
+                }
+
+                loaded = true;
+                plugin.getLogger().info("Leaderboard loaded with " + index.size() + " players");
+            })
+            .exceptionally(error -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load leaderboard", error);
+                return null;
+            });
+
+        plugin.getLogger().info("LeaderboardManager initialized");
+    }
+
+    /**
+     * プレイヤーの順位を更新
+     */
+    public void update(PlayerData data) {
+        index.update(data.getUuid(), data.getName(), data.getTotalPoints());
+    }
+
+    /**
+     * 上位プレイヤーを取得
+     */
+    public List<LeaderboardIndex.Entry> getTopPlayers(int limit) {
+        return index.getTop(limit);
+    }
+
+    /**
+     * プレイヤーの順位を取得
+     * @return 1から始まる順位、ランキングにいない場合は0
+     */
+    public int getRank(UUID uuid) {
+        return index.getRank(uuid);
+    }
+
+    /**
+     * プレイヤーのランキング情報を取得
+     * @return ランキングにいない場合はnull
+     */
+    public LeaderboardIndex.Entry getEntry(UUID uuid) {
+        return index.getEntry(uuid);
+    }
+
+    /**
+     * プレイヤーの前後の順位を取得
+     * @param radius 上下それぞれの人数
+     */
+    public List<LeaderboardIndex.Entry> getPlayersAround(UUID uuid, int radius) {
+        return index.getAround(uuid, radius);
+    }
+
+    /**
+     * ランキングに載っているプレイヤー数
+     */
+    public int getRankedCount() {
+        return index.size();
+    }
+
+    /**
+     * データベースからの読み込みが完了しているか
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        plugin.getLogger().info("LeaderboardManager shutdown complete");
+    }
+}
@@ -0,0 +1,398 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.GameState;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.StructureType;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * マップ中心の候補（地上の構造物）を管理するマネージャー
+ * 構造物の検索は非常に重く、Bukkitには非同期版がないためメインスレッドで行うしかない
+ * そのため待機中・クールダウン中でプレイヤーが誰もいない間だけ、1回ずつ間隔を空けて行い、
+ * 見つかった候補をワールドのシードごとに map-centers.yml に保存する
+ * ゲーム開始時は保存済みの候補から選ぶだけなので検索は発生しない
+ */
+public class MapCenterManager {
+
+    private static final String POOL_FILE = "map-centers.yml";
+    private static final int STRUCTURE_SEARCH_RADIUS = 2000; // 構造物の検索範囲（サーバー負荷を考慮）
+    private static final int DUPLICATE_DISTANCE = 64;         // これより近い候補は同じ構造物とみなす
+
+    // マップ中心の候補にする地上の構造物（Minecraft 1.21）
+    private static final List<StructureType> STRUCTURE_TYPES = Arrays.asList(
+        StructureType.VILLAGE,
+        StructureType.PILLAGER_OUTPOST,
+        StructureType.DESERT_PYRAMID,
+        StructureType.JUNGLE_PYRAMID,
+        StructureType.SWAMP_HUT,
+        StructureType.IGLOO
+    );
+
+    // 検索の起点（スポーンからの方向、originSpacingを掛ける）
+    private static final int[][] ORIGIN_OFFSETS = {{0, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private final CandyRushPlugin plugin;
+    private final Map<String, Pool> pools;  // シード -> 候補
+    private final Object saveLock;
+    private final Random random;
+    private GameScheduler.Job searchTask;
+    private boolean loaded;
+    private boolean searching;  // 地表の高さを取得するためのチャンク読み込み待ち
+    private long saveSequence;
+    private long writtenSequence;
+    private Candidate lastPicked;
+
+    public MapCenterManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.pools = new LinkedHashMap<>();
+        this.saveLock = new Object();
+        this.random = new Random();
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        if (!plugin.getConfigManager().isMapCenterPoolEnabled()) {
+            plugin.getLogger().info("MapCenterManager initialized (candidate pool disabled)");
+            return;
+        }
+
+        // 保存済みの候補をI/Oスレッドで読み込み、メインスレッドで反映
+        File file = new File(plugin.getDataFolder(), POOL_FILE);
+        plugin.getStorageExecutor().supplyFile(() -> file.exists() ? YamlConfiguration.loadConfiguration(file) : null)
+            .thenAcceptAsync(this::applyPoolFile, plugin.getMainThreadExecutor())
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.WARNING, "Failed to load " + POOL_FILE + " - searching from scratch", e);
+                loaded = true;
+                return null;
+            });
+
+        int interval = plugin.getConfigManager().getMapCenterSearchIntervalTicks();
+        searchTask = plugin.getGameScheduler().schedule("map-center-search", interval, interval, this::searchStep);
+
+        plugin.getLogger().info("MapCenterManager initialized");
+    }
+
+    /**
+     * 読み込んだファイルの内容を反映
+     */
+    private void applyPoolFile(YamlConfiguration config) {
+        if (config != null) {
+            ConfigurationSection seeds = config.getConfigurationSection("seeds");
+            if (seeds != null) {
+                for (String seed : seeds.getKeys(false)) {
+                    ConfigurationSection section = seeds.getConfigurationSection(seed);
+                    if (section == null) {
+                        continue;
+                    }
+
+                    Pool pool = pools.computeIfAbsent(seed, key -> new Pool());
+                    pool.nextStep = Math.max(pool.nextStep, section.getInt("next-step", 0));
+                    for (Map<?, ?> entry : section.getMapList("candidates")) {
+                        try {
+                            pool.add(new Candidate(String.valueOf(entry.get("type")),
+                                ((Number) entry.get("x")).intValue(),
+                                ((Number) entry.get("y")).intValue(),
+                                ((Number) entry.get("z")).intValue()));
+                        } catch (RuntimeException e) {
+                            plugin.getLogger().warning("Skipping invalid map center candidate in " + POOL_FILE + ": " + entry);
+                        }
+                    }
+                }
+            }
+        }
+
+        loaded = true;
+        World world = getMainWorld();
+        if (world != null) {
+            Pool pool = pools.get(seedKey(world));
+            plugin.getLogger().info("Loaded map center pool: " + (pool != null ? pool.candidates.size() : 0)
+                + " candidates (search " + (pool != null ? pool.nextStep : 0) + "/" + getTotalSteps() + ")");
+        }
+    }
+
+    /**
+     * 構造物を1回だけ検索（待機中・クールダウン中でプレイヤーがいない間のみ）
+     */
+    private void searchStep() {
+        World world = getMainWorld();
+        if (!loaded || searching || world == null || plugin.getConfigManager().getMapCenterX() != null) {
+            return;
+        }
+
+        // 検索中はサーバーが止まるため、影響を受けるプレイヤーがいる間は行わない
+        if (!Bukkit.getOnlinePlayers().isEmpty()) {
+            return;
+        }
+
+        GameManager gameManager = plugin.getGameManager();
+        GameState state = gameManager.getCurrentState();
+        if ((state != GameState.WAITING && state != GameState.COOLDOWN) || gameManager.isTearingDown()) {
+            return;
+        }
+
+        Pool pool = pools.computeIfAbsent(seedKey(world), key -> new Pool());
+        if (pool.nextStep >= getTotalSteps()) {
+            // すべての起点・構造物を検索済み
+            searchTask.cancel();
+            searchTask = null;
+            plugin.getLogger().info("Map center search finished: " + pool.candidates.size() + " candidates");
+            return;
+        }
+
+        int step = pool.nextStep++;
+        int[] offset = ORIGIN_OFFSETS[step / STRUCTURE_TYPES.size()];
+        int spacing = plugin.getConfigManager().getMapCenterOriginSpacing();
+        Location spawn = world.getSpawnLocation();
+        Location origin = new Location(world, spawn.getBlockX() + offset[0] * spacing, spawn.getBlockY(),
+            spawn.getBlockZ() + offset[1] * spacing);
+
+        searching = true;
+        locate(world, origin, STRUCTURE_TYPES.get(step % STRUCTURE_TYPES.size()), pool).thenRun(() -> {
+            searching = false;
+            save();
+        });
+    }
+
+    /**
+     * 起点から最も近い構造物を検索して候補に追加
+     * 構造物の検索はメインスレッドで行い、地表の高さは構造物のチャンクを非同期で読み込んでから取得する
+     * @return 候補に追加した場合true（メインスレッドで完了する）
+     */
+    private CompletableFuture<Boolean> locate(World world, Location origin, StructureType structureType, Pool pool) {
+        Location found;
+        try {
+            found = world.locateNearestStructure(origin, structureType, STRUCTURE_SEARCH_RADIUS, false);
+        } catch (Exception e) {
+            plugin.getLogger().fine("Could not find structure " + structureType.getName() + ": " + e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+        if (found == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        int x = found.getBlockX();
+        int z = found.getBlockZ();
+        return world.getChunkAtAsync(x >> 4, z >> 4).thenApplyAsync(chunk -> {
+            if (chunk == null) {
+                plugin.getLogger().fine("Could not load chunk of structure " + structureType.getName() + " at X=" + x + ", Z=" + z);
+                return false;
+            }
+
+            // チャンクは読み込み済みなので地上のY座標の取得は軽い
+            int y = world.getHighestBlockYAt(x, z);
+            if (!pool.add(new Candidate(structureType.getName(), x, y, z))) {
+                return false;
+            }
+            plugin.getLogger().info("Found map center candidate: " + structureType.getName() + " at X=" + x + ", Z=" + z);
+            return true;
+        }, plugin.getMainThreadExecutor()).exceptionally(e -> {
+            plugin.getLogger().fine("Could not load chunk of structure " + structureType.getName() + ": " + e.getMessage());
+            return false;
+        });
+    }
+
+    /**
+     * 候補がない場合にスポーンから構造物を検索（ゲーム開始処理から呼ぶ）
+     * 1tickに1種類ずつ検索し、候補が見つかった時点で終える
+     * @return 候補が見つかった場合true
+     */
+    public CompletableFuture<Boolean> searchFromSpawn(World world) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        searchFromSpawn(world, 0, result);
+        return result;
+    }
+
+    private void searchFromSpawn(World world, int index, CompletableFuture<Boolean> result) {
+        // 検索の途中でゲームが終わった・プラグインが停止した場合は打ち切る
+        if (index >= STRUCTURE_TYPES.size() || !plugin.isEnabled()
+            || plugin.getGameManager().getCurrentState() != GameState.RUNNING) {
+            result.complete(false);
+            return;
+        }
+
+        Pool pool = pools.computeIfAbsent(seedKey(world), key -> new Pool());
+        locate(world, world.getSpawnLocation(), STRUCTURE_TYPES.get(index), pool).thenAccept(added -> {
+            if (!added) {
+                // 次の種類は次のtickで検索
+                Bukkit.getScheduler().runTask(plugin, () -> searchFromSpawn(world, index + 1, result));
+                return;
+            }
+            if (plugin.getConfigManager().isMapCenterPoolEnabled()) {
+                save();
+            }
+            result.complete(true);
+        });
+    }
+
+    /**
+     * ワールドの候補があるかチェック
+     */
+    public boolean hasCandidates(World world) {
+        Pool pool = pools.get(seedKey(world));
+        return pool != null && !pool.candidates.isEmpty();
+    }
+
+    /**
+     * 候補からランダムに1つ選ぶ（候補が複数あれば前回と違うものを選ぶ）
+     * @return 中心座標（候補がない場合は空）
+     */
+    public Optional<Location> pickCandidate(World world) {
+        Pool pool = pools.get(seedKey(world));
+        if (pool == null || pool.candidates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Candidate> choices = new ArrayList<>(pool.candidates);
+        if (choices.size() > 1) {
+            choices.remove(lastPicked);
+        }
+        Candidate picked = choices.get(random.nextInt(choices.size()));
+        lastPicked = picked;
+
+        plugin.getLogger().info("Selected map center candidate " + picked.type + " from " + pool.candidates.size()
+            + " candidates: X=" + picked.x + ", Z=" + picked.z);
+        return Optional.of(new Location(world, picked.x, picked.y, picked.z));
+    }
+
+    /**
+     * ワールドの候補数（デバッグ用）
+     */
+    public int getCandidateCount(World world) {
+        Pool pool = pools.get(seedKey(world));
+        return pool != null ? pool.candidates.size() : 0;
+    }
+
+    /**
+     * ワールドの検索の進み具合（デバッグ用）
+     */
+    public int getSearchedSteps(World world) {
+        Pool pool = pools.get(seedKey(world));
+        return pool != null ? Math.min(pool.nextStep, getTotalSteps()) : 0;
+    }
+
+    public int getTotalSteps() {
+        return ORIGIN_OFFSETS.length * STRUCTURE_TYPES.size();
+    }
+
+    /**
+     * 候補をI/Oスレッドでファイルに保存
+     * 保存が前後しても古い内容で上書きしないよう、後から頼まれた内容だけを書き込む
+     */
+    private void save() {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Pool> entry : pools.entrySet()) {
+            Pool pool = entry.getValue();
+            List<Map<String, Object>> candidates = new ArrayList<>(pool.candidates.size());
+            for (Candidate candidate : pool.candidates) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("type", candidate.type);
+                map.put("x", candidate.x);
+                map.put("y", candidate.y);
+                map.put("z", candidate.z);
+                candidates.add(map);
+            }
+            config.set("seeds." + entry.getKey() + ".next-step", pool.nextStep);
+            config.set("seeds." + entry.getKey() + ".candidates", candidates);
+        }
+
+        byte[] data = config.saveToString().getBytes(StandardCharsets.UTF_8);
+        long sequence = ++saveSequence;
+        File file = new File(plugin.getDataFolder(), POOL_FILE);
+
+        plugin.getStorageExecutor().supplyFile(() -> {
+            synchronized (saveLock) {
+                if (sequence <= writtenSequence) {
+                    return null; // より新しい内容を保存済み
+                }
+                File temp = new File(file.getParentFile(), POOL_FILE + ".tmp");
+                Files.write(temp.toPath(), data);
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                writtenSequence = sequence;
+            }
+            return null;
+        }).exceptionally(e -> {
+            plugin.getLogger().log(Level.WARNING, "Failed to save " + POOL_FILE, e);
+            return null;
+        });
+    }
+
+    private World getMainWorld() {
+        List<World> worlds = Bukkit.getWorlds();
+        return worlds.isEmpty() ? null : worlds.get(0);
+    }
+
+    private static String seedKey(World world) {
+        return String.valueOf(world.getSeed());
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        if (searchTask != null) {
+            searchTask.cancel();
+            searchTask = null;
+        }
+        plugin.getLogger().info("MapCenterManager shutdown complete");
+    }
+
+    /**
+     * シードごとの候補と検索の進み具合
+     */
+    private static class Pool {
+        private final List<Candidate> candidates = new ArrayList<>();
+        private int nextStep;
+
+        /**
+         * 候補を追加（近くに同じ構造物がある場合は追加しない）
+         * @return 追加した場合true
+         */
+        boolean add(Candidate candidate) {
+            for (Candidate existing : candidates) {
+                if (Math.abs(existing.x - candidate.x) < DUPLICATE_DISTANCE
+                    && Math.abs(existing.z - candidate.z) < DUPLICATE_DISTANCE) {
+                    return false;
+                }
+            }
+            candidates.add(candidate);
+            return true;
+        }
+    }
+
+    /**
+     * マップ中心の候補
+     */
+    private static class Candidate {
+        private final String type;
+        private final int x;
+        private final int y;
+        private final int z;
+
+        Candidate(String type, int x, int y, int z) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+}
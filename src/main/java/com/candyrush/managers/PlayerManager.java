@@ -2,12 +2,18 @@ package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
 import com.candyrush.models.TeamColor;
+import com.candyrush.storage.PlayerDataCache;
+import com.candyrush.storage.PlayerDataWriteBehind;
+import com.candyrush.storage.RoundCheckpoint;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
@@ -18,47 +24,149 @@ import java.util.logging.Level;
 public class PlayerManager {
 
     private final CandyRushPlugin plugin;
-    private final Map<UUID, PlayerData> playerDataCache;
+    private final PlayerDataCache playerDataCache;
+    private final Set<UUID> preloadedPlayers;
+    private final Set<UUID> loadingPlayers;
+    private final Map<UUID, List<PendingPoints>> placeholderPoints;
+    private PlayerDataWriteBehind writeBehind;
+    private BukkitTask cacheCleanupTask;
 
     public PlayerManager(CandyRushPlugin plugin) {
         this.plugin = plugin;
-        this.playerDataCache = new ConcurrentHashMap<>();
+        this.playerDataCache = new PlayerDataCache(
+            plugin.getConfigManager().getPlayerCacheMaxSize(),
+            plugin.getConfigManager().getPlayerCacheTtlSeconds(),
+            plugin.getConfigManager().getPlayerCacheNegativeTtlSeconds()
+        );
+        this.preloadedPlayers = ConcurrentHashMap.newKeySet();
+        this.loadingPlayers = ConcurrentHashMap.newKeySet();
+        this.placeholderPoints = new ConcurrentHashMap<>();
     }
 
     /**
      * マネージャーを初期化
      */
     public void initialize() {
+        writeBehind = new PlayerDataWriteBehind(plugin.getPlayerDataStorage(), plugin.getLogger());
+        writeBehind.start(plugin.getConfigManager().getWriteBehindFlushIntervalMillis());
+
+        // 期限切れのキャッシュを定期的に削除（1分ごと）
+        cacheCleanupTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+            playerDataCache::cleanUp, 1200L, 1200L);
+
         plugin.getLogger().info("PlayerManager initialized");
     }
 
     /**
-     * プレイヤーデータを取得（キャッシュまたはDB）
+     * メモリ上のプレイヤーデータのみを取得（DBにはアクセスしない）
+     * キャッシュから追い出されていても未保存の変更があればそれを返す
+     */
+    public Optional<PlayerData> getCachedPlayerData(UUID uuid) {
+        Optional<PlayerData> cached = playerDataCache.peek(uuid);
+        return cached.isPresent() ? cached : writeBehind.getPending(uuid);
+    }
+
+    /**
+     * プレイヤーデータを取得（キャッシュのみ、メインスレッドでDBにはアクセスしない）
+     * キャッシュにない場合はバックグラウンドで読み込みを開始して空を返し、読み込み後の呼び出しから返す
+     * 存在しないプレイヤーも一定時間記憶し、同じUUIDで何度もDBを引かない
      */
     public Optional<PlayerData> getPlayerData(UUID uuid) {
-        // キャッシュから取得
-        PlayerData cached = playerDataCache.get(uuid);
+        // キャッシュから取得（存在しないことが分かっている場合も含む）
+        PlayerDataCache.CachedValue cached = playerDataCache.lookup(uuid);
         if (cached != null) {
-            return Optional.of(cached);
+            return cached.asOptional();
         }
 
-        // データベースから読み込み
-        try {
-            Optional<PlayerData> loaded = plugin.getPlayerDataStorage().loadPlayer(uuid);
-            loaded.ifPresent(data -> playerDataCache.put(uuid, data));
-            return loaded;
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, e);
-            return Optional.empty();
+        // 未保存の変更があればDBより優先
+        Optional<PlayerData> pending = writeBehind.getPending(uuid);
+        if (pending.isPresent()) {
+            return Optional.of(playerDataCache.putIfAbsent(uuid, pending.get()));
         }
+
+        loadPlayerDataAsync(uuid, null);
+        return Optional.empty();
     }
 
     /**
      * プレイヤーデータを取得または新規作成
+     * オンラインのプレイヤーはログイン前に読み込み済みのため、通常はキャッシュから返す
+     * 先読みに失敗していた場合は読み込み（行がなければ作成）をバックグラウンドで行い、
+     * それまでは保存されない仮のデータを返す（DBの値を初期値で上書きしないため）
      */
     public PlayerData getOrCreatePlayerData(Player player) {
-        return getPlayerData(player.getUniqueId())
-                .orElseGet(() -> createNewPlayerData(player));
+        UUID uuid = player.getUniqueId();
+        PlayerDataCache.CachedValue cached = playerDataCache.lookup(uuid);
+        if (cached != null) {
+            return cached.isNegative() ? createNewPlayerData(player) : cached.getData();
+        }
+
+        Optional<PlayerData> pending = writeBehind.getPending(uuid);
+        if (pending.isPresent()) {
+            return playerDataCache.putIfAbsent(uuid, pending.get());
+        }
+
+        loadPlayerDataAsync(uuid, player.getName());
+        return new PlaceholderPlayerData(uuid, player.getName());
+    }
+
+    /**
+     * プレイヤーデータをバックグラウンドで読み込んでキャッシュに入れる（同じプレイヤーの読み込みは1つだけ）
+     * 仮のデータに加えられたポイントは、読み込んだデータにメインスレッドで反映する
+     * @param name 名前（指定した場合は行がなければ作成する）
+     */
+    private void loadPlayerDataAsync(UUID uuid, String name) {
+        if (!loadingPlayers.add(uuid)) {
+            return;
+        }
+
+        CompletableFuture<Optional<PlayerData>> load = name != null
+            ? plugin.getAsyncPlayerDataStorage().loadOrCreatePlayer(uuid, name).thenApply(Optional::of)
+            : plugin.getAsyncPlayerDataStorage().loadPlayer(uuid);
+        load.whenCompleteAsync((loaded, error) -> {
+            loadingPlayers.remove(uuid);
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load player data for " + uuid, error);
+                dropPlaceholderPoints(uuid);
+            } else if (loaded.isPresent()) {
+                applyPlaceholderPoints(playerDataCache.putIfAbsent(uuid, loaded.get()));
+            } else {
+                playerDataCache.putNegative(uuid);
+                dropPlaceholderPoints(uuid);
+            }
+        }, plugin.getMainThreadExecutor());
+    }
+
+    /**
+     * 読み込み待ちの間に仮のデータへ加えられたポイントを、読み込んだデータに反映
+     */
+    private void applyPlaceholderPoints(PlayerData data) {
+        List<PendingPoints> changes = placeholderPoints.remove(data.getUuid());
+        if (changes == null) {
+            return;
+        }
+
+        // 獲得元ごとに記録されるよう、1件ずつ通常の経路で反映する
+        for (PendingPoints change : changes) {
+            addPoints(data, change.points, change.source);
+        }
+        plugin.getLogger().fine("Applied " + changes.size() + " buffered point changes to " + data.getUuid());
+    }
+
+    /**
+     * 読み込めなかったプレイヤーの仮のポイントを破棄（警告を出す）
+     */
+    private void dropPlaceholderPoints(UUID uuid) {
+        List<PendingPoints> changes = placeholderPoints.remove(uuid);
+        int points = 0;
+        if (changes != null) {
+            for (PendingPoints change : changes) {
+                points += change.points;
+            }
+        }
+        if (points != 0) {
+            plugin.getLogger().warning("Dropped " + points + " points buffered for " + uuid + " - player data could not be loaded");
+        }
     }
 
     /**
@@ -68,32 +176,78 @@ public class PlayerManager {
         PlayerData data = new PlayerData(player.getUniqueId(), player.getName());
         playerDataCache.put(player.getUniqueId(), data);
 
-        // データベースに保存
-        try {
-            plugin.getPlayerDataStorage().savePlayer(data);
-            plugin.getLogger().info("Created new player data for: " + player.getName());
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save new player data", e);
-        }
+        // 次回のフラッシュでデータベースに保存
+        savePlayerData(data);
+        plugin.getLogger().info("Created new player data for: " + player.getName());
 
         return data;
     }
 
     /**
      * プレイヤーデータを保存
+     * 即座には書き込まず、変更をまとめてバックグラウンドでフラッシュする
+     * 読み込み待ちの間に返した仮のデータは保存しない（ポイントはaddPointsで保留し、読み込み後に反映する）
      */
     public void savePlayerData(PlayerData data) {
-        try {
-            plugin.getPlayerDataStorage().savePlayer(data);
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save player data for " + data.getUuid(), e);
+        if (data instanceof PlaceholderPlayerData) {
+            plugin.getLogger().fine("Skipped saving placeholder player data for " + data.getUuid());
+            return;
+        }
+        writeBehind.markDirty(data);
+        plugin.getLeaderboardManager().update(data);
+    }
+
+    /**
+     * 保存待ちの変更をバックグラウンドで書き込む（ラウンド終了時など）
+     * @return 書き込みが終わったら完了（書き込んだ件数）
+     */
+    public CompletableFuture<Integer> flushPendingWrites() {
+        return writeBehind.flushAsync();
+    }
+
+    /**
+     * ログイン前にプレイヤーデータを読み込む（AsyncPlayerPreLoginEventのスレッドから呼ぶ）
+     * 新規プレイヤーの行作成も同じトランザクションで行い、参加時のDBアクセスをなくす
+     * @return 読み込みに成功した場合true
+     */
+    public boolean preloadPlayerData(UUID uuid, String name) {
+        if (playerDataCache.containsPlayer(uuid)) {
+            return true; // ゲーム中の再接続などで既にキャッシュ済み
+        }
+
+        PlayerData data = writeBehind.getPending(uuid).orElse(null);
+        if (data == null) {
+            try {
+                data = plugin.getPlayerDataStorage().loadOrCreatePlayer(uuid, name);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to preload player data for " + uuid, e);
+                return false;
+            }
+        }
+
+        if (playerDataCache.putIfAbsent(uuid, data) == data) {
+            preloadedPlayers.add(uuid);
+        }
+        return true;
+    }
+
+    /**
+     * ログインが拒否された場合に先読みしたデータを破棄
+     */
+    public void discardPreloadedData(UUID uuid) {
+        if (preloadedPlayers.remove(uuid) && Bukkit.getPlayer(uuid) == null) {
+            playerDataCache.remove(uuid);
         }
     }
 
     /**
      * プレイヤーのログイン処理
+     * 通常はログイン前に読み込み済みのため、DBアクセスは発生しない
      */
     public void handlePlayerJoin(Player player) {
+        preloadedPlayers.remove(player.getUniqueId());
+        // オンライン中はキャッシュから追い出さない
+        playerDataCache.pin(player.getUniqueId());
         PlayerData data = getOrCreatePlayerData(player);
         data.setName(player.getName()); // 名前が変わっている可能性
         data.updateLastSeen();
@@ -106,28 +260,41 @@ public class PlayerManager {
      * プレイヤーのログアウト処理
      */
     public void handlePlayerQuit(Player player) {
-        PlayerData data = playerDataCache.get(player.getUniqueId());
-        if (data != null) {
+        playerDataCache.peek(player.getUniqueId()).ifPresent(data -> {
             data.updateLastSeen();
             savePlayerData(data);
-        }
+            writeBehind.flushAsync();
+        });
 
-        // ゲーム中でなければキャッシュから削除
-        if (!plugin.getGameManager().isGameRunning()) {
-            playerDataCache.remove(player.getUniqueId());
-        }
+        // キャッシュには残し、期限切れ・容量超過で追い出されるようにする
+        playerDataCache.unpin(player.getUniqueId());
 
         plugin.getLogger().fine("Player quit: " + player.getName());
     }
 
     /**
      * プレイヤーにポイントを追加
+     * @param source 獲得元（ポイント履歴に記録される）
      */
-    public void addPoints(UUID uuid, int points) {
-        getPlayerData(uuid).ifPresent(data -> {
+    public void addPoints(UUID uuid, int points, PointSource source) {
+        getPlayerData(uuid).ifPresent(data -> addPoints(data, points, source));
+    }
+
+    /**
+     * プレイヤーにポイントを追加（消費はマイナス）
+     * 読み込み待ちの仮のデータの場合は、読み込み後に本来のデータへ反映するまで保留する
+     * @param source 獲得元（ポイント履歴に記録される）
+     */
+    public void addPoints(PlayerData data, int points, PointSource source) {
+        if (data instanceof PlaceholderPlayerData) {
             data.addPoints(points);
-            savePlayerData(data);
-        });
+            placeholderPoints.computeIfAbsent(data.getUuid(), uuid -> new ArrayList<>())
+                .add(new PendingPoints(points, source));
+            return;
+        }
+        data.addPoints(points);
+        savePlayerData(data);
+        plugin.getPointLedgerManager().record(data, source, points);
     }
 
     /**
@@ -232,74 +399,105 @@ public class PlayerManager {
     }
 
     /**
-     * 全プレイヤーのチーム割り当てをクリア
+     * 新しいラウンドを開始
+     * チームとポイントはラウンド単位で保存されるため、新ラウンドに切り替えるだけで全プレイヤー分がリセットされる
+     * DBの全行更新は行わず、キャッシュ内のプレイヤーのみメモリ上でリセットする
+     * @param roundId ラウンドID（保存に失敗した場合はnull）
      */
-    public void clearAllTeamAssignments() {
-        try {
-            plugin.getPlayerDataStorage().clearAllTeamAssignments();
-            // キャッシュ内のデータも更新
-            for (PlayerData data : playerDataCache.values()) {
-                data.setTeamColor(null);
+    public void startRound(Integer roundId) {
+        plugin.getPlayerDataStorage().setActiveRound(roundId);
+
+        // 保存待ちのスナップショットも上書きし、前ラウンドの値が新ラウンドに書かれないようにする
+        for (PlayerData data : playerDataCache.values()) {
+            if (data.getTeamColor() != null || data.getPoints() != 0) {
+                data.resetForNewGame();
+                savePlayerData(data);
             }
-            plugin.getLogger().info("Cleared all team assignments");
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to clear team assignments", e);
         }
+
+        plugin.getLogger().info("Player scores reset for round " + roundId);
     }
 
     /**
-     * 全プレイヤーのポイントをリセット
+     * 中断したラウンドを再開（起動時、メインスレッド）
+     * チェックポイント時点のチーム・ポイント・Murderer状態を書き戻す
+     * キャッシュにないプレイヤー（起動直後は全員）はバックグラウンドで読み込んでから書き戻す
+     * Murdererの残り時間はサーバー停止中には減らさない
+     * @param roundId 再開するラウンドID
+     * @param players チェックポイントのプレイヤー状態
+     * @param downtimeSeconds サーバーが停止していた時間（秒）
+     * @return 書き戻しが終わったら完了（メインスレッド、読み込みに失敗したプレイヤーは飛ばす）
      */
-    public void resetAllPoints() {
-        try {
-            plugin.getPlayerDataStorage().resetAllPoints();
-            // キャッシュ内のデータも更新
-            for (PlayerData data : playerDataCache.values()) {
-                data.setPoints(0);
+    public CompletableFuture<Void> resumeRound(int roundId, List<RoundCheckpoint.PlayerEntry> players, long downtimeSeconds) {
+        plugin.getPlayerDataStorage().setActiveRound(roundId);
+
+        List<CompletableFuture<Optional<PlayerData>>> loads = new ArrayList<>();
+        for (RoundCheckpoint.PlayerEntry entry : players) {
+            if (!getCachedPlayerData(entry.uuid).isPresent()) {
+                loads.add(plugin.getAsyncPlayerDataStorage().loadPlayer(entry.uuid));
             }
-            plugin.getLogger().info("Reset all player points");
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to reset points", e);
         }
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+            .handle((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to load some checkpointed players", error);
+                }
+                return null;
+            })
+            .thenAcceptAsync(ignored -> {
+                for (CompletableFuture<Optional<PlayerData>> load : loads) {
+                    if (!load.isCompletedExceptionally()) {
+                        load.join().ifPresent(data -> playerDataCache.putIfAbsent(data.getUuid(), data));
+                    }
+                }
+
+                for (RoundCheckpoint.PlayerEntry entry : players) {
+                    getPlayerData(entry.uuid).ifPresent(data -> {
+                        data.setTeamColor(entry.teamColor);
+                        // 差分として加算し、累計ポイントもチェックポイントに合わせる
+                        data.addPoints(entry.points - data.getPoints());
+                        if (entry.murdererUntil > 0) {
+                            data.setMurderer(true);
+                            data.setMurdererUntil(entry.murdererUntil + downtimeSeconds);
+                        }
+                        savePlayerData(data);
+                    });
+                }
+
+                plugin.getLogger().info("Player scores restored for round " + roundId + " (" + players.size() + " players)");
+            }, plugin.getMainThreadExecutor());
     }
 
     /**
-     * トッププレイヤーを取得
+     * 現在のラウンドでのプレイヤーのチームを設定
      */
-    public List<PlayerData> getTopPlayers(int limit) {
-        try {
-            return plugin.getPlayerDataStorage().getTopPlayers(limit);
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to get top players", e);
-            return Collections.emptyList();
-        }
+    public void setPlayerTeam(UUID uuid, TeamColor teamColor) {
+        getPlayerData(uuid).ifPresent(data -> {
+            data.setTeamColor(teamColor);
+            savePlayerData(data);
+        });
     }
 
     /**
-     * チームのプレイヤーリストを取得
+     * チームのプレイヤーリストを取得（非同期、失敗時は空リスト）
      */
-    public List<PlayerData> getTeamPlayers(TeamColor teamColor) {
-        try {
-            return plugin.getPlayerDataStorage().loadPlayersByTeam(teamColor);
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to get team players", e);
-            return Collections.emptyList();
-        }
+    public CompletableFuture<List<PlayerData>> getTeamPlayers(TeamColor teamColor) {
+        return plugin.getAsyncPlayerDataStorage().loadPlayersByTeam(teamColor)
+            .exceptionally(error -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to get team players", error);
+                return Collections.emptyList();
+            });
     }
 
     /**
      * 全プレイヤーデータを保存
      */
     public void saveAll() {
-        int count = 0;
         for (PlayerData data : playerDataCache.values()) {
-            try {
-                plugin.getPlayerDataStorage().savePlayer(data);
-                count++;
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to save player data", e);
-            }
+            writeBehind.markDirty(data);
         }
+        int count = writeBehind.flushNow();
         plugin.getLogger().info("Saved " + count + " player data entries");
     }
 
@@ -316,7 +514,15 @@ public class PlayerManager {
      * クリーンアップ（プラグイン無効化時）
      */
     public void shutdown() {
-        saveAll();
+        if (cacheCleanupTask != null) {
+            cacheCleanupTask.cancel();
+            cacheCleanupTask = null;
+        }
+
+        for (PlayerData data : playerDataCache.values()) {
+            writeBehind.markDirty(data);
+        }
+        writeBehind.shutdown();
         playerDataCache.clear();
         plugin.getLogger().info("PlayerManager shutdown complete");
     }
@@ -327,4 +533,40 @@ public class PlayerManager {
     public int getCacheSize() {
         return playerDataCache.size();
     }
+
+    /**
+     * プレイヤーデータキャッシュを取得（統計表示用）
+     */
+    public PlayerDataCache getPlayerDataCache() {
+        return playerDataCache;
+    }
+
+    /**
+     * 書き込み待ちのプレイヤー数を取得（デバッグ用）
+     */
+    public int getPendingWriteCount() {
+        return writeBehind.getPendingCount();
+    }
+
+    /**
+     * 読み込み待ちの間だけ使う仮のプレイヤーデータ（保存されない）
+     */
+    private static class PlaceholderPlayerData extends PlayerData {
+        PlaceholderPlayerData(UUID uuid, String name) {
+            super(uuid, name);
+        }
+    }
+
+    /**
+     * 仮のデータに加えられ、読み込み後に反映を待つポイント変更
+     */
+    private static class PendingPoints {
+        private final int points;
+        private final PointSource source;
+
+        PendingPoints(int points, PointSource source) {
+            this.points = points;
+            this.source = source;
+        }
+    }
 }
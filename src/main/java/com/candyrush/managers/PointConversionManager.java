@@ -2,6 +2,7 @@ package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
 import com.candyrush.models.TeamColor;
 import com.candyrush.utils.LanguageManager;
 import com.candyrush.utils.MessageUtils;
@@ -105,8 +106,7 @@ public class PointConversionManager {
         }
 
         // プレイヤーにポイント追加
-        playerData.addPoints(points);
-        plugin.getPlayerManager().savePlayerData(playerData);
+        plugin.getPlayerManager().addPoints(playerData, points, PointSource.FOOD_EAT);
 
         // チームにポイント追加
         plugin.getTeamManager().addTeamPoints(teamColor, points);
@@ -171,8 +171,7 @@ public class PointConversionManager {
         }
 
         // ポイント加算
-        playerData.addPoints(totalPoints);
-        plugin.getPlayerManager().savePlayerData(playerData);
+        plugin.getPlayerManager().addPoints(playerData, totalPoints, PointSource.FOOD_CONVERT);
         plugin.getTeamManager().addTeamPoints(teamColor, totalPoints);
 
         // 結果を通知
@@ -0,0 +1,195 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
+import com.candyrush.storage.PointEvent;
+import com.candyrush.storage.PointEventStorage;
+import com.candyrush.storage.PointLedger;
+import org.bukkit.Bukkit;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * ポイント変更の履歴（獲得元ごとの内訳）を管理するマネージャー
+ * 記録はロックフリーのリングバッファに積むだけで、一定間隔でまとめて集計・保存する
+ * 集計結果はラウンド終了時のMVP・内訳表示に使う
+ */
+public class PointLedgerManager {
+
+    private final CandyRushPlugin plugin;
+    private final PointLedger ledger;
+    private volatile Integer roundId;
+    private volatile boolean recording;
+    private GameScheduler.Job flushTask;
+
+    public PointLedgerManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.ledger = new PointLedger(plugin.getConfigManager().getPointLedgerBufferSize());
+        this.roundId = null;
+        this.recording = false;
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        long interval = Math.max(1, plugin.getConfigManager().getPointLedgerFlushIntervalTicks());
+        flushTask = plugin.getGameScheduler().schedule("point-ledger-flush", interval, interval, this::flushAsync);
+
+        plugin.getLogger().info("PointLedgerManager initialized");
+    }
+
+    /**
+     * ラウンド開始時に集計をリセットして記録を開始
+     * @param newRoundId ラウンドID（保存に失敗した場合はnull、その場合は集計のみ行う）
+     */
+    public void startRound(Integer newRoundId) {
+        flushAsync();
+        ledger.reset();
+        roundId = newRoundId;
+        recording = true;
+    }
+
+    /**
+     * 中断したラウンドを再開（起動時、メインスレッド）
+     * 保存済みの履歴から集計を復元して記録を再開する
+     * @param resumedRoundId 再開するラウンドID
+     */
+    public void resumeRound(int resumedRoundId) {
+        ledger.drain();
+        try {
+            ledger.restore(plugin.getPointEventStorage().loadRoundBreakdowns(resumedRoundId));
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to restore point breakdowns for round " + resumedRoundId, e);
+            ledger.reset();
+        }
+        roundId = resumedRoundId;
+        recording = true;
+    }
+
+    /**
+     * ラウンド終了時に記録を止め、溜まっている分を集計する
+     * 集計結果は次のラウンド開始まで参照できる
+     * @return 溜まっていた履歴の保存が終わったら完了
+     */
+    public CompletableFuture<Void> endRound() {
+        recording = false;
+        return flushAsync();
+    }
+
+    /**
+     * ポイント変更を記録（どのスレッドからでも呼べる）
+     * @param data 変更後のプレイヤーデータ
+     * @param source 獲得元
+     * @param amount 変更量（消費はマイナス）
+     */
+    public void record(PlayerData data, PointSource source, int amount) {
+        if (!recording || amount == 0) {
+            return;
+        }
+
+        Integer currentRoundId = roundId;
+        PointEvent event = new PointEvent(
+            currentRoundId != null ? currentRoundId : 0,
+            data.getUuid(),
+            data.getTeamColor(),
+            source,
+            amount,
+            Bukkit.getCurrentTick(),
+            System.currentTimeMillis() / 1000
+        );
+
+        if (!ledger.offer(event)) {
+            // バッファが一杯の場合はその場で吐き出してから積み直す
+            flushAsync();
+            if (!ledger.offer(event)) {
+                plugin.getLogger().warning("Point ledger is full - dropped " + source + " event for " + data.getUuid());
+            }
+        }
+    }
+
+    /**
+     * 溜まっている履歴を集計し、非同期でまとめて保存
+     * @return 保存が終わったら完了（失敗してもログを出して完了する）
+     */
+    public CompletableFuture<Void> flushAsync() {
+        List<PointEvent> events = drainPersistable();
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        PointEventStorage storage = plugin.getPointEventStorage();
+        return plugin.getStorageExecutor().run(() -> storage.saveEvents(events))
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.WARNING, "Failed to save " + events.size() + " point events to database", e);
+                return null;
+            });
+    }
+
+    /**
+     * 溜まっている履歴を同期的に保存（シャットダウン時）
+     */
+    private void flushNow() {
+        List<PointEvent> events = drainPersistable();
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            plugin.getPointEventStorage().saveEvents(events);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save " + events.size() + " point events to database", e);
+        }
+    }
+
+    /**
+     * 履歴を集計し、保存対象（IDのあるラウンドの分）だけを返す
+     */
+    private List<PointEvent> drainPersistable() {
+        List<PointEvent> events = ledger.drain();
+        events.removeIf(event -> event.getRoundId() == 0);
+        return events;
+    }
+
+    /**
+     * プレイヤーの獲得元ごとのポイントを取得（集計済みの分のみ）
+     */
+    public Map<PointSource, Integer> getBreakdown(UUID uuid) {
+        return ledger.getBreakdown(uuid);
+    }
+
+    /**
+     * プレイヤーが獲得したポイントを取得（消費分は差し引かない）
+     */
+    public int getEarnedPoints(UUID uuid) {
+        return ledger.getEarned(uuid);
+    }
+
+    /**
+     * 現在のラウンドで最も多くポイントを獲得したプレイヤーを取得
+     */
+    public Optional<UUID> getMvp() {
+        return ledger.getTopEarner();
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        recording = false;
+        flushNow();
+
+        plugin.getLogger().info("PointLedgerManager shutdown complete");
+    }
+}
@@ -0,0 +1,274 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.GameRound;
+import com.candyrush.models.PlayerData;
+import com.candyrush.models.Team;
+import com.candyrush.storage.RoundCheckpoint;
+import com.candyrush.storage.RoundCheckpointFile;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * 進行中ラウンドのチェックポイントを管理するマネージャー
+ * メモリ上にしかない状態（残り時間・チームスコア・宝箱など）を定期的にメモリマップドファイルへ書き出し、
+ * サーバーが落ちた後の起動時にラウンドを再開するか、チェックポイント時点の結果で終了させる
+ */
+public class RoundCheckpointManager {
+
+    private static final String FILE_NAME = "round-checkpoint.dat";
+    private static final long WRITE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final CandyRushPlugin plugin;
+    private final RoundCheckpointFile file;
+    private final boolean enabled;
+    private GameScheduler.Job checkpointTask;
+    private boolean available;
+
+    public RoundCheckpointManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.file = new RoundCheckpointFile(new File(plugin.getDataFolder(), FILE_NAME), plugin.getLogger());
+        this.enabled = plugin.getConfigManager().isCheckpointEnabled();
+        this.available = false;
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        if (!enabled) {
+            plugin.getLogger().info("RoundCheckpointManager disabled by config");
+            return;
+        }
+
+        try {
+            file.open();
+            available = true;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open round checkpoint file - checkpoints disabled", e);
+            return;
+        }
+
+        long interval = Math.max(1, plugin.getConfigManager().getCheckpointIntervalSeconds()) * 20L;
+        checkpointTask = plugin.getGameScheduler().schedule("round-checkpoint", interval, interval, this::checkpoint);
+
+        plugin.getLogger().info("RoundCheckpointManager initialized");
+    }
+
+    /**
+     * 前回終了しなかったラウンドを再開または終了（起動時、全マネージャーの初期化後に呼ぶ）
+     * チェックポイントのないラウンドは結果なしで終了扱いにする
+     */
+    public void recoverUnfinishedRound() {
+        Optional<RoundCheckpoint> checkpoint = available ? file.read() : Optional.empty();
+        Integer keepRoundId = null;
+
+        if (checkpoint.isPresent()) {
+            keepRoundId = recover(checkpoint.get());
+        }
+
+        try {
+            int abandoned = plugin.getGameStateStorage().abandonOpenRounds(keepRoundId);
+            if (abandoned > 0) {
+                plugin.getLogger().warning("Marked " + abandoned + " unfinished game round(s) without a checkpoint as ended");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to close unfinished game rounds", e);
+        }
+    }
+
+    /**
+     * チェックポイントのラウンドを再開または終了
+     * 再開した場合はチェックポイントを残し、次の書き出しまでに再び落ちても復帰できるようにする
+     * @return 再開・終了したラウンドのID（何もしなかった場合はnull）
+     */
+    private Integer recover(RoundCheckpoint checkpoint) {
+        GameRound round;
+        try {
+            round = plugin.getGameStateStorage().loadGameRound(checkpoint.getRoundId()).orElse(null);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load checkpointed game round " + checkpoint.getRoundId(), e);
+            return checkpoint.getRoundId(); // 次回起動時に再判定できるよう残す
+        }
+        if (round == null || round.getEndedAt() != null) {
+            file.clear();
+            return null;
+        }
+
+        long downtimeSeconds = (System.currentTimeMillis() - checkpoint.getCheckpointAtMillis()) / 1000;
+        World world = Bukkit.getWorld(checkpoint.getWorldName());
+        boolean resumable = !checkpoint.hasFlag(RoundCheckpoint.FLAG_WORLD_CLEARED)
+            && world != null
+            && checkpoint.getGameTimeRemaining() > 0
+            && downtimeSeconds <= plugin.getConfigManager().getCheckpointResumeMaxDowntimeSeconds();
+
+        if (resumable) {
+            plugin.getGameManager().resumeRound(round, checkpoint, world);
+        } else {
+            plugin.getGameManager().finalizeRecoveredRound(round, checkpoint);
+            file.clear();
+        }
+        return round.getId();
+    }
+
+    /**
+     * チェックポイントを書き出す（メインスレッド）
+     * 書き込みはメモリマップへのコピーのみで、ディスクへの反映はストレージスレッドで行う
+     */
+    public void checkpoint() {
+        writeCheckpoint(0);
+    }
+
+    /**
+     * ワールドの状態を片付ける前に、再開不可の印をつけたチェックポイントを書き出す（シャットダウン時）
+     * 次回起動時はこのチェックポイントの結果でラウンドを終了させる
+     */
+    public void markWorldCleared() {
+        if (writeCheckpoint(RoundCheckpoint.FLAG_WORLD_CLEARED)) {
+            file.force();
+        }
+    }
+
+    /**
+     * チェックポイントを消去（ラウンド終了時）
+     */
+    public void clear() {
+        if (!available) {
+            return;
+        }
+        file.clear();
+        plugin.getStorageExecutor().run(file::force);
+    }
+
+    /**
+     * @return 書き出した場合true
+     */
+    private boolean writeCheckpoint(int flags) {
+        if (!available) {
+            return false;
+        }
+        RoundCheckpoint checkpoint = capture(flags);
+        if (checkpoint == null) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            file.write(checkpoint);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write round checkpoint", e);
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (elapsed > WRITE_BUDGET_NANOS) {
+            plugin.getLogger().warning(String.format("Round checkpoint took %.2f ms (%d bytes)",
+                elapsed / 1_000_000.0, checkpoint.encodedSize()));
+        }
+
+        if ((flags & RoundCheckpoint.FLAG_WORLD_CLEARED) == 0) {
+            plugin.getStorageExecutor().run(file::force);
+        }
+        return true;
+    }
+
+    /**
+     * 現在のラウンドの状態を取得
+     * @return チェックポイント（ゲーム中でない、またはラウンドIDが未確定の場合はnull）
+     */
+    private RoundCheckpoint capture(int flags) {
+        GameManager gameManager = plugin.getGameManager();
+        GameRound round = gameManager.getCurrentRound();
+        Location center = gameManager.getRoundCenter();
+        if (!gameManager.isGameRunning() || round == null || round.getId() == null
+                || center == null || center.getWorld() == null) {
+            return null;
+        }
+
+        List<RoundCheckpoint.PlayerEntry> players = new ArrayList<>();
+        for (Team team : plugin.getTeamManager().getAllTeams()) {
+            for (UUID uuid : team.getPlayerUuids()) {
+                PlayerData data = plugin.getPlayerManager().getCachedPlayerData(uuid).orElse(null);
+                int points = data != null ? data.getPoints() : 0;
+                long murdererUntil = data != null && data.isMurdererActive() ? data.getMurdererUntil() : 0;
+                players.add(new RoundCheckpoint.PlayerEntry(uuid, team.getColor(), points, murdererUntil));
+            }
+        }
+
+        return new RoundCheckpoint(
+            round.getId(),
+            round.getStartedAt(),
+            round.getCreatedAt(),
+            round.getTotalPlayers(),
+            System.currentTimeMillis(),
+            gameManager.getGameTimeRemaining(),
+            flags,
+            center.getWorld().getName(),
+            center.getBlockX(),
+            center.getBlockY(),
+            center.getBlockZ(),
+            plugin.getConfigManager().getMapRadius(),
+            plugin.getTeamManager().getCheckpointTeams(),
+            players,
+            plugin.getTreasureChestManager().getCheckpointChests()
+        );
+    }
+
+    /**
+     * 書き出したチェックポイントの回数
+     */
+    public long getWriteCount() {
+        return file.getWriteCount();
+    }
+
+    /**
+     * 書き出しの平均時間（マイクロ秒）
+     */
+    public double getAverageWriteMicros() {
+        return file.getAverageWriteMicros();
+    }
+
+    /**
+     * 書き出しの最大時間（マイクロ秒）
+     */
+    public double getMaxWriteMicros() {
+        return file.getMaxWriteMicros();
+    }
+
+    /**
+     * 直近のチェックポイントのサイズ（バイト）
+     */
+    public int getLastSize() {
+        return file.getLastPayloadSize();
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        if (checkpointTask != null) {
+            checkpointTask.cancel();
+            checkpointTask = null;
+        }
+        if (available) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to close round checkpoint file", e);
+            }
+            available = false;
+        }
+
+        plugin.getLogger().info("RoundCheckpointManager shutdown complete");
+    }
+}
@@ -0,0 +1,381 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.storage.StaleChestIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ラウンドの開始・終了処理を段階（ステージ）に分けて複数tickで実行するパイプライン
+ * 毎tick予算の時間までステージを進め、途中のステージは次のtickで続きから再開する
+ * 進捗はボスバーで表示し、ステージごとの処理時間とtick数を完了時にログへ出す
+ * メインスレッドからのみ使用する
+ */
+public class RoundPipeline {
+
+    private final CandyRushPlugin plugin;
+    private final Logger logger;
+    private final GameScheduler scheduler;
+    private final String name;
+    private final String titleKey;
+    private final BarColor barColor;
+    private final long budgetNanos;
+    private final List<StageEntry> stages;
+    private GameScheduler.Job job;
+    private BossBar bossBar;
+    private Runnable onComplete;
+    private int current;
+    private int ticks;
+
+    /**
+     * @param plugin プラグイン
+     * @param name パイプライン名（ジョブ名とログに使用）
+     * @param titleKey ボスバーのタイトルのメッセージキー（{percent} を置換、nullならボスバーなし）
+     * @param barColor ボスバーの色
+     */
+    public RoundPipeline(CandyRushPlugin plugin, String name, String titleKey, BarColor barColor) {
+        this(plugin, plugin.getLogger(), plugin.getGameScheduler(), name, titleKey, barColor,
+            (long) (plugin.getConfigManager().getRoundPipelineBudgetMillis() * 1_000_000));
+    }
+
+    /**
+     * テスト用（ボスバーなし）
+     * @param budgetNanos 1tickの予算（ナノ秒）
+     */
+    RoundPipeline(Logger logger, GameScheduler scheduler, String name, long budgetNanos) {
+        this(null, logger, scheduler, name, null, null, budgetNanos);
+    }
+
+    private RoundPipeline(CandyRushPlugin plugin, Logger logger, GameScheduler scheduler, String name,
+                          String titleKey, BarColor barColor, long budgetNanos) {
+        this.plugin = plugin;
+        this.logger = logger;
+        this.scheduler = scheduler;
+        this.name = name;
+        this.titleKey = titleKey;
+        this.barColor = barColor;
+        this.budgetNanos = budgetNanos;
+        this.stages = new ArrayList<>();
+    }
+
+    /**
+     * ステージを追加（追加した順に実行）
+     * @param stageName ステージ名（ログ用）
+     * @param stage 処理内容
+     * @return このパイプライン
+     */
+    public RoundPipeline stage(String stageName, Stage stage) {
+        stages.add(new StageEntry(stageName, stage));
+        return this;
+    }
+
+    /**
+     * 実行を開始（次のtickから進める）
+     * @param onComplete すべてのステージが終わったときの処理
+     */
+    public void start(Runnable onComplete) {
+        this.onComplete = onComplete;
+
+        if (titleKey != null) {
+            bossBar = Bukkit.createBossBar(title(0), barColor, BarStyle.SOLID);
+            bossBar.setProgress(0.0);
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                bossBar.addPlayer(player);
+            }
+        }
+
+        job = scheduler.schedule(name, 1L, 1L, this::tick);
+        logger.info("Round pipeline '" + name + "' started (" + stages.size() + " stages, budget "
+            + budgetNanos / 1000 + "µs/tick)");
+    }
+
+    /**
+     * 実行を中止（完了時の処理は呼ばれない）
+     */
+    public void cancel() {
+        if (job == null) {
+            return;
+        }
+        job.cancel();
+        job = null;
+        removeBossBar();
+        logger.info("Round pipeline '" + name + "' cancelled at stage "
+            + (current < stages.size() ? "'" + stages.get(current).name + "'" : "end"));
+    }
+
+    /**
+     * 実行中かチェック
+     */
+    public boolean isRunning() {
+        return job != null;
+    }
+
+    /**
+     * 1tick分の処理
+     */
+    private void tick() {
+        ticks++;
+        long deadline = System.nanoTime() + budgetNanos;
+
+        // ステージが完了していれば予算の範囲で次のステージへ進む（各tick最低1回は進める）
+        while (current < stages.size()) {
+            StageEntry entry = stages.get(current);
+            long start = System.nanoTime();
+            boolean done;
+            try {
+                done = entry.stage.run(deadline);
+            } catch (Throwable t) {
+                logger.log(Level.SEVERE, "Round pipeline '" + name + "' stage '" + entry.name + "' failed", t);
+                done = true;
+            }
+            long elapsed = System.nanoTime() - start;
+            entry.busyNanos += elapsed;
+            entry.maxSliceNanos = Math.max(entry.maxSliceNanos, elapsed);
+            if (!done && entry.stage.isWaiting()) {
+                // 完了を確認しただけのtickは処理に使ったtickと分けて数える
+                entry.waitTicks++;
+            } else if (entry.lastTick != ticks) {
+                entry.lastTick = ticks;
+                entry.tickCount++;
+            }
+
+            // ステージの中から中止された場合は以降のステージを実行しない
+            if (!done || job == null) {
+                break;
+            }
+            current++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        if (job == null) {
+            return;
+        }
+
+        if (bossBar != null) {
+            double progress = stages.isEmpty() ? 1.0 : current / (double) stages.size();
+            bossBar.setProgress(progress);
+            bossBar.setTitle(title((int) Math.round(progress * 100)));
+        }
+
+        if (current >= stages.size()) {
+            job.cancel();
+            job = null;
+            removeBossBar();
+            logTimings();
+            if (onComplete != null) {
+                onComplete.run();
+            }
+        }
+    }
+
+    private String title(int percent) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("percent", String.valueOf(percent));
+        return plugin.getLanguageManager().getMessage(titleKey, placeholders);
+    }
+
+    private void removeBossBar() {
+        if (bossBar != null) {
+            bossBar.removeAll();
+            bossBar = null;
+        }
+    }
+
+    /**
+     * ステージごとの処理時間をログに出す
+     * 1tickで予算の2倍を超えたステージは分割できていないため警告（要素1つ分の超過は通常の動作）
+     */
+    private void logTimings() {
+        long totalNanos = 0;
+        StringBuilder summary = new StringBuilder();
+        for (StageEntry entry : stages) {
+            totalNanos += entry.busyNanos;
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(entry.name).append(' ').append(formatMillis(entry.busyNanos)).append("ms/")
+                .append(entry.tickCount).append('t');
+            if (entry.waitTicks > 0) {
+                summary.append(" (+").append(entry.waitTicks).append("t waiting)");
+            }
+
+            if (entry.maxSliceNanos > budgetNanos * 2) {
+                logger.warning("Round pipeline '" + name + "' stage '" + entry.name + "' used "
+                    + formatMillis(entry.maxSliceNanos) + "ms in one tick (budget " + formatMillis(budgetNanos) + "ms)");
+            }
+        }
+
+        logger.info("Round pipeline '" + name + "' finished in " + ticks + " ticks, "
+            + formatMillis(totalNanos) + "ms busy: " + summary);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 1回で終わる処理のステージ
+     */
+    public static Stage once(Runnable work) {
+        return deadlineNanos -> {
+            work.run();
+            return true;
+        };
+    }
+
+    /**
+     * 要素ごとの処理を予算の範囲で少しずつ進めるステージ
+     * 対象はステージの開始時に取得する（前のステージの結果を使える）
+     * @param items 対象の取得処理
+     * @param work 要素ごとの処理
+     */
+    public static <T> Stage each(Supplier<? extends Collection<? extends T>> items, Consumer<? super T> work) {
+        return new Stage() {
+            private Iterator<? extends T> iterator;
+
+            @Override
+            public boolean run(long deadlineNanos) {
+                if (iterator == null) {
+                    iterator = new ArrayList<T>(items.get()).iterator();
+                }
+                while (iterator.hasNext()) {
+                    work.accept(iterator.next());
+                    if (System.nanoTime() >= deadlineNanos) {
+                        break;
+                    }
+                }
+                return !iterator.hasNext();
+            }
+        };
+    }
+
+    /**
+     * 要素をチャンクごとにまとめ、1チャンク分ずつ処理するステージ（ブロック・エンティティの削除用）
+     * 対象はステージの開始時に取得する
+     * @param items 対象の取得処理
+     * @param location 要素の座標
+     * @param work 1チャンク分の処理
+     */
+    public static <T> Stage eachChunk(Supplier<? extends Collection<? extends T>> items,
+                                      Function<? super T, Location> location, Consumer<? super List<T>> work) {
+        return each(() -> groupByChunk(items.get(), location), work);
+    }
+
+    private static <T> List<List<T>> groupByChunk(Collection<? extends T> items, Function<? super T, Location> location) {
+        Map<String, Map<Long, List<T>>> worlds = new LinkedHashMap<>();
+        for (T item : items) {
+            Location loc = location.apply(item);
+            String world = loc.getWorld() != null ? loc.getWorld().getName() : "";
+            long chunkKey = StaleChestIndex.chunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+            worlds.computeIfAbsent(world, w -> new LinkedHashMap<>())
+                .computeIfAbsent(chunkKey, k -> new ArrayList<>())
+                .add(item);
+        }
+
+        List<List<T>> chunks = new ArrayList<>();
+        for (Map<Long, List<T>> worldChunks : worlds.values()) {
+            chunks.addAll(worldChunks.values());
+        }
+        return chunks;
+    }
+
+    /**
+     * 非同期処理の完了を待つステージ
+     * 待っている間も毎tick完了を確認する（確認だけのtickは待機tickとして別に数え、後続のステージは進めない）
+     * @param task 非同期処理の開始
+     * @param then 完了後の処理（メインスレッドで結果かエラーを受け取る）
+     */
+    public static <T> Stage await(Supplier<CompletableFuture<T>> task, BiConsumer<? super T, Throwable> then) {
+        return new Stage() {
+            private CompletableFuture<T> future;
+            private boolean waiting;
+
+            @Override
+            public boolean run(long deadlineNanos) {
+                boolean started = future == null;
+                if (started) {
+                    future = task.get();
+                }
+                if (!future.isDone()) {
+                    waiting = !started;
+                    return false;
+                }
+                waiting = false;
+
+                T result = null;
+                Throwable error = null;
+                try {
+                    result = future.join();
+                } catch (Throwable t) {
+                    error = t.getCause() != null ? t.getCause() : t;
+                }
+                then.accept(result, error);
+                return true;
+            }
+
+            @Override
+            public boolean isWaiting() {
+                return waiting;
+            }
+        };
+    }
+
+    /**
+     * パイプラインの1段階
+     */
+    @FunctionalInterface
+    public interface Stage {
+        /**
+         * 処理を進める
+         * @param deadlineNanos このtickの期限（System.nanoTime() の値）
+         * @return 完了したらtrue（falseなら次のtickで続きから呼ばれる）
+         */
+        boolean run(long deadlineNanos);
+
+        /**
+         * 直前の run() が非同期処理の完了を確認しただけかチェック（そのtickはステージのtick数に数えない）
+         */
+        default boolean isWaiting() {
+            return false;
+        }
+    }
+
+    /**
+     * ステージと計測値
+     */
+    private static class StageEntry {
+        private final String name;
+        private final Stage stage;
+        private long busyNanos;
+        private long maxSliceNanos;
+        private int tickCount;
+        private int waitTicks;
+        private int lastTick = -1;
+
+        StageEntry(String name, Stage stage) {
+            this.name = name;
+            this.stage = stage;
+        }
+    }
+}
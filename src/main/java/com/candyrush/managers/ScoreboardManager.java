@@ -7,7 +7,6 @@ import com.candyrush.models.TeamColor;
 import com.candyrush.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.*;
 
 import java.util.UUID;
@@ -19,7 +18,7 @@ import java.util.UUID;
 public class ScoreboardManager {
 
     private final CandyRushPlugin plugin;
-    private BukkitTask updateTask;
+    private GameScheduler.Job updateTask;
 
     public ScoreboardManager(CandyRushPlugin plugin) {
         this.plugin = plugin;
@@ -121,6 +120,7 @@ public class ScoreboardManager {
                 setScore(objective, MessageUtils.colorize("&7ポイント: &a" + playerData.getPoints()), line--);
                 setScore(objective, MessageUtils.colorize("&7キル: &c" + playerData.getKills()), line--);
                 setScore(objective, MessageUtils.colorize("&7デス: &7" + playerData.getDeaths()), line--);
+                line = setRankScore(objective, playerData, line);
 
                 // 殺人者状態
                 if (playerData.isMurderer()) {
@@ -139,6 +139,7 @@ public class ScoreboardManager {
                 setScore(objective, MessageUtils.colorize("&7ポイント: &a" + playerData.getPoints()), line--);
                 setScore(objective, MessageUtils.colorize("&7キル: &c" + playerData.getKills()), line--);
                 setScore(objective, MessageUtils.colorize("&7デス: &7" + playerData.getDeaths()), line--);
+                line = setRankScore(objective, playerData, line);
                 break;
         }
 
@@ -183,6 +184,18 @@ public class ScoreboardManager {
         }
     }
 
+    /**
+     * 総合順位を表示（ランキングはメモリ上のインデックスから取得）
+     * @return 次の行番号
+     */
+    private int setRankScore(Objective objective, PlayerData playerData, int line) {
+        int rank = plugin.getLeaderboardManager().getRank(playerData.getUuid());
+        if (rank > 0) {
+            setScore(objective, MessageUtils.colorize("&7総合順位: &b#" + rank), line--);
+        }
+        return line;
+    }
+
     /**
      * スコアを設定
      */
@@ -215,9 +228,9 @@ public class ScoreboardManager {
             updateTask.cancel();
         }
 
-        updateTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        updateTask = plugin.getGameScheduler().schedule("scoreboard", 20L, 20L, () -> {
             updateAllScoreboards();
-        }, 20L, 20L); // 1秒ごとに更新
+        }); // 1秒ごとに更新
     }
 
     /**
@@ -2,6 +2,7 @@ package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.PlayerData;
+import com.candyrush.models.PointSource;
 import com.candyrush.models.ShopItem;
 import com.candyrush.utils.MessageUtils;
 import org.bukkit.Bukkit;
@@ -29,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 
 /**
  * ショップ機能を管理するクラス
@@ -40,7 +42,6 @@ public class ShopManager implements Listener {
     private final Map<String, Inventory> openShops; // プレイヤー名 -> 開いているショップインベントリ
     private final Map<String, String> playerCurrentCategory; // プレイヤー名 -> 現在のカテゴリ
     private FileConfiguration shopConfig;
-    private File shopConfigFile;
 
     // ショップアイテム定義
     public static final Material SHOP_ITEM_MATERIAL = Material.EMERALD;
@@ -52,23 +53,23 @@ public class ShopManager implements Listener {
         this.shopItems = new ArrayList<>();
         this.openShops = new HashMap<>();
         this.playerCurrentCategory = new HashMap<>();
-        loadShopConfig();
-        loadShopItems();
+        reload();
     }
 
     /**
-     * shop.ymlファイルをロード（存在しない場合は作成）
+     * shop.ymlファイルをロード（存在しない場合は作成、I/Oスレッドで実行）
      */
-    private void loadShopConfig() {
-        shopConfigFile = new File(plugin.getDataFolder(), "shop.yml");
+    private FileConfiguration loadShopConfig() {
+        File shopConfigFile = new File(plugin.getDataFolder(), "shop.yml");
 
         if (!shopConfigFile.exists()) {
             plugin.saveResource("shop.yml", false);
             plugin.getLogger().info("Created shop.yml file");
         }
 
-        shopConfig = YamlConfiguration.loadConfiguration(shopConfigFile);
+        FileConfiguration config = YamlConfiguration.loadConfiguration(shopConfigFile);
         plugin.getLogger().info("Loaded shop.yml configuration");
+        return config;
     }
 
     /**
@@ -418,8 +419,7 @@ public class ShopManager implements Listener {
         }
 
         // 購入処理
-        playerData.addPoints(-shopItem.getPrice());
-        plugin.getPlayerManager().savePlayerData(playerData);
+        plugin.getPlayerManager().addPoints(playerData, -shopItem.getPrice(), PointSource.SHOP_PURCHASE);
 
         // アイテムを渡す
         player.getInventory().addItem(shopItem.createPurchasedItem());
@@ -564,9 +564,17 @@ public class ShopManager implements Listener {
 
     /**
      * ショップアイテムをリロード
+     * shop.yml の読み込みはI/Oスレッドで行い、アイテム一覧の差し替えはメインスレッドで行う
      */
     public void reload() {
-        loadShopConfig();
-        loadShopItems();
+        plugin.getStorageExecutor().supplyFile(this::loadShopConfig)
+            .thenAcceptAsync(config -> {
+                shopConfig = config;
+                loadShopItems();
+            }, plugin.getMainThreadExecutor())
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load shop.yml", e);
+                return null;
+            });
     }
 }
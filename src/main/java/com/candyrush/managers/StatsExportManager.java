@@ -0,0 +1,417 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.storage.ExportStorage;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ラウンド・チーム・プレイヤーの統計を gzip 圧縮した NDJSON / CSV ファイルに書き出すマネージャー
+ * 専用スレッドで読み取り用コネクションから一定件数ずつ読み、読んだそばからファイルへ流すため、
+ * テーブルの大きさに関係なくメモリ使用量は一定で、メインスレッドや書き込みを止めない
+ * 出力先はプラグインフォルダの exports/ で、書き終わるまでは .part ファイルに書く
+ */
+public class StatsExportManager {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_CHECK_ROWS = 1024;  // 経過時間を確認する間隔（行数）
+
+    private final CandyRushPlugin plugin;
+    private final AtomicBoolean running;
+    private volatile boolean cancelled;
+    private ExecutorService executor;
+
+    public StatsExportManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.running = new AtomicBoolean();
+    }
+
+    /**
+     * マネージャーを初期化
+     */
+    public void initialize() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CandyRush-Export");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        plugin.getLogger().info("StatsExportManager initialized");
+    }
+
+    /**
+     * 実行中のエクスポートを中断して終了
+     * 書きかけの .part ファイルは削除される
+     */
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+
+        cancelled = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Stats export did not stop within 5 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * エクスポート中かどうか
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * エクスポートを開始（メインスレッドから呼ぶ）
+     * 同時に実行できるのは1つだけ
+     * @param tables 書き出すテーブル（テーブルごとに1ファイル）
+     * @param format 出力形式
+     * @param progress 進捗の通知先（メインスレッドで、設定した間隔ごとに呼ばれる）
+     * @return 完了時に結果を返すFuture（メインスレッドで完了する）。既に実行中の場合は null
+     */
+    public CompletableFuture<ExportResult> startExport(List<ExportStorage.Table> tables, Format format,
+                                                       Consumer<ExportProgress> progress) {
+        if (executor == null || !running.compareAndSet(false, true)) {
+            return null;
+        }
+
+        int chunkSize = Math.max(1, plugin.getConfigManager().getExportChunkSize());
+        long intervalMillis = Math.max(1, plugin.getConfigManager().getExportProgressIntervalSeconds()) * 1000L;
+        File directory = new File(plugin.getDataFolder(), "exports");
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+
+        CompletableFuture<ExportResult> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    ExportResult exported = export(tables, format, chunkSize, intervalMillis, directory, stamp, progress);
+                    plugin.getLogger().info("Exported " + exported.getRows() + " rows to " + exported.getFiles().size()
+                            + " files in " + exported.getElapsedMillis() + "ms");
+                    complete(result, exported, null);
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING, "Stats export failed", e);
+                    complete(result, null, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * メインスレッドでFutureを完了させる（無効化後は直接完了させる）
+     */
+    private void complete(CompletableFuture<ExportResult> result, ExportResult exported, Exception error) {
+        running.set(false);
+        Runnable completion = () -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(exported);
+            }
+        };
+        if (plugin.isEnabled()) {
+            plugin.getMainThreadExecutor().execute(completion);
+        } else {
+            completion.run();
+        }
+    }
+
+    /**
+     * テーブルを順に書き出す（エクスポートスレッドで実行）
+     */
+    private ExportResult export(List<ExportStorage.Table> tables, Format format, int chunkSize, long intervalMillis,
+                                File directory, String stamp, Consumer<ExportProgress> progress) throws Exception {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create export directory " + directory);
+        }
+
+        long startedAt = System.currentTimeMillis();
+        List<File> files = new ArrayList<>();
+        long totalRows = 0;
+        long totalBytes = 0;
+
+        for (ExportStorage.Table table : tables) {
+            File target = new File(directory, table.getFileName() + "-" + stamp + format.getExtension());
+            File part = new File(directory, target.getName() + ".part");
+
+            long rows;
+            try {
+                try (ProgressSink sink = new ProgressSink(table, format, part, intervalMillis, progress)) {
+                    rows = plugin.getExportStorage().exportRows(table, chunkSize, sink);
+                }
+                Files.move(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception e) {
+                Files.deleteIfExists(part.toPath());
+                throw e;
+            }
+
+            files.add(target);
+            totalRows += rows;
+            totalBytes += target.length();
+        }
+
+        return new ExportResult(files, totalRows, totalBytes, System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * 1ファイル分の書き込みと進捗通知
+     */
+    private class ProgressSink implements ExportStorage.RowSink, Closeable {
+        private final ExportStorage.Table table;
+        private final Format format;
+        private final File file;
+        private final long intervalMillis;
+        private final Consumer<ExportProgress> progress;
+        private final StringBuilder line;
+        private final Writer writer;
+        private long rows;
+        private long nextReportMillis;
+
+        ProgressSink(ExportStorage.Table table, Format format, File file, long intervalMillis,
+                     Consumer<ExportProgress> progress) throws IOException {
+            this.table = table;
+            this.format = format;
+            this.file = file;
+            this.intervalMillis = intervalMillis;
+            this.progress = progress;
+            this.line = new StringBuilder(256);
+            this.nextReportMillis = System.currentTimeMillis() + intervalMillis;
+            this.writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+
+            format.appendHeader(line, table.getColumns());
+            writer.write(line.toString());
+        }
+
+        @Override
+        public void accept(Object[] row) throws IOException {
+            line.setLength(0);
+            format.appendRow(line, table.getColumns(), row);
+            writer.write(line.toString());
+            rows++;
+
+            if (rows % PROGRESS_CHECK_ROWS == 0) {
+                if (cancelled) {
+                    throw new InterruptedIOException("Export cancelled by shutdown");
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextReportMillis && progress != null) {
+                    nextReportMillis = now + intervalMillis;
+                    // ファイルサイズはgzipのバッファ分だけ遅れるが、目安としては十分
+                    ExportProgress snapshot = new ExportProgress(table, rows, file.length());
+                    plugin.getMainThreadExecutor().execute(() -> progress.accept(snapshot));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * 出力形式
+     */
+    public enum Format {
+        /** 1行に1つのJSONオブジェクト */
+        NDJSON(".ndjson.gz") {
+            @Override
+            void appendHeader(StringBuilder out, List<String> columns) {
+            }
+
+            @Override
+            void appendRow(StringBuilder out, List<String> columns, Object[] row) {
+                out.append('{');
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    appendJsonString(out, columns.get(i));
+                    out.append(':');
+                    Object value = row[i];
+                    if (value instanceof String) {
+                        appendJsonString(out, (String) value);
+                    } else {
+                        out.append(value);  // 数値・真偽値・null はそのままJSONになる
+                    }
+                }
+                out.append("}\n");
+            }
+        },
+        /** 1行目が列名のCSV（RFC 4180） */
+        CSV(".csv.gz") {
+            @Override
+            void appendHeader(StringBuilder out, List<String> columns) {
+                appendRow(out, columns, columns.toArray());
+            }
+
+            @Override
+            void appendRow(StringBuilder out, List<String> columns, Object[] row) {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    Object value = row[i];
+                    if (value instanceof String) {
+                        appendCsvField(out, (String) value);
+                    } else if (value != null) {
+                        out.append(value);
+                    }
+                }
+                out.append("\r\n");
+            }
+        };
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * ファイルの拡張子（.gz を含む）
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        abstract void appendHeader(StringBuilder out, List<String> columns);
+
+        abstract void appendRow(StringBuilder out, List<String> columns, Object[] row);
+
+        private static void appendJsonString(StringBuilder out, String value) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                        break;
+                }
+            }
+            out.append('"');
+        }
+
+        private static void appendCsvField(StringBuilder out, String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                out.append(value);
+                return;
+            }
+            out.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    /**
+     * エクスポート中の進捗
+     */
+    public static class ExportProgress {
+        private final ExportStorage.Table table;
+        private final long rows;
+        private final long bytes;
+
+        public ExportProgress(ExportStorage.Table table, long rows, long bytes) {
+            this.table = table;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public ExportStorage.Table getTable() {
+            return table;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * エクスポートの結果
+     */
+    public static class ExportResult {
+        private final List<File> files;
+        private final long rows;
+        private final long bytes;
+        private final long elapsedMillis;
+
+        public ExportResult(List<File> files, long rows, long bytes, long elapsedMillis) {
+            this.files = Collections.unmodifiableList(files);
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public List<File> getFiles() {
+            return files;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
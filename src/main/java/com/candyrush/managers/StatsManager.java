@@ -0,0 +1,138 @@
+package com.candyrush.managers;
+
+import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.GameRound;
+import com.candyrush.models.TeamColor;
+import com.candyrush.storage.GameStateStorage;
+import com.candyrush.storage.GameTotals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * 全期間の統計（ゲーム数・チーム勝利数）を管理するマネージャー
+ * 起動時にサマリーテーブルを読み込み、以降はラウンド終了時に差分だけを反映する
+ * 統計の表示でデータベースにアクセスすることはない
+ */
+public class StatsManager {
+
+    private final CandyRushPlugin plugin;
+    private volatile GameTotals totals;
+    private volatile boolean loaded;
+    private int loadGeneration;
+
+    public StatsManager(CandyRushPlugin plugin) {
+        this.plugin = plugin;
+        this.totals = GameTotals.empty();
+        this.loaded = false;
+    }
+
+    /**
+     * マネージャーを初期化
+     * サマリーの読み込みはストレージスレッドで行う
+     */
+    public void initialize() {
+        loadTotals();
+
+        plugin.getLogger().info("StatsManager initialized");
+    }
+
+    /**
+     * サマリーを読み込む（メインスレッドから呼ぶ）
+     * 複数の読み込みが重なった場合は最後に要求したものだけを反映する
+     */
+    private void loadTotals() {
+        int generation = ++loadGeneration;
+        plugin.getAsyncGameStateStorage().loadGameTotals()
+            .thenAcceptAsync(loadedTotals -> {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                totals = loadedTotals;
+                loaded = true;
+                plugin.getLogger().info("Stats totals loaded (" + loadedTotals.getGamesPlayed() + " games)");
+            }, plugin.getMainThreadExecutor())
+            .exceptionally(error -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load stats totals", error);
+                return null;
+            });
+    }
+
+    /**
+     * ラウンドを終了して結果を保存（メインスレッドから呼ぶ）
+     * チームスコア・参加者はここで確定させ、ラウンド終了・スコア保存・サマリー更新を1トランザクションで行う
+     * 保存に成功した場合のみメモリ上の統計に反映する
+     * @param endedRound 終了情報を設定したラウンド
+     * @return 保存と反映が終わったら完了（失敗してもログを出して完了する）
+     */
+    public CompletableFuture<Void> closeRound(GameRound endedRound) {
+        Map<TeamColor, GameStateStorage.TeamScore> teamScores = plugin.getTeamManager().getTeamScores();
+        List<GameStateStorage.RoundParticipant> participants = plugin.getTeamManager().getRoundParticipants();
+        TeamColor winner = endedRound.getWinnerTeam();
+        int duration = endedRound.getDurationSeconds() != null ? endedRound.getDurationSeconds() : 0;
+
+        return plugin.getAsyncGameStateStorage().closeGameRound(endedRound, teamScores, participants)
+            .thenAcceptAsync(closed -> {
+                if (!closed) {
+                    plugin.getLogger().warning("Game round " + endedRound.getId() + " was already closed - totals unchanged");
+                    return;
+                }
+
+                if (loaded) {
+                    totals = totals.withRound(winner, duration, teamScores);
+                } else {
+                    // 起動直後で読み込みが終わっていない場合、読み込み結果にこのラウンドが含まれるとは限らないため読み直す
+                    loadTotals();
+                }
+
+                // キャッシュ中のプレイヤーの累計にも反映（player_totalsは保存済み）
+                for (GameStateStorage.RoundParticipant participant : participants) {
+                    plugin.getPlayerManager().getCachedPlayerData(participant.uuid)
+                        .ifPresent(data -> data.recordRoundResult(participant.teamColor == winner));
+                }
+
+                plugin.getLogger().info("Game round ended and saved (" + participants.size() + " participants)");
+            }, plugin.getMainThreadExecutor())
+            .exceptionally(error -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to close game round", error);
+                return null;
+            });
+    }
+
+    /**
+     * 全期間の統計を取得
+     */
+    public GameTotals getTotals() {
+        return totals;
+    }
+
+    /**
+     * 終了したゲーム数を取得
+     */
+    public int getGamesPlayed() {
+        return totals.getGamesPlayed();
+    }
+
+    /**
+     * チームの勝利数を取得
+     */
+    public int getTeamWins(TeamColor color) {
+        return totals.getTeam(color).getWins();
+    }
+
+    /**
+     * データベースからの読み込みが完了しているか
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * クリーンアップ
+     */
+    public void shutdown() {
+        plugin.getLogger().info("StatsManager shutdown complete");
+    }
+}
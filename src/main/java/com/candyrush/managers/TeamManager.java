@@ -1,8 +1,11 @@
 package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
+import com.candyrush.models.PlayerData;
 import com.candyrush.models.Team;
 import com.candyrush.models.TeamColor;
+import com.candyrush.storage.GameStateStorage;
+import com.candyrush.storage.RoundCheckpoint;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -72,6 +75,8 @@ public class TeamManager {
         Team team = teams.get(teamColor);
         if (team != null) {
             team.addPlayer(playerUuid);
+            // プレイヤーデータにも記録（ラウンド単位で保存される）
+            plugin.getPlayerManager().setPlayerTeam(playerUuid, teamColor);
             plugin.getLogger().fine("Player " + playerUuid + " assigned to " + teamColor + " team");
         }
     }
@@ -223,25 +228,70 @@ public class TeamManager {
     }
 
     /**
-     * チーム情報をデータベースに保存
-     * @param roundId ゲームラウンドID
+     * ラウンド終了時のチームスコアを取得（データベース保存用のスナップショット）
+     * プレイヤーがいない、かつ得点もないチームは参加していないものとして除外
      */
-    public void saveTeamScoresToDatabase(int roundId) {
+    public Map<TeamColor, GameStateStorage.TeamScore> getTeamScores() {
+        Map<TeamColor, GameStateStorage.TeamScore> scores = new EnumMap<>(TeamColor.class);
         for (Team team : teams.values()) {
-            try {
-                plugin.getGameStateStorage().saveTeamScore(
-                    roundId,
-                    team.getColor(),
-                    team.getPoints(),
-                    team.getKills(),
-                    team.getDeaths(),
-                    team.getPlayerCount()
-                );
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to save team score for " + team.getColor() + ": " + e.getMessage());
+            if (team.isEmpty() && team.getPoints() == 0) {
+                continue;
+            }
+            scores.put(team.getColor(), new GameStateStorage.TeamScore(
+                team.getPoints(),
+                team.getKills(),
+                team.getDeaths(),
+                team.getPlayerCount()
+            ));
+        }
+        return scores;
+    }
+
+    /**
+     * ラウンド終了時の参加プレイヤーの結果を取得（データベース保存用のスナップショット）
+     * 途中でログアウトしたプレイヤーもチームに残っているため含まれる
+     */
+    public List<GameStateStorage.RoundParticipant> getRoundParticipants() {
+        List<GameStateStorage.RoundParticipant> participants = new ArrayList<>();
+        for (Team team : teams.values()) {
+            for (UUID uuid : team.getPlayerUuids()) {
+                int points = plugin.getPlayerManager().getCachedPlayerData(uuid)
+                        .map(PlayerData::getPoints)
+                        .orElse(0);
+                participants.add(new GameStateStorage.RoundParticipant(uuid, team.getColor(), points));
+            }
+        }
+        return participants;
+    }
+
+    /**
+     * チェックポイント用に全チームのスコアを取得
+     */
+    public List<RoundCheckpoint.TeamEntry> getCheckpointTeams() {
+        List<RoundCheckpoint.TeamEntry> entries = new ArrayList<>(teams.size());
+        for (Team team : teams.values()) {
+            entries.add(new RoundCheckpoint.TeamEntry(team.getColor(), team.getPoints(), team.getKills(), team.getDeaths()));
+        }
+        return entries;
+    }
+
+    /**
+     * チェックポイントからチームのスコアとメンバーを復元
+     * プレイヤーデータ側のチームはPlayerManagerで復元する
+     */
+    public void restoreTeams(List<RoundCheckpoint.TeamEntry> teamEntries, List<RoundCheckpoint.PlayerEntry> players) {
+        resetAllTeams();
+        for (RoundCheckpoint.TeamEntry entry : teamEntries) {
+            Team team = teams.get(entry.color);
+            team.setPoints(entry.points);
+            team.addKills(entry.kills);
+            team.addDeaths(entry.deaths);
+        }
+        for (RoundCheckpoint.PlayerEntry player : players) {
+            if (player.teamColor != null) {
+                teams.get(player.teamColor).addPlayer(player.uuid);
             }
         }
-        plugin.getLogger().info("Team scores saved to database for round " + roundId);
     }
 
     /**
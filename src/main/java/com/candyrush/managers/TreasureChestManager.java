@@ -2,6 +2,10 @@ package com.candyrush.managers;
 
 import com.candyrush.CandyRushPlugin;
 import com.candyrush.models.ChestType;
+import com.candyrush.storage.PendingBatch;
+import com.candyrush.storage.RoundCheckpoint;
+import com.candyrush.storage.StaleChestIndex;
+import com.candyrush.storage.TreasureChestStorage;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -11,11 +15,7 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,16 +27,24 @@ import java.util.logging.Level;
  */
 public class TreasureChestManager {
 
+    private static final long FLUSH_DELAY_TICKS = 20L;
+
     private final CandyRushPlugin plugin;
     private final Map<Location, ChestData> activeChests;
     private final Set<Location> pendingRespawn;
-    private BukkitTask respawnTask;
+    private GameScheduler.Job respawnTask;
+    private final StaleChestIndex staleChestIndex;  // 古いラウンドの宝箱（チャンク単位）
+    private final PendingBatch<TreasureChestStorage.ChestPlacement> pendingChestInserts;  // DB保存待ちの宝箱
+    private final PendingBatch<Integer> pendingChestDeletes;  // DB削除待ちのレコードID
     private Integer currentRoundId;  // 現在のゲームラウンドID
 
     public TreasureChestManager(CandyRushPlugin plugin) {
         this.plugin = plugin;
         this.activeChests = new ConcurrentHashMap<>();
         this.pendingRespawn = ConcurrentHashMap.newKeySet();
+        this.staleChestIndex = new StaleChestIndex();
+        this.pendingChestInserts = new PendingBatch<>();
+        this.pendingChestDeletes = new PendingBatch<>();
         this.currentRoundId = null;
     }
 
@@ -60,9 +68,9 @@ public class TreasureChestManager {
         // 前回の宝箱を削除（activeChestsに記録されているもの）
         removeAllChests();
 
-        // データベースから古いラウンドの宝箱を削除
+        // データベースから古いラウンドの宝箱をインデックスにロード
         if (roundId != null) {
-            deleteOldChestsFromDatabase(roundId, world);
+            loadStaleChestIndex(roundId);
         }
 
         int chestsPerChunk = plugin.getConfigManager().getTreasurePerChunk();
@@ -107,6 +115,8 @@ public class TreasureChestManager {
         if (index >= coordinates.size()) {
             plugin.getLogger().info("Spawned " + totalChests.get() + " treasure chests in the map");
             plugin.getLogger().info("Attempted chunks: " + attemptedChunks.get() + ", Failed locations: " + failedLocations.get());
+            // 配置完了時点で残りをまとめて保存
+            flushChestInsertsAsync();
             return;
         }
 
@@ -203,9 +213,9 @@ public class TreasureChestManager {
         ChestData data = new ChestData(location, chestType, System.currentTimeMillis());
         activeChests.put(location, data);
 
-        // データベースに保存
+        // データベース保存待ちに追加（まとめて非同期で保存）
         if (currentRoundId != null) {
-            saveChestToDatabase(location, chestType, currentRoundId);
+            queueChestInsert(location, chestType, currentRoundId);
         }
 
         // 宝箱の場合、中身を生成（ブロック設置後すぐに直接インベントリにアクセス）
@@ -443,7 +453,7 @@ public class TreasureChestManager {
 
         int respawnDelay = plugin.getConfigManager().getTreasureRespawnDelay();
 
-        respawnTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        respawnTask = plugin.getGameScheduler().schedule("chest-respawn", respawnDelay * 20L, respawnDelay * 20L, () -> {
             List<Location> toRespawn = new ArrayList<>(pendingRespawn);
 
             for (Location loc : toRespawn) {
@@ -459,7 +469,7 @@ public class TreasureChestManager {
 
                 plugin.getLogger().fine("Respawned chest at " + formatLocation(loc));
             }
-        }, respawnDelay * 20L, respawnDelay * 20L);
+        });
     }
 
     /**
@@ -530,22 +540,41 @@ public class TreasureChestManager {
      * 全宝箱を削除
      */
     public void removeAllChests() {
-        for (Location loc : activeChests.keySet()) {
-            Block block = loc.getBlock();
-            if (block.getType() != Material.AIR) {
-                block.setType(Material.AIR);
-            }
-        }
-
+        removeChests(beginChestRemoval());
         activeChests.clear();
-        pendingRespawn.clear();
 
+        plugin.getLogger().info("All treasure chests removed");
+    }
+
+    /**
+     * 宝箱の片付けを開始（リスポーンを止めて、残っている宝箱の座標を返す）
+     * 返した宝箱は removeChests で少しずつ削除する（ゲーム終了後に複数tickに分けて片付けるため）
+     * @return 残っている宝箱の座標
+     */
+    public List<Location> beginChestRemoval() {
         if (respawnTask != null) {
             respawnTask.cancel();
             respawnTask = null;
         }
+        pendingRespawn.clear();
 
-        plugin.getLogger().info("All treasure chests removed");
+        return new ArrayList<>(activeChests.keySet());
+    }
+
+    /**
+     * 指定した宝箱のブロックを削除
+     * @param locations 宝箱の座標
+     */
+    public void removeChests(Collection<Location> locations) {
+        for (Location loc : locations) {
+            if (activeChests.remove(loc) == null) {
+                continue;
+            }
+            Block block = loc.getBlock();
+            if (block.getType() != Material.AIR) {
+                block.setType(Material.AIR);
+            }
+        }
     }
 
     /**
@@ -560,171 +589,225 @@ public class TreasureChestManager {
      */
     public void shutdown() {
         removeAllChests();
+        flushPendingChestRecordsNow();
+        staleChestIndex.clear();
         plugin.getLogger().info("TreasureChestManager shutdown complete");
     }
 
     /**
-     * データベースから古いラウンドの宝箱を削除
-     * 新しいゲームが開始されたら、前回のゲームの宝箱を削除する
+     * 古いラウンドの宝箱インデックスを非同期でロード
+     * ロード後、既にロード済みのチャンクはまとめてクリーンアップする
      * @param newRoundId 新しいゲームラウンドID
-     * @param world ワールド
      */
-    private void deleteOldChestsFromDatabase(int newRoundId, World world) {
-        try (Connection conn = plugin.getDatabaseInitializer().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT id, world, x, y, z, chest_type FROM treasure_chests WHERE round_id != ? AND world = ?")) {
-
-            stmt.setInt(1, newRoundId);
-            stmt.setString(2, world.getName());
-
-            ResultSet rs = stmt.executeQuery();
-            List<Location> chestsToDelete = new ArrayList<>();
-            List<Integer> dbIdsToDelete = new ArrayList<>();
-
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String worldName = rs.getString("world");
-                int x = rs.getInt("x");
-                int y = rs.getInt("y");
-                int z = rs.getInt("z");
-
-                Location loc = new Location(world, x, y, z);
-                chestsToDelete.add(loc);
-                dbIdsToDelete.add(id);
-            }
-
-            rs.close();
-
-            // 物理ブロックを削除（ロード済みチャンクのみ）
-            int deletedBlocks = 0;
-            for (Location loc : chestsToDelete) {
-                int chunkX = loc.getBlockX() >> 4;
-                int chunkZ = loc.getBlockZ() >> 4;
-
-                if (world.isChunkLoaded(chunkX, chunkZ)) {
-                    Block block = loc.getBlock();
-                    if (isChestType(block.getType())) {
-                        block.setType(Material.AIR);
-                        deletedBlocks++;
-                    }
+    private void loadStaleChestIndex(int newRoundId) {
+        staleChestIndex.clear();
+
+        TreasureChestStorage storage = plugin.getTreasureChestStorage();
+        plugin.getStorageExecutor().supply(() -> storage.loadStaleChests(newRoundId))
+            .thenAcceptAsync(chests -> {
+                // ロード中に次のラウンドが始まった場合は破棄
+                if (currentRoundId == null || currentRoundId != newRoundId) {
+                    return;
                 }
-            }
 
-            // データベースから削除
-            if (!dbIdsToDelete.isEmpty()) {
-                String placeholders = String.join(",", Collections.nCopies(dbIdsToDelete.size(), "?"));
-                try (PreparedStatement deleteStmt = conn.prepareStatement(
-                        "DELETE FROM treasure_chests WHERE id IN (" + placeholders + ")")) {
-
-                    for (int i = 0; i < dbIdsToDelete.size(); i++) {
-                        deleteStmt.setInt(i + 1, dbIdsToDelete.get(i));
-                    }
-                    int deleted = deleteStmt.executeUpdate();
+                staleChestIndex.load(chests);
+                if (!chests.isEmpty()) {
+                    plugin.getLogger().info("Loaded " + chests.size() + " old chest records into stale chest index");
+                }
+                cleanupLoadedChunks();
+            }, plugin.getMainThreadExecutor())
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load old chests from database", e);
+                return null;
+            });
+    }
 
-                    plugin.getLogger().info("Deleted " + deleted + " old chest records from database (" +
-                                          deletedBlocks + " physical blocks removed, " +
-                                          (deleted - deletedBlocks) + " in unloaded chunks)");
+    /**
+     * インデックス内の古い宝箱のうち、ロード済みチャンクにあるものを削除
+     * 未ロードのチャンクはChunkLoadEventで処理されるまでインデックスに残す
+     */
+    private void cleanupLoadedChunks() {
+        for (World world : Bukkit.getWorlds()) {
+            for (long chunkKey : staleChestIndex.getChunkKeys(world.getName())) {
+                int chunkX = StaleChestIndex.chunkX(chunkKey);
+                int chunkZ = StaleChestIndex.chunkZ(chunkKey);
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    cleanupChestOnChunkLoad(world, chunkX, chunkZ);
                 }
             }
-
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to delete old chests from database", e);
         }
     }
 
     /**
-     * 宝箱をデータベースに保存
+     * 宝箱をデータベース保存待ちに追加
+     * 同じティック内や連続したティックの配置・リスポーンは1トランザクションにまとめる
      * @param location 宝箱の位置
      * @param chestType 宝箱の種類
      * @param roundId ゲームラウンドID
      */
-    private void saveChestToDatabase(Location location, ChestType chestType, int roundId) {
-        try (Connection conn = plugin.getDatabaseInitializer().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "INSERT INTO treasure_chests (round_id, world, x, y, z, chest_type, spawned_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
-
-            stmt.setInt(1, roundId);
-            stmt.setString(2, location.getWorld().getName());
-            stmt.setInt(3, location.getBlockX());
-            stmt.setInt(4, location.getBlockY());
-            stmt.setInt(5, location.getBlockZ());
-            stmt.setString(6, chestType.name());
-            stmt.setLong(7, System.currentTimeMillis() / 1000);
-
-            stmt.executeUpdate();
+    private void queueChestInsert(Location location, ChestType chestType, int roundId) {
+        TreasureChestStorage.ChestPlacement placement = new TreasureChestStorage.ChestPlacement(
+            roundId, location.getWorld().getName(),
+            location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+            chestType, System.currentTimeMillis() / 1000);
+
+        if (pendingChestInserts.add(placement)) {
+            Bukkit.getScheduler().runTaskLater(plugin, this::flushChestInsertsAsync, FLUSH_DELAY_TICKS);
+        }
+    }
 
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to save chest to database at " + formatLocation(location), e);
+    /**
+     * 保存待ちの宝箱を非同期でまとめて保存
+     */
+    private void flushChestInsertsAsync() {
+        List<TreasureChestStorage.ChestPlacement> chests = pendingChestInserts.drain();
+        if (chests.isEmpty()) {
+            return;
         }
+
+        TreasureChestStorage storage = plugin.getTreasureChestStorage();
+        plugin.getStorageExecutor().run(() -> storage.saveChests(chests))
+            .whenComplete((ignored, e) -> {
+                if (e != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to save " + chests.size() + " chests to database", e);
+                } else {
+                    plugin.getLogger().fine("Saved " + chests.size() + " chests to database");
+                }
+            });
     }
 
     /**
      * チャンクがロードされたときに古い宝箱をクリーンアップ
      * サーバー再起動後、チャンクがロードされたタイミングで前回のゲームの宝箱を削除
+     * メモリ上のインデックスを引くだけなので、チャンクロードごとのSQLは発生しない
      * @param world ワールド
      * @param chunkX チャンクX座標
      * @param chunkZ チャンクZ座標
      */
     public void cleanupChestOnChunkLoad(World world, int chunkX, int chunkZ) {
-        if (currentRoundId == null) {
-            return; // ゲームが開始されていない
+        if (staleChestIndex.isEmpty()) {
+            return;
         }
 
-        try (Connection conn = plugin.getDatabaseInitializer().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(
-                 "SELECT id, x, y, z FROM treasure_chests WHERE round_id != ? AND world = ? AND x >= ? AND x < ? AND z >= ? AND z < ?")) {
-
-            int minX = chunkX << 4;
-            int maxX = minX + 16;
-            int minZ = chunkZ << 4;
-            int maxZ = minZ + 16;
-
-            stmt.setInt(1, currentRoundId);
-            stmt.setString(2, world.getName());
-            stmt.setInt(3, minX);
-            stmt.setInt(4, maxX);
-            stmt.setInt(5, minZ);
-            stmt.setInt(6, maxZ);
-
-            ResultSet rs = stmt.executeQuery();
-            List<Integer> idsToDelete = new ArrayList<>();
+        List<TreasureChestStorage.StoredChest> chests = staleChestIndex.removeChunk(world.getName(), chunkX, chunkZ);
+        if (chests.isEmpty()) {
+            return;
+        }
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                int x = rs.getInt("x");
-                int y = rs.getInt("y");
-                int z = rs.getInt("z");
+        for (TreasureChestStorage.StoredChest chest : chests) {
+            Location loc = new Location(world, chest.getX(), chest.getY(), chest.getZ());
 
-                Location loc = new Location(world, x, y, z);
+            // 今回のラウンドで同じ位置に配置した宝箱は残す
+            if (!activeChests.containsKey(loc)) {
                 Block block = loc.getBlock();
-
-                // 物理ブロックを削除
                 if (isChestType(block.getType())) {
                     block.setType(Material.AIR);
                     plugin.getLogger().fine("Cleaned up old chest at " + formatLocation(loc) + " on chunk load");
                 }
-
-                idsToDelete.add(id);
             }
 
-            rs.close();
+            // 連続したチャンクロードの削除は1トランザクションにまとめる
+            if (pendingChestDeletes.add(chest.getId())) {
+                Bukkit.getScheduler().runTaskLater(plugin, this::flushChestDeletesAsync, FLUSH_DELAY_TICKS);
+            }
+        }
+    }
 
-            // データベースから削除
-            if (!idsToDelete.isEmpty()) {
-                String placeholders = String.join(",", Collections.nCopies(idsToDelete.size(), "?"));
-                try (PreparedStatement deleteStmt = conn.prepareStatement(
-                        "DELETE FROM treasure_chests WHERE id IN (" + placeholders + ")")) {
+    /**
+     * 削除待ちの宝箱レコードを非同期で削除
+     */
+    private void flushChestDeletesAsync() {
+        List<Integer> ids = pendingChestDeletes.drain();
+        if (ids.isEmpty()) {
+            return;
+        }
 
-                    for (int i = 0; i < idsToDelete.size(); i++) {
-                        deleteStmt.setInt(i + 1, idsToDelete.get(i));
-                    }
-                    deleteStmt.executeUpdate();
+        TreasureChestStorage storage = plugin.getTreasureChestStorage();
+        plugin.getStorageExecutor().supply(() -> storage.deleteChests(ids))
+            .whenComplete((deleted, e) -> {
+                if (e != null) {
+                    // 失敗したレコードは次のラウンド開始時に再度インデックスに載る
+                    plugin.getLogger().log(Level.WARNING, "Failed to delete " + ids.size() + " old chest records", e);
+                } else {
+                    plugin.getLogger().fine("Deleted " + deleted + " old chest records from database");
                 }
+            });
+    }
+
+    /**
+     * 保存・削除待ちの宝箱レコードを同期的に書き込む（シャットダウン時）
+     */
+    private void flushPendingChestRecordsNow() {
+        List<TreasureChestStorage.ChestPlacement> chests = pendingChestInserts.drain();
+        if (!chests.isEmpty()) {
+            try {
+                plugin.getTreasureChestStorage().saveChests(chests);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to save " + chests.size() + " chests to database", e);
+            }
+        }
+
+        List<Integer> ids = pendingChestDeletes.drain();
+        if (!ids.isEmpty()) {
+            try {
+                plugin.getTreasureChestStorage().deleteChests(ids);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to delete " + ids.size() + " old chest records", e);
             }
+        }
+    }
 
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to cleanup chests on chunk load", e);
+    /**
+     * インデックスに残っている古い宝箱の数を取得
+     */
+    public int getStaleChestCount() {
+        return staleChestIndex.size();
+    }
+
+    /**
+     * チェックポイント用に配置中・リスポーン待ちの宝箱を取得
+     * リスポーン時は種類を選び直すため、リスポーン待ちの種類は記録しない（CHESTとして保存）
+     */
+    public List<RoundCheckpoint.ChestEntry> getCheckpointChests() {
+        List<RoundCheckpoint.ChestEntry> entries = new ArrayList<>(activeChests.size() + pendingRespawn.size());
+        for (ChestData data : activeChests.values()) {
+            Location loc = data.getLocation();
+            entries.add(new RoundCheckpoint.ChestEntry(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                data.getType(), false, data.getSpawnTime()));
         }
+        for (Location loc : pendingRespawn) {
+            entries.add(new RoundCheckpoint.ChestEntry(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                ChestType.CHEST, true, 0));
+        }
+        return entries;
+    }
+
+    /**
+     * 中断したラウンドの宝箱を復元（起動時）
+     * ブロックはワールドに残っているため配置し直さず、管理情報だけを戻す
+     * @param world ラウンドのワールド
+     * @param roundId 再開するラウンドID
+     * @param chests チェックポイントの宝箱
+     */
+    public void restoreChests(World world, int roundId, List<RoundCheckpoint.ChestEntry> chests) {
+        this.currentRoundId = roundId;
+        activeChests.clear();
+        pendingRespawn.clear();
+
+        for (RoundCheckpoint.ChestEntry entry : chests) {
+            Location location = new Location(world, entry.x, entry.y, entry.z);
+            if (entry.awaitingRespawn) {
+                pendingRespawn.add(location);
+            } else {
+                activeChests.put(location, new ChestData(location, entry.type, entry.spawnTime));
+            }
+        }
+
+        // 他のラウンドの宝箱は従来どおりチャンク読み込み時に削除
+        loadStaleChestIndex(roundId);
+        startRespawnTask();
+
+        plugin.getLogger().info("Restored " + activeChests.size() + " treasure chests (" + pendingRespawn.size() + " awaiting respawn)");
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.candyrush.models;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents a player's persistent data in the game
@@ -9,8 +10,11 @@ public class PlayerData {
 
     private final UUID uuid;
     private String name;
-    private TeamColor teamColor;
-    private int points;
+    private TeamColor teamColor;  // Team in the current round
+    private int points;  // Points in the current round
+    private int totalPoints;  // Lifetime points across all rounds
+    private int gamesPlayed;  // Closed rounds played (from player_totals)
+    private int wins;  // Closed rounds won (from player_totals)
     private int kills;
     private int deaths;
     private boolean isMurderer;
@@ -18,6 +22,7 @@ public class PlayerData {
     private long lastSeen;  // Epoch timestamp
     private final long createdAt;  // Epoch timestamp
     private long updatedAt;  // Epoch timestamp
+    private AtomicReference<SyncState> syncState;  // Shared with copies
 
     /**
      * Create a new PlayerData instance for a new player
@@ -29,6 +34,9 @@ public class PlayerData {
         this.name = name;
         this.teamColor = null;  // Not assigned to a team yet
         this.points = 0;
+        this.totalPoints = 0;
+        this.gamesPlayed = 0;
+        this.wins = 0;
         this.kills = 0;
         this.deaths = 0;
         this.isMurderer = false;
@@ -37,17 +45,21 @@ public class PlayerData {
         this.lastSeen = now;
         this.createdAt = now;
         this.updatedAt = now;
+        this.syncState = new AtomicReference<>(SyncState.UNSAVED);
     }
 
     /**
      * Create a PlayerData instance from database values
      */
-    public PlayerData(UUID uuid, String name, TeamColor teamColor, int points, int kills, int deaths,
-                      boolean isMurderer, long murdererUntil, long lastSeen, long createdAt, long updatedAt) {
+    public PlayerData(UUID uuid, String name, TeamColor teamColor, int points, int totalPoints, int gamesPlayed, int wins,
+                      int kills, int deaths, boolean isMurderer, long murdererUntil, long lastSeen, long createdAt, long updatedAt) {
         this.uuid = uuid;
         this.name = name;
         this.teamColor = teamColor;
         this.points = points;
+        this.totalPoints = totalPoints;
+        this.gamesPlayed = gamesPlayed;
+        this.wins = wins;
         this.kills = kills;
         this.deaths = deaths;
         this.isMurderer = isMurderer;
@@ -55,6 +67,7 @@ public class PlayerData {
         this.lastSeen = lastSeen;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.syncState = new AtomicReference<>(SyncState.UNSAVED);
     }
 
     // Getters
@@ -75,6 +88,18 @@ public class PlayerData {
         return points;
     }
 
+    public int getTotalPoints() {
+        return totalPoints;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
     public int getKills() {
         return kills;
     }
@@ -120,8 +145,12 @@ public class PlayerData {
         this.updatedAt = System.currentTimeMillis() / 1000;
     }
 
+    /**
+     * Add points to the current round and the lifetime total
+     */
     public void addPoints(int amount) {
         this.points += amount;
+        this.totalPoints += amount;
         this.updatedAt = System.currentTimeMillis() / 1000;
     }
 
@@ -190,7 +219,7 @@ public class PlayerData {
     }
 
     /**
-     * Reset player data for a new game (keeps total stats)
+     * Reset player data for a new game (keeps total stats and lifetime points)
      */
     public void resetForNewGame() {
         this.teamColor = null;
@@ -198,6 +227,45 @@ public class PlayerData {
         this.updatedAt = System.currentTimeMillis() / 1000;
     }
 
+    /**
+     * Count a closed round in the lifetime totals
+     * Only mirrors player_totals, which the round close transaction already updated
+     * @param won Whether the player's team won
+     */
+    public void recordRoundResult(boolean won) {
+        this.gamesPlayed++;
+        if (won) {
+            this.wins++;
+        }
+    }
+
+    /**
+     * Create a detached copy of this player data
+     * Used to hand a stable snapshot to background writers; the copy shares the sync state,
+     * so saving the snapshot also records the save for this instance
+     * @return Copy with identical field values
+     */
+    public PlayerData copy() {
+        PlayerData copy = new PlayerData(uuid, name, teamColor, points, totalPoints, gamesPlayed, wins, kills, deaths,
+                            isMurderer, murdererUntil, lastSeen, createdAt, updatedAt);
+        copy.syncState = syncState;
+        return copy;
+    }
+
+    /**
+     * Get the stored row's state as of the last load or save of this instance or its copies
+     */
+    public SyncState getSyncState() {
+        return syncState.get();
+    }
+
+    /**
+     * Record the stored row's state after a load or save
+     */
+    public void setSyncState(SyncState state) {
+        syncState.set(state);
+    }
+
     /**
      * Get K/D ratio
      * @return Kill/Death ratio (0 if no deaths)
@@ -216,9 +284,40 @@ public class PlayerData {
                 ", name='" + name + '\'' +
                 ", teamColor=" + teamColor +
                 ", points=" + points +
+                ", totalPoints=" + totalPoints +
                 ", kills=" + kills +
                 ", deaths=" + deaths +
                 ", isMurderer=" + isMurderer +
                 '}';
     }
+
+    /**
+     * Row version and lifetime counters of the stored row, with this instance's counters at the same moment
+     * Saves add the difference between the current and recorded local counters to the stored ones,
+     * so changes written by another server sharing the database are kept
+     */
+    public static final class SyncState {
+
+        /** Never loaded from or written to the database */
+        public static final SyncState UNSAVED = new SyncState(-1, 0, 0, 0, 0, 0, 0);
+
+        public final long version;  // players.version, -1 if unknown
+        public final int storedPoints;
+        public final int storedKills;
+        public final int storedDeaths;
+        public final int localPoints;
+        public final int localKills;
+        public final int localDeaths;
+
+        public SyncState(long version, int storedPoints, int storedKills, int storedDeaths,
+                         int localPoints, int localKills, int localDeaths) {
+            this.version = version;
+            this.storedPoints = storedPoints;
+            this.storedKills = storedKills;
+            this.storedDeaths = storedDeaths;
+            this.localPoints = localPoints;
+            this.localKills = localKills;
+            this.localDeaths = localDeaths;
+        }
+    }
 }
@@ -0,0 +1,23 @@
+package com.candyrush.models;
+
+/**
+ * Where a point change came from
+ * Recorded with every entry of the point ledger so the result screen can show a per-source breakdown
+ */
+public enum PointSource {
+    TREASURE_CHEST,   // Chest loot converted to points
+    FOOD_EAT,         // Eating food
+    FOOD_CONVERT,     // Bulk food conversion
+    GOLD_CONVERT,     // Gold items converted to points
+    DEFENSE_REWARD,   // Defense event reward
+    BOSS_KILL,        // Boss kill bonus
+    SHOP_PURCHASE;    // Points spent in the shop (negative)
+
+    /**
+     * Get the language key for the display name
+     * @return Message key (e.g., "point_source.treasure_chest")
+     */
+    public String getMessageKey() {
+        return "point_source." + name().toLowerCase();
+    }
+}
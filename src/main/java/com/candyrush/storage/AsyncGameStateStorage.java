@@ -0,0 +1,77 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.GameRound;
+import com.candyrush.models.TeamColor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of GameStateStorage
+ * Every call runs on the storage executor; futures complete off the main thread
+ */
+public class AsyncGameStateStorage {
+
+    private final GameStateStorage storage;
+    private final StorageExecutor executor;
+
+    public AsyncGameStateStorage(GameStateStorage storage, StorageExecutor executor) {
+        this.storage = storage;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Integer> createGameRound(GameRound gameRound) {
+        return executor.supply(() -> storage.createGameRound(gameRound));
+    }
+
+    public CompletableFuture<Void> updateGameRound(GameRound gameRound) {
+        return executor.run(() -> storage.updateGameRound(gameRound));
+    }
+
+    public CompletableFuture<Boolean> closeGameRound(GameRound gameRound, Map<TeamColor, GameStateStorage.TeamScore> teamScores,
+                                                     Collection<GameStateStorage.RoundParticipant> participants) {
+        return executor.supply(() -> storage.closeGameRound(gameRound, teamScores, participants));
+    }
+
+    public CompletableFuture<GameTotals> loadGameTotals() {
+        return executor.supply(storage::loadGameTotals);
+    }
+
+    public CompletableFuture<Optional<GameRound>> loadGameRound(int roundId) {
+        return executor.supply(() -> storage.loadGameRound(roundId));
+    }
+
+    public CompletableFuture<Optional<GameRound>> getLatestGameRound() {
+        return executor.supply(storage::getLatestGameRound);
+    }
+
+    public CompletableFuture<List<GameRound>> getRecentGameRounds(int limit) {
+        return executor.supply(() -> storage.getRecentGameRounds(limit));
+    }
+
+    public CompletableFuture<Void> saveTeamScore(int roundId, TeamColor teamColor, int points, int kills, int deaths, int playersCount) {
+        return executor.run(() -> storage.saveTeamScore(roundId, teamColor, points, kills, deaths, playersCount));
+    }
+
+    public CompletableFuture<Map<TeamColor, GameStateStorage.TeamScore>> loadTeamScores(int roundId) {
+        return executor.supply(() -> storage.loadTeamScores(roundId));
+    }
+
+    public CompletableFuture<Void> savePlayerStats(int roundId, UUID playerUuid, TeamColor teamColor, int pointsEarned,
+                                                   int kills, int deaths, int chestsOpened, int foodDeposited, boolean becameMurderer) {
+        return executor.run(() -> storage.savePlayerStats(roundId, playerUuid, teamColor, pointsEarned,
+                kills, deaths, chestsOpened, foodDeposited, becameMurderer));
+    }
+
+    public CompletableFuture<Integer> getTotalGamesPlayed() {
+        return executor.supply(storage::getTotalGamesPlayed);
+    }
+
+    public CompletableFuture<Map<TeamColor, Integer>> getTeamWinCounts() {
+        return executor.supply(storage::getTeamWinCounts);
+    }
+}
@@ -0,0 +1,65 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+import com.candyrush.models.TeamColor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking view of PlayerDataStorage
+ * Every call runs on the storage executor; futures complete off the main thread
+ */
+public class AsyncPlayerDataStorage {
+
+    private final PlayerDataStorage storage;
+    private final StorageExecutor executor;
+
+    public AsyncPlayerDataStorage(PlayerDataStorage storage, StorageExecutor executor) {
+        this.storage = storage;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Optional<PlayerData>> loadPlayer(UUID uuid) {
+        return executor.supply(() -> storage.loadPlayer(uuid));
+    }
+
+    public CompletableFuture<PlayerData> loadOrCreatePlayer(UUID uuid, String name) {
+        return executor.supply(() -> storage.loadOrCreatePlayer(uuid, name));
+    }
+
+    public CompletableFuture<Void> savePlayer(PlayerData playerData) {
+        return executor.run(() -> storage.savePlayer(playerData));
+    }
+
+    public CompletableFuture<Void> savePlayers(Collection<PlayerData> players) {
+        return executor.run(() -> storage.savePlayers(players));
+    }
+
+    public CompletableFuture<Void> deletePlayer(UUID uuid) {
+        return executor.run(() -> storage.deletePlayer(uuid));
+    }
+
+    public CompletableFuture<List<PlayerData>> loadPlayersByTeam(TeamColor teamColor) {
+        return executor.supply(() -> storage.loadPlayersByTeam(teamColor));
+    }
+
+    public CompletableFuture<List<PlayerData>> getTopPlayers(int limit) {
+        return executor.supply(() -> storage.getTopPlayers(limit));
+    }
+
+    public CompletableFuture<List<LeaderboardIndex.Entry>> loadLeaderboard() {
+        return executor.supply(storage::loadLeaderboard);
+    }
+
+    public CompletableFuture<List<PlayerData>> getActiveMurderers() {
+        return executor.supply(storage::getActiveMurderers);
+    }
+
+    public CompletableFuture<Integer> getTotalPlayerCount() {
+        return executor.supply(storage::getTotalPlayerCount);
+    }
+}
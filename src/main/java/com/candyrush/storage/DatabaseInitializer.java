@@ -1,201 +1,569 @@
 package com.candyrush.storage;
 
 import com.candyrush.CandyRushPlugin;
+import com.candyrush.utils.ConfigManager;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import java.io.File;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Initializes and manages the SQLite database schema and connection pool
+ * Initializes and manages the database schema and connections
+ * For SQLite in single-writer mode all mutations go through {@link #executeWrite} on one writer thread,
+ * while {@link #getConnection()} hands out query-only connections from a small pool.
+ * Database servers always use a shared pool; SQL that differs between backends comes from {@link SqlDialect}
  */
 public class DatabaseInitializer {
 
-    private final CandyRushPlugin plugin;
+    /**
+     * Version stored in PRAGMA user_version (schema_info on database servers)
+     * 0 = TEXT UUIDs and enum names, 1 = BLOB UUIDs and integer enum codes,
+     * 2 = summary tables (game_totals, team_totals, player_totals), 3 = point_events ledger,
+     * 4 = round archive tables and history indexes, 5 = players.version for optimistic cross-server writes
+     */
+    public static final int SCHEMA_VERSION = 5;
+
+    // PRAGMA auto_vacuum value that lets idle-time maintenance release free pages in slices
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    // Tables rebuilt by the version 1 migration, parents first
+    private static final String[] MIGRATED_TABLES = {
+        "players", "game_rounds", "team_scores", "player_stats", "round_players", "treasure_chests", "event_npcs"
+    };
+
+    private final DatabaseSettings settings;
+    private final SqlDialect dialect;
+    private final Logger logger;
+    private final StorageMetrics metrics;
     private HikariDataSource dataSource;
+    private SqliteWriter writer;
+    private volatile MainThreadIoDetector ioDetector;
 
     public DatabaseInitializer(CandyRushPlugin plugin) {
-        this.plugin = plugin;
+        this(createSettings(plugin.getConfigManager(), plugin.getDataFolder()), plugin.getLogger());
+    }
+
+    public DatabaseInitializer(DatabaseSettings settings, Logger logger) {
+        this.settings = settings;
+        this.dialect = settings.getDialect();
+        this.logger = logger;
+        this.metrics = new StorageMetrics();
+    }
+
+    /**
+     * Build connection settings from database.type and the matching config section
+     */
+    private static DatabaseSettings createSettings(ConfigManager config, File dataFolder) {
+        String type = config.getDatabaseType().trim().toLowerCase(Locale.ROOT);
+        if (type.equals("mysql") || type.equals("mariadb")) {
+            String jdbcUrl = "jdbc:" + type + "://" + config.getMysqlHost() + ":" + config.getMysqlPort()
+                    + "/" + config.getMysqlDatabase();
+            return new DatabaseSettings(new MySqlDialect(), jdbcUrl,
+                    config.getMysqlUsername(), config.getMysqlPassword(), config.getMysqlPoolSize(),
+                    config.getMysqlConnectionTimeoutMillis(), config.getMysqlMaxLifetimeMillis());
+        }
+
+        return new DatabaseSettings(
+                new File(dataFolder, config.getSqliteFile()),
+                DatabaseSettings.Engine.fromConfig(config.getSqliteEngine()),
+                config.getSqliteReadPoolSize(),
+                config.getSqliteBusyTimeoutMillis());
     }
 
     /**
-     * Initialize the database connection pool and create tables if needed
+     * Initialize the database connections and create tables if needed
      * @throws SQLException if database initialization fails
      */
     public void initialize() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(settings.getJdbcUrl());
+        dialect.configurePool(config);
+
+        if (dialect.isEmbedded()) {
+            configureSqlitePool(config);
+        } else {
+            // Fixed-size pool as HikariCP recommends for servers; connections are retired before
+            // the server's wait_timeout and pinged while idle so a quiet lobby never holds dead ones
+            config.setPoolName("CandyRush-Pool");
+            config.setUsername(settings.getUsername());
+            config.setPassword(settings.getPassword());
+            config.setMaximumPoolSize(settings.getPoolSize());
+            config.setMinimumIdle(settings.getPoolSize());
+            config.setConnectionTimeout(settings.getConnectionTimeoutMillis());
+            config.setMaxLifetime(settings.getMaxLifetimeMillis());
+            config.setKeepaliveTime(Math.min(300000, settings.getMaxLifetimeMillis() / 2));
+        }
+
+        dataSource = new HikariDataSource(config);
+
+        // Create tables
+        createTables();
+
+        String location = dialect.isEmbedded() ? settings.getDatabaseFile().getAbsolutePath() : settings.getJdbcUrl();
+        logger.info("Database initialized successfully at: " + location
+                + " (" + dialect.getName() + ", engine: " + settings.getEngine() + ")");
+    }
+
+    /**
+     * Configure the pool for a SQLite file, starting the writer thread in single-writer mode
+     */
+    private void configureSqlitePool(HikariConfig config) throws SQLException {
         // Create data directory if it doesn't exist
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) {
+        File dataFolder = settings.getDatabaseFile().getAbsoluteFile().getParentFile();
+        if (dataFolder != null && !dataFolder.exists()) {
             dataFolder.mkdirs();
         }
 
-        // Setup HikariCP connection pool
-        HikariConfig config = new HikariConfig();
-        String dbPath = new File(dataFolder, plugin.getConfigManager().getSqliteFile()).getAbsolutePath();
-        config.setJdbcUrl("jdbc:sqlite:" + dbPath);
-        config.setDriverClassName("org.sqlite.JDBC");
-
-        // Connection pool settings optimized for SQLite
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
+        config.addDataSourceProperty("busy_timeout", String.valueOf(settings.getBusyTimeoutMillis()));
 
-        // SQLite-specific settings
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-
-        dataSource = new HikariDataSource(config);
-
-        // Create tables
-        createTables();
+        if (settings.getEngine() == DatabaseSettings.Engine.SINGLE_WRITER) {
+            // The writer must open first so the file is in WAL mode before readers attach
+            writer = new SqliteWriter(settings, metrics, logger);
+            writer.start();
 
-        plugin.getLogger().info("Database initialized successfully at: " + dbPath);
+            config.setPoolName("CandyRush-Read");
+            config.setMaximumPoolSize(settings.getReadPoolSize());
+            config.setMinimumIdle(1);
+            config.setConnectionInitSql("PRAGMA query_only = ON");
+        } else {
+            config.setPoolName("CandyRush-Pool");
+            config.setMaximumPoolSize(10);
+            config.setMinimumIdle(2);
+            config.addDataSourceProperty("journal_mode", "WAL");
+            config.addDataSourceProperty("synchronous", "NORMAL");
+        }
     }
 
     /**
-     * Create all required database tables
+     * Create all required database tables, migrating an older schema if one is found
      * @throws SQLException if table creation fails
      */
     private void createTables() throws SQLException {
-        try (Connection conn = dataSource.getConnection();
-             Statement stmt = conn.createStatement()) {
+        boolean migrated = executeTransaction(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                int version = dialect.getSchemaVersion(stmt);
+                if (version > SCHEMA_VERSION) {
+                    throw new SQLException("Database schema version " + version
+                            + " is newer than this plugin supports (" + SCHEMA_VERSION + ")");
+                }
+
+                boolean existing = dialect.tableExists(stmt, "players");
+                // Version 0 files predate database servers, so only SQLite can need the rebuild
+                boolean compacted = version < 1 && existing;
+                if (compacted) {
+                    migrateToCompactEncoding(stmt);
+                } else {
+                    createTables(stmt);
+                    if (version < 5 && existing) {
+                        stmt.executeUpdate("ALTER TABLE players ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+                    }
+                }
+                if (version < 2 && existing) {
+                    backfillTotals(stmt);
+                }
+                dialect.setSchemaVersion(stmt, SCHEMA_VERSION);
+                return compacted;
+            }
+        });
+
+        if (!dialect.isEmbedded()) {
+            logger.info("Database tables created/verified successfully");
+            return;
+        }
+
+        boolean incrementalVacuum = executeWrite(conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                return rs.next() && rs.getInt(1) == AUTO_VACUUM_INCREMENTAL;
+            }
+        });
+
+        if (migrated || !incrementalVacuum) {
+            // The old tables' pages are only returned to the file system by VACUUM,
+            // which is also the only way to switch an existing file to incremental auto-vacuum
+            executeWrite(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("PRAGMA auto_vacuum = INCREMENTAL");
+                    stmt.executeUpdate("VACUUM");
+                }
+                return null;
+            });
+            if (migrated) {
+                logger.info("Database migrated to schema version " + SCHEMA_VERSION);
+            } else {
+                logger.info("Database switched to incremental auto-vacuum");
+            }
+        }
+        logger.info("Database tables created/verified successfully");
+    }
+
+    /**
+     * Rebuild a version 0 schema (TEXT UUIDs and enum names) with the compact encoding
+     * Old tables are renamed, the new ones created and the rows copied with SQL-side
+     * conversion, all inside the caller's transaction. Rows whose UUID or enum cannot be
+     * converted are dropped, as are keys that only differed in letter case.
+     */
+    private void migrateToCompactEncoding(Statement stmt) throws SQLException {
+        logger.info("Migrating database to compact UUID/enum encoding...");
+
+        // Renamed tables keep their indexes, whose names would block the new ones
+        List<String> indexes = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND name LIKE 'idx\\_%' ESCAPE '\\'")) {
+            while (rs.next()) {
+                indexes.add(rs.getString(1));
+            }
+        }
+        for (String index : indexes) {
+            stmt.executeUpdate("DROP INDEX " + index);
+        }
+
+        // Tables added after the first release may be missing from old files
+        Set<String> renamed = new HashSet<>();
+        for (String table : MIGRATED_TABLES) {
+            if (dialect.tableExists(stmt, table)) {
+                stmt.executeUpdate("ALTER TABLE " + table + " RENAME TO " + table + "_v0");
+                renamed.add(table);
+            }
+        }
+
+        createTables(stmt);
+
+        String uuid = StorageCodecs.uuidTextToBlobSql("uuid");
+        String playerUuid = StorageCodecs.uuidTextToBlobSql("player_uuid");
+        String teamColor = StorageCodecs.TEAM_COLOR.nameToCodeSql("team_color");
+
+        copyRows(stmt, renamed, "players",
+            "INSERT OR IGNORE INTO players (uuid, name, points, kills, deaths, is_murderer, murderer_until, " +
+            "last_seen, created_at, updated_at) " +
+            "SELECT " + uuid + ", name, points, kills, deaths, is_murderer, murderer_until, " +
+            "last_seen, created_at, updated_at FROM players_v0 WHERE " + uuid + " IS NOT NULL"
+        );
+        copyRows(stmt, renamed, "game_rounds",
+            "INSERT INTO game_rounds (id, started_at, ended_at, winner_team, total_players, duration_seconds, created_at) " +
+            "SELECT id, started_at, ended_at, " + StorageCodecs.TEAM_COLOR.nameToCodeSql("winner_team") + ", " +
+            "total_players, duration_seconds, created_at FROM game_rounds_v0"
+        );
+        copyRows(stmt, renamed, "team_scores",
+            "INSERT INTO team_scores (id, round_id, team_color, final_points, total_kills, total_deaths, " +
+            "players_count, created_at) " +
+            "SELECT id, round_id, " + teamColor + ", final_points, total_kills, total_deaths, " +
+            "players_count, created_at FROM team_scores_v0 WHERE " + teamColor + " IS NOT NULL"
+        );
+        copyRows(stmt, renamed, "player_stats",
+            "INSERT INTO player_stats (id, round_id, player_uuid, team_color, points_earned, kills, deaths, " +
+            "chests_opened, food_deposited, became_murderer, created_at) " +
+            "SELECT id, round_id, " + playerUuid + ", " + teamColor + ", points_earned, kills, deaths, " +
+            "chests_opened, food_deposited, became_murderer, created_at FROM player_stats_v0 " +
+            "WHERE " + playerUuid + " IS NOT NULL AND " + teamColor + " IS NOT NULL"
+        );
+        copyRows(stmt, renamed, "round_players",
+            "INSERT OR IGNORE INTO round_players (round_id, player_uuid, team_color, points, updated_at) " +
+            "SELECT round_id, " + playerUuid + ", " + teamColor + ", points, updated_at " +
+            "FROM round_players_v0 WHERE " + playerUuid + " IS NOT NULL"
+        );
+        String chestType = StorageCodecs.CHEST_TYPE.nameToCodeSql("chest_type");
+        copyRows(stmt, renamed, "treasure_chests",
+            "INSERT INTO treasure_chests (id, round_id, world, x, y, z, chest_type, spawned_at) " +
+            "SELECT id, round_id, world, x, y, z, " + chestType + ", spawned_at " +
+            "FROM treasure_chests_v0 WHERE " + chestType + " IS NOT NULL"
+        );
+        copyRows(stmt, renamed, "event_npcs",
+            "INSERT INTO event_npcs (id, round_id, entity_uuid, world, x, y, z, yaw, pitch, npc_type, spawned_at) " +
+            "SELECT id, round_id, " + StorageCodecs.uuidTextToBlobSql("entity_uuid") + ", world, x, y, z, " +
+            "yaw, pitch, npc_type, spawned_at FROM event_npcs_v0"
+        );
+
+        // Children first so nothing references a dropped table
+        for (int i = MIGRATED_TABLES.length - 1; i >= 0; i--) {
+            if (renamed.contains(MIGRATED_TABLES[i])) {
+                stmt.executeUpdate("DROP TABLE " + MIGRATED_TABLES[i] + "_v0");
+            }
+        }
+    }
+
+    /**
+     * Fill the version 2 summary tables from the rounds already stored
+     * Later rounds are added incrementally when they close
+     */
+    private void backfillTotals(Statement stmt) throws SQLException {
+        stmt.executeUpdate(
+            dialect.insertReplace() + " game_totals (id, games_played, total_duration_seconds) " +
+            "SELECT 1, COUNT(*), COALESCE(SUM(duration_seconds), 0) FROM game_rounds WHERE ended_at IS NOT NULL"
+        );
+        stmt.executeUpdate(
+            dialect.insertReplace() + " team_totals (team_color, wins, games, points, kills, deaths) " +
+            "SELECT t.team_color, " +
+            "    (SELECT COUNT(*) FROM game_rounds g WHERE g.ended_at IS NOT NULL AND g.winner_team = t.team_color), " +
+            "    COUNT(*), SUM(t.final_points), SUM(t.total_kills), SUM(t.total_deaths) " +
+            "FROM team_scores t GROUP BY t.team_color"
+        );
+        // Rounds closed before team scores were recorded still count as wins
+        stmt.executeUpdate(
+            dialect.insertIgnore() + " team_totals (team_color, wins, games, points, kills, deaths) " +
+            "SELECT winner_team, COUNT(*), 0, 0, 0, 0 FROM game_rounds " +
+            "WHERE ended_at IS NOT NULL AND winner_team IS NOT NULL GROUP BY winner_team"
+        );
+        int players = stmt.executeUpdate(
+            dialect.insertReplace() + " player_totals (player_uuid, games_played, wins, best_round_points, updated_at) " +
+            "SELECT rp.player_uuid, COUNT(*), COALESCE(SUM(rp.team_color = g.winner_team), 0), MAX(rp.points), MAX(rp.updated_at) " +
+            "FROM round_players rp JOIN game_rounds g ON g.id = rp.round_id " +
+            "WHERE g.ended_at IS NOT NULL AND rp.team_color IS NOT NULL GROUP BY rp.player_uuid"
+        );
+        logger.info("Backfilled summary tables (" + players + " player totals)");
+    }
+
+    /**
+     * Copy rows from a renamed version 0 table, logging how many were kept
+     */
+    private void copyRows(Statement stmt, Set<String> renamed, String table, String sql) throws SQLException {
+        if (!renamed.contains(table)) {
+            return;
+        }
+
+        int copied = stmt.executeUpdate(sql);
+        int dropped = 0;
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table + "_v0")) {
+            if (rs.next()) {
+                dropped = rs.getInt(1) - copied;
+            }
+        }
+
+        if (dropped > 0) {
+            logger.warning("Migrated " + copied + " rows of " + table + ", dropped " + dropped + " unconvertible rows");
+        } else {
+            logger.info("Migrated " + copied + " rows of " + table);
+        }
+    }
 
-            // Players table - stores player data and team assignments
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS players (" +
-                "    uuid TEXT PRIMARY KEY," +
-                "    name TEXT NOT NULL," +
-                "    team_color TEXT," +  // RED, BLUE, GREEN, YELLOW, or NULL
-                "    points INTEGER DEFAULT 0," +
-                "    kills INTEGER DEFAULT 0," +
-                "    deaths INTEGER DEFAULT 0," +
-                "    is_murderer INTEGER DEFAULT 0," +  // 0 = false, 1 = true
-                "    murderer_until INTEGER," +  // Epoch timestamp when murderer status expires
-                "    last_seen INTEGER," +  // Epoch timestamp of last login
-                "    created_at INTEGER NOT NULL," +  // Epoch timestamp of first join
-                "    updated_at INTEGER NOT NULL" +  // Epoch timestamp of last update
-                ")"
-            );
-
-            // Game rounds table - tracks game sessions
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS game_rounds (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    started_at INTEGER NOT NULL," +  // Epoch timestamp
-                "    ended_at INTEGER," +  // Epoch timestamp, NULL if ongoing
-                "    winner_team TEXT," +  // RED, BLUE, GREEN, YELLOW, or NULL
-                "    total_players INTEGER DEFAULT 0," +
-                "    duration_seconds INTEGER," +  // Calculated when game ends
-                "    created_at INTEGER NOT NULL" +
-                ")"
-            );
-
-            // Team scores table - tracks team performance per round
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS team_scores (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    round_id INTEGER NOT NULL," +
-                "    team_color TEXT NOT NULL," +  // RED, BLUE, GREEN, YELLOW
-                "    final_points INTEGER DEFAULT 0," +
-                "    total_kills INTEGER DEFAULT 0," +
-                "    total_deaths INTEGER DEFAULT 0," +
-                "    players_count INTEGER DEFAULT 0," +
-                "    created_at INTEGER NOT NULL," +
-                "    FOREIGN KEY (round_id) REFERENCES game_rounds(id) ON DELETE CASCADE" +
-                ")"
-            );
-
-            // Player stats per round - detailed player performance
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS player_stats (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    round_id INTEGER NOT NULL," +
-                "    player_uuid TEXT NOT NULL," +
-                "    team_color TEXT NOT NULL," +
-                "    points_earned INTEGER DEFAULT 0," +
-                "    kills INTEGER DEFAULT 0," +
-                "    deaths INTEGER DEFAULT 0," +
-                "    chests_opened INTEGER DEFAULT 0," +
-                "    food_deposited INTEGER DEFAULT 0," +
-                "    became_murderer INTEGER DEFAULT 0," +  // 0 = no, 1 = yes
-                "    created_at INTEGER NOT NULL," +
-                "    FOREIGN KEY (round_id) REFERENCES game_rounds(id) ON DELETE CASCADE," +
-                "    FOREIGN KEY (player_uuid) REFERENCES players(uuid) ON DELETE CASCADE" +
-                ")"
-            );
-
-            // Treasure chests table - tracks spawned chests per game round
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS treasure_chests (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    round_id INTEGER NOT NULL," +
-                "    world TEXT NOT NULL," +
-                "    x INTEGER NOT NULL," +
-                "    y INTEGER NOT NULL," +
-                "    z INTEGER NOT NULL," +
-                "    chest_type TEXT NOT NULL," +  // CHEST, BARREL, etc.
-                "    spawned_at INTEGER NOT NULL," +  // Epoch timestamp
-                "    FOREIGN KEY (round_id) REFERENCES game_rounds(id) ON DELETE CASCADE" +
-                ")"
-            );
-
-            // Event NPCs table - tracks spawned NPCs per game round
-            stmt.executeUpdate(
-                "CREATE TABLE IF NOT EXISTS event_npcs (" +
-                "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "    round_id INTEGER NOT NULL," +
-                "    entity_uuid TEXT," +  // UUID of the spawned entity
-                "    world TEXT NOT NULL," +
-                "    x REAL NOT NULL," +  // Use REAL for precise location
-                "    y REAL NOT NULL," +
-                "    z REAL NOT NULL," +
-                "    yaw REAL NOT NULL," +
-                "    pitch REAL NOT NULL," +
-                "    npc_type TEXT NOT NULL," +  // EventNPC, FoodMerchant, etc.
-                "    spawned_at INTEGER NOT NULL," +  // Epoch timestamp
-                "    FOREIGN KEY (round_id) REFERENCES game_rounds(id) ON DELETE CASCADE" +
-                ")"
-            );
-
-            // Create indexes for common queries
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_players_team ON players(team_color)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_players_points ON players(points DESC)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_game_rounds_started ON game_rounds(started_at DESC)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_team_scores_round ON team_scores(round_id)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_player_stats_round ON player_stats(round_id)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_player_stats_uuid ON player_stats(player_uuid)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_treasure_chests_round ON treasure_chests(round_id)"
-            );
-            stmt.executeUpdate(
-                "CREATE INDEX IF NOT EXISTS idx_event_npcs_round ON event_npcs(round_id)"
-            );
-
-            plugin.getLogger().info("Database tables created/verified successfully");
-        }
-    }
-
-    /**
-     * Get a connection from the pool
+    /**
+     * Create tables and indexes with the given statement
+     * UUID columns hold 16-byte BLOBs and enum columns the integer codes from {@link StorageCodecs};
+     * types that differ between backends come from the dialect
+     */
+    private void createTables(Statement stmt) throws SQLException {
+        String uuid = dialect.uuidType();
+        String bigint = dialect.bigIntegerType();
+        String real = dialect.realType();
+        String autoId = dialect.autoIncrementKey();
+        String clustered = dialect.clusteredTableOptions();
+        String options = dialect.tableOptions();
+        String roundKey = dialect.foreignKey("round_id", "game_rounds(id)");
+
+        // Players table - lifetime player data; per-round teams and points live in round_players
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS players (" +
+            "    uuid " + uuid + " PRIMARY KEY," +
+            "    name TEXT NOT NULL," +
+            "    points INTEGER DEFAULT 0," +  // Lifetime points
+            "    kills INTEGER DEFAULT 0," +
+            "    deaths INTEGER DEFAULT 0," +
+            "    is_murderer INTEGER DEFAULT 0," +  // 0 = false, 1 = true
+            "    murderer_until " + bigint + "," +  // Epoch timestamp when murderer status expires
+            "    last_seen " + bigint + "," +  // Epoch timestamp of last login
+            "    created_at " + bigint + " NOT NULL," +  // Epoch timestamp of first join
+            "    updated_at " + bigint + " NOT NULL," +  // Epoch timestamp of last update
+            "    version INTEGER NOT NULL DEFAULT 0" +  // Incremented by every save, see PlayerDataStorageImpl
+            ")" + clustered
+        );
+
+        // Game rounds table - tracks game sessions
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS game_rounds (" +
+            "    id " + autoId + "," +
+            "    started_at " + bigint + " NOT NULL," +  // Epoch timestamp
+            "    ended_at " + bigint + "," +  // Epoch timestamp, NULL if ongoing
+            "    winner_team INTEGER," +  // Team code, or NULL
+            "    total_players INTEGER DEFAULT 0," +
+            "    duration_seconds INTEGER," +  // Calculated when game ends
+            "    created_at " + bigint + " NOT NULL" +
+            ")" + options
+        );
+
+        // Team scores table - tracks team performance per round
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS team_scores (" +
+            "    id " + autoId + "," +
+            "    round_id INTEGER NOT NULL," +
+            "    team_color INTEGER NOT NULL," +  // Team code
+            "    final_points INTEGER DEFAULT 0," +
+            "    total_kills INTEGER DEFAULT 0," +
+            "    total_deaths INTEGER DEFAULT 0," +
+            "    players_count INTEGER DEFAULT 0," +
+            "    created_at " + bigint + " NOT NULL" +
+            roundKey +
+            ")" + options
+        );
+
+        // Player stats per round - detailed player performance
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS player_stats (" +
+            "    id " + autoId + "," +
+            "    round_id INTEGER NOT NULL," +
+            "    player_uuid " + uuid + " NOT NULL," +
+            "    team_color INTEGER NOT NULL," +  // Team code
+            "    points_earned INTEGER DEFAULT 0," +
+            "    kills INTEGER DEFAULT 0," +
+            "    deaths INTEGER DEFAULT 0," +
+            "    chests_opened INTEGER DEFAULT 0," +
+            "    food_deposited INTEGER DEFAULT 0," +
+            "    became_murderer INTEGER DEFAULT 0," +  // 0 = no, 1 = yes
+            "    created_at " + bigint + " NOT NULL" +
+            roundKey +
+            dialect.foreignKey("player_uuid", "players(uuid)") +
+            ")" + options
+        );
+
+        // Round players table - team and points per round; a new round starts with no rows,
+        // so resetting scores never touches the players table
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS round_players (" +
+            "    round_id INTEGER NOT NULL," +
+            "    player_uuid " + uuid + " NOT NULL," +
+            "    team_color INTEGER," +  // Team code, or NULL
+            "    points INTEGER DEFAULT 0," +
+            "    updated_at " + bigint + " NOT NULL," +
+            "    PRIMARY KEY (round_id, player_uuid)" +
+            ")" + clustered
+        );
+
+        // Treasure chests table - tracks spawned chests per game round
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS treasure_chests (" +
+            "    id " + autoId + "," +
+            "    round_id INTEGER NOT NULL," +
+            "    world TEXT NOT NULL," +
+            "    x INTEGER NOT NULL," +
+            "    y INTEGER NOT NULL," +
+            "    z INTEGER NOT NULL," +
+            "    chest_type INTEGER NOT NULL," +  // Chest type code
+            "    spawned_at " + bigint + " NOT NULL" +  // Epoch timestamp
+            roundKey +
+            ")" + options
+        );
+
+        // Event NPCs table - tracks spawned NPCs per game round
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS event_npcs (" +
+            "    id " + autoId + "," +
+            "    round_id INTEGER NOT NULL," +
+            "    entity_uuid " + uuid + "," +  // UUID of the spawned entity
+            "    world TEXT NOT NULL," +
+            "    x " + real + " NOT NULL," +  // Use REAL for precise location
+            "    y " + real + " NOT NULL," +
+            "    z " + real + " NOT NULL," +
+            "    yaw " + real + " NOT NULL," +
+            "    pitch " + real + " NOT NULL," +
+            "    npc_type TEXT NOT NULL," +  // EventNPC, FoodMerchant, etc.
+            "    spawned_at " + bigint + " NOT NULL" +  // Epoch timestamp
+            roundKey +
+            ")" + options
+        );
+
+        // Summary tables - all-time totals updated in the transaction that closes a round,
+        // so stats reads never scan the round history
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS game_totals (" +
+            "    id INTEGER PRIMARY KEY CHECK (id = 1)," +  // Single row
+            "    games_played INTEGER NOT NULL DEFAULT 0," +
+            "    total_duration_seconds " + bigint + " NOT NULL DEFAULT 0" +
+            ")" + options
+        );
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS team_totals (" +
+            "    team_color INTEGER PRIMARY KEY," +  // Team code
+            "    wins INTEGER NOT NULL DEFAULT 0," +
+            "    games INTEGER NOT NULL DEFAULT 0," +
+            "    points " + bigint + " NOT NULL DEFAULT 0," +
+            "    kills " + bigint + " NOT NULL DEFAULT 0," +
+            "    deaths " + bigint + " NOT NULL DEFAULT 0" +
+            ")" + options
+        );
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS player_totals (" +
+            "    player_uuid " + uuid + " PRIMARY KEY," +
+            "    games_played INTEGER NOT NULL DEFAULT 0," +
+            "    wins INTEGER NOT NULL DEFAULT 0," +
+            "    best_round_points INTEGER NOT NULL DEFAULT 0," +
+            "    updated_at " + bigint + " NOT NULL" +
+            ")" + clustered
+        );
+
+        // Point ledger - append-only, one row per point change, written in batches
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS point_events (" +
+            "    round_id INTEGER NOT NULL," +
+            "    player_uuid " + uuid + " NOT NULL," +
+            "    team_color INTEGER," +  // Team code, NULL if the player had no team
+            "    source INTEGER NOT NULL," +  // Point source code
+            "    amount INTEGER NOT NULL," +
+            "    tick " + bigint + " NOT NULL," +  // Server tick of the change
+            "    created_at " + bigint + " NOT NULL" +
+            roundKey +
+            ")" + options
+        );
+
+        // Round archive - rounds past the retention window, moved out of the hot tables by maintenance
+        // The summary columns stay readable; team scores, results and point breakdowns are a deflated payload
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS round_archive (" +
+            "    round_id INTEGER PRIMARY KEY," +
+            "    started_at " + bigint + " NOT NULL," +
+            "    ended_at " + bigint + " NOT NULL," +
+            "    winner_team INTEGER," +  // Team code, or NULL
+            "    total_players INTEGER NOT NULL DEFAULT 0," +
+            "    duration_seconds INTEGER," +
+            "    archived_at " + bigint + " NOT NULL," +
+            "    payload " + dialect.blobType() + " NOT NULL" +  // See RoundArchiveCodec
+            ")" + options
+        );
+        // Per-player rows of archived rounds, keyed for keyset-paginated player history
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS round_archive_players (" +
+            "    player_uuid " + uuid + " NOT NULL," +
+            "    round_id INTEGER NOT NULL," +
+            "    started_at " + bigint + " NOT NULL," +
+            "    team_color INTEGER," +  // Team code, or NULL
+            "    points INTEGER NOT NULL DEFAULT 0," +
+            "    won INTEGER NOT NULL DEFAULT 0," +  // 0 = no, 1 = yes
+            "    PRIMARY KEY (player_uuid, round_id)" +
+            ")" + clustered
+        );
+
+        // Create indexes for common queries
+        dialect.createIndex(stmt, "idx_players_points", "players", "points DESC");
+        dialect.createIndex(stmt, "idx_game_rounds_started", "game_rounds", "started_at DESC");
+        dialect.createIndex(stmt, "idx_team_scores_round", "team_scores", "round_id");
+        dialect.createIndex(stmt, "idx_player_stats_round", "player_stats", "round_id");
+        dialect.createIndex(stmt, "idx_player_stats_uuid", "player_stats", "player_uuid");
+        dialect.createIndex(stmt, "idx_round_players_team", "round_players", "round_id, team_color");
+        dialect.createIndex(stmt, "idx_treasure_chests_round", "treasure_chests", "round_id");
+        dialect.createIndex(stmt, "idx_event_npcs_round", "event_npcs", "round_id");
+        dialect.createIndex(stmt, "idx_point_events_round", "point_events", "round_id, player_uuid");
+        // Covering indexes for history pages, so paging never reads the rows themselves
+        dialect.createIndex(stmt, "idx_round_players_history", "round_players", "player_uuid, round_id, team_color, points");
+        dialect.createIndex(stmt, "idx_round_archive_history", "round_archive",
+            "round_id, started_at, ended_at, winner_team, total_players, duration_seconds");
+    }
+
+    /**
+     * Get a connection for queries
+     * In single-writer mode the connection is query-only; use {@link #executeWrite} for mutations
      * @return Database connection
      * @throws SQLException if connection cannot be obtained
      */
@@ -203,16 +571,118 @@ public class DatabaseInitializer {
         if (dataSource == null || dataSource.isClosed()) {
             throw new SQLException("Database connection pool is not initialized");
         }
-        return dataSource.getConnection();
+        MainThreadIoDetector detector = ioDetector;
+        MainThreadIoDetector.Access access = detector != null ? detector.begin("read") : null;
+
+        long start = System.nanoTime();
+        Connection conn;
+        try {
+            conn = dataSource.getConnection();
+        } catch (SQLException e) {
+            if (detector != null) {
+                detector.end(access);
+            }
+            throw e;
+        }
+        metrics.recordRead(System.nanoTime() - start);
+        return detector != null ? detector.wrap(conn, access) : conn;
     }
 
     /**
-     * Close the connection pool and release resources
+     * Run a mutation and wait for it to finish
+     * In single-writer mode the work is queued on the writer thread
+     * @param work Work to run against a read/write connection
+     * @return Result of the work
+     * @throws SQLException if the work fails
+     */
+    public <T> T executeWrite(SqlFunction<T> work) throws SQLException {
+        MainThreadIoDetector detector = ioDetector;
+        if (detector == null) {
+            return runWrite(work);
+        }
+
+        MainThreadIoDetector.Access access = detector.begin("write");
+        try {
+            return runWrite(work);
+        } finally {
+            detector.end(access);
+        }
+    }
+
+    private <T> T runWrite(SqlFunction<T> work) throws SQLException {
+        if (writer != null) {
+            return writer.execute(work);
+        }
+        if (dataSource == null || dataSource.isClosed()) {
+            throw new SQLException("Database connection pool is not initialized");
+        }
+
+        long queuedAt = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            long startedAt = System.nanoTime();
+            boolean failed = true;
+            try {
+                T result = work.apply(conn);
+                failed = false;
+                return result;
+            } finally {
+                metrics.recordWrite(startedAt - queuedAt, System.nanoTime() - startedAt, failed);
+            }
+        }
+    }
+
+    /**
+     * Run a mutation inside a single transaction and wait for it to finish
+     * The transaction is rolled back if the work throws
+     * @param work Work to run
+     * @return Result of the work
+     * @throws SQLException if the work fails
+     */
+    public <T> T executeTransaction(SqlFunction<T> work) throws SQLException {
+        return executeWrite(conn -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                T result = work.apply(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    /**
+     * Queue a mutation without waiting for it
+     * In pool mode the work runs immediately on the calling thread
+     * @param work Work to run
+     * @return Future completing with the result
+     */
+    public <T> CompletableFuture<T> submitWrite(SqlFunction<T> work) {
+        if (writer != null) {
+            return writer.submit(work);
+        }
+        try {
+            return CompletableFuture.completedFuture(executeWrite(work));
+        } catch (SQLException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Close the writer and connection pool and release resources
      */
     public void close() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
-            plugin.getLogger().info("Database connection pool closed");
+            logger.info("Database connection pool closed");
         }
     }
 
@@ -234,8 +704,52 @@ public class DatabaseInitializer {
             stmt.executeQuery("SELECT 1");
             return true;
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Database health check failed", e);
+            logger.log(Level.SEVERE, "Database health check failed", e);
             return false;
         }
     }
+
+    /**
+     * Get the SQL dialect of the configured backend
+     */
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * Get the engine in use
+     */
+    public DatabaseSettings.Engine getEngine() {
+        return settings.getEngine();
+    }
+
+    /**
+     * Get throughput and latency counters
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Install a detector for database access on the server thread
+     * @param detector Detector, or null to stop checking
+     */
+    public void setMainThreadIoDetector(MainThreadIoDetector detector) {
+        this.ioDetector = detector;
+    }
+
+    /**
+     * Get the installed main-thread access detector
+     * @return Detector, or null if none is installed
+     */
+    public MainThreadIoDetector getMainThreadIoDetector() {
+        return ioDetector;
+    }
+
+    /**
+     * Get the number of writes waiting for the writer thread (0 in pool mode)
+     */
+    public int getWriteQueueDepth() {
+        return writer != null ? writer.getQueueDepth() : 0;
+    }
 }
@@ -0,0 +1,132 @@
+package com.candyrush.storage;
+
+import java.io.File;
+
+/**
+ * Connection settings for the database
+ * Either a local SQLite file or a MySQL/MariaDB server shared by several servers
+ * Kept free of Bukkit types so storage can be constructed outside the server
+ */
+public class DatabaseSettings {
+
+    /**
+     * How writes reach the database file
+     */
+    public enum Engine {
+        /** One dedicated writer thread owns all mutations, reads use a small query-only pool */
+        SINGLE_WRITER,
+        /** Every caller borrows a read/write connection from a shared pool */
+        POOL;
+
+        /**
+         * Parse engine name from config (single-writer / pool)
+         * @param value Config value
+         * @return Engine, SINGLE_WRITER if unknown
+         */
+        public static Engine fromConfig(String value) {
+            if (value != null && value.trim().equalsIgnoreCase("pool")) {
+                return POOL;
+            }
+            return SINGLE_WRITER;
+        }
+    }
+
+    private final SqlDialect dialect;
+    private final File databaseFile;
+    private final Engine engine;
+    private final int readPoolSize;
+    private final int busyTimeoutMillis;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final long connectionTimeoutMillis;
+    private final long maxLifetimeMillis;
+
+    /**
+     * Settings for a local SQLite file
+     */
+    public DatabaseSettings(File databaseFile, Engine engine, int readPoolSize, int busyTimeoutMillis) {
+        this.dialect = new SqliteDialect();
+        this.databaseFile = databaseFile;
+        this.engine = engine;
+        this.readPoolSize = Math.max(1, readPoolSize);
+        this.busyTimeoutMillis = Math.max(0, busyTimeoutMillis);
+        this.jdbcUrl = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+        this.username = null;
+        this.password = null;
+        this.poolSize = 10;
+        this.connectionTimeoutMillis = 30000;
+        this.maxLifetimeMillis = 1800000;
+    }
+
+    /**
+     * Settings for a database server; always uses the shared pool engine
+     * @param dialect Server dialect
+     * @param jdbcUrl JDBC URL including host and database name
+     * @param poolSize Fixed number of pooled connections
+     * @param connectionTimeoutMillis Time to wait for a free connection
+     * @param maxLifetimeMillis Connection age after which it is replaced; keep below the server's wait_timeout
+     */
+    public DatabaseSettings(SqlDialect dialect, String jdbcUrl, String username, String password,
+                            int poolSize, long connectionTimeoutMillis, long maxLifetimeMillis) {
+        this.dialect = dialect;
+        this.databaseFile = null;
+        this.engine = Engine.POOL;
+        this.readPoolSize = 0;
+        this.busyTimeoutMillis = 0;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.poolSize = Math.max(1, poolSize);
+        this.connectionTimeoutMillis = Math.max(250, connectionTimeoutMillis);
+        this.maxLifetimeMillis = Math.max(30000, maxLifetimeMillis);
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * @return SQLite file, or null for a database server
+     */
+    public File getDatabaseFile() {
+        return databaseFile;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public int getReadPoolSize() {
+        return readPoolSize;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public long getMaxLifetimeMillis() {
+        return maxLifetimeMillis;
+    }
+}
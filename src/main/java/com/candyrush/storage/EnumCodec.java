@@ -0,0 +1,98 @@
+package com.candyrush.storage;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Maps enum constants to the small integer codes stored in the database
+ * Codes are assigned by the order passed to the constructor, not by ordinal(),
+ * so reordering the enum never changes stored data. New constants must be appended.
+ */
+public final class EnumCodec<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final E[] byCode;
+    private final Map<E, Integer> codes;
+
+    /**
+     * @param type Enum class
+     * @param constants Every constant of the enum; the first one is stored as 1
+     * @throws IllegalStateException if a constant is missing or listed twice
+     */
+    @SafeVarargs
+    public EnumCodec(Class<E> type, E... constants) {
+        this.type = type;
+        this.byCode = Arrays.copyOf(type.getEnumConstants(), constants.length);
+        this.codes = new EnumMap<>(type);
+
+        // Copied element by element so the varargs array itself is never stored
+        for (int i = 0; i < constants.length; i++) {
+            byCode[i] = constants[i];
+            if (codes.put(constants[i], i + 1) != null) {
+                throw new IllegalStateException(type.getSimpleName() + "." + constants[i] + " has two storage codes");
+            }
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (!codes.containsKey(constant)) {
+                throw new IllegalStateException(type.getSimpleName() + "." + constant + " has no storage code");
+            }
+        }
+    }
+
+    /**
+     * @return Storage code of the constant (1-based)
+     */
+    public int encode(E value) {
+        return codes.get(value);
+    }
+
+    /**
+     * @return Constant for the code
+     * @throws SQLException if the code is unknown (row written by a newer version)
+     */
+    public E decode(int code) throws SQLException {
+        if (code < 1 || code > byCode.length) {
+            throw new SQLException("Unknown " + type.getSimpleName() + " code: " + code);
+        }
+        return byCode[code - 1];
+    }
+
+    /**
+     * Bind a nullable constant
+     */
+    public void bind(PreparedStatement stmt, int index, E value) throws SQLException {
+        if (value != null) {
+            stmt.setInt(index, encode(value));
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Read a nullable constant
+     * @return Constant, or null if the column is NULL
+     */
+    public E read(ResultSet rs, String column) throws SQLException {
+        int code = rs.getInt(column);
+        return rs.wasNull() ? null : decode(code);
+    }
+
+    /**
+     * Build a SQL expression converting a column holding constant names into codes
+     * Unknown names become NULL. Used when migrating rows written before the compact encoding.
+     * @param column Column holding names
+     * @return CASE expression
+     */
+    public String nameToCodeSql(String column) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (int i = 0; i < byCode.length; i++) {
+            sql.append(" WHEN '").append(byCode[i].name()).append("' THEN ").append(i + 1);
+        }
+        return sql.append(" END").toString();
+    }
+}
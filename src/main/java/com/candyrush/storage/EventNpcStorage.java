@@ -0,0 +1,141 @@
+package com.candyrush.storage;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface for event NPC bookkeeping
+ * Rows let NPC entities from an earlier round be removed after a restart
+ */
+public interface EventNpcStorage {
+
+    /**
+     * Record spawned NPCs in a single transaction
+     * @param npcs NPCs to record
+     * @throws SQLException if database error occurs (the whole batch is rolled back)
+     */
+    void saveNpcs(Collection<NpcPlacement> npcs) throws SQLException;
+
+    /**
+     * Load NPCs in a world that do not belong to the given round
+     * @param currentRoundId Round whose NPCs are still in use
+     * @param world World name
+     * @return NPCs from earlier rounds
+     * @throws SQLException if database error occurs
+     */
+    List<StoredNpc> loadStaleNpcs(int currentRoundId, String world) throws SQLException;
+
+    /**
+     * Delete NPC rows in a single transaction
+     * @param ids Row IDs
+     * @return Number of rows deleted
+     * @throws SQLException if database error occurs
+     */
+    int deleteNpcs(Collection<Integer> ids) throws SQLException;
+
+    /**
+     * Delete up to {@code limit} NPC rows of the given rounds in one statement
+     * Used by idle-time maintenance once the rounds' NPCs have been removed
+     * @param roundIds Finished rounds
+     * @param limit Maximum number of rows to delete
+     * @return Number of rows deleted, less than {@code limit} once no rows are left
+     * @throws SQLException if database error occurs
+     */
+    int deleteRoundNpcs(Collection<Integer> roundIds, int limit) throws SQLException;
+
+    /**
+     * Data class for a stored NPC row
+     */
+    class StoredNpc {
+        private final int id;
+        private final UUID entityUuid;
+
+        public StoredNpc(int id, UUID entityUuid) {
+            this.id = id;
+            this.entityUuid = entityUuid;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return Entity UUID, may be null for old rows
+         */
+        public UUID getEntityUuid() {
+            return entityUuid;
+        }
+    }
+
+    /**
+     * Data class for an NPC waiting to be recorded
+     */
+    class NpcPlacement {
+        private final int roundId;
+        private final UUID entityUuid;
+        private final String world;
+        private final double x;
+        private final double y;
+        private final double z;
+        private final float yaw;
+        private final float pitch;
+        private final String npcType;
+        private final long spawnedAt;
+
+        public NpcPlacement(int roundId, UUID entityUuid, String world, double x, double y, double z,
+                            float yaw, float pitch, String npcType, long spawnedAt) {
+            this.roundId = roundId;
+            this.entityUuid = entityUuid;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.npcType = npcType;
+            this.spawnedAt = spawnedAt;
+        }
+
+        public int getRoundId() {
+            return roundId;
+        }
+
+        public UUID getEntityUuid() {
+            return entityUuid;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public float getYaw() {
+            return yaw;
+        }
+
+        public float getPitch() {
+            return pitch;
+        }
+
+        public String getNpcType() {
+            return npcType;
+        }
+
+        public long getSpawnedAt() {
+            return spawnedAt;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.candyrush.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC implementation of EventNpcStorage
+ */
+public class EventNpcStorageImpl implements EventNpcStorage {
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public EventNpcStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public void saveNpcs(Collection<NpcPlacement> npcs) throws SQLException {
+        if (npcs.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO event_npcs (round_id, entity_uuid, world, x, y, z, yaw, pitch, npc_type, spawned_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        databaseInitializer.executeTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (NpcPlacement npc : npcs) {
+                    stmt.setInt(1, npc.getRoundId());
+                    StorageCodecs.bindUuid(stmt, 2, npc.getEntityUuid());
+                    stmt.setString(3, npc.getWorld());
+                    stmt.setDouble(4, npc.getX());
+                    stmt.setDouble(5, npc.getY());
+                    stmt.setDouble(6, npc.getZ());
+                    stmt.setFloat(7, npc.getYaw());
+                    stmt.setFloat(8, npc.getPitch());
+                    stmt.setString(9, npc.getNpcType());
+                    stmt.setLong(10, npc.getSpawnedAt());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch().length;
+            }
+        });
+    }
+
+    @Override
+    public List<StoredNpc> loadStaleNpcs(int currentRoundId, String world) throws SQLException {
+        String sql = "SELECT id, entity_uuid FROM event_npcs WHERE round_id != ? AND world = ?";
+
+        List<StoredNpc> npcs = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, currentRoundId);
+            stmt.setString(2, world);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    npcs.add(new StoredNpc(rs.getInt("id"), StorageCodecs.readUuid(rs, "entity_uuid")));
+                }
+            }
+        }
+
+        return npcs;
+    }
+
+    @Override
+    public int deleteNpcs(Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "DELETE FROM event_npcs WHERE id = ?";
+
+        return databaseInitializer.executeTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int id : ids) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+
+                int deleted = 0;
+                for (int count : stmt.executeBatch()) {
+                    deleted += Math.max(count, 0);
+                }
+                return deleted;
+            }
+        });
+    }
+
+    @Override
+    public int deleteRoundNpcs(Collection<Integer> roundIds, int limit) throws SQLException {
+        if (roundIds.isEmpty()) {
+            return 0;
+        }
+
+        // Bounded so one call never holds the writer for long
+        String sql = databaseInitializer.getDialect().deleteLimited("event_npcs",
+            "round_id IN (" + String.join(", ", Collections.nCopies(roundIds.size(), "?")) + ")");
+
+        return databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (int roundId : roundIds) {
+                    stmt.setInt(index++, roundId);
+                }
+                stmt.setInt(index, limit);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+}
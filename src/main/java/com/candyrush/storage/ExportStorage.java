@@ -0,0 +1,72 @@
+package com.candyrush.storage;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Interface for streaming round statistics out of the database
+ * Rows are read on read connections in keyset-paged chunks through forward-only cursors, so an export
+ * uses constant memory, never takes a write lock and never holds one snapshot open for the whole table
+ */
+public interface ExportStorage {
+
+    /**
+     * Stream every row of a table: hot rows first, then the rows of archived rounds
+     * UUIDs and enums are decoded to their text form, flags to booleans
+     * @param table Table to export
+     * @param chunkSize Rows (or archived rounds) read per query, also used as the JDBC fetch size
+     * @param sink Receives each row in the order of {@link Table#getColumns()}; the array is reused between rows
+     * @return Number of rows passed to the sink
+     * @throws SQLException if database error occurs
+     * @throws IOException if the sink fails
+     */
+    long exportRows(Table table, int chunkSize, RowSink sink) throws SQLException, IOException;
+
+    /**
+     * Exportable tables with their exported columns
+     * Columns are the ones both tiers have, plus whether the row came from the archive
+     */
+    enum Table {
+        ROUNDS("rounds",
+            "round_id", "started_at", "ended_at", "winner_team", "total_players", "duration_seconds", "archived"),
+        TEAM_SCORES("team_scores",
+            "round_id", "team_color", "final_points", "total_kills", "total_deaths", "players_count", "archived"),
+        PLAYER_STATS("player_stats",
+            "round_id", "player_uuid", "team_color", "points_earned", "kills", "deaths",
+            "chests_opened", "food_deposited", "became_murderer", "archived");
+
+        private final String fileName;
+        private final List<String> columns;
+
+        Table(String fileName, String... columns) {
+            this.fileName = fileName;
+            this.columns = Collections.unmodifiableList(Arrays.asList(columns));
+        }
+
+        /**
+         * Get the base name of export files
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Get the exported column names
+         */
+        public List<String> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Receiver of exported rows
+     * Values are Integer, Long, Boolean, String or null
+     */
+    @FunctionalInterface
+    interface RowSink {
+        void accept(Object[] row) throws IOException;
+    }
+}
@@ -0,0 +1,200 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.TeamColor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of ExportStorage
+ * Each chunk is one keyset query (id greater than the last one seen) on its own read connection,
+ * so writers and WAL checkpoints are never held up by a long-running export
+ */
+public class ExportStorageImpl implements ExportStorage {
+
+    private static final String HOT_ROUNDS_SQL =
+            "SELECT id, started_at, ended_at, winner_team, total_players, duration_seconds " +
+            "FROM game_rounds WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String HOT_TEAM_SCORES_SQL =
+            "SELECT id, round_id, team_color, final_points, total_kills, total_deaths, players_count " +
+            "FROM team_scores WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String HOT_PLAYER_STATS_SQL =
+            "SELECT id, round_id, player_uuid, team_color, points_earned, kills, deaths, " +
+            "chests_opened, food_deposited, became_murderer " +
+            "FROM player_stats WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String ARCHIVE_ROUNDS_SQL =
+            "SELECT round_id, started_at, ended_at, winner_team, total_players, duration_seconds " +
+            "FROM round_archive WHERE round_id > ? ORDER BY round_id LIMIT ?";
+
+    private static final String ARCHIVE_PAYLOADS_SQL =
+            "SELECT round_id, started_at, ended_at, winner_team, total_players, duration_seconds, payload " +
+            "FROM round_archive WHERE round_id > ? ORDER BY round_id LIMIT ?";
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public ExportStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public long exportRows(Table table, int chunkSize, RowSink sink) throws SQLException, IOException {
+        int limit = Math.max(1, chunkSize);
+        Object[] row = new Object[table.getColumns().size()];
+
+        switch (table) {
+            case ROUNDS:
+                return exportChunks(HOT_ROUNDS_SQL, limit, rs -> {
+                    readRound(rs, row, false);
+                    sink.accept(row);
+                    return 1;
+                }) + exportChunks(ARCHIVE_ROUNDS_SQL, limit, rs -> {
+                    readRound(rs, row, true);
+                    sink.accept(row);
+                    return 1;
+                });
+            case TEAM_SCORES:
+                return exportChunks(HOT_TEAM_SCORES_SQL, limit, rs -> {
+                    row[0] = rs.getInt("round_id");
+                    row[1] = teamName(StorageCodecs.TEAM_COLOR.read(rs, "team_color"));
+                    row[2] = rs.getInt("final_points");
+                    row[3] = rs.getInt("total_kills");
+                    row[4] = rs.getInt("total_deaths");
+                    row[5] = rs.getInt("players_count");
+                    row[6] = Boolean.FALSE;
+                    sink.accept(row);
+                    return 1;
+                }) + exportChunks(ARCHIVE_PAYLOADS_SQL, limit, rs -> {
+                    RoundHistoryStorage.RoundDetail detail = decodeArchive(rs);
+                    for (Map.Entry<TeamColor, GameStateStorage.TeamScore> entry : detail.teamScores.entrySet()) {
+                        GameStateStorage.TeamScore score = entry.getValue();
+                        row[0] = detail.summary.roundId;
+                        row[1] = teamName(entry.getKey());
+                        row[2] = score.points;
+                        row[3] = score.kills;
+                        row[4] = score.deaths;
+                        row[5] = score.playersCount;
+                        row[6] = Boolean.TRUE;
+                        sink.accept(row);
+                    }
+                    return detail.teamScores.size();
+                });
+            case PLAYER_STATS:
+                return exportChunks(HOT_PLAYER_STATS_SQL, limit, rs -> {
+                    row[0] = rs.getInt("round_id");
+                    row[1] = uuidText(StorageCodecs.readUuid(rs, "player_uuid"));
+                    row[2] = teamName(StorageCodecs.TEAM_COLOR.read(rs, "team_color"));
+                    row[3] = rs.getInt("points_earned");
+                    row[4] = rs.getInt("kills");
+                    row[5] = rs.getInt("deaths");
+                    row[6] = rs.getInt("chests_opened");
+                    row[7] = rs.getInt("food_deposited");
+                    row[8] = rs.getInt("became_murderer") == 1;
+                    row[9] = Boolean.FALSE;
+                    sink.accept(row);
+                    return 1;
+                }) + exportChunks(ARCHIVE_PAYLOADS_SQL, limit, rs -> {
+                    RoundHistoryStorage.RoundDetail detail = decodeArchive(rs);
+                    for (RoundHistoryStorage.PlayerStatsRow stats : detail.playerStats) {
+                        row[0] = detail.summary.roundId;
+                        row[1] = uuidText(stats.playerUuid);
+                        row[2] = teamName(stats.teamColor);
+                        row[3] = stats.pointsEarned;
+                        row[4] = stats.kills;
+                        row[5] = stats.deaths;
+                        row[6] = stats.chestsOpened;
+                        row[7] = stats.foodDeposited;
+                        row[8] = stats.becameMurderer;
+                        row[9] = Boolean.TRUE;
+                        sink.accept(row);
+                    }
+                    return detail.playerStats.size();
+                });
+            default:
+                throw new IllegalArgumentException("Unknown export table: " + table);
+        }
+    }
+
+    /**
+     * Run a keyset query chunk by chunk until it returns fewer rows than the limit
+     * The key is the first column of the query; its two parameters are the last key and the limit
+     * @param sql Keyset query
+     * @param limit Rows per chunk
+     * @param reader Emits the exported rows for one result row
+     * @return Number of exported rows
+     */
+    private long exportChunks(String sql, int limit, ChunkReader reader) throws SQLException, IOException {
+        long exported = 0;
+        long lastKey = 0;
+
+        while (true) {
+            int read = 0;
+            try (Connection conn = databaseInitializer.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(limit);
+                stmt.setLong(1, lastKey);
+                stmt.setInt(2, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lastKey = rs.getLong(1);
+                        exported += reader.read(rs);
+                        read++;
+                    }
+                }
+            }
+
+            if (read < limit) {
+                return exported;
+            }
+        }
+    }
+
+    private void readRound(ResultSet rs, Object[] row, boolean archived) throws SQLException {
+        row[0] = rs.getInt(1);
+        row[1] = rs.getLong("started_at");
+        long endedAt = rs.getLong("ended_at");
+        row[2] = rs.wasNull() ? null : endedAt;  // NULL while the round is running
+        row[3] = teamName(StorageCodecs.TEAM_COLOR.read(rs, "winner_team"));
+        row[4] = rs.getInt("total_players");
+        int duration = rs.getInt("duration_seconds");
+        row[5] = rs.wasNull() ? null : duration;
+        row[6] = archived;
+    }
+
+    private RoundHistoryStorage.RoundDetail decodeArchive(ResultSet rs) throws SQLException {
+        RoundHistoryStorage.RoundSummary summary = new RoundHistoryStorage.RoundSummary(
+            rs.getInt("round_id"),
+            rs.getLong("started_at"),
+            rs.getLong("ended_at"),
+            StorageCodecs.TEAM_COLOR.read(rs, "winner_team"),
+            rs.getInt("total_players"),
+            rs.getInt("duration_seconds"),
+            true
+        );
+        return RoundArchiveCodec.decode(summary, rs.getBytes("payload"));
+    }
+
+    private static String teamName(TeamColor color) {
+        return color != null ? color.name() : null;
+    }
+
+    private static String uuidText(UUID uuid) {
+        return uuid != null ? uuid.toString() : null;
+    }
+
+    /**
+     * Emits the exported rows of one result row
+     */
+    @FunctionalInterface
+    private interface ChunkReader {
+        int read(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -4,12 +4,15 @@ import com.candyrush.models.GameRound;
 import com.candyrush.models.TeamColor;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Interface for game state and round history storage
+ * All-time totals are kept in summary tables that {@link #closeGameRound} updates incrementally
  */
 public interface GameStateStorage {
 
@@ -28,6 +31,35 @@ public interface GameStateStorage {
      */
     void updateGameRound(GameRound gameRound) throws SQLException;
 
+    /**
+     * Close a round in a single transaction: store its result and team scores and add
+     * them, with every participant's result, to the summary tables
+     * Does nothing if the round is already closed, so a retry never counts a round twice
+     * @param gameRound Ended round (ID, end time, winner and duration set)
+     * @param teamScores Final score of every team that took part
+     * @param participants Players who finished the round in a team
+     * @return true if this call closed the round
+     * @throws SQLException if database error occurs (nothing is written)
+     */
+    boolean closeGameRound(GameRound gameRound, Map<TeamColor, TeamScore> teamScores,
+                           Collection<RoundParticipant> participants) throws SQLException;
+
+    /**
+     * Mark rounds that were never closed (server stopped without a usable checkpoint) as ended
+     * No winner or scores are recorded and the summary tables are left unchanged
+     * @param keepRoundId Round that is still in use (resumed or about to be closed), or null
+     * @return Number of rounds marked as ended
+     * @throws SQLException if database error occurs
+     */
+    int abandonOpenRounds(Integer keepRoundId) throws SQLException;
+
+    /**
+     * Load the all-time game and team totals
+     * @return Snapshot of the summary tables
+     * @throws SQLException if database error occurs
+     */
+    GameTotals loadGameTotals() throws SQLException;
+
     /**
      * Load a game round by ID
      * @param roundId Round ID
@@ -84,18 +116,18 @@ public interface GameStateStorage {
      * @param becameMurderer Whether player became murderer
      * @throws SQLException if database error occurs
      */
-    void savePlayerStats(int roundId, String playerUuid, TeamColor teamColor, int pointsEarned,
+    void savePlayerStats(int roundId, UUID playerUuid, TeamColor teamColor, int pointsEarned,
                         int kills, int deaths, int chestsOpened, int foodDeposited, boolean becameMurderer) throws SQLException;
 
     /**
-     * Get total games played
-     * @return Total number of game rounds
+     * Get total games played (read from the summary table)
+     * @return Total number of closed game rounds
      * @throws SQLException if database error occurs
      */
     int getTotalGamesPlayed() throws SQLException;
 
     /**
-     * Get win counts by team
+     * Get win counts by team (read from the summary table)
      * @return Map of team color to number of wins
      * @throws SQLException if database error occurs
      */
@@ -117,4 +149,19 @@ public interface GameStateStorage {
             this.playersCount = playersCount;
         }
     }
+
+    /**
+     * Data class for a player's result in a closed round
+     */
+    class RoundParticipant {
+        public final UUID uuid;
+        public final TeamColor teamColor;
+        public final int points;
+
+        public RoundParticipant(UUID uuid, TeamColor teamColor, int points) {
+            this.uuid = uuid;
+            this.teamColor = teamColor;
+            this.points = points;
+        }
+    }
 }
@@ -7,7 +7,8 @@ import java.sql.*;
 import java.util.*;
 
 /**
- * SQLite implementation of GameStateStorage
+ * JDBC implementation of GameStateStorage
+ * Stats reads come from the game_totals/team_totals summary tables, never from a scan of game_rounds
  */
 public class GameStateStorageImpl implements GameStateStorage {
 
@@ -22,25 +23,25 @@ public class GameStateStorageImpl implements GameStateStorage {
         String sql = "INSERT INTO game_rounds (started_at, ended_at, winner_team, total_players, duration_seconds, created_at) " +
                     "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setLong(1, gameRound.getStartedAt());
-            stmt.setObject(2, gameRound.getEndedAt());
-            stmt.setString(3, gameRound.getWinnerTeam() != null ? gameRound.getWinnerTeam().name() : null);
-            stmt.setInt(4, gameRound.getTotalPlayers());
-            stmt.setObject(5, gameRound.getDurationSeconds());
-            stmt.setLong(6, gameRound.getCreatedAt());
-
-            stmt.executeUpdate();
-
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+        return databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setLong(1, gameRound.getStartedAt());
+                stmt.setObject(2, gameRound.getEndedAt());
+                StorageCodecs.TEAM_COLOR.bind(stmt, 3, gameRound.getWinnerTeam());
+                stmt.setInt(4, gameRound.getTotalPlayers());
+                stmt.setObject(5, gameRound.getDurationSeconds());
+                stmt.setLong(6, gameRound.getCreatedAt());
+
+                stmt.executeUpdate();
+
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+                    throw new SQLException("Creating game round failed, no ID obtained");
                 }
-                throw new SQLException("Creating game round failed, no ID obtained");
             }
-        }
+        });
     }
 
     @Override
@@ -52,17 +53,169 @@ public class GameStateStorageImpl implements GameStateStorage {
         String sql = "UPDATE game_rounds SET ended_at = ?, winner_team = ?, total_players = ?, duration_seconds = ? " +
                     "WHERE id = ?";
 
+        databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setObject(1, gameRound.getEndedAt());
+                StorageCodecs.TEAM_COLOR.bind(stmt, 2, gameRound.getWinnerTeam());
+                stmt.setInt(3, gameRound.getTotalPlayers());
+                stmt.setObject(4, gameRound.getDurationSeconds());
+                stmt.setInt(5, gameRound.getId());
+
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public int abandonOpenRounds(Integer keepRoundId) throws SQLException {
+        String sql = "UPDATE game_rounds SET ended_at = ? WHERE ended_at IS NULL AND id != ?";
+
+        return databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, System.currentTimeMillis() / 1000);
+                stmt.setInt(2, keepRoundId != null ? keepRoundId : 0);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public boolean closeGameRound(GameRound gameRound, Map<TeamColor, TeamScore> teamScores,
+                                  Collection<RoundParticipant> participants) throws SQLException {
+        if (gameRound.getId() == null) {
+            throw new IllegalArgumentException("Cannot close game round without ID");
+        }
+
+        String closeSql = "UPDATE game_rounds SET ended_at = ?, winner_team = ?, total_players = ?, duration_seconds = ? " +
+                         "WHERE id = ? AND ended_at IS NULL";
+        String teamScoreSql = "INSERT INTO team_scores (round_id, team_color, final_points, total_kills, total_deaths, " +
+                             "players_count, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        SqlDialect dialect = databaseInitializer.getDialect();
+        String gameTotalsSql = dialect.upsert(
+            "INSERT INTO game_totals (id, games_played, total_duration_seconds) VALUES (1, 1, ?)", "id",
+            "games_played = games_played + 1, " +
+            "total_duration_seconds = total_duration_seconds + " + dialect.inserted("total_duration_seconds"));
+        String teamTotalsSql = dialect.upsert(
+            "INSERT INTO team_totals (team_color, wins, games, points, kills, deaths) VALUES (?, ?, ?, ?, ?, ?)", "team_color",
+            "wins = wins + " + dialect.inserted("wins") + ", " +
+            "games = games + " + dialect.inserted("games") + ", " +
+            "points = points + " + dialect.inserted("points") + ", " +
+            "kills = kills + " + dialect.inserted("kills") + ", " +
+            "deaths = deaths + " + dialect.inserted("deaths"));
+        String playerTotalsSql = dialect.upsert(
+            "INSERT INTO player_totals (player_uuid, games_played, wins, best_round_points, updated_at) VALUES (?, 1, ?, ?, ?)",
+            "player_uuid",
+            "games_played = games_played + 1, " +
+            "wins = wins + " + dialect.inserted("wins") + ", " +
+            "best_round_points = " + dialect.greatest("best_round_points", dialect.inserted("best_round_points")) + ", " +
+            "updated_at = " + dialect.inserted("updated_at"));
+
+        TeamColor winner = gameRound.getWinnerTeam();
+        int duration = gameRound.getDurationSeconds() != null ? gameRound.getDurationSeconds() : 0;
+
+        return databaseInitializer.executeTransaction(conn -> {
+            long now = System.currentTimeMillis() / 1000;
+
+            try (PreparedStatement stmt = conn.prepareStatement(closeSql)) {
+                stmt.setObject(1, gameRound.getEndedAt());
+                StorageCodecs.TEAM_COLOR.bind(stmt, 2, winner);
+                stmt.setInt(3, gameRound.getTotalPlayers());
+                stmt.setObject(4, gameRound.getDurationSeconds());
+                stmt.setInt(5, gameRound.getId());
+                if (stmt.executeUpdate() == 0) {
+                    return false;  // Unknown or already closed
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(teamScoreSql)) {
+                for (Map.Entry<TeamColor, TeamScore> entry : teamScores.entrySet()) {
+                    TeamScore score = entry.getValue();
+                    stmt.setInt(1, gameRound.getId());
+                    StorageCodecs.TEAM_COLOR.bind(stmt, 2, entry.getKey());
+                    stmt.setInt(3, score.points);
+                    stmt.setInt(4, score.kills);
+                    stmt.setInt(5, score.deaths);
+                    stmt.setInt(6, score.playersCount);
+                    stmt.setLong(7, now);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(gameTotalsSql)) {
+                stmt.setLong(1, duration);
+                stmt.executeUpdate();
+            }
+
+            // Same increments as GameTotals.withRound
+            try (PreparedStatement stmt = conn.prepareStatement(teamTotalsSql)) {
+                for (Map.Entry<TeamColor, TeamScore> entry : teamScores.entrySet()) {
+                    TeamScore score = entry.getValue();
+                    StorageCodecs.TEAM_COLOR.bind(stmt, 1, entry.getKey());
+                    stmt.setInt(2, entry.getKey() == winner ? 1 : 0);
+                    stmt.setInt(3, 1);
+                    stmt.setInt(4, score.points);
+                    stmt.setInt(5, score.kills);
+                    stmt.setInt(6, score.deaths);
+                    stmt.addBatch();
+                }
+                if (winner != null && !teamScores.containsKey(winner)) {
+                    StorageCodecs.TEAM_COLOR.bind(stmt, 1, winner);
+                    stmt.setInt(2, 1);
+                    stmt.setInt(3, 0);
+                    stmt.setInt(4, 0);
+                    stmt.setInt(5, 0);
+                    stmt.setInt(6, 0);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(playerTotalsSql)) {
+                for (RoundParticipant participant : participants) {
+                    StorageCodecs.bindUuid(stmt, 1, participant.uuid);
+                    stmt.setInt(2, participant.teamColor == winner ? 1 : 0);
+                    stmt.setInt(3, participant.points);
+                    stmt.setLong(4, now);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            return true;
+        });
+    }
+
+    @Override
+    public GameTotals loadGameTotals() throws SQLException {
+        int gamesPlayed = 0;
+        long totalDuration = 0;
+        Map<TeamColor, GameTotals.TeamTotals> teams = new EnumMap<>(TeamColor.class);
+
         try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement()) {
 
-            stmt.setObject(1, gameRound.getEndedAt());
-            stmt.setString(2, gameRound.getWinnerTeam() != null ? gameRound.getWinnerTeam().name() : null);
-            stmt.setInt(3, gameRound.getTotalPlayers());
-            stmt.setObject(4, gameRound.getDurationSeconds());
-            stmt.setInt(5, gameRound.getId());
+            try (ResultSet rs = stmt.executeQuery("SELECT games_played, total_duration_seconds FROM game_totals WHERE id = 1")) {
+                if (rs.next()) {
+                    gamesPlayed = rs.getInt("games_played");
+                    totalDuration = rs.getLong("total_duration_seconds");
+                }
+            }
 
-            stmt.executeUpdate();
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM team_totals")) {
+                while (rs.next()) {
+                    teams.put(StorageCodecs.TEAM_COLOR.read(rs, "team_color"), new GameTotals.TeamTotals(
+                        rs.getInt("wins"),
+                        rs.getInt("games"),
+                        rs.getLong("points"),
+                        rs.getLong("kills"),
+                        rs.getLong("deaths")
+                    ));
+                }
+            }
         }
+
+        return new GameTotals(gamesPlayed, totalDuration, teams);
     }
 
     @Override
@@ -126,19 +279,19 @@ public class GameStateStorageImpl implements GameStateStorage {
         String sql = "INSERT INTO team_scores (round_id, team_color, final_points, total_kills, total_deaths, players_count, created_at) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, roundId);
-            stmt.setString(2, teamColor.name());
-            stmt.setInt(3, points);
-            stmt.setInt(4, kills);
-            stmt.setInt(5, deaths);
-            stmt.setInt(6, playersCount);
-            stmt.setLong(7, System.currentTimeMillis() / 1000);
-
-            stmt.executeUpdate();
-        }
+        databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, roundId);
+                StorageCodecs.TEAM_COLOR.bind(stmt, 2, teamColor);
+                stmt.setInt(3, points);
+                stmt.setInt(4, kills);
+                stmt.setInt(5, deaths);
+                stmt.setInt(6, playersCount);
+                stmt.setLong(7, System.currentTimeMillis() / 1000);
+
+                return stmt.executeUpdate();
+            }
+        });
     }
 
     @Override
@@ -154,7 +307,7 @@ public class GameStateStorageImpl implements GameStateStorage {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    TeamColor color = TeamColor.valueOf(rs.getString("team_color"));
+                    TeamColor color = StorageCodecs.TEAM_COLOR.read(rs, "team_color");
                     int points = rs.getInt("final_points");
                     int kills = rs.getInt("total_kills");
                     int deaths = rs.getInt("total_deaths");
@@ -169,33 +322,33 @@ public class GameStateStorageImpl implements GameStateStorage {
     }
 
     @Override
-    public void savePlayerStats(int roundId, String playerUuid, TeamColor teamColor, int pointsEarned,
+    public void savePlayerStats(int roundId, UUID playerUuid, TeamColor teamColor, int pointsEarned,
                                 int kills, int deaths, int chestsOpened, int foodDeposited, boolean becameMurderer) throws SQLException {
         String sql = "INSERT INTO player_stats (round_id, player_uuid, team_color, points_earned, kills, deaths, " +
                     "chests_opened, food_deposited, became_murderer, created_at) " +
                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, roundId);
-            stmt.setString(2, playerUuid);
-            stmt.setString(3, teamColor.name());
-            stmt.setInt(4, pointsEarned);
-            stmt.setInt(5, kills);
-            stmt.setInt(6, deaths);
-            stmt.setInt(7, chestsOpened);
-            stmt.setInt(8, foodDeposited);
-            stmt.setInt(9, becameMurderer ? 1 : 0);
-            stmt.setLong(10, System.currentTimeMillis() / 1000);
-
-            stmt.executeUpdate();
-        }
+        databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, roundId);
+                StorageCodecs.bindUuid(stmt, 2, playerUuid);
+                StorageCodecs.TEAM_COLOR.bind(stmt, 3, teamColor);
+                stmt.setInt(4, pointsEarned);
+                stmt.setInt(5, kills);
+                stmt.setInt(6, deaths);
+                stmt.setInt(7, chestsOpened);
+                stmt.setInt(8, foodDeposited);
+                stmt.setInt(9, becameMurderer ? 1 : 0);
+                stmt.setLong(10, System.currentTimeMillis() / 1000);
+
+                return stmt.executeUpdate();
+            }
+        });
     }
 
     @Override
     public int getTotalGamesPlayed() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM game_rounds WHERE ended_at IS NOT NULL";
+        String sql = "SELECT games_played FROM game_totals WHERE id = 1";
 
         try (Connection conn = databaseInitializer.getConnection();
              Statement stmt = conn.createStatement();
@@ -211,8 +364,7 @@ public class GameStateStorageImpl implements GameStateStorage {
 
     @Override
     public Map<TeamColor, Integer> getTeamWinCounts() throws SQLException {
-        String sql = "SELECT winner_team, COUNT(*) as wins FROM game_rounds " +
-                    "WHERE winner_team IS NOT NULL GROUP BY winner_team";
+        String sql = "SELECT team_color, wins FROM team_totals";
 
         Map<TeamColor, Integer> winCounts = new HashMap<>();
 
@@ -226,10 +378,8 @@ public class GameStateStorageImpl implements GameStateStorage {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                String teamStr = rs.getString("winner_team");
-                int wins = rs.getInt("wins");
-                TeamColor color = TeamColor.valueOf(teamStr);
-                winCounts.put(color, wins);
+                TeamColor color = StorageCodecs.TEAM_COLOR.read(rs, "team_color");
+                winCounts.put(color, rs.getInt("wins"));
             }
         }
 
@@ -245,11 +395,13 @@ public class GameStateStorageImpl implements GameStateStorage {
     private GameRound parseGameRound(ResultSet rs) throws SQLException {
         Integer id = rs.getInt("id");
         long startedAt = rs.getLong("started_at");
-        Long endedAt = rs.getObject("ended_at", Long.class);
-        String winnerStr = rs.getString("winner_team");
-        TeamColor winnerTeam = winnerStr != null ? TeamColor.valueOf(winnerStr) : null;
+        // getObject(column, Long.class) is rejected by the SQLite driver, so read and check wasNull
+        long endedAtValue = rs.getLong("ended_at");
+        Long endedAt = rs.wasNull() ? null : endedAtValue;
+        TeamColor winnerTeam = StorageCodecs.TEAM_COLOR.read(rs, "winner_team");
         int totalPlayers = rs.getInt("total_players");
-        Integer durationSeconds = rs.getObject("duration_seconds", Integer.class);
+        int durationValue = rs.getInt("duration_seconds");
+        Integer durationSeconds = rs.wasNull() ? null : durationValue;
         long createdAt = rs.getLong("created_at");
 
         return new GameRound(id, startedAt, endedAt, winnerTeam, totalPlayers, durationSeconds, createdAt);
@@ -0,0 +1,137 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.TeamColor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the all-time summary tables (game_totals and team_totals)
+ * Closing a round produces a new snapshot with {@link #withRound}, applying the same
+ * increments the storage transaction applies, so the in-memory mirror never needs a reload.
+ */
+public final class GameTotals {
+
+    private static final GameTotals EMPTY = new GameTotals(0, 0, new EnumMap<>(TeamColor.class));
+
+    private final int gamesPlayed;
+    private final long totalDurationSeconds;
+    private final Map<TeamColor, TeamTotals> teams;
+
+    public GameTotals(int gamesPlayed, long totalDurationSeconds, Map<TeamColor, TeamTotals> teams) {
+        this.gamesPlayed = gamesPlayed;
+        this.totalDurationSeconds = totalDurationSeconds;
+        this.teams = Collections.unmodifiableMap(teams.isEmpty()
+                ? new EnumMap<>(TeamColor.class) : new EnumMap<>(teams));
+    }
+
+    public static GameTotals empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Apply a closed round
+     * @param winner Winning team, or null for no winner
+     * @param durationSeconds Round duration
+     * @param teamScores Final score of every team that took part
+     * @return New snapshot
+     */
+    public GameTotals withRound(TeamColor winner, int durationSeconds, Map<TeamColor, GameStateStorage.TeamScore> teamScores) {
+        Map<TeamColor, TeamTotals> updated = new EnumMap<>(TeamColor.class);
+        updated.putAll(teams);
+
+        for (Map.Entry<TeamColor, GameStateStorage.TeamScore> entry : teamScores.entrySet()) {
+            updated.put(entry.getKey(), getTeam(entry.getKey()).plus(entry.getKey() == winner, entry.getValue()));
+        }
+        if (winner != null && !teamScores.containsKey(winner)) {
+            updated.put(winner, getTeam(winner).plus(true, null));
+        }
+
+        return new GameTotals(gamesPlayed + 1, totalDurationSeconds + durationSeconds, updated);
+    }
+
+    /**
+     * Get the number of closed rounds
+     */
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getTotalDurationSeconds() {
+        return totalDurationSeconds;
+    }
+
+    /**
+     * Get a team's totals
+     * @return Totals, all zero if the team never played
+     */
+    public TeamTotals getTeam(TeamColor color) {
+        TeamTotals totals = teams.get(color);
+        return totals != null ? totals : TeamTotals.ZERO;
+    }
+
+    /**
+     * Get win counts for every team (0 for teams that never won)
+     */
+    public Map<TeamColor, Integer> getWinCounts() {
+        Map<TeamColor, Integer> wins = new EnumMap<>(TeamColor.class);
+        for (TeamColor color : TeamColor.values()) {
+            wins.put(color, getTeam(color).getWins());
+        }
+        return wins;
+    }
+
+    /**
+     * All-time totals of one team
+     */
+    public static final class TeamTotals {
+        public static final TeamTotals ZERO = new TeamTotals(0, 0, 0, 0, 0);
+
+        private final int wins;
+        private final int games;
+        private final long points;
+        private final long kills;
+        private final long deaths;
+
+        public TeamTotals(int wins, int games, long points, long kills, long deaths) {
+            this.wins = wins;
+            this.games = games;
+            this.points = points;
+            this.kills = kills;
+            this.deaths = deaths;
+        }
+
+        /**
+         * @param won Whether the team won the round
+         * @param score Final score, or null if only the win is known
+         */
+        private TeamTotals plus(boolean won, GameStateStorage.TeamScore score) {
+            if (score == null) {
+                return new TeamTotals(wins + (won ? 1 : 0), games, points, kills, deaths);
+            }
+            return new TeamTotals(wins + (won ? 1 : 0), games + 1,
+                    points + score.points, kills + score.kills, deaths + score.deaths);
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public long getPoints() {
+            return points;
+        }
+
+        public long getKills() {
+            return kills;
+        }
+
+        public long getDeaths() {
+            return deaths;
+        }
+    }
+}
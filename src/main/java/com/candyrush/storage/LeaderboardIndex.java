@@ -0,0 +1,305 @@
+package com.candyrush.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * In-memory ranking of players by points
+ * Backed by a treap whose nodes track subtree sizes, so updates, rank lookups and
+ * rank-range reads are O(log n). Ties are broken by UUID to keep the order stable.
+ */
+public class LeaderboardIndex {
+
+    private final Map<UUID, Node> nodes;
+    private final SplittableRandom random;
+    private Node root;
+
+    public LeaderboardIndex() {
+        this.nodes = new HashMap<>();
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Replace the index contents
+     * @param entries Players to rank
+     */
+    public synchronized void load(Collection<Entry> entries) {
+        nodes.clear();
+        root = null;
+        for (Entry entry : entries) {
+            update(entry.getUuid(), entry.getName(), entry.getPoints());
+        }
+    }
+
+    /**
+     * Insert a player or move them to their new position
+     * @param uuid Player's UUID
+     * @param name Player's name
+     * @param points Points to rank by
+     */
+    public synchronized void update(UUID uuid, String name, int points) {
+        Node existing = nodes.get(uuid);
+        if (existing != null) {
+            if (existing.points == points) {
+                existing.name = name;
+                return;
+            }
+            root = remove(root, existing);
+        }
+
+        Node node = new Node(uuid, name, points, random.nextInt());
+        nodes.put(uuid, node);
+        Node[] parts = split(root, node);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Remove a player from the ranking
+     */
+    public synchronized void remove(UUID uuid) {
+        Node existing = nodes.remove(uuid);
+        if (existing != null) {
+            root = remove(root, existing);
+        }
+    }
+
+    /**
+     * Get a player's rank
+     * @param uuid Player's UUID
+     * @return 1-based rank, or 0 if the player is not ranked
+     */
+    public synchronized int getRank(UUID uuid) {
+        Node target = nodes.get(uuid);
+        if (target == null) {
+            return 0;
+        }
+
+        int before = 0;
+        Node current = root;
+        while (current != null) {
+            int cmp = compare(target, current);
+            if (cmp == 0) {
+                return before + size(current.left) + 1;
+            }
+            if (cmp < 0) {
+                current = current.left;
+            } else {
+                before += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get a player's entry
+     * @return Entry with rank, or null if the player is not ranked
+     */
+    public synchronized Entry getEntry(UUID uuid) {
+        Node node = nodes.get(uuid);
+        return node != null ? new Entry(node.uuid, node.name, node.points, getRank(uuid)) : null;
+    }
+
+    /**
+     * Get consecutive entries starting at a rank
+     * @param fromRank First rank (1-based, clamped to 1)
+     * @param count Maximum number of entries
+     * @return Entries in rank order
+     */
+    public synchronized List<Entry> getRange(int fromRank, int count) {
+        int start = Math.max(1, fromRank);
+        int end = Math.min(size(root), start + count - 1);
+        if (start > end) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> entries = new ArrayList<>(end - start + 1);
+        collect(root, start, end, 0, entries);
+        return entries;
+    }
+
+    /**
+     * Get the top entries
+     */
+    public List<Entry> getTop(int count) {
+        return getRange(1, count);
+    }
+
+    /**
+     * Get the entries around a player
+     * @param uuid Player's UUID
+     * @param radius Number of entries above and below
+     * @return Entries in rank order, empty if the player is not ranked
+     */
+    public synchronized List<Entry> getAround(UUID uuid, int radius) {
+        int rank = getRank(uuid);
+        if (rank == 0) {
+            return Collections.emptyList();
+        }
+        return getRange(rank - radius, radius * 2 + 1);
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * In-order walk limited to ranks [start, end]; offset is the number of nodes left of this subtree
+     */
+    private void collect(Node node, int start, int end, int offset, List<Entry> out) {
+        if (node == null) {
+            return;
+        }
+
+        int rank = offset + size(node.left) + 1;
+        if (start < rank) {
+            collect(node.left, start, end, offset, out);
+        }
+        if (start <= rank && rank <= end) {
+            out.add(new Entry(node.uuid, node.name, node.points, rank));
+        }
+        if (rank < end) {
+            collect(node.right, start, end, rank, out);
+        }
+    }
+
+    /**
+     * Split into nodes ordered before the key and the rest
+     */
+    private Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.recalculate();
+            return new Node[]{node, parts[1]};
+        }
+
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.recalculate();
+        return new Node[]{parts[0], node};
+    }
+
+    /**
+     * Merge two treaps where every node of the left one is ordered first
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.recalculate();
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.recalculate();
+        return right;
+    }
+
+    private Node remove(Node node, Node target) {
+        if (node == null) {
+            return null;
+        }
+        if (node == target) {
+            return merge(node.left, node.right);
+        }
+
+        if (compare(target, node) < 0) {
+            node.left = remove(node.left, target);
+        } else {
+            node.right = remove(node.right, target);
+        }
+        node.recalculate();
+        return node;
+    }
+
+    /**
+     * Higher points first, then UUID
+     */
+    private static int compare(Node a, Node b) {
+        int cmp = Integer.compare(b.points, a.points);
+        return cmp != 0 ? cmp : a.uuid.compareTo(b.uuid);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node {
+        private final UUID uuid;
+        private final int points;
+        private final int priority;
+        private String name;
+        private Node left;
+        private Node right;
+        private int size;
+
+        private Node(UUID uuid, String name, int points, int priority) {
+            this.uuid = uuid;
+            this.name = name;
+            this.points = points;
+            this.priority = priority;
+            this.size = 1;
+        }
+
+        private void recalculate() {
+            size = 1 + LeaderboardIndex.size(left) + LeaderboardIndex.size(right);
+        }
+    }
+
+    /**
+     * Snapshot of a ranked player
+     */
+    public static class Entry {
+        private final UUID uuid;
+        private final String name;
+        private final int points;
+        private final int rank;
+
+        public Entry(UUID uuid, String name, int points) {
+            this(uuid, name, points, 0);
+        }
+
+        public Entry(UUID uuid, String name, int points, int rank) {
+            this.uuid = uuid;
+            this.name = name;
+            this.points = points;
+            this.rank = rank;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        /**
+         * @return 1-based rank at the time of the query, 0 for entries used to seed the index
+         */
+        public int getRank() {
+            return rank;
+        }
+    }
+}
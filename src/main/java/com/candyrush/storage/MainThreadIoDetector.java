@@ -0,0 +1,330 @@
+package com.candyrush.storage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Debug aid that catches database access on the server thread
+ * Connections borrowed on the main thread are handed out behind a proxy that times how long they are held;
+ * writes the main thread waits for are timed the same way. Each access is attributed to a call site
+ * (the first caller outside the storage package plus the storage method it called) and ranked by total time.
+ * In FAIL mode the access throws instead, so a test run stops at the first offender.
+ */
+public class MainThreadIoDetector {
+
+    /**
+     * System property that overrides the configured mode, e.g. {@code -Dcandyrush.mainThreadIo=fail} in tests
+     */
+    public static final String MODE_PROPERTY = "candyrush.mainThreadIo";
+
+    private static final String STORAGE_PACKAGE = MainThreadIoDetector.class.getPackage().getName() + ".";
+    private static final String PLUGIN_PACKAGE = "com.candyrush.";
+
+    public enum Mode {
+        /** No checks (default) */
+        OFF,
+        /** Record call sites and timings */
+        RECORD,
+        /** Record and throw IllegalStateException */
+        FAIL;
+
+        /**
+         * Parse a config value, falling back to OFF for unknown values
+         */
+        public static Mode parse(String value) {
+            if (value == null) {
+                return OFF;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return OFF;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final BooleanSupplier mainThread;
+    private final int stackDepth;
+    private final Logger logger;
+    private final Map<String, Site> sites;
+
+    /**
+     * @param mode Detection mode; {@link #MODE_PROPERTY} takes precedence when set
+     * @param mainThread Returns true on the server thread
+     * @param stackDepth Frames kept in each call site's stack sample
+     * @param logger Logger for the first access from each call site
+     */
+    public MainThreadIoDetector(Mode mode, BooleanSupplier mainThread, int stackDepth, Logger logger) {
+        String override = System.getProperty(MODE_PROPERTY);
+        this.mode = override != null ? Mode.parse(override) : mode;
+        this.mainThread = mainThread;
+        this.stackDepth = Math.max(1, stackDepth);
+        this.logger = logger;
+        this.sites = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the effective mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Start timing an access if it happens on the main thread
+     * @param kind What is being accessed, e.g. "read" or "write"
+     * @return Access to pass to {@link #end}, or null when the access is not tracked
+     * @throws IllegalStateException in FAIL mode
+     */
+    public Access begin(String kind) {
+        if (mode == Mode.OFF || !mainThread.getAsBoolean()) {
+            return null;
+        }
+
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        String site = describeSite(stack);
+        String key = kind + " " + site;
+        Site stats = sites.computeIfAbsent(key, k -> {
+            logger.warning("Database " + kind + " on the main thread from " + site
+                    + (mode == Mode.RECORD ? " (further calls are only counted, see /candyrush io)" : ""));
+            return new Site(kind, site, sample(stack));
+        });
+
+        if (mode == Mode.FAIL) {
+            stats.record(0);
+            throw new IllegalStateException("Database " + kind + " on the main thread from " + site);
+        }
+        return new Access(stats, System.nanoTime());
+    }
+
+    /**
+     * Finish timing an access started by {@link #begin}
+     * @param access Access, or null when it was not tracked
+     */
+    public void end(Access access) {
+        if (access != null) {
+            access.site.record(System.nanoTime() - access.startedAt);
+        }
+    }
+
+    /**
+     * Wrap a connection borrowed on the main thread so the time until close() is recorded
+     * @param conn Borrowed connection
+     * @param access Access from {@link #begin}, or null to return the connection as is
+     */
+    public Connection wrap(Connection conn, Access access) {
+        if (access == null) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, new TimedConnection(conn, access));
+    }
+
+    /**
+     * Get call sites ranked by total time on the main thread
+     * @param limit Maximum number of sites
+     */
+    public List<SiteReport> getReport(int limit) {
+        List<SiteReport> report = new ArrayList<>();
+        for (Site site : sites.values()) {
+            report.add(site.snapshot());
+        }
+        report.sort(Comparator.comparingLong(SiteReport::getTotalNanos).reversed());
+        return report.size() > limit ? new ArrayList<>(report.subList(0, limit)) : report;
+    }
+
+    /**
+     * Forget all recorded call sites
+     */
+    public void reset() {
+        sites.clear();
+    }
+
+    /**
+     * Call site: the first plugin frame outside the storage package, and the storage method it called
+     */
+    private String describeSite(StackTraceElement[] stack) {
+        StackTraceElement storageCall = null;
+        StackTraceElement firstCaller = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.equals(MainThreadIoDetector.class.getName())
+                    || className.equals(DatabaseInitializer.class.getName())) {
+                continue;
+            }
+            if (className.startsWith(STORAGE_PACKAGE)) {
+                storageCall = frame;
+                continue;
+            }
+            if (className.startsWith(PLUGIN_PACKAGE)) {
+                return format(frame) + (storageCall != null ? " -> " + simpleName(storageCall) : "");
+            }
+            if (firstCaller == null) {
+                firstCaller = frame;
+            }
+        }
+        // No plugin frame outside storage, e.g. a call from another plugin
+        if (storageCall != null) {
+            return format(storageCall);
+        }
+        return firstCaller != null ? format(firstCaller) : "unknown";
+    }
+
+    private StackTraceElement[] sample(StackTraceElement[] stack) {
+        int from = 0;
+        while (from < stack.length && (stack[from].getClassName().equals(MainThreadIoDetector.class.getName())
+                || stack[from].getClassName().equals(DatabaseInitializer.class.getName()))) {
+            from++;
+        }
+        return Arrays.copyOfRange(stack, from, Math.min(stack.length, from + stackDepth));
+    }
+
+    private static String format(StackTraceElement frame) {
+        return simpleName(frame) + ":" + frame.getLineNumber();
+    }
+
+    private static String simpleName(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+    }
+
+    /**
+     * An access in progress
+     */
+    public static final class Access {
+        private final Site site;
+        private final long startedAt;
+
+        private Access(Site site, long startedAt) {
+            this.site = site;
+            this.startedAt = startedAt;
+        }
+    }
+
+    /**
+     * Counters of one call site
+     */
+    private static final class Site {
+        private final String kind;
+        private final String site;
+        private final StackTraceElement[] sample;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Site(String kind, String site, StackTraceElement[] sample) {
+            this.kind = kind;
+            this.site = site;
+            this.sample = sample;
+        }
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized SiteReport snapshot() {
+            return new SiteReport(kind, site, count, totalNanos, maxNanos, sample);
+        }
+    }
+
+    /**
+     * Recorded main-thread accesses of one call site
+     */
+    public static class SiteReport {
+        private final String kind;
+        private final String site;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final StackTraceElement[] sample;
+
+        public SiteReport(String kind, String site, long count, long totalNanos, long maxNanos, StackTraceElement[] sample) {
+            this.kind = kind;
+            this.site = site;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.sample = sample;
+        }
+
+        /**
+         * "read" for borrowed connections, "write" for waited-for writes
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        /**
+         * Caller and storage method, e.g. {@code GameManager.endGame:210 -> GameStateStorageImpl.closeGameRound}
+         */
+        public String getSite() {
+            return site;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        /**
+         * Stack of the first recorded access, innermost frame first
+         */
+        public List<StackTraceElement> getStackSample() {
+            return Arrays.asList(sample);
+        }
+    }
+
+    /**
+     * Connection proxy that records the time from borrow to close()
+     */
+    private final class TimedConnection implements InvocationHandler {
+        private final Connection target;
+        private final Access access;
+        private boolean closed;
+
+        TimedConnection(Connection target, Access access) {
+            this.target = target;
+            this.access = access;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("close") && method.getParameterCount() == 0 && !closed) {
+                closed = true;
+                end(access);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.candyrush.storage;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Interface for database housekeeping run while no round is in progress
+ * Every call is one bounded unit of work, so callers can spread a maintenance pass over many ticks
+ */
+public interface MaintenanceStorage {
+
+    /**
+     * Get the names of all user tables
+     * @return Table names, without SQLite's internal tables
+     * @throws SQLException if database error occurs
+     */
+    List<String> getTableNames() throws SQLException;
+
+    /**
+     * Refresh the query planner statistics of one table
+     * @param table Table name from {@link #getTableNames()}
+     * @param analysisLimit Approximate number of index rows to sample, 0 to scan everything
+     * @throws SQLException if database error occurs
+     */
+    void analyze(String table, int analysisLimit) throws SQLException;
+
+    /**
+     * Copy the write-ahead log into the database file and truncate it
+     * @return Checkpoint result
+     * @throws SQLException if database error occurs
+     */
+    WalCheckpoint checkpointWal() throws SQLException;
+
+    /**
+     * Release free pages at the end of the file (requires incremental auto-vacuum)
+     * @param pages Maximum number of pages to release
+     * @return Remaining and released page counts
+     * @throws SQLException if database error occurs
+     */
+    VacuumResult incrementalVacuum(int pages) throws SQLException;
+
+    /**
+     * Result of a WAL checkpoint
+     */
+    class WalCheckpoint {
+        private final boolean busy;
+        private final int logFrames;
+        private final int checkpointedFrames;
+
+        public WalCheckpoint(boolean busy, int logFrames, int checkpointedFrames) {
+            this.busy = busy;
+            this.logFrames = logFrames;
+            this.checkpointedFrames = checkpointedFrames;
+        }
+
+        /**
+         * @return true if a reader kept the checkpoint from finishing
+         */
+        public boolean isBusy() {
+            return busy;
+        }
+
+        /**
+         * @return Frames in the log before truncation, -1 if the database is not in WAL mode
+         */
+        public int getLogFrames() {
+            return logFrames;
+        }
+
+        public int getCheckpointedFrames() {
+            return checkpointedFrames;
+        }
+    }
+
+    /**
+     * Result of one incremental vacuum call
+     */
+    class VacuumResult {
+        private final int releasedPages;
+        private final int remainingPages;
+
+        public VacuumResult(int releasedPages, int remainingPages) {
+            this.releasedPages = releasedPages;
+            this.remainingPages = remainingPages;
+        }
+
+        public int getReleasedPages() {
+            return releasedPages;
+        }
+
+        /**
+         * @return Free pages still in the file
+         */
+        public int getRemainingPages() {
+            return remainingPages;
+        }
+    }
+}
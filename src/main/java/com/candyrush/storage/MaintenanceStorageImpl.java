@@ -0,0 +1,131 @@
+package com.candyrush.storage;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of MaintenanceStorage
+ * On SQLite everything runs on the write connection: ANALYZE writes sqlite_stat1, and checkpoints and
+ * vacuum need a connection that is not query-only. Database servers manage their own logs and free space,
+ * so there only ANALYZE TABLE does anything.
+ */
+public class MaintenanceStorageImpl implements MaintenanceStorage {
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public MaintenanceStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public List<String> getTableNames() throws SQLException {
+        if (!databaseInitializer.getDialect().isEmbedded()) {
+            return getServerTableNames();
+        }
+
+        String sql = "SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite\\_%' ESCAPE '\\' ORDER BY name";
+
+        List<String> tables = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                tables.add(rs.getString(1));
+            }
+        }
+
+        return tables;
+    }
+
+    @Override
+    public void analyze(String table, int analysisLimit) throws SQLException {
+        if (!databaseInitializer.getDialect().isEmbedded()) {
+            // Server statistics are sampled by the server itself; the limit has no equivalent
+            String quoted = "`" + table.replace("`", "``") + "`";
+            databaseInitializer.executeWrite(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ANALYZE TABLE " + quoted);
+                }
+                return null;
+            });
+            return;
+        }
+
+        String quoted = "\"" + table.replace("\"", "\"\"") + "\"";
+
+        databaseInitializer.executeWrite(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("PRAGMA analysis_limit = " + Math.max(0, analysisLimit));
+                stmt.executeUpdate("ANALYZE " + quoted);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public WalCheckpoint checkpointWal() throws SQLException {
+        if (!databaseInitializer.getDialect().isEmbedded()) {
+            return new WalCheckpoint(false, -1, -1);
+        }
+
+        return databaseInitializer.executeWrite(conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                if (!rs.next()) {
+                    return new WalCheckpoint(false, -1, -1);
+                }
+                return new WalCheckpoint(rs.getInt(1) != 0, rs.getInt(2), rs.getInt(3));
+            }
+        });
+    }
+
+    @Override
+    public VacuumResult incrementalVacuum(int pages) throws SQLException {
+        if (!databaseInitializer.getDialect().isEmbedded()) {
+            return new VacuumResult(0, 0);
+        }
+
+        return databaseInitializer.executeWrite(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                int before = getFreePageCount(stmt);
+                if (before == 0) {
+                    return new VacuumResult(0, 0);
+                }
+
+                // execute() stops after the first step, which releases a single page
+                stmt.executeUpdate("PRAGMA incremental_vacuum(" + Math.max(1, pages) + ")");
+                int after = getFreePageCount(stmt);
+                return new VacuumResult(before - after, after);
+            }
+        });
+    }
+
+    private List<String> getServerTableNames() throws SQLException {
+        List<String> tables = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection()) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            try (ResultSet rs = metaData.getTables(conn.getCatalog(), conn.getSchema(), "%", new String[] {"TABLE"})) {
+                while (rs.next()) {
+                    tables.add(rs.getString("TABLE_NAME"));
+                }
+            }
+        }
+
+        tables.sort(null);
+        return tables;
+    }
+
+    private int getFreePageCount(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA freelist_count")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.candyrush.storage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer
+ * Each slot carries a sequence number: a producer claims a slot with one CAS on the tail,
+ * writes the item and publishes it by advancing the slot's sequence; the consumer only reads
+ * slots whose sequence says they are published. Offering never blocks and never allocates.
+ */
+public final class MpscRingBuffer<T> {
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail;
+    private long head;  // Consumer only
+
+    /**
+     * @param minCapacity Minimum number of slots, rounded up to a power of two
+     */
+    public MpscRingBuffer(int minCapacity) {
+        if (minCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2: " + minCapacity);
+        }
+        int capacity = Integer.highestOneBit(minCapacity - 1) << 1;
+        this.items = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.tail = new AtomicLong();
+        this.head = 0;
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add an item (any thread)
+     * @return false if the buffer is full
+     */
+    public boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long diff = sequences.get(slot) - position;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[slot] = item;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;  // Slot still holds an item from the previous lap
+            }
+            // diff > 0: another producer claimed this position, retry with the new tail
+        }
+    }
+
+    /**
+     * Move every published item to the list (single consumer only)
+     * Stops at the first slot a producer has claimed but not yet published.
+     * @param target List to append to
+     * @return Number of items moved
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<? super T> target) {
+        int count = 0;
+        while (true) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                return count;
+            }
+            target.add((T) items[slot]);
+            items[slot] = null;
+            sequences.lazySet(slot, head + items.length);
+            head++;
+            count++;
+        }
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
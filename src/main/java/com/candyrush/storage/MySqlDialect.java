@@ -0,0 +1,185 @@
+package com.candyrush.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * MySQL / MariaDB dialect for a database shared by several servers
+ * Foreign keys are left out: InnoDB would enforce them, while the SQLite schema only documents them,
+ * and the storage code relies on deleting parents and children independently
+ * The schema version is kept in a one-row schema_info table
+ */
+public class MySqlDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean isEmbedded() {
+        return false;
+    }
+
+    @Override
+    public void configurePool(HikariConfig config) {
+        if (!config.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            return;
+        }
+
+        // Connector/J settings recommended by HikariCP: cache server-side prepared statements,
+        // send batches as multi-row INSERTs and skip round trips for session state the driver already knows
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("maintainTimeStats", "false");
+    }
+
+    @Override
+    public String uuidType() {
+        return "BINARY(16)";
+    }
+
+    @Override
+    public String bigIntegerType() {
+        return "BIGINT";
+    }
+
+    @Override
+    public String realType() {
+        return "DOUBLE";
+    }
+
+    @Override
+    public String blobType() {
+        return "MEDIUMBLOB";
+    }
+
+    @Override
+    public String autoIncrementKey() {
+        return "INTEGER AUTO_INCREMENT PRIMARY KEY";
+    }
+
+    @Override
+    public String clusteredTableOptions() {
+        // InnoDB always clusters on the primary key
+        return tableOptions();
+    }
+
+    @Override
+    public String tableOptions() {
+        return " ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+    }
+
+    @Override
+    public String foreignKey(String column, String reference) {
+        return "";
+    }
+
+    @Override
+    public void createIndex(Statement stmt, String name, String table, String columns) throws SQLException {
+        if (indexExists(stmt, name, table)) {
+            return;
+        }
+        try {
+            stmt.executeUpdate("CREATE INDEX " + name + " ON " + table + "(" + columns + ")");
+        } catch (SQLException e) {
+            // Another server sharing the database may have created it first
+            if (!indexExists(stmt, name, table)) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean indexExists(Statement stmt, String name, String table) throws SQLException {
+        Connection conn = stmt.getConnection();
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), conn.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tableExists(Statement stmt, String table) throws SQLException {
+        Connection conn = stmt.getConnection();
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getTables(conn.getCatalog(), conn.getSchema(), table, new String[] {"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    @Override
+    public int getSchemaVersion(Statement stmt) throws SQLException {
+        if (!tableExists(stmt, "schema_info")) {
+            return 0;
+        }
+        try (ResultSet rs = stmt.executeQuery("SELECT version FROM schema_info WHERE id = 1")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public void setSchemaVersion(Statement stmt, int version) throws SQLException {
+        stmt.executeUpdate(
+            "CREATE TABLE IF NOT EXISTS schema_info (" +
+            "    id INTEGER PRIMARY KEY CHECK (id = 1)," +
+            "    version INTEGER NOT NULL" +
+            ")" + tableOptions()
+        );
+        stmt.executeUpdate(upsert("INSERT INTO schema_info (id, version) VALUES (1, " + version + ")",
+            "id", "version = " + inserted("version")));
+    }
+
+    @Override
+    public String upsert(String insert, String keyColumns, String assignments) {
+        // The key is implied by whichever unique index the row collides with
+        return insert + " ON DUPLICATE KEY UPDATE " + assignments;
+    }
+
+    @Override
+    public String inserted(String column) {
+        // VALUES() is deprecated in MySQL 8.0.20 but is the form MariaDB understands
+        return "VALUES(" + column + ")";
+    }
+
+    @Override
+    public String greatest(String first, String second) {
+        return "GREATEST(" + first + ", " + second + ")";
+    }
+
+    @Override
+    public String insertIgnore() {
+        return "INSERT IGNORE INTO";
+    }
+
+    @Override
+    public String insertReplace() {
+        return "REPLACE INTO";
+    }
+
+    @Override
+    public String deleteLimited(String table, String where) {
+        return "DELETE FROM " + table + " WHERE " + where + " LIMIT ?";
+    }
+
+    @Override
+    public String forUpdate() {
+        return " FOR UPDATE";
+    }
+}
@@ -0,0 +1,56 @@
+package com.candyrush.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Thread-safe collector for rows that are written together
+ * The first add after a drain tells the caller to schedule a flush, so any number
+ * of adds before that flush end up in one batch
+ */
+public class PendingBatch<T> {
+
+    private final Queue<T> items;
+    private final AtomicBoolean flushScheduled;
+
+    public PendingBatch() {
+        this.items = new ConcurrentLinkedQueue<>();
+        this.flushScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Add an item to the current batch
+     * @param item Item to add
+     * @return true if the caller must schedule a flush
+     */
+    public boolean add(T item) {
+        items.add(item);
+        return flushScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Take every queued item and reset the flush flag
+     * @return Items in insertion order, empty if none
+     */
+    public List<T> drain() {
+        flushScheduled.set(false);
+
+        List<T> drained = new ArrayList<>();
+        T item;
+        while ((item = items.poll()) != null) {
+            drained.add(item);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,318 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of PlayerData
+ * Remembers UUIDs that have no database row (negative entries), expires idle entries
+ * and evicts least recently used ones above the size limit. Pinned (online) players are never evicted.
+ */
+public class PlayerDataCache {
+
+    private final Map<UUID, CachedValue> entries;
+    private final Set<UUID> pinned;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits;
+    private final LongAdder negativeHits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * @param maxSize Soft limit on entries; pinned players may push the cache above it
+     * @param ttlSeconds Idle time after which an unpinned entry expires
+     * @param negativeTtlSeconds Lifetime of a "no such player" entry
+     */
+    public PlayerDataCache(int maxSize, long ttlSeconds, long negativeTtlSeconds) {
+        this(maxSize, ttlSeconds, negativeTtlSeconds, System::nanoTime);
+    }
+
+    /**
+     * @param clock Source of nanosecond timestamps (tests substitute a manual clock)
+     */
+    PlayerDataCache(int maxSize, long ttlSeconds, long negativeTtlSeconds, LongSupplier clock) {
+        this.clock = clock;
+        this.entries = new ConcurrentHashMap<>();
+        this.pinned = ConcurrentHashMap.newKeySet();
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, negativeTtlSeconds));
+        this.hits = new LongAdder();
+        this.negativeHits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Look up a player
+     * @param uuid Player's UUID
+     * @return Cached value (possibly negative), or null if the cache knows nothing about the player
+     */
+    public CachedValue lookup(UUID uuid) {
+        CachedValue value = entries.get(uuid);
+        long now = clock.getAsLong();
+
+        if (value == null || (isExpired(value, now) && !pinned.contains(uuid))) {
+            if (value != null && entries.remove(uuid, value)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        value.touch(now);
+        if (value.isNegative()) {
+            negativeHits.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Get cached data without touching statistics or access time
+     * @param uuid Player's UUID
+     * @return Player data if a positive entry exists
+     */
+    public Optional<PlayerData> peek(UUID uuid) {
+        CachedValue value = entries.get(uuid);
+        return value != null ? value.asOptional() : Optional.empty();
+    }
+
+    /**
+     * Store player data, replacing any existing entry
+     */
+    public void put(UUID uuid, PlayerData data) {
+        entries.put(uuid, new CachedValue(data, clock.getAsLong()));
+        evictIfNeeded();
+    }
+
+    /**
+     * Store player data unless a positive entry already exists
+     * Negative entries are replaced
+     * @return Data now held by the cache
+     */
+    public PlayerData putIfAbsent(UUID uuid, PlayerData data) {
+        CachedValue created = new CachedValue(data, clock.getAsLong());
+        CachedValue result = entries.compute(uuid, (key, existing) ->
+                existing == null || existing.isNegative() ? created : existing);
+        if (result == created) {
+            evictIfNeeded();
+        }
+        return result.getData();
+    }
+
+    /**
+     * Remember that the player has no stored row
+     * Never replaces a positive entry
+     */
+    public void putNegative(UUID uuid) {
+        if (entries.putIfAbsent(uuid, new CachedValue(null, clock.getAsLong())) == null) {
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Check if a positive entry exists
+     */
+    public boolean containsPlayer(UUID uuid) {
+        CachedValue value = entries.get(uuid);
+        return value != null && !value.isNegative();
+    }
+
+    public void remove(UUID uuid) {
+        entries.remove(uuid);
+        pinned.remove(uuid);
+    }
+
+    /**
+     * Protect an entry from eviction (player is online)
+     */
+    public void pin(UUID uuid) {
+        pinned.add(uuid);
+    }
+
+    /**
+     * Allow an entry to be evicted again (player went offline)
+     */
+    public void unpin(UUID uuid) {
+        pinned.remove(uuid);
+    }
+
+    /**
+     * Get all cached player data (positive entries only)
+     */
+    public Collection<PlayerData> values() {
+        List<PlayerData> values = new ArrayList<>(entries.size());
+        for (CachedValue value : entries.values()) {
+            if (!value.isNegative()) {
+                values.add(value.getData());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Drop expired entries
+     * @return Number of entries removed
+     */
+    public int cleanUp() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<UUID, CachedValue> entry : entries.entrySet()) {
+            if (!pinned.contains(entry.getKey()) && isExpired(entry.getValue(), now)
+                    && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    public void clear() {
+        entries.clear();
+        pinned.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getPinnedCount() {
+        return pinned.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Ratio of lookups answered from memory (positive or negative)
+     */
+    public double getHitRate() {
+        long answered = hits.sum() + negativeHits.sum();
+        long total = answered + misses.sum();
+        return total == 0 ? 0 : answered / (double) total;
+    }
+
+    private boolean isExpired(CachedValue value, long now) {
+        // Negative entries expire by age so a busy lookup cannot keep them alive forever
+        if (value.isNegative()) {
+            return now - value.createdNanos > negativeTtlNanos;
+        }
+        return now - value.lastAccessNanos > ttlNanos;
+    }
+
+    /**
+     * Bring the cache back under its size limit
+     * Expired entries go first, then the least recently used unpinned ones down to 90% of the limit
+     */
+    private void evictIfNeeded() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        synchronized (this) {
+            if (entries.size() <= maxSize) {
+                return;
+            }
+
+            cleanUp();
+            int target = Math.max(1, maxSize * 9 / 10);
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            // Access times are snapshotted so concurrent lookups cannot reorder the sort
+            List<EvictionCandidate> candidates = new ArrayList<>();
+            for (Map.Entry<UUID, CachedValue> entry : entries.entrySet()) {
+                if (!pinned.contains(entry.getKey())) {
+                    candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue()));
+                }
+            }
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccessNanos));
+
+            int removed = 0;
+            for (EvictionCandidate candidate : candidates) {
+                if (removed >= excess) {
+                    break;
+                }
+                if (entries.remove(candidate.uuid, candidate.value)) {
+                    removed++;
+                }
+            }
+            evictions.add(removed);
+        }
+    }
+
+    private static final class EvictionCandidate {
+        private final UUID uuid;
+        private final CachedValue value;
+        private final long lastAccessNanos;
+
+        private EvictionCandidate(UUID uuid, CachedValue value) {
+            this.uuid = uuid;
+            this.value = value;
+            this.lastAccessNanos = value.lastAccessNanos;
+        }
+    }
+
+    /**
+     * Cached lookup result; a null data value means the player has no stored row
+     */
+    public static final class CachedValue {
+        private final PlayerData data;
+        private final long createdNanos;
+        private volatile long lastAccessNanos;
+
+        private CachedValue(PlayerData data, long now) {
+            this.data = data;
+            this.createdNanos = now;
+            this.lastAccessNanos = now;
+        }
+
+        public boolean isNegative() {
+            return data == null;
+        }
+
+        public PlayerData getData() {
+            return data;
+        }
+
+        public Optional<PlayerData> asOptional() {
+            return Optional.ofNullable(data);
+        }
+
+        private void touch(long now) {
+            lastAccessNanos = now;
+        }
+    }
+}
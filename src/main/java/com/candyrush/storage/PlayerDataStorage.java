@@ -4,15 +4,30 @@ import com.candyrush.models.PlayerData;
 import com.candyrush.models.TeamColor;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Interface for player data storage operations
+ * Team and points are scoped to the active round; lifetime fields live on the player row
  */
 public interface PlayerDataStorage {
 
+    /**
+     * Set the round whose team and points are read and written
+     * Starting a new round is the score reset: the new round has no rows yet
+     * @param roundId Round ID, or null when no round is active (team and points read as empty)
+     */
+    void setActiveRound(Integer roundId);
+
+    /**
+     * Get the round whose team and points are read and written
+     * @return Round ID, or null when no round is active
+     */
+    Integer getActiveRound();
+
     /**
      * Load player data by UUID
      * @param uuid Player's UUID
@@ -21,6 +36,16 @@ public interface PlayerDataStorage {
      */
     Optional<PlayerData> loadPlayer(UUID uuid) throws SQLException;
 
+    /**
+     * Load player data, inserting a fresh row first if the player is new
+     * Both steps run in one transaction so a first join costs a single round-trip
+     * @param uuid Player's UUID
+     * @param name Player's current name (used only for new rows)
+     * @return Stored player data
+     * @throws SQLException if database error occurs
+     */
+    PlayerData loadOrCreatePlayer(UUID uuid, String name) throws SQLException;
+
     /**
      * Save or update player data
      * @param playerData Player data to save
@@ -28,6 +53,22 @@ public interface PlayerDataStorage {
      */
     void savePlayer(PlayerData playerData) throws SQLException;
 
+    /**
+     * Save or update several players in a single transaction
+     * @param players Player data to save
+     * @throws SQLException if database error occurs (the whole batch is rolled back)
+     */
+    void savePlayers(Collection<PlayerData> players) throws SQLException;
+
+    /**
+     * Save or update several players in a single transaction, writing team and points to the given round
+     * Used for snapshots taken before the active round changed
+     * @param players Player data to save
+     * @param roundId Round the snapshots belong to, or null to write lifetime fields only
+     * @throws SQLException if database error occurs (the whole batch is rolled back)
+     */
+    void savePlayers(Collection<PlayerData> players, Integer roundId) throws SQLException;
+
     /**
      * Delete player data (for GDPR compliance)
      * @param uuid Player's UUID
@@ -36,7 +77,7 @@ public interface PlayerDataStorage {
     void deletePlayer(UUID uuid) throws SQLException;
 
     /**
-     * Load all players in a specific team
+     * Load all players in a specific team in the active round
      * @param teamColor Team color
      * @return List of player data
      * @throws SQLException if database error occurs
@@ -44,31 +85,26 @@ public interface PlayerDataStorage {
     List<PlayerData> loadPlayersByTeam(TeamColor teamColor) throws SQLException;
 
     /**
-     * Get top players by points
+     * Get top players by lifetime points
      * @param limit Maximum number of players to return
-     * @return List of top players ordered by points descending
+     * @return List of top players ordered by lifetime points descending
      * @throws SQLException if database error occurs
      */
     List<PlayerData> getTopPlayers(int limit) throws SQLException;
 
     /**
-     * Get all murderers currently active
-     * @return List of players with active murderer status
+     * Load every player's lifetime points for the in-memory leaderboard
+     * @return One entry per player (rank not set)
      * @throws SQLException if database error occurs
      */
-    List<PlayerData> getActiveMurderers() throws SQLException;
+    List<LeaderboardIndex.Entry> loadLeaderboard() throws SQLException;
 
     /**
-     * Clear team assignments for all players
-     * @throws SQLException if database error occurs
-     */
-    void clearAllTeamAssignments() throws SQLException;
-
-    /**
-     * Reset points for all players
+     * Get all murderers currently active
+     * @return List of players with active murderer status
      * @throws SQLException if database error occurs
      */
-    void resetAllPoints() throws SQLException;
+    List<PlayerData> getActiveMurderers() throws SQLException;
 
     /**
      * Get total player count
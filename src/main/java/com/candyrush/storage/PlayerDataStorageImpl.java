@@ -5,29 +5,94 @@ import com.candyrush.models.TeamColor;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * SQLite implementation of PlayerDataStorage
+ * JDBC implementation of PlayerDataStorage
+ * players.points holds lifetime points; round_players holds team and points per round
+ * UUIDs and team colors are encoded with {@link StorageCodecs}
+ *
+ * Player rows carry a version that every save bumps with a compare-and-set UPDATE. When several servers share
+ * the database, a save that lost the race re-reads the row and applies only this server's changes to the
+ * lifetime counters (see {@link PlayerData.SyncState}), so concurrent updates never overwrite each other's points
  */
 public class PlayerDataStorageImpl implements PlayerDataStorage {
 
+    // Conflicting saves retried before giving up; each retry follows a locking re-read, so more than one is rare
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private static final String UPDATE_PLAYER_SQL =
+            "UPDATE players SET name = ?, points = ?, kills = ?, deaths = ?, " +
+            "is_murderer = ?, murderer_until = ?, last_seen = ?, updated_at = ?, version = version + 1 " +
+            "WHERE uuid = ? AND version = ?";
+
+    private static final String PLAYER_INSERT_COLUMNS =
+            " players (uuid, name, points, kills, deaths, " +
+            "is_murderer, murderer_until, last_seen, created_at, updated_at, version) ";
+
+    private static final String PLAYER_COLUMNS =
+            "SELECT p.*, rp.team_color AS round_team_color, rp.points AS round_points, " +
+            "pt.games_played AS total_games, pt.wins AS total_wins ";
+
+    // Player row joined with the active round's row and lifetime totals; the first parameter is the round ID
+    private static final String SELECT_PLAYER_SQL =
+            PLAYER_COLUMNS +
+            "FROM players p " +
+            "LEFT JOIN round_players rp ON rp.player_uuid = p.uuid AND rp.round_id = ? " +
+            "LEFT JOIN player_totals pt ON pt.player_uuid = p.uuid ";
+
     private final DatabaseInitializer databaseInitializer;
+    private final String insertPlayerSql;
+    private final String createPlayerSql;
+    private final String selectStoredPlayerSql;
+    private final String upsertRoundPlayerSql;
+    private volatile Integer activeRoundId;
 
     public PlayerDataStorageImpl(DatabaseInitializer databaseInitializer) {
         this.databaseInitializer = databaseInitializer;
+
+        SqlDialect dialect = databaseInitializer.getDialect();
+        this.insertPlayerSql = dialect.insertIgnore() + PLAYER_INSERT_COLUMNS +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1)";
+        this.createPlayerSql = dialect.insertIgnore() + PLAYER_INSERT_COLUMNS +
+            "VALUES (?, ?, 0, 0, 0, 0, 0, ?, ?, ?, 0)";
+        this.selectStoredPlayerSql = "SELECT points, kills, deaths, version FROM players WHERE uuid = ?" +
+            dialect.forUpdate();
+        this.upsertRoundPlayerSql = dialect.upsert(
+            "INSERT INTO round_players (round_id, player_uuid, team_color, points, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?)",
+            "round_id, player_uuid",
+            "team_color = " + dialect.inserted("team_color") + ", " +
+            "points = " + dialect.inserted("points") + ", " +
+            "updated_at = " + dialect.inserted("updated_at"));
+    }
+
+    @Override
+    public void setActiveRound(Integer roundId) {
+        this.activeRoundId = roundId;
+    }
+
+    @Override
+    public Integer getActiveRound() {
+        return activeRoundId;
     }
 
     @Override
     public Optional<PlayerData> loadPlayer(UUID uuid) throws SQLException {
-        String sql = "SELECT * FROM players WHERE uuid = ?";
+        String sql = SELECT_PLAYER_SQL + "WHERE p.uuid = ?";
 
         try (Connection conn = databaseInitializer.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, uuid.toString());
+            bindRound(stmt, 1, activeRoundId);
+            StorageCodecs.bindUuid(stmt, 2, uuid);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -39,38 +104,84 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
         return Optional.empty();
     }
 
+    @Override
+    public PlayerData loadOrCreatePlayer(UUID uuid, String name) throws SQLException {
+        String selectSql = SELECT_PLAYER_SQL + "WHERE p.uuid = ?";
+        Integer roundId = activeRoundId;
+
+        return databaseInitializer.executeTransaction(conn -> {
+            long now = System.currentTimeMillis() / 1000;
+
+            try (PreparedStatement stmt = conn.prepareStatement(createPlayerSql)) {
+                StorageCodecs.bindUuid(stmt, 1, uuid);
+                stmt.setString(2, name);
+                stmt.setLong(3, now);
+                stmt.setLong(4, now);
+                stmt.setLong(5, now);
+                stmt.executeUpdate();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                bindRound(stmt, 1, roundId);
+                StorageCodecs.bindUuid(stmt, 2, uuid);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return parsePlayerData(rs);
+                    }
+                }
+            }
+
+            throw new SQLException("Player row missing after insert: " + uuid);
+        });
+    }
+
     @Override
     public void savePlayer(PlayerData playerData) throws SQLException {
-        String sql = "INSERT INTO players (uuid, name, team_color, points, kills, deaths, " +
-                    "is_murderer, murderer_until, last_seen, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                    "ON CONFLICT(uuid) DO UPDATE SET " +
-                    "name = excluded.name, " +
-                    "team_color = excluded.team_color, " +
-                    "points = excluded.points, " +
-                    "kills = excluded.kills, " +
-                    "deaths = excluded.deaths, " +
-                    "is_murderer = excluded.is_murderer, " +
-                    "murderer_until = excluded.murderer_until, " +
-                    "last_seen = excluded.last_seen, " +
-                    "updated_at = excluded.updated_at";
+        savePlayers(Collections.singletonList(playerData));
+    }
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    @Override
+    public void savePlayers(Collection<PlayerData> players) throws SQLException {
+        savePlayers(players, activeRoundId);
+    }
 
-            stmt.setString(1, playerData.getUuid().toString());
-            stmt.setString(2, playerData.getName());
-            stmt.setString(3, playerData.getTeamColor() != null ? playerData.getTeamColor().name() : null);
-            stmt.setInt(4, playerData.getPoints());
-            stmt.setInt(5, playerData.getKills());
-            stmt.setInt(6, playerData.getDeaths());
-            stmt.setInt(7, playerData.isMurderer() ? 1 : 0);
-            stmt.setLong(8, playerData.getMurdererUntil());
-            stmt.setLong(9, playerData.getLastSeen());
-            stmt.setLong(10, playerData.getCreatedAt());
-            stmt.setLong(11, playerData.getUpdatedAt());
-
-            stmt.executeUpdate();
+    @Override
+    public void savePlayers(Collection<PlayerData> players, Integer roundId) throws SQLException {
+        if (players.isEmpty()) {
+            return;
+        }
+
+        // A fixed order keeps row locks from deadlocking against another server's batch
+        List<PlayerData> ordered = new ArrayList<>(players);
+        ordered.sort(Comparator.comparing(PlayerData::getUuid));
+
+        Map<PlayerData, PlayerData.SyncState> saved = databaseInitializer.executeTransaction(conn -> {
+            Map<PlayerData, PlayerData.SyncState> states = new IdentityHashMap<>();
+            try (PreparedStatement update = conn.prepareStatement(UPDATE_PLAYER_SQL);
+                 PreparedStatement insert = conn.prepareStatement(insertPlayerSql);
+                 PreparedStatement select = conn.prepareStatement(selectStoredPlayerSql)) {
+                for (PlayerData playerData : ordered) {
+                    states.put(playerData, writePlayer(update, insert, select, playerData));
+                }
+            }
+
+            // Round-scoped fields only exist while a round is active
+            if (roundId != null) {
+                try (PreparedStatement stmt = conn.prepareStatement(upsertRoundPlayerSql)) {
+                    for (PlayerData playerData : ordered) {
+                        bindRoundPlayer(stmt, roundId, playerData);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            }
+            return states;
+        });
+
+        // Only a committed save moves the sync state forward
+        for (Map.Entry<PlayerData, PlayerData.SyncState> entry : saved.entrySet()) {
+            entry.getKey().setSyncState(entry.getValue());
         }
     }
 
@@ -78,24 +189,34 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
     public void deletePlayer(UUID uuid) throws SQLException {
         String sql = "DELETE FROM players WHERE uuid = ?";
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, uuid.toString());
-            stmt.executeUpdate();
-        }
+        databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                StorageCodecs.bindUuid(stmt, 1, uuid);
+                return stmt.executeUpdate();
+            }
+        });
     }
 
     @Override
     public List<PlayerData> loadPlayersByTeam(TeamColor teamColor) throws SQLException {
-        String sql = "SELECT * FROM players WHERE team_color = ? ORDER BY points DESC";
+        Integer roundId = activeRoundId;
+        if (roundId == null) {
+            return new ArrayList<>();
+        }
+
+        String sql = PLAYER_COLUMNS +
+                    "FROM round_players rp " +
+                    "JOIN players p ON p.uuid = rp.player_uuid " +
+                    "LEFT JOIN player_totals pt ON pt.player_uuid = p.uuid " +
+                    "WHERE rp.round_id = ? AND rp.team_color = ? ORDER BY rp.points DESC";
 
         List<PlayerData> players = new ArrayList<>();
 
         try (Connection conn = databaseInitializer.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, teamColor.name());
+            stmt.setInt(1, roundId);
+            StorageCodecs.TEAM_COLOR.bind(stmt, 2, teamColor);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -109,14 +230,15 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
 
     @Override
     public List<PlayerData> getTopPlayers(int limit) throws SQLException {
-        String sql = "SELECT * FROM players ORDER BY points DESC LIMIT ?";
+        String sql = SELECT_PLAYER_SQL + "ORDER BY p.points DESC LIMIT ?";
 
         List<PlayerData> players = new ArrayList<>();
 
         try (Connection conn = databaseInitializer.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, limit);
+            bindRound(stmt, 1, activeRoundId);
+            stmt.setInt(2, limit);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -128,17 +250,40 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
         return players;
     }
 
+    @Override
+    public List<LeaderboardIndex.Entry> loadLeaderboard() throws SQLException {
+        String sql = "SELECT uuid, name, points FROM players";
+
+        List<LeaderboardIndex.Entry> entries = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                entries.add(new LeaderboardIndex.Entry(
+                    StorageCodecs.readUuid(rs, "uuid"),
+                    rs.getString("name"),
+                    rs.getInt("points")
+                ));
+            }
+        }
+
+        return entries;
+    }
+
     @Override
     public List<PlayerData> getActiveMurderers() throws SQLException {
         long now = System.currentTimeMillis() / 1000;
-        String sql = "SELECT * FROM players WHERE is_murderer = 1 AND murderer_until > ?";
+        String sql = SELECT_PLAYER_SQL + "WHERE p.is_murderer = 1 AND p.murderer_until > ?";
 
         List<PlayerData> murderers = new ArrayList<>();
 
         try (Connection conn = databaseInitializer.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setLong(1, now);
+            bindRound(stmt, 1, activeRoundId);
+            stmt.setLong(2, now);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -151,43 +296,122 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
     }
 
     @Override
-    public void clearAllTeamAssignments() throws SQLException {
-        String sql = "UPDATE players SET team_color = NULL, updated_at = ?";
+    public int getTotalPlayerCount() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM players";
 
         try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
 
-            stmt.setLong(1, System.currentTimeMillis() / 1000);
-            stmt.executeUpdate();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
         }
+
+        return 0;
     }
 
-    @Override
-    public void resetAllPoints() throws SQLException {
-        String sql = "UPDATE players SET points = 0, updated_at = ?";
+    /**
+     * Write one player row with a compare-and-set on its version
+     * Lifetime counters are written as the stored values plus this instance's changes since its last sync;
+     * name, murderer status and timestamps are last-writer-wins
+     * @param update Statement prepared from UPDATE_PLAYER_SQL
+     * @param insert Statement prepared from insertPlayerSql
+     * @param select Statement prepared from selectStoredPlayerSql
+     * @param playerData Player data to write
+     * @return Sync state of the written row
+     * @throws SQLException if the row keeps changing underneath or a database error occurs
+     */
+    private PlayerData.SyncState writePlayer(PreparedStatement update, PreparedStatement insert,
+                                             PreparedStatement select, PlayerData playerData) throws SQLException {
+        PlayerData.SyncState state = playerData.getSyncState();
+
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            int points = state.storedPoints + playerData.getTotalPoints() - state.localPoints;
+            int kills = state.storedKills + playerData.getKills() - state.localKills;
+            int deaths = state.storedDeaths + playerData.getDeaths() - state.localDeaths;
+
+            if (state.version >= 0) {
+                bindPlayerFields(update, 1, playerData, points, kills, deaths);
+                update.setLong(8, playerData.getUpdatedAt());
+                StorageCodecs.bindUuid(update, 9, playerData.getUuid());
+                update.setLong(10, state.version);
+                if (update.executeUpdate() == 1) {
+                    return synced(state.version + 1, points, kills, deaths, playerData);
+                }
+            }
 
-        try (Connection conn = databaseInitializer.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // Another server saved the row since we read it (or we never did): re-read it and merge again
+            StorageCodecs.bindUuid(select, 1, playerData.getUuid());
+            try (ResultSet rs = select.executeQuery()) {
+                if (rs.next()) {
+                    state = new PlayerData.SyncState(rs.getLong("version"),
+                        rs.getInt("points"), rs.getInt("kills"), rs.getInt("deaths"),
+                        state.localPoints, state.localKills, state.localDeaths);
+                    continue;
+                }
+            }
 
-            stmt.setLong(1, System.currentTimeMillis() / 1000);
-            stmt.executeUpdate();
+            StorageCodecs.bindUuid(insert, 1, playerData.getUuid());
+            bindPlayerFields(insert, 2, playerData, points, kills, deaths);
+            insert.setLong(9, playerData.getCreatedAt());
+            insert.setLong(10, playerData.getUpdatedAt());
+            if (insert.executeUpdate() == 1) {
+                return synced(1, points, kills, deaths, playerData);
+            }
+            // Created by another server in the meantime; the next attempt reads it
         }
+
+        throw new SQLException("Player row " + playerData.getUuid() + " changed on every one of " +
+                               MAX_WRITE_ATTEMPTS + " save attempts");
     }
 
-    @Override
-    public int getTotalPlayerCount() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM players";
+    /**
+     * Bind name, counters and murderer fields starting at the given index (seven parameters)
+     */
+    private void bindPlayerFields(PreparedStatement stmt, int index, PlayerData playerData,
+                               int points, int kills, int deaths) throws SQLException {
+        stmt.setString(index, playerData.getName());
+        stmt.setInt(index + 1, points);
+        stmt.setInt(index + 2, kills);
+        stmt.setInt(index + 3, deaths);
+        stmt.setInt(index + 4, playerData.isMurderer() ? 1 : 0);
+        stmt.setLong(index + 5, playerData.getMurdererUntil());
+        stmt.setLong(index + 6, playerData.getLastSeen());
+    }
 
-        try (Connection conn = databaseInitializer.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Sync state after writing the given counters for the player's current local counters
+     */
+    private PlayerData.SyncState synced(long version, int points, int kills, int deaths, PlayerData playerData) {
+        return new PlayerData.SyncState(version, points, kills, deaths,
+            playerData.getTotalPoints(), playerData.getKills(), playerData.getDeaths());
+    }
 
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        }
+    /**
+     * Bind round-scoped PlayerData fields to the round upsert statement
+     * @param stmt Statement prepared from upsertRoundPlayerSql
+     * @param roundId Active round ID
+     * @param playerData Player data to bind
+     * @throws SQLException if binding fails
+     */
+    private void bindRoundPlayer(PreparedStatement stmt, int roundId, PlayerData playerData) throws SQLException {
+        stmt.setInt(1, roundId);
+        StorageCodecs.bindUuid(stmt, 2, playerData.getUuid());
+        StorageCodecs.TEAM_COLOR.bind(stmt, 3, playerData.getTeamColor());
+        stmt.setInt(4, playerData.getPoints());
+        stmt.setLong(5, playerData.getUpdatedAt());
+    }
 
-        return 0;
+    /**
+     * Bind the round ID of SELECT_PLAYER_SQL; null matches no round row
+     */
+    private void bindRound(PreparedStatement stmt, int index, Integer roundId) throws SQLException {
+        if (roundId != null) {
+            stmt.setInt(index, roundId);
+        } else {
+            stmt.setNull(index, Types.INTEGER);
+        }
     }
 
     /**
@@ -197,11 +421,13 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
      * @throws SQLException if parsing fails
      */
     private PlayerData parsePlayerData(ResultSet rs) throws SQLException {
-        UUID uuid = UUID.fromString(rs.getString("uuid"));
+        UUID uuid = StorageCodecs.readUuid(rs, "uuid");
         String name = rs.getString("name");
-        String teamColorStr = rs.getString("team_color");
-        TeamColor teamColor = teamColorStr != null ? TeamColor.valueOf(teamColorStr) : null;
-        int points = rs.getInt("points");
+        TeamColor teamColor = StorageCodecs.TEAM_COLOR.read(rs, "round_team_color");
+        int points = rs.getInt("round_points");  // 0 when the player has no row in the active round
+        int totalPoints = rs.getInt("points");
+        int gamesPlayed = rs.getInt("total_games");  // 0 when the player never finished a round
+        int wins = rs.getInt("total_wins");
         int kills = rs.getInt("kills");
         int deaths = rs.getInt("deaths");
         boolean isMurderer = rs.getInt("is_murderer") == 1;
@@ -210,7 +436,10 @@ public class PlayerDataStorageImpl implements PlayerDataStorage {
         long createdAt = rs.getLong("created_at");
         long updatedAt = rs.getLong("updated_at");
 
-        return new PlayerData(uuid, name, teamColor, points, kills, deaths,
+        PlayerData data = new PlayerData(uuid, name, teamColor, points, totalPoints, gamesPlayed, wins, kills, deaths,
                             isMurderer, murdererUntil, lastSeen, createdAt, updatedAt);
+        data.setSyncState(new PlayerData.SyncState(rs.getLong("version"),
+            totalPoints, kills, deaths, totalPoints, kills, deaths));
+        return data;
     }
 }
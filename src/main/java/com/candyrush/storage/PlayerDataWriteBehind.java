@@ -0,0 +1,264 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer for player data
+ * Callers mark PlayerData dirty instead of writing it; repeated updates for the
+ * same player are merged and flushed in batched transactions on a background thread
+ * Each snapshot remembers the round that was active when it was taken, so a flush that
+ * runs after the round changed still writes team and points to the right round
+ */
+public class PlayerDataWriteBehind {
+
+    private final PlayerDataStorage storage;
+    private final Logger logger;
+    private final Map<UUID, PendingWrite> pending;
+    private final ConcurrentLinkedQueue<PendingWrite> superseded;
+    private final Object flushLock;
+    private final AtomicLong markedCount;
+    private final AtomicLong mergedCount;
+    private final AtomicLong writtenCount;
+    private final AtomicLong flushCount;
+    private final AtomicLong failedFlushCount;
+    private ScheduledExecutorService executor;
+
+    public PlayerDataWriteBehind(PlayerDataStorage storage, Logger logger) {
+        this.storage = storage;
+        this.logger = logger;
+        this.pending = new ConcurrentHashMap<>();
+        this.superseded = new ConcurrentLinkedQueue<>();
+        this.flushLock = new Object();
+        this.markedCount = new AtomicLong();
+        this.mergedCount = new AtomicLong();
+        this.writtenCount = new AtomicLong();
+        this.flushCount = new AtomicLong();
+        this.failedFlushCount = new AtomicLong();
+    }
+
+    /**
+     * Start the periodic background flush
+     * @param intervalMillis Interval between flushes in milliseconds
+     */
+    public void start(long intervalMillis) {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CandyRush-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50L, intervalMillis);
+        executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mark player data as dirty
+     * A snapshot is taken immediately so the caller may keep mutating the instance
+     * A pending snapshot from an earlier round is kept aside and still written to that round
+     * @param data Player data that changed
+     */
+    public void markDirty(PlayerData data) {
+        markedCount.incrementAndGet();
+        PendingWrite write = new PendingWrite(data.copy(), storage.getActiveRound());
+        PendingWrite previous = pending.put(data.getUuid(), write);
+        if (previous == null) {
+            return;
+        }
+
+        if (Objects.equals(previous.roundId, write.roundId)) {
+            mergedCount.incrementAndGet();
+        } else {
+            superseded.add(previous);
+        }
+    }
+
+    /**
+     * Get the latest unsaved snapshot for a player
+     * Callers loading from the database must prefer this, since the row may still be stale
+     * @param uuid Player's UUID
+     * @return Copy of the pending snapshot if one is waiting to be written
+     */
+    public Optional<PlayerData> getPending(UUID uuid) {
+        PendingWrite write = pending.get(uuid);
+        return write != null ? Optional.of(write.snapshot.copy()) : Optional.empty();
+    }
+
+    /**
+     * Request a flush on the background thread as soon as possible
+     * Falls back to a synchronous flush if the executor is not running
+     * @return Future completing with the number of rows written
+     */
+    public CompletableFuture<Integer> flushAsync() {
+        ScheduledExecutorService current = executor;
+        if (current == null || current.isShutdown()) {
+            return CompletableFuture.completedFuture(flushNow());
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(this::flushNow, current);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(flushNow());
+        }
+    }
+
+    /**
+     * Flush all pending updates on the calling thread
+     * @return Number of rows written
+     */
+    public int flushNow() {
+        synchronized (flushLock) {
+            if (pending.isEmpty() && superseded.isEmpty()) {
+                return 0;
+            }
+
+            // Superseded snapshots are older than the pending ones, so their rounds are written first
+            Map<Integer, List<PendingWrite>> batches = new LinkedHashMap<>();
+            for (PendingWrite write : superseded) {
+                batches.computeIfAbsent(write.roundId, roundId -> new ArrayList<>()).add(write);
+            }
+            for (PendingWrite write : pending.values()) {
+                batches.computeIfAbsent(write.roundId, roundId -> new ArrayList<>()).add(write);
+            }
+
+            int written = 0;
+            for (Map.Entry<Integer, List<PendingWrite>> entry : batches.entrySet()) {
+                List<PendingWrite> batch = entry.getValue();
+                List<PlayerData> snapshots = new ArrayList<>(batch.size());
+                for (PendingWrite write : batch) {
+                    snapshots.add(write.snapshot);
+                }
+
+                try {
+                    storage.savePlayers(snapshots, entry.getKey());
+                } catch (SQLException e) {
+                    failedFlushCount.incrementAndGet();
+                    logger.log(Level.SEVERE, "Failed to flush " + batch.size() + " player data updates for round " +
+                               entry.getKey() + " (will retry)", e);
+                    return written;
+                }
+
+                // Only drop snapshots that were not replaced while the batch was being written
+                for (PendingWrite write : batch) {
+                    if (!pending.remove(write.snapshot.getUuid(), write)) {
+                        superseded.remove(write);
+                    }
+                }
+
+                written += batch.size();
+                writtenCount.addAndGet(batch.size());
+                flushCount.incrementAndGet();
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Stop the background thread and write everything that is still pending
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+
+        int written = flushNow();
+        if (getPendingCount() > 0) {
+            logger.severe("Write-behind shutdown left " + getPendingCount() + " player updates unsaved");
+        } else if (written > 0) {
+            logger.info("Write-behind flushed " + written + " pending player updates on shutdown");
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushNow();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Unexpected error in write-behind flush", e);
+        }
+    }
+
+    /**
+     * Get the number of snapshots waiting to be written
+     */
+    public int getPendingCount() {
+        return pending.size() + superseded.size();
+    }
+
+    /**
+     * Get the number of updates that were merged into an already pending one
+     */
+    public long getMergedCount() {
+        return mergedCount.get();
+    }
+
+    /**
+     * Get the total number of markDirty calls
+     */
+    public long getMarkedCount() {
+        return markedCount.get();
+    }
+
+    /**
+     * Get the total number of rows written
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Get the number of successful flush transactions
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Get the number of failed flush attempts
+     */
+    public long getFailedFlushCount() {
+        return failedFlushCount.get();
+    }
+
+    /**
+     * Snapshot waiting to be written, with the round it was taken in
+     */
+    private static final class PendingWrite {
+        private final PlayerData snapshot;
+        private final Integer roundId;
+
+        private PendingWrite(PlayerData snapshot, Integer roundId) {
+            this.snapshot = snapshot;
+            this.roundId = roundId;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+
+import java.util.UUID;
+
+/**
+ * One entry of the point ledger: a single point change and where it came from
+ * Immutable so it can be handed from the recording thread to the storage thread without copying.
+ */
+public final class PointEvent {
+
+    private final int roundId;
+    private final UUID playerUuid;
+    private final TeamColor teamColor;
+    private final PointSource source;
+    private final int amount;
+    private final int tick;
+    private final long createdAt;
+
+    /**
+     * @param roundId Round the change belongs to
+     * @param playerUuid Player whose points changed
+     * @param teamColor Player's team at the time, or null
+     * @param source Where the points came from
+     * @param amount Signed point change
+     * @param tick Server tick of the change
+     * @param createdAt Unix time in seconds
+     */
+    public PointEvent(int roundId, UUID playerUuid, TeamColor teamColor, PointSource source,
+                      int amount, int tick, long createdAt) {
+        this.roundId = roundId;
+        this.playerUuid = playerUuid;
+        this.teamColor = teamColor;
+        this.source = source;
+        this.amount = amount;
+        this.tick = tick;
+        this.createdAt = createdAt;
+    }
+
+    public int getRoundId() {
+        return roundId;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * @return Team, or null if the player had no team
+     */
+    public TeamColor getTeamColor() {
+        return teamColor;
+    }
+
+    public PointSource getSource() {
+        return source;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,29 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Interface for the append-only point ledger
+ */
+public interface PointEventStorage {
+
+    /**
+     * Append point events in a single transaction
+     * @param events Events to append
+     * @throws SQLException if database error occurs (the whole batch is rolled back)
+     */
+    void saveEvents(Collection<PointEvent> events) throws SQLException;
+
+    /**
+     * Sum a round's events per player and source
+     * @param roundId Round ID
+     * @return Amounts by player, then by source
+     * @throws SQLException if database error occurs
+     */
+    Map<UUID, Map<PointSource, Integer>> loadRoundBreakdowns(int roundId) throws SQLException;
+}
@@ -0,0 +1,69 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of PointEventStorage
+ */
+public class PointEventStorageImpl implements PointEventStorage {
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public PointEventStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public void saveEvents(Collection<PointEvent> events) throws SQLException {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO point_events (round_id, player_uuid, team_color, source, amount, tick, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        databaseInitializer.executeTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (PointEvent event : events) {
+                    stmt.setInt(1, event.getRoundId());
+                    StorageCodecs.bindUuid(stmt, 2, event.getPlayerUuid());
+                    StorageCodecs.TEAM_COLOR.bind(stmt, 3, event.getTeamColor());
+                    stmt.setInt(4, StorageCodecs.POINT_SOURCE.encode(event.getSource()));
+                    stmt.setInt(5, event.getAmount());
+                    stmt.setInt(6, event.getTick());
+                    stmt.setLong(7, event.getCreatedAt());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch().length;
+            }
+        });
+    }
+
+    @Override
+    public Map<UUID, Map<PointSource, Integer>> loadRoundBreakdowns(int roundId) throws SQLException {
+        String sql = "SELECT player_uuid, source, SUM(amount) AS amount FROM point_events " +
+                    "WHERE round_id = ? GROUP BY player_uuid, source";
+
+        Map<UUID, Map<PointSource, Integer>> breakdowns = new HashMap<>();
+        try (Connection conn = databaseInitializer.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, roundId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    breakdowns.computeIfAbsent(StorageCodecs.readUuid(rs, "player_uuid"), uuid -> new EnumMap<>(PointSource.class))
+                            .put(StorageCodecs.POINT_SOURCE.decode(rs.getInt("source")), rs.getInt("amount"));
+                }
+            }
+        }
+        return breakdowns;
+    }
+}
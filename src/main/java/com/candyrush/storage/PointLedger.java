@@ -0,0 +1,133 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory side of the point ledger
+ * Recording only pushes the event into a lock-free ring; {@link #drain} moves everything recorded so
+ * far into per-player, per-source counters and returns the same events as one batch for the database.
+ * Counters cover the current round and are cleared by {@link #reset}.
+ */
+public class PointLedger {
+
+    private static final PointSource[] SOURCES = PointSource.values();
+
+    private final MpscRingBuffer<PointEvent> buffer;
+    private final Map<UUID, int[]> amounts;  // Guarded by this
+
+    /**
+     * @param capacity Events held between drains (rounded up to a power of two)
+     */
+    public PointLedger(int capacity) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.amounts = new HashMap<>();
+    }
+
+    /**
+     * Record an event (any thread, never blocks)
+     * @return false if the ring is full; the caller should drain and record again
+     */
+    public boolean offer(PointEvent event) {
+        return buffer.offer(event);
+    }
+
+    /**
+     * Move recorded events into the counters
+     * @return Drained events in recording order, empty if none
+     */
+    public synchronized List<PointEvent> drain() {
+        List<PointEvent> batch = new ArrayList<>();
+        if (buffer.drainTo(batch) == 0) {
+            return Collections.emptyList();
+        }
+
+        for (PointEvent event : batch) {
+            amounts.computeIfAbsent(event.getPlayerUuid(), uuid -> new int[SOURCES.length])
+                    [event.getSource().ordinal()] += event.getAmount();
+        }
+        return batch;
+    }
+
+    /**
+     * Replace the counters with amounts summed from stored events (resuming a round)
+     * @param breakdowns Amounts by player, then by source
+     */
+    public synchronized void restore(Map<UUID, Map<PointSource, Integer>> breakdowns) {
+        amounts.clear();
+        for (Map.Entry<UUID, Map<PointSource, Integer>> entry : breakdowns.entrySet()) {
+            int[] values = new int[SOURCES.length];
+            for (Map.Entry<PointSource, Integer> source : entry.getValue().entrySet()) {
+                values[source.getKey().ordinal()] = source.getValue();
+            }
+            amounts.put(entry.getKey(), values);
+        }
+    }
+
+    /**
+     * Clear the counters for a new round (drain first to keep pending events)
+     */
+    public synchronized void reset() {
+        amounts.clear();
+    }
+
+    /**
+     * Get a player's drained points by source
+     * @return Non-zero amounts in declaration order, empty if the player has none
+     */
+    public synchronized Map<PointSource, Integer> getBreakdown(UUID playerUuid) {
+        Map<PointSource, Integer> breakdown = new EnumMap<>(PointSource.class);
+        int[] values = amounts.get(playerUuid);
+        if (values != null) {
+            for (PointSource source : SOURCES) {
+                if (values[source.ordinal()] != 0) {
+                    breakdown.put(source, values[source.ordinal()]);
+                }
+            }
+        }
+        return breakdown;
+    }
+
+    /**
+     * Get the points a player earned (positive sources only, spending is not subtracted)
+     */
+    public synchronized int getEarned(UUID playerUuid) {
+        int[] values = amounts.get(playerUuid);
+        return values != null ? earned(values) : 0;
+    }
+
+    /**
+     * Get the player who earned the most points
+     * @return Player UUID, empty if nobody earned points
+     */
+    public synchronized Optional<UUID> getTopEarner() {
+        UUID best = null;
+        int bestEarned = 0;
+        for (Map.Entry<UUID, int[]> entry : amounts.entrySet()) {
+            int earned = earned(entry.getValue());
+            if (earned > bestEarned) {
+                best = entry.getKey();
+                bestEarned = earned;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static int earned(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            if (value > 0) {
+                total += value;
+            }
+        }
+        return total;
+    }
+}
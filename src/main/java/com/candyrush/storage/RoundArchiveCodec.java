@@ -0,0 +1,157 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary format of the round_archive payload column
+ * A version byte followed by team scores, participants, point breakdowns and player_stats rows,
+ * deflated as a whole. Enums use the {@link StorageCodecs} codes, with 0 for null.
+ */
+final class RoundArchiveCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private RoundArchiveCodec() {
+    }
+
+    /**
+     * Encode everything in the detail except the summary, which has its own columns
+     */
+    static byte[] encode(RoundHistoryStorage.RoundDetail detail) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT_VERSION);
+
+            out.writeInt(detail.teamScores.size());
+            for (Map.Entry<TeamColor, GameStateStorage.TeamScore> entry : detail.teamScores.entrySet()) {
+                GameStateStorage.TeamScore score = entry.getValue();
+                writeTeam(out, entry.getKey());
+                out.writeInt(score.points);
+                out.writeInt(score.kills);
+                out.writeInt(score.deaths);
+                out.writeInt(score.playersCount);
+            }
+
+            out.writeInt(detail.participants.size());
+            for (GameStateStorage.RoundParticipant participant : detail.participants) {
+                writeUuid(out, participant.uuid);
+                writeTeam(out, participant.teamColor);
+                out.writeInt(participant.points);
+            }
+
+            out.writeInt(detail.breakdowns.size());
+            for (Map.Entry<UUID, Map<PointSource, Integer>> player : detail.breakdowns.entrySet()) {
+                writeUuid(out, player.getKey());
+                out.writeByte(player.getValue().size());
+                for (Map.Entry<PointSource, Integer> entry : player.getValue().entrySet()) {
+                    out.writeByte(StorageCodecs.POINT_SOURCE.encode(entry.getKey()));
+                    out.writeInt(entry.getValue());
+                }
+            }
+
+            out.writeInt(detail.playerStats.size());
+            for (RoundHistoryStorage.PlayerStatsRow row : detail.playerStats) {
+                writeUuid(out, row.playerUuid);
+                writeTeam(out, row.teamColor);
+                out.writeInt(row.pointsEarned);
+                out.writeInt(row.kills);
+                out.writeInt(row.deaths);
+                out.writeInt(row.chestsOpened);
+                out.writeInt(row.foodDeposited);
+                out.writeBoolean(row.becameMurderer);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory stream failed", e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a payload written by {@link #encode}
+     * @param summary Summary read from the row's columns
+     * @param payload Payload column
+     * @throws SQLException if the payload is corrupt or written by a newer version
+     */
+    static RoundHistoryStorage.RoundDetail decode(RoundHistoryStorage.RoundSummary summary, byte[] payload) throws SQLException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new SQLException("Unsupported archive payload version " + version + " in round " + summary.roundId);
+            }
+
+            Map<TeamColor, GameStateStorage.TeamScore> teamScores = new EnumMap<>(TeamColor.class);
+            int teams = in.readInt();
+            for (int i = 0; i < teams; i++) {
+                TeamColor color = readTeam(in);
+                teamScores.put(color, new GameStateStorage.TeamScore(in.readInt(), in.readInt(), in.readInt(), in.readInt()));
+            }
+
+            int participantCount = in.readInt();
+            List<GameStateStorage.RoundParticipant> participants = new ArrayList<>(participantCount);
+            for (int i = 0; i < participantCount; i++) {
+                participants.add(new GameStateStorage.RoundParticipant(readUuid(in), readTeam(in), in.readInt()));
+            }
+
+            int breakdownCount = in.readInt();
+            Map<UUID, Map<PointSource, Integer>> breakdowns = new HashMap<>();
+            for (int i = 0; i < breakdownCount; i++) {
+                UUID uuid = readUuid(in);
+                int entries = in.readUnsignedByte();
+                Map<PointSource, Integer> breakdown = new EnumMap<>(PointSource.class);
+                for (int j = 0; j < entries; j++) {
+                    breakdown.put(StorageCodecs.POINT_SOURCE.decode(in.readUnsignedByte()), in.readInt());
+                }
+                breakdowns.put(uuid, breakdown);
+            }
+
+            int statsCount = in.readInt();
+            List<RoundHistoryStorage.PlayerStatsRow> playerStats = new ArrayList<>(statsCount);
+            for (int i = 0; i < statsCount; i++) {
+                playerStats.add(new RoundHistoryStorage.PlayerStatsRow(readUuid(in), readTeam(in),
+                    in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readBoolean()));
+            }
+
+            return new RoundHistoryStorage.RoundDetail(summary, teamScores, participants, breakdowns, playerStats);
+        } catch (IOException e) {
+            throw new SQLException("Corrupt archive payload in round " + summary.roundId, e);
+        }
+    }
+
+    private static void writeTeam(DataOutputStream out, TeamColor color) throws IOException {
+        out.writeByte(color != null ? StorageCodecs.TEAM_COLOR.encode(color) : 0);
+    }
+
+    private static TeamColor readTeam(DataInputStream in) throws IOException, SQLException {
+        int code = in.readUnsignedByte();
+        return code != 0 ? StorageCodecs.TEAM_COLOR.decode(code) : null;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,293 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.TeamColor;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Snapshot of the live round state that only exists in memory
+ * (timer, team scores and members, per-player round state, active chests).
+ * Encoded as a compact big-endian record; enums use the same codes as the database.
+ */
+public final class RoundCheckpoint {
+
+    /** Set when the world state was removed after the checkpoint (clean shutdown) */
+    public static final int FLAG_WORLD_CLEARED = 1;
+
+    private static final int FIXED_SIZE = 4 + 8 + 8 + 4 + 8 + 4 + 4 + 2 + 4 * 4 + 4 + 4 + 4;
+    private static final int TEAM_SIZE = 1 + 4 * 3;
+    private static final int PLAYER_SIZE = 16 + 1 + 4 + 8;
+    private static final int CHEST_SIZE = 4 * 3 + 1 + 1 + 8;
+
+    private final int roundId;
+    private final long startedAt;
+    private final long createdAt;
+    private final int totalPlayers;
+    private final long checkpointAtMillis;
+    private final int gameTimeRemaining;
+    private final int flags;
+    private final String worldName;
+    private final int centerX;
+    private final int centerY;
+    private final int centerZ;
+    private final int mapRadius;
+    private final List<TeamEntry> teams;
+    private final List<PlayerEntry> players;
+    private final List<ChestEntry> chests;
+
+    public RoundCheckpoint(int roundId, long startedAt, long createdAt, int totalPlayers, long checkpointAtMillis,
+                           int gameTimeRemaining, int flags, String worldName, int centerX, int centerY, int centerZ,
+                           int mapRadius, List<TeamEntry> teams, List<PlayerEntry> players, List<ChestEntry> chests) {
+        this.roundId = roundId;
+        this.startedAt = startedAt;
+        this.createdAt = createdAt;
+        this.totalPlayers = totalPlayers;
+        this.checkpointAtMillis = checkpointAtMillis;
+        this.gameTimeRemaining = gameTimeRemaining;
+        this.flags = flags;
+        this.worldName = worldName;
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.mapRadius = mapRadius;
+        this.teams = Collections.unmodifiableList(teams);
+        this.players = Collections.unmodifiableList(players);
+        this.chests = Collections.unmodifiableList(chests);
+    }
+
+    /**
+     * Copy of this checkpoint with extra flags set
+     */
+    public RoundCheckpoint withFlags(int extraFlags) {
+        return new RoundCheckpoint(roundId, startedAt, createdAt, totalPlayers, checkpointAtMillis, gameTimeRemaining,
+                flags | extraFlags, worldName, centerX, centerY, centerZ, mapRadius, teams, players, chests);
+    }
+
+    /**
+     * Number of bytes written by {@link #encode}
+     */
+    public int encodedSize() {
+        return FIXED_SIZE + worldName.getBytes(StandardCharsets.UTF_8).length
+                + teams.size() * TEAM_SIZE + players.size() * PLAYER_SIZE + chests.size() * CHEST_SIZE;
+    }
+
+    /**
+     * Write the checkpoint at the buffer's position
+     */
+    public void encode(ByteBuffer buffer) {
+        byte[] world = worldName.getBytes(StandardCharsets.UTF_8);
+
+        buffer.putInt(roundId);
+        buffer.putLong(startedAt);
+        buffer.putLong(createdAt);
+        buffer.putInt(totalPlayers);
+        buffer.putLong(checkpointAtMillis);
+        buffer.putInt(gameTimeRemaining);
+        buffer.putInt(flags);
+        buffer.putShort((short) world.length).put(world);
+        buffer.putInt(centerX).putInt(centerY).putInt(centerZ).putInt(mapRadius);
+
+        buffer.putInt(teams.size());
+        for (TeamEntry team : teams) {
+            buffer.put((byte) StorageCodecs.TEAM_COLOR.encode(team.color));
+            buffer.putInt(team.points).putInt(team.kills).putInt(team.deaths);
+        }
+
+        buffer.putInt(players.size());
+        for (PlayerEntry player : players) {
+            buffer.putLong(player.uuid.getMostSignificantBits()).putLong(player.uuid.getLeastSignificantBits());
+            buffer.put((byte) (player.teamColor != null ? StorageCodecs.TEAM_COLOR.encode(player.teamColor) : 0));
+            buffer.putInt(player.points);
+            buffer.putLong(player.murdererUntil);
+        }
+
+        buffer.putInt(chests.size());
+        for (ChestEntry chest : chests) {
+            buffer.putInt(chest.x).putInt(chest.y).putInt(chest.z);
+            buffer.put((byte) StorageCodecs.CHEST_TYPE.encode(chest.type));
+            buffer.put((byte) (chest.awaitingRespawn ? 1 : 0));
+            buffer.putLong(chest.spawnTime);
+        }
+    }
+
+    /**
+     * Read a checkpoint written by {@link #encode}
+     * @throws SQLException if the record is truncated or holds unknown codes
+     */
+    public static RoundCheckpoint decode(ByteBuffer buffer) throws SQLException {
+        try {
+            int roundId = buffer.getInt();
+            long startedAt = buffer.getLong();
+            long createdAt = buffer.getLong();
+            int totalPlayers = buffer.getInt();
+            long checkpointAtMillis = buffer.getLong();
+            int gameTimeRemaining = buffer.getInt();
+            int flags = buffer.getInt();
+            byte[] world = new byte[buffer.getShort()];
+            buffer.get(world);
+            int centerX = buffer.getInt();
+            int centerY = buffer.getInt();
+            int centerZ = buffer.getInt();
+            int mapRadius = buffer.getInt();
+
+            int teamCount = buffer.getInt();
+            List<TeamEntry> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; i++) {
+                teams.add(new TeamEntry(StorageCodecs.TEAM_COLOR.decode(buffer.get()),
+                        buffer.getInt(), buffer.getInt(), buffer.getInt()));
+            }
+
+            int playerCount = buffer.getInt();
+            List<PlayerEntry> players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+                int teamCode = buffer.get();
+                TeamColor teamColor = teamCode != 0 ? StorageCodecs.TEAM_COLOR.decode(teamCode) : null;
+                players.add(new PlayerEntry(uuid, teamColor, buffer.getInt(), buffer.getLong()));
+            }
+
+            int chestCount = buffer.getInt();
+            List<ChestEntry> chests = new ArrayList<>(chestCount);
+            for (int i = 0; i < chestCount; i++) {
+                int x = buffer.getInt();
+                int y = buffer.getInt();
+                int z = buffer.getInt();
+                ChestType type = StorageCodecs.CHEST_TYPE.decode(buffer.get());
+                boolean awaitingRespawn = buffer.get() != 0;
+                chests.add(new ChestEntry(x, y, z, type, awaitingRespawn, buffer.getLong()));
+            }
+
+            return new RoundCheckpoint(roundId, startedAt, createdAt, totalPlayers, checkpointAtMillis,
+                    gameTimeRemaining, flags, new String(world, StandardCharsets.UTF_8), centerX, centerY, centerZ,
+                    mapRadius, teams, players, chests);
+        } catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException e) {
+            throw new SQLException("Truncated round checkpoint", e);
+        }
+    }
+
+    public int getRoundId() {
+        return roundId;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getTotalPlayers() {
+        return totalPlayers;
+    }
+
+    /**
+     * Wall-clock time the checkpoint was taken (ms)
+     */
+    public long getCheckpointAtMillis() {
+        return checkpointAtMillis;
+    }
+
+    public int getGameTimeRemaining() {
+        return gameTimeRemaining;
+    }
+
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterY() {
+        return centerY;
+    }
+
+    public int getCenterZ() {
+        return centerZ;
+    }
+
+    public int getMapRadius() {
+        return mapRadius;
+    }
+
+    public List<TeamEntry> getTeams() {
+        return teams;
+    }
+
+    public List<PlayerEntry> getPlayers() {
+        return players;
+    }
+
+    public List<ChestEntry> getChests() {
+        return chests;
+    }
+
+    /**
+     * Score of one team
+     */
+    public static final class TeamEntry {
+        public final TeamColor color;
+        public final int points;
+        public final int kills;
+        public final int deaths;
+
+        public TeamEntry(TeamColor color, int points, int kills, int deaths) {
+            this.color = color;
+            this.points = points;
+            this.kills = kills;
+            this.deaths = deaths;
+        }
+    }
+
+    /**
+     * Round state of one player
+     */
+    public static final class PlayerEntry {
+        public final UUID uuid;
+        public final TeamColor teamColor;
+        public final int points;
+        public final long murdererUntil;  // 0 if not a murderer
+
+        public PlayerEntry(UUID uuid, TeamColor teamColor, int points, long murdererUntil) {
+            this.uuid = uuid;
+            this.teamColor = teamColor;
+            this.points = points;
+            this.murdererUntil = murdererUntil;
+        }
+    }
+
+    /**
+     * One treasure chest in the round world
+     */
+    public static final class ChestEntry {
+        public final int x;
+        public final int y;
+        public final int z;
+        public final ChestType type;
+        public final boolean awaitingRespawn;  // Opened, waiting for the respawn task
+        public final long spawnTime;
+
+        public ChestEntry(int x, int y, int z, ChestType type, boolean awaitingRespawn, long spawnTime) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.type = type;
+            this.awaitingRespawn = awaitingRespawn;
+            this.spawnTime = spawnTime;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.candyrush.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file holding the latest {@link RoundCheckpoint}
+ * The file has two equal slots written alternately, each with a sequence number and a CRC of the payload.
+ * A write only touches the older slot, so a crash mid-write still leaves the previous checkpoint intact,
+ * and writes survive a JVM crash as soon as they reach the mapping. {@link #force} flushes them to disk.
+ */
+public class RoundCheckpointFile implements AutoCloseable {
+
+    private static final int MAGIC = 0x43524350;  // "CRCP"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 2 + 8 + 4 + 8;  // magic, version, reserved, sequence, length, crc
+    private static final int MIN_SLOT_SIZE = 64 * 1024;
+
+    private final File file;
+    private final Logger logger;
+    private final CRC32 crc;
+    private final LongAdder writeCount;
+    private final LongAdder writeNanos;
+    private final AtomicLong writeMaxNanos;
+    private RandomAccessFile raf;
+    private MappedByteBuffer mapping;
+    private int slotSize;
+    private long sequence;
+    private int nextSlot;
+    private ByteBuffer scratch;  // Reused encode buffer, copied into the mapping in one bulk put
+    private volatile int lastPayloadSize;
+
+    public RoundCheckpointFile(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        this.crc = new CRC32();
+        this.writeCount = new LongAdder();
+        this.writeNanos = new LongAdder();
+        this.writeMaxNanos = new AtomicLong();
+        this.scratch = ByteBuffer.allocate(MIN_SLOT_SIZE);
+    }
+
+    /**
+     * Open or create the file and find the latest valid slot
+     * @throws IOException if the file cannot be mapped
+     */
+    public synchronized void open() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        long length = raf.length();
+        if (length < 2L * MIN_SLOT_SIZE || length % 2 != 0) {
+            // New or unrecognised file - existing content cannot be a valid checkpoint
+            remap(MIN_SLOT_SIZE);
+            clearSlots();
+        } else {
+            remap((int) Math.min(length / 2, Integer.MAX_VALUE));
+        }
+
+        int latest = latestSlot();
+        sequence = latest >= 0 ? mapping.getLong(slotOffset(latest) + 8) : 0;
+        nextSlot = latest >= 0 ? 1 - latest : 0;
+    }
+
+    /**
+     * Read the latest valid checkpoint
+     * @return Checkpoint, empty if no slot holds a valid one
+     */
+    public synchronized Optional<RoundCheckpoint> read() {
+        int latest = latestSlot();
+        if (latest < 0) {
+            return Optional.empty();
+        }
+
+        int offset = slotOffset(latest);
+        int length = mapping.getInt(offset + 16);
+        ByteBuffer payload = mapping.duplicate();
+        payload.position(offset + HEADER_SIZE).limit(offset + HEADER_SIZE + length);
+        try {
+            return Optional.of(RoundCheckpoint.decode(payload.slice()));
+        } catch (SQLException e) {
+            logger.warning("Ignoring unreadable round checkpoint in " + file.getName() + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write a checkpoint into the older slot
+     * @return Time spent (ns)
+     */
+    public synchronized long write(RoundCheckpoint checkpoint) throws IOException {
+        long start = System.nanoTime();
+
+        int size = checkpoint.encodedSize();
+        if (size > slotSize - HEADER_SIZE) {
+            // Grow; the old first slot stays where it is, so write the new second slot first
+            remap(Integer.highestOneBit(size + HEADER_SIZE) << 1);
+            nextSlot = 1;
+        }
+
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Integer.highestOneBit(size) << 1);
+        }
+        scratch.clear();
+        checkpoint.encode(scratch);
+        crc.reset();
+        crc.update(scratch.array(), 0, size);
+
+        int offset = slotOffset(nextSlot);
+        mapping.put(offset + HEADER_SIZE, scratch.array(), 0, size);
+
+        // Header last: a slot is only valid once its CRC matches
+        mapping.putShort(offset + 4, FORMAT_VERSION);
+        mapping.putShort(offset + 6, (short) 0);
+        mapping.putLong(offset + 8, ++sequence);
+        mapping.putInt(offset + 16, size);
+        mapping.putLong(offset + 20, crc.getValue());
+        mapping.putInt(offset, MAGIC);
+
+        nextSlot = 1 - nextSlot;
+        lastPayloadSize = size;
+
+        long elapsed = System.nanoTime() - start;
+        writeCount.increment();
+        writeNanos.add(elapsed);
+        writeMaxNanos.accumulateAndGet(elapsed, Math::max);
+        return elapsed;
+    }
+
+    /**
+     * Invalidate both slots (no round in progress)
+     */
+    public synchronized void clear() {
+        if (mapping != null) {
+            clearSlots();
+        }
+    }
+
+    /**
+     * Flush written slots to the storage device (safe to call from another thread)
+     */
+    public void force() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = mapping;
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (mapping != null) {
+            mapping.force();
+            mapping = null;
+        }
+        if (raf != null) {
+            raf.close();
+            raf = null;
+        }
+    }
+
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    /**
+     * Average time of a checkpoint write (microseconds)
+     */
+    public double getAverageWriteMicros() {
+        long count = writeCount.sum();
+        return count == 0 ? 0 : writeNanos.sum() / (double) count / 1_000.0;
+    }
+
+    /**
+     * Slowest checkpoint write seen so far (microseconds)
+     */
+    public double getMaxWriteMicros() {
+        return writeMaxNanos.get() / 1_000.0;
+    }
+
+    /**
+     * Size of the latest checkpoint payload (bytes)
+     */
+    public int getLastPayloadSize() {
+        return lastPayloadSize;
+    }
+
+    private void remap(int newSlotSize) throws IOException {
+        raf.setLength(2L * newSlotSize);
+        mapping = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 2L * newSlotSize);
+        slotSize = newSlotSize;
+    }
+
+    private void clearSlots() {
+        mapping.putInt(slotOffset(0), 0);
+        mapping.putInt(slotOffset(1), 0);
+        nextSlot = 0;
+        lastPayloadSize = 0;
+    }
+
+    /**
+     * @return Index of the valid slot with the highest sequence, -1 if neither is valid
+     */
+    private int latestSlot() {
+        int latest = -1;
+        long latestSequence = Long.MIN_VALUE;
+        for (int slot = 0; slot < 2; slot++) {
+            int offset = slotOffset(slot);
+            if (isValid(offset) && mapping.getLong(offset + 8) > latestSequence) {
+                latest = slot;
+                latestSequence = mapping.getLong(offset + 8);
+            }
+        }
+        return latest;
+    }
+
+    private boolean isValid(int offset) {
+        if (mapping.getInt(offset) != MAGIC || mapping.getShort(offset + 4) != FORMAT_VERSION) {
+            return false;
+        }
+        int length = mapping.getInt(offset + 16);
+        if (length < 0 || length > slotSize - HEADER_SIZE) {
+            return false;
+        }
+
+        ByteBuffer payload = mapping.duplicate();
+        payload.position(offset + HEADER_SIZE).limit(offset + HEADER_SIZE + length);
+        CRC32 check = new CRC32();
+        check.update(payload);
+        return check.getValue() == mapping.getLong(offset + 20);
+    }
+
+    private int slotOffset(int slot) {
+        return slot * slotSize;
+    }
+}
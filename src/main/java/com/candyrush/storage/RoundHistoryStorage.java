@@ -0,0 +1,154 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Interface for closed-round history across the hot tables and the archive
+ * Rounds past the retention window are moved into compressed archive rows by {@link #archiveRounds};
+ * history reads page by round ID (keyset pagination) and merge both tiers, so callers never see the split
+ */
+public interface RoundHistoryStorage {
+
+    /**
+     * Move closed rounds that ended before the given time into the archive, oldest first
+     * The round, its team scores, player results, point breakdowns and per-round stats rows are
+     * removed from the hot tables in the same transaction
+     * @param endedBefore Epoch seconds; rounds that ended earlier are archived
+     * @param limit Maximum number of rounds to archive
+     * @return Number of rounds archived, less than {@code limit} once nothing is left
+     * @throws SQLException if database error occurs (nothing is moved)
+     */
+    int archiveRounds(long endedBefore, int limit) throws SQLException;
+
+    /**
+     * Get closed rounds, newest first
+     * @param beforeRoundId Return rounds with a smaller ID (ID of the last row of the previous page), or null for the first page
+     * @param limit Page size
+     * @return Rounds from both tiers ordered by ID descending
+     * @throws SQLException if database error occurs
+     */
+    List<RoundSummary> getRoundHistory(Integer beforeRoundId, int limit) throws SQLException;
+
+    /**
+     * Get a player's results in closed rounds, newest first
+     * @param playerUuid Player UUID
+     * @param beforeRoundId Return rounds with a smaller ID, or null for the first page
+     * @param limit Page size
+     * @return Results from both tiers ordered by round ID descending
+     * @throws SQLException if database error occurs
+     */
+    List<PlayerRoundResult> getPlayerHistory(UUID playerUuid, Integer beforeRoundId, int limit) throws SQLException;
+
+    /**
+     * Load the full result of a closed round from whichever tier holds it
+     * @param roundId Round ID
+     * @return Round detail, empty if the round does not exist or is still open
+     * @throws SQLException if database error occurs
+     */
+    Optional<RoundDetail> loadRoundDetail(int roundId) throws SQLException;
+
+    /**
+     * Count the rounds in each tier
+     * @return Two elements: hot rounds, archived rounds
+     * @throws SQLException if database error occurs
+     */
+    int[] countRounds() throws SQLException;
+
+    /**
+     * Summary of one closed round
+     */
+    class RoundSummary {
+        public final int roundId;
+        public final long startedAt;
+        public final long endedAt;
+        public final TeamColor winnerTeam;
+        public final int totalPlayers;
+        public final int durationSeconds;
+        public final boolean archived;
+
+        public RoundSummary(int roundId, long startedAt, long endedAt, TeamColor winnerTeam,
+                            int totalPlayers, int durationSeconds, boolean archived) {
+            this.roundId = roundId;
+            this.startedAt = startedAt;
+            this.endedAt = endedAt;
+            this.winnerTeam = winnerTeam;
+            this.totalPlayers = totalPlayers;
+            this.durationSeconds = durationSeconds;
+            this.archived = archived;
+        }
+    }
+
+    /**
+     * One player's result in a closed round
+     */
+    class PlayerRoundResult {
+        public final int roundId;
+        public final long startedAt;
+        public final TeamColor teamColor;
+        public final int points;
+        public final boolean won;
+
+        public PlayerRoundResult(int roundId, long startedAt, TeamColor teamColor, int points, boolean won) {
+            this.roundId = roundId;
+            this.startedAt = startedAt;
+            this.teamColor = teamColor;
+            this.points = points;
+            this.won = won;
+        }
+    }
+
+    /**
+     * Full result of a closed round
+     */
+    class RoundDetail {
+        public final RoundSummary summary;
+        public final Map<TeamColor, GameStateStorage.TeamScore> teamScores;
+        public final List<GameStateStorage.RoundParticipant> participants;
+        public final Map<UUID, Map<PointSource, Integer>> breakdowns;
+        public final List<PlayerStatsRow> playerStats;
+
+        public RoundDetail(RoundSummary summary, Map<TeamColor, GameStateStorage.TeamScore> teamScores,
+                           List<GameStateStorage.RoundParticipant> participants,
+                           Map<UUID, Map<PointSource, Integer>> breakdowns, List<PlayerStatsRow> playerStats) {
+            this.summary = summary;
+            this.teamScores = Collections.unmodifiableMap(teamScores);
+            this.participants = Collections.unmodifiableList(participants);
+            this.breakdowns = Collections.unmodifiableMap(breakdowns);
+            this.playerStats = Collections.unmodifiableList(playerStats);
+        }
+    }
+
+    /**
+     * Row of the per-round player_stats table
+     */
+    class PlayerStatsRow {
+        public final UUID playerUuid;
+        public final TeamColor teamColor;
+        public final int pointsEarned;
+        public final int kills;
+        public final int deaths;
+        public final int chestsOpened;
+        public final int foodDeposited;
+        public final boolean becameMurderer;
+
+        public PlayerStatsRow(UUID playerUuid, TeamColor teamColor, int pointsEarned, int kills, int deaths,
+                              int chestsOpened, int foodDeposited, boolean becameMurderer) {
+            this.playerUuid = playerUuid;
+            this.teamColor = teamColor;
+            this.pointsEarned = pointsEarned;
+            this.kills = kills;
+            this.deaths = deaths;
+            this.chestsOpened = chestsOpened;
+            this.foodDeposited = foodDeposited;
+            this.becameMurderer = becameMurderer;
+        }
+    }
+}
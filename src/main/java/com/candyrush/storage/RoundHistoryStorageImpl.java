@@ -0,0 +1,315 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of RoundHistoryStorage
+ * Pages are keyed on the round ID, which follows start order because rounds never overlap
+ */
+public class RoundHistoryStorageImpl implements RoundHistoryStorage {
+
+    private static final String SUMMARY_COLUMNS = "started_at, ended_at, winner_team, total_players, duration_seconds";
+
+    // Per-round rows moved into the archive payload, deleted together with the round
+    private static final String[] ROUND_TABLES = {"team_scores", "round_players", "player_stats", "point_events"};
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public RoundHistoryStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public int archiveRounds(long endedBefore, int limit) throws SQLException {
+        SqlDialect dialect = databaseInitializer.getDialect();
+        String selectSql = "SELECT id, " + SUMMARY_COLUMNS + " FROM game_rounds " +
+                          "WHERE ended_at IS NOT NULL AND ended_at < ? ORDER BY id LIMIT ?";
+        String archiveSql = dialect.insertReplace() + " round_archive (round_id, " + SUMMARY_COLUMNS + ", archived_at, payload) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String playerSql = dialect.insertReplace() + " round_archive_players (player_uuid, round_id, started_at, team_color, points, won) " +
+                          "VALUES (?, ?, ?, ?, ?, ?)";
+
+        return databaseInitializer.executeTransaction(conn -> {
+            List<RoundSummary> rounds = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setLong(1, endedBefore);
+                stmt.setInt(2, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rounds.add(parseSummary(rs, "id", false));
+                    }
+                }
+            }
+            if (rounds.isEmpty()) {
+                return 0;
+            }
+
+            long now = System.currentTimeMillis() / 1000;
+            try (PreparedStatement archive = conn.prepareStatement(archiveSql);
+                 PreparedStatement players = conn.prepareStatement(playerSql)) {
+
+                for (RoundSummary round : rounds) {
+                    RoundDetail detail = loadHotDetail(conn, round);
+
+                    archive.setInt(1, round.roundId);
+                    archive.setLong(2, round.startedAt);
+                    archive.setLong(3, round.endedAt);
+                    StorageCodecs.TEAM_COLOR.bind(archive, 4, round.winnerTeam);
+                    archive.setInt(5, round.totalPlayers);
+                    archive.setInt(6, round.durationSeconds);
+                    archive.setLong(7, now);
+                    archive.setBytes(8, RoundArchiveCodec.encode(detail));
+                    archive.addBatch();
+
+                    for (GameStateStorage.RoundParticipant participant : detail.participants) {
+                        StorageCodecs.bindUuid(players, 1, participant.uuid);
+                        players.setInt(2, round.roundId);
+                        players.setLong(3, round.startedAt);
+                        StorageCodecs.TEAM_COLOR.bind(players, 4, participant.teamColor);
+                        players.setInt(5, participant.points);
+                        players.setInt(6, isWinner(participant.teamColor, round.winnerTeam) ? 1 : 0);
+                        players.addBatch();
+                    }
+                }
+                archive.executeBatch();
+                players.executeBatch();
+            }
+
+            for (String table : ROUND_TABLES) {
+                deleteRoundRows(conn, "DELETE FROM " + table + " WHERE round_id = ?", rounds);
+            }
+            deleteRoundRows(conn, "DELETE FROM game_rounds WHERE id = ?", rounds);
+
+            return rounds.size();
+        });
+    }
+
+    @Override
+    public List<RoundSummary> getRoundHistory(Integer beforeRoundId, int limit) throws SQLException {
+        String hotSql = "SELECT id, " + SUMMARY_COLUMNS + " FROM game_rounds " +
+                       "WHERE id < ? AND ended_at IS NOT NULL ORDER BY id DESC LIMIT ?";
+        String archiveSql = "SELECT round_id, " + SUMMARY_COLUMNS + " FROM round_archive " +
+                           "WHERE round_id < ? ORDER BY round_id DESC LIMIT ?";
+
+        List<RoundSummary> rounds = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(hotSql)) {
+                bindPage(stmt, 1, beforeRoundId, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rounds.add(parseSummary(rs, "id", false));
+                    }
+                }
+            }
+
+            // Archived rounds are older, so the archive is only read once the hot rows run out
+            if (rounds.size() < limit) {
+                Integer archiveCursor = rounds.isEmpty() ? beforeRoundId : Integer.valueOf(rounds.get(rounds.size() - 1).roundId);
+                try (PreparedStatement stmt = conn.prepareStatement(archiveSql)) {
+                    bindPage(stmt, 1, archiveCursor, limit - rounds.size());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            rounds.add(parseSummary(rs, "round_id", true));
+                        }
+                    }
+                }
+            }
+        }
+
+        rounds.sort(Comparator.comparingInt((RoundSummary round) -> round.roundId).reversed());
+        return rounds;
+    }
+
+    @Override
+    public List<PlayerRoundResult> getPlayerHistory(UUID playerUuid, Integer beforeRoundId, int limit) throws SQLException {
+        String hotSql = "SELECT rp.round_id, rp.team_color, rp.points, g.started_at, g.winner_team " +
+                       "FROM round_players rp JOIN game_rounds g ON g.id = rp.round_id " +
+                       "WHERE rp.player_uuid = ? AND rp.round_id < ? AND g.ended_at IS NOT NULL " +
+                       "ORDER BY rp.round_id DESC LIMIT ?";
+        String archiveSql = "SELECT round_id, started_at, team_color, points, won FROM round_archive_players " +
+                           "WHERE player_uuid = ? AND round_id < ? ORDER BY round_id DESC LIMIT ?";
+
+        List<PlayerRoundResult> results = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(hotSql)) {
+                StorageCodecs.bindUuid(stmt, 1, playerUuid);
+                bindPage(stmt, 2, beforeRoundId, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        TeamColor team = StorageCodecs.TEAM_COLOR.read(rs, "team_color");
+                        TeamColor winner = StorageCodecs.TEAM_COLOR.read(rs, "winner_team");
+                        results.add(new PlayerRoundResult(rs.getInt("round_id"), rs.getLong("started_at"),
+                            team, rs.getInt("points"), isWinner(team, winner)));
+                    }
+                }
+            }
+
+            if (results.size() < limit) {
+                Integer archiveCursor = results.isEmpty() ? beforeRoundId : Integer.valueOf(results.get(results.size() - 1).roundId);
+                try (PreparedStatement stmt = conn.prepareStatement(archiveSql)) {
+                    StorageCodecs.bindUuid(stmt, 1, playerUuid);
+                    bindPage(stmt, 2, archiveCursor, limit - results.size());
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            results.add(new PlayerRoundResult(rs.getInt("round_id"), rs.getLong("started_at"),
+                                StorageCodecs.TEAM_COLOR.read(rs, "team_color"), rs.getInt("points"), rs.getInt("won") == 1));
+                        }
+                    }
+                }
+            }
+        }
+
+        results.sort(Comparator.comparingInt((PlayerRoundResult result) -> result.roundId).reversed());
+        return results;
+    }
+
+    @Override
+    public Optional<RoundDetail> loadRoundDetail(int roundId) throws SQLException {
+        String hotSql = "SELECT id, " + SUMMARY_COLUMNS + " FROM game_rounds WHERE id = ? AND ended_at IS NOT NULL";
+        String archiveSql = "SELECT round_id, " + SUMMARY_COLUMNS + ", payload FROM round_archive WHERE round_id = ?";
+
+        try (Connection conn = databaseInitializer.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(hotSql)) {
+                stmt.setInt(1, roundId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        RoundSummary summary = parseSummary(rs, "id", false);
+                        return Optional.of(loadHotDetail(conn, summary));
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(archiveSql)) {
+                stmt.setInt(1, roundId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        RoundSummary summary = parseSummary(rs, "round_id", true);
+                        return Optional.of(RoundArchiveCodec.decode(summary, rs.getBytes("payload")));
+                    }
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public int[] countRounds() throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM game_rounds WHERE ended_at IS NOT NULL), (SELECT COUNT(*) FROM round_archive)";
+
+        try (Connection conn = databaseInitializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? new int[]{rs.getInt(1), rs.getInt(2)} : new int[2];
+        }
+    }
+
+    /**
+     * Read everything stored for a round that is still in the hot tables
+     */
+    private RoundDetail loadHotDetail(Connection conn, RoundSummary summary) throws SQLException {
+        Map<TeamColor, GameStateStorage.TeamScore> teamScores = new EnumMap<>(TeamColor.class);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT team_color, final_points, total_kills, total_deaths, players_count FROM team_scores WHERE round_id = ?")) {
+            stmt.setInt(1, summary.roundId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    teamScores.put(StorageCodecs.TEAM_COLOR.read(rs, "team_color"), new GameStateStorage.TeamScore(
+                        rs.getInt("final_points"), rs.getInt("total_kills"), rs.getInt("total_deaths"), rs.getInt("players_count")));
+                }
+            }
+        }
+
+        List<GameStateStorage.RoundParticipant> participants = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT player_uuid, team_color, points FROM round_players WHERE round_id = ?")) {
+            stmt.setInt(1, summary.roundId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    participants.add(new GameStateStorage.RoundParticipant(StorageCodecs.readUuid(rs, "player_uuid"),
+                        StorageCodecs.TEAM_COLOR.read(rs, "team_color"), rs.getInt("points")));
+                }
+            }
+        }
+
+        Map<UUID, Map<PointSource, Integer>> breakdowns = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT player_uuid, source, SUM(amount) AS amount FROM point_events WHERE round_id = ? GROUP BY player_uuid, source")) {
+            stmt.setInt(1, summary.roundId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    breakdowns.computeIfAbsent(StorageCodecs.readUuid(rs, "player_uuid"), uuid -> new EnumMap<>(PointSource.class))
+                        .put(StorageCodecs.POINT_SOURCE.decode(rs.getInt("source")), rs.getInt("amount"));
+                }
+            }
+        }
+
+        List<PlayerStatsRow> playerStats = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT player_uuid, team_color, points_earned, kills, deaths, chests_opened, food_deposited, became_murderer " +
+                "FROM player_stats WHERE round_id = ?")) {
+            stmt.setInt(1, summary.roundId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    playerStats.add(new PlayerStatsRow(StorageCodecs.readUuid(rs, "player_uuid"),
+                        StorageCodecs.TEAM_COLOR.read(rs, "team_color"), rs.getInt("points_earned"),
+                        rs.getInt("kills"), rs.getInt("deaths"), rs.getInt("chests_opened"),
+                        rs.getInt("food_deposited"), rs.getInt("became_murderer") == 1));
+                }
+            }
+        }
+
+        return new RoundDetail(summary, teamScores, participants, breakdowns, playerStats);
+    }
+
+    private void deleteRoundRows(Connection conn, String sql, List<RoundSummary> rounds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (RoundSummary round : rounds) {
+                stmt.setInt(1, round.roundId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Bind the keyset cursor and page size
+     */
+    private void bindPage(PreparedStatement stmt, int index, Integer beforeRoundId, int limit) throws SQLException {
+        stmt.setInt(index, beforeRoundId != null ? beforeRoundId : Integer.MAX_VALUE);
+        stmt.setInt(index + 1, limit);
+    }
+
+    private RoundSummary parseSummary(ResultSet rs, String idColumn, boolean archived) throws SQLException {
+        return new RoundSummary(
+            rs.getInt(idColumn),
+            rs.getLong("started_at"),
+            rs.getLong("ended_at"),
+            StorageCodecs.TEAM_COLOR.read(rs, "winner_team"),
+            rs.getInt("total_players"),
+            rs.getInt("duration_seconds"),
+            archived
+        );
+    }
+
+    private static boolean isWinner(TeamColor team, TeamColor winner) {
+        return team != null && team == winner;
+    }
+}
@@ -0,0 +1,139 @@
+package com.candyrush.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQL differences between the supported database backends
+ * Storage classes write portable SQL and ask the dialect for the parts that differ:
+ * column types in DDL, upserts, INSERT OR IGNORE/REPLACE, limited deletes and schema metadata
+ */
+public interface SqlDialect {
+
+    /**
+     * Get the backend name for logs
+     */
+    String getName();
+
+    /**
+     * Whether the database is a local file owned by this server (SQLite)
+     * Only embedded databases use the single-writer engine, PRAGMAs and incremental vacuum
+     */
+    boolean isEmbedded();
+
+    /**
+     * Apply driver-specific settings to the connection pool
+     * @param config Pool configuration with the JDBC URL already set
+     */
+    void configurePool(HikariConfig config);
+
+    /**
+     * Column type of 16-byte UUIDs
+     */
+    String uuidType();
+
+    /**
+     * Column type of 64-bit integers (epoch-second timestamps, running totals)
+     */
+    String bigIntegerType();
+
+    /**
+     * Column type of floating point coordinates
+     */
+    String realType();
+
+    /**
+     * Column type of archive payloads
+     */
+    String blobType();
+
+    /**
+     * Column definition of an auto-incremented integer primary key
+     */
+    String autoIncrementKey();
+
+    /**
+     * Table options of a table clustered on its primary key
+     */
+    String clusteredTableOptions();
+
+    /**
+     * Table options of other tables
+     */
+    String tableOptions();
+
+    /**
+     * Foreign key clause to append to a column list, including the leading comma
+     * @param column Referencing column
+     * @param reference Referenced table and column, e.g. {@code game_rounds(id)}
+     */
+    String foreignKey(String column, String reference);
+
+    /**
+     * Create an index unless one with the same name exists
+     * @param stmt Statement to run the DDL with
+     * @param name Index name
+     * @param table Table name
+     * @param columns Column list, e.g. {@code round_id, player_uuid}
+     * @throws SQLException if the index cannot be created
+     */
+    void createIndex(Statement stmt, String name, String table, String columns) throws SQLException;
+
+    /**
+     * Check whether a table exists
+     */
+    boolean tableExists(Statement stmt, String table) throws SQLException;
+
+    /**
+     * Read the schema version (0 for a new database)
+     */
+    int getSchemaVersion(Statement stmt) throws SQLException;
+
+    /**
+     * Store the schema version
+     */
+    void setSchemaVersion(Statement stmt, int version) throws SQLException;
+
+    /**
+     * Turn an INSERT into an upsert
+     * @param insert INSERT statement with a VALUES clause
+     * @param keyColumns Columns of the unique key the row may conflict on
+     * @param assignments SET list applied on conflict; refer to the inserted values with {@link #inserted}
+     */
+    String upsert(String insert, String keyColumns, String assignments);
+
+    /**
+     * Reference to the value an upsert tried to insert into a column
+     */
+    String inserted(String column);
+
+    /**
+     * Larger of two values
+     */
+    String greatest(String first, String second);
+
+    /**
+     * Start of an INSERT that skips rows conflicting with a unique key, up to the table name
+     */
+    String insertIgnore();
+
+    /**
+     * Start of an INSERT that replaces rows conflicting with a unique key, up to the table name
+     */
+    String insertReplace();
+
+    /**
+     * DELETE of at most a bound number of rows; the limit is the last parameter
+     * @param table Table name
+     * @param where Condition without the WHERE keyword
+     */
+    String deleteLimited(String table, String where);
+
+    /**
+     * Suffix of a SELECT that locks the rows it reads until the transaction ends
+     * Empty where writes are already serialized
+     */
+    String forUpdate();
+}
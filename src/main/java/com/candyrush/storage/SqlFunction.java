@@ -0,0 +1,20 @@
+package com.candyrush.storage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unit of database work executed against a borrowed connection
+ * @param <T> Result type
+ */
+@FunctionalInterface
+public interface SqlFunction<T> {
+
+    /**
+     * Run the work
+     * @param conn Connection owned by the caller for the duration of the call
+     * @return Result of the work
+     * @throws SQLException if database error occurs
+     */
+    T apply(Connection conn) throws SQLException;
+}
@@ -0,0 +1,131 @@
+package com.candyrush.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite dialect
+ * Foreign keys are declared but not enforced (PRAGMA foreign_keys is off), and the schema
+ * version lives in PRAGMA user_version
+ */
+public class SqliteDialect implements SqlDialect {
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public boolean isEmbedded() {
+        return true;
+    }
+
+    @Override
+    public void configurePool(HikariConfig config) {
+        config.setDriverClassName("org.sqlite.JDBC");
+    }
+
+    @Override
+    public String uuidType() {
+        return "BLOB";
+    }
+
+    @Override
+    public String bigIntegerType() {
+        return "INTEGER";
+    }
+
+    @Override
+    public String realType() {
+        return "REAL";
+    }
+
+    @Override
+    public String blobType() {
+        return "BLOB";
+    }
+
+    @Override
+    public String autoIncrementKey() {
+        return "INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
+    @Override
+    public String clusteredTableOptions() {
+        return " WITHOUT ROWID";
+    }
+
+    @Override
+    public String tableOptions() {
+        return "";
+    }
+
+    @Override
+    public String foreignKey(String column, String reference) {
+        return ", FOREIGN KEY (" + column + ") REFERENCES " + reference + " ON DELETE CASCADE";
+    }
+
+    @Override
+    public void createIndex(Statement stmt, String name, String table, String columns) throws SQLException {
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS " + name + " ON " + table + "(" + columns + ")");
+    }
+
+    @Override
+    public boolean tableExists(Statement stmt, String table) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+            return rs.next();
+        }
+    }
+
+    @Override
+    public int getSchemaVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public void setSchemaVersion(Statement stmt, int version) throws SQLException {
+        stmt.executeUpdate("PRAGMA user_version = " + version);
+    }
+
+    @Override
+    public String upsert(String insert, String keyColumns, String assignments) {
+        return insert + " ON CONFLICT(" + keyColumns + ") DO UPDATE SET " + assignments;
+    }
+
+    @Override
+    public String inserted(String column) {
+        return "excluded." + column;
+    }
+
+    @Override
+    public String greatest(String first, String second) {
+        return "MAX(" + first + ", " + second + ")";
+    }
+
+    @Override
+    public String insertIgnore() {
+        return "INSERT OR IGNORE INTO";
+    }
+
+    @Override
+    public String insertReplace() {
+        return "INSERT OR REPLACE INTO";
+    }
+
+    @Override
+    public String deleteLimited(String table, String where) {
+        // DELETE ... LIMIT needs a compile-time option the bundled library is built without
+        return "DELETE FROM " + table + " WHERE rowid IN (SELECT rowid FROM " + table + " WHERE " + where + " LIMIT ?)";
+    }
+
+    @Override
+    public String forUpdate() {
+        return "";
+    }
+}
@@ -0,0 +1,171 @@
+package com.candyrush.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dedicated writer thread for SQLite
+ * Owns the only read/write connection; all mutations are queued and run one at a time,
+ * so writers never contend on the database lock
+ */
+public class SqliteWriter {
+
+    private static final String THREAD_NAME = "CandyRush-DB-Writer";
+
+    private final DatabaseSettings settings;
+    private final StorageMetrics metrics;
+    private final Logger logger;
+    private final ThreadPoolExecutor executor;
+    private volatile Thread writerThread;
+    private Connection connection;
+
+    public SqliteWriter(DatabaseSettings settings, StorageMetrics metrics, Logger logger) {
+        this.settings = settings;
+        this.metrics = metrics;
+        this.logger = logger;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            writerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Open the writer connection and switch the database to WAL mode
+     * @throws SQLException if the connection cannot be opened
+     */
+    public void start() throws SQLException {
+        submitRaw(() -> {
+            connection = DriverManager.getConnection(settings.getJdbcUrl());
+            try (Statement stmt = connection.createStatement()) {
+                // Must precede journal_mode, which writes the header of a new file
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+                stmt.execute("PRAGMA busy_timeout = " + settings.getBusyTimeoutMillis());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Run work on the writer thread and wait for the result
+     * Calls made from the writer thread itself run inline
+     * @param work Work to run
+     * @return Result of the work
+     * @throws SQLException if the work fails or the writer is stopped
+     */
+    public <T> T execute(SqlFunction<T> work) throws SQLException {
+        if (Thread.currentThread() == writerThread) {
+            return run(work, System.nanoTime());
+        }
+        long queuedAt = System.nanoTime();
+        return submitRaw(() -> run(work, queuedAt));
+    }
+
+    /**
+     * Queue work on the writer thread without waiting
+     * @param work Work to run
+     * @return Future completing with the result (or the SQLException)
+     */
+    public <T> CompletableFuture<T> submit(SqlFunction<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(run(work, queuedAt));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("Database writer is shut down", e));
+        }
+        return future;
+    }
+
+    /**
+     * Get the number of writes waiting for the writer thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Drain queued writes and close the writer connection
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Database writer did not drain in time, " + executor.getQueue().size() + " writes dropped");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to close database writer connection", e);
+            }
+            connection = null;
+        }
+    }
+
+    private <T> T run(SqlFunction<T> work, long queuedAt) throws SQLException {
+        if (connection == null) {
+            throw new SQLException("Database writer is not started");
+        }
+
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.apply(connection);
+            failed = false;
+            return result;
+        } finally {
+            metrics.recordWrite(startedAt - queuedAt, System.nanoTime() - startedAt, failed);
+        }
+    }
+
+    private <T> T submitRaw(SqlCallable<T> task) throws SQLException {
+        try {
+            return executor.submit(task::call).get();
+        } catch (RejectedExecutionException e) {
+            throw new SQLException("Database writer is shut down", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database writer", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("Database write failed", cause);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.candyrush.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of chests left over from earlier rounds
+ * Keyed by world and packed chunk coordinates so a chunk load is a single map lookup
+ */
+public class StaleChestIndex {
+
+    private final Map<String, Map<Long, List<TreasureChestStorage.StoredChest>>> chestsByWorld;
+    private final AtomicInteger size;
+
+    public StaleChestIndex() {
+        this.chestsByWorld = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Pack chunk coordinates into a single long key
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int chunkZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Replace the index contents
+     * @param chests Stale chests loaded from storage
+     */
+    public void load(Collection<TreasureChestStorage.StoredChest> chests) {
+        chestsByWorld.clear();
+        size.set(0);
+
+        for (TreasureChestStorage.StoredChest chest : chests) {
+            long key = chunkKey(chest.getX() >> 4, chest.getZ() >> 4);
+            chestsByWorld
+                .computeIfAbsent(chest.getWorld(), world -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new ArrayList<>())
+                .add(chest);
+        }
+        size.set(chests.size());
+    }
+
+    /**
+     * Take all stale chests in a chunk out of the index
+     * @return Chests in the chunk, empty if none
+     */
+    public List<TreasureChestStorage.StoredChest> removeChunk(String world, int chunkX, int chunkZ) {
+        if (size.get() == 0) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, List<TreasureChestStorage.StoredChest>> chunks = chestsByWorld.get(world);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+
+        List<TreasureChestStorage.StoredChest> removed = chunks.remove(chunkKey(chunkX, chunkZ));
+        if (removed == null) {
+            return Collections.emptyList();
+        }
+
+        size.addAndGet(-removed.size());
+        return removed;
+    }
+
+    /**
+     * Get the chunk keys that still hold stale chests in a world
+     */
+    public Set<Long> getChunkKeys(String world) {
+        Map<Long, List<TreasureChestStorage.StoredChest>> chunks = chestsByWorld.get(world);
+        return chunks != null ? Set.copyOf(chunks.keySet()) : Collections.emptySet();
+    }
+
+    public void clear() {
+        chestsByWorld.clear();
+        size.set(0);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Column encodings shared by the storage implementations
+ * UUIDs are stored as 16-byte big-endian BLOBs and enums as the small integers defined here.
+ * The codes are part of the on-disk format: never change an existing one.
+ */
+public final class StorageCodecs {
+
+    public static final EnumCodec<TeamColor> TEAM_COLOR = new EnumCodec<>(TeamColor.class,
+            TeamColor.RED,
+            TeamColor.BLUE,
+            TeamColor.GREEN,
+            TeamColor.YELLOW);
+
+    public static final EnumCodec<ChestType> CHEST_TYPE = new EnumCodec<>(ChestType.class,
+            ChestType.CHEST,
+            ChestType.LARGE_CHEST,
+            ChestType.BARREL,
+            ChestType.FURNACE,
+            ChestType.BLAST_FURNACE,
+            ChestType.SMOKER,
+            ChestType.BREWING_STAND,
+            ChestType.HOPPER,
+            ChestType.DROPPER,
+            ChestType.DISPENSER,
+            ChestType.TRAPPED_CHEST);
+
+    public static final EnumCodec<PointSource> POINT_SOURCE = new EnumCodec<>(PointSource.class,
+            PointSource.TREASURE_CHEST,
+            PointSource.FOOD_EAT,
+            PointSource.FOOD_CONVERT,
+            PointSource.GOLD_CONVERT,
+            PointSource.DEFENSE_REWARD,
+            PointSource.BOSS_KILL,
+            PointSource.SHOP_PURCHASE);
+
+    private StorageCodecs() {
+    }
+
+    /**
+     * Encode a UUID as 16 bytes (most significant half first)
+     * Big-endian keeps BLOB ordering identical to the old text ordering
+     */
+    public static byte[] uuidToBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Decode a UUID written by {@link #uuidToBytes}
+     * @throws SQLException if the value is not 16 bytes long
+     */
+    public static UUID uuidFromBytes(byte[] bytes) throws SQLException {
+        if (bytes.length != 16) {
+            throw new SQLException("UUID column holds " + bytes.length + " bytes, expected 16");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Bind a nullable UUID
+     */
+    public static void bindUuid(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+        if (uuid != null) {
+            stmt.setBytes(index, uuidToBytes(uuid));
+        } else {
+            stmt.setNull(index, Types.BLOB);
+        }
+    }
+
+    /**
+     * Read a nullable UUID
+     * @return UUID, or null if the column is NULL
+     */
+    public static UUID readUuid(ResultSet rs, String column) throws SQLException {
+        byte[] bytes = rs.getBytes(column);
+        return bytes != null ? uuidFromBytes(bytes) : null;
+    }
+
+    /**
+     * Build a SQL expression converting a column holding UUID text into the BLOB encoding
+     * Malformed text becomes NULL. Requires SQLite 3.41+ for unhex() (the bundled driver ships 3.42).
+     * @param column Column holding UUID text
+     * @return SQL expression
+     */
+    public static String uuidTextToBlobSql(String column) {
+        return "CASE WHEN length(" + column + ") = 36 THEN unhex(replace(" + column + ", '-', '')) END";
+    }
+}
@@ -0,0 +1,288 @@
+package com.candyrush.storage;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Bounded executor for blocking I/O: storage calls and plugin file work
+ * Each call runs on its own virtual thread where the runtime has them (Java 21+), with at most
+ * maxInFlight calls running at once; otherwise on a fixed pool of platform threads.
+ * When the queue is full new work fails fast instead of falling back to the caller's thread,
+ * so a stalled database never ends up blocking the server tick
+ */
+public class StorageExecutor {
+
+    public enum Mode {
+        /** Virtual threads when available, the fixed pool otherwise (default) */
+        AUTO,
+        /** Virtual thread per call, limited to maxInFlight running calls */
+        VIRTUAL,
+        /** Fixed pool of platform threads */
+        FIXED;
+
+        /**
+         * Parse a config value, falling back to AUTO for unknown values
+         */
+        public static Mode parse(String value) {
+            if (value == null) {
+                return AUTO;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return AUTO;
+            }
+        }
+    }
+
+    private final Logger logger;
+    private final Mode mode;
+    private final ExecutorService executor;
+    private final Semaphore permits;  // Running-call limit, VIRTUAL only
+    private final int maxInFlight;
+    private final int queueSize;
+
+    private final AtomicInteger queued;
+    private final AtomicInteger inFlight;
+    private final AtomicInteger peakInFlight;
+    private final AtomicLong submitted;
+    private final AtomicLong completed;
+    private final AtomicLong rejected;
+
+    /**
+     * @param mode Requested mode; VIRTUAL falls back to FIXED on runtimes without virtual threads
+     * @param threads Pool size in FIXED mode
+     * @param maxInFlight Running-call limit in VIRTUAL mode
+     * @param queueSize Calls that may wait for a thread or a permit before new calls are rejected
+     * @param logger Logger
+     */
+    public StorageExecutor(Mode mode, int threads, int maxInFlight, int queueSize, Logger logger) {
+        this.logger = logger;
+        this.queueSize = Math.max(1, queueSize);
+        this.queued = new AtomicInteger();
+        this.inFlight = new AtomicInteger();
+        this.peakInFlight = new AtomicInteger();
+        this.submitted = new AtomicLong();
+        this.completed = new AtomicLong();
+        this.rejected = new AtomicLong();
+
+        ExecutorService virtual = mode == Mode.FIXED ? null : newVirtualThreadExecutor();
+        if (virtual != null) {
+            this.mode = Mode.VIRTUAL;
+            this.executor = virtual;
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.permits = new Semaphore(this.maxInFlight);
+        } else {
+            if (mode == Mode.VIRTUAL) {
+                logger.warning("Virtual threads are not available on this Java runtime, using a fixed I/O pool");
+            }
+            AtomicInteger counter = new AtomicInteger();
+            int poolSize = Math.max(1, threads);
+            this.mode = Mode.FIXED;
+            this.maxInFlight = poolSize;
+            this.permits = null;
+            this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "CandyRush-IO-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Create a virtual-thread-per-task executor, or null if the runtime has no virtual threads
+     * Looked up reflectively so the fixed pool still works on runtimes without the API
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "CandyRush-IO-v", 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Run a blocking storage call on the I/O threads
+     * @param task Storage call
+     * @return Future completing with the result, or exceptionally with the SQLException
+     */
+    public <T> CompletableFuture<T> supply(StorageTask<T> task) {
+        return submit(task::call, e -> new SQLException("Storage executor is saturated or shut down", e));
+    }
+
+    /**
+     * Run a blocking storage call without a result
+     * @param task Storage call
+     * @return Future completing when the call finishes
+     */
+    public CompletableFuture<Void> run(StorageAction task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run blocking file work (config loading, resource copying) on the I/O threads
+     * @param task File work
+     * @return Future completing with the result, or exceptionally with the IOException
+     */
+    public <T> CompletableFuture<T> supplyFile(FileTask<T> task) {
+        return submit(task::call, e -> new IOException("I/O executor is saturated or shut down", e));
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task, Function<RejectedExecutionException, Exception> saturated) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable body = () -> {
+            queued.decrementAndGet();
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            T result = null;
+            Throwable error = null;
+            try {
+                result = task.call();
+            } catch (Throwable t) {
+                error = t;
+            }
+            // Update the counters first so they are current when callbacks run
+            inFlight.decrementAndGet();
+            completed.incrementAndGet();
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        };
+
+        try {
+            if (queued.incrementAndGet() > queueSize && permits != null) {
+                throw new RejectedExecutionException("Queue is full");
+            }
+            executor.execute(permits == null ? body : () -> {
+                permits.acquireUninterruptibly();
+                try {
+                    body.run();
+                } finally {
+                    permits.release();
+                }
+            });
+            submitted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            future.completeExceptionally(saturated.apply(e));
+        }
+        return future;
+    }
+
+    /**
+     * Get the mode in use (VIRTUAL or FIXED)
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Get the number of calls that may run at once
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the number of calls waiting for a thread
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of calls currently running
+     */
+    public int getActiveCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the highest number of calls that ran at once
+     */
+    public int getPeakActiveCount() {
+        return peakInFlight.get();
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Get the number of calls rejected because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Wait for queued calls to finish and stop the threads
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Storage executor did not finish in time, " + queued.get() + " calls dropped");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocking storage call with a result
+     */
+    @FunctionalInterface
+    public interface StorageTask<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Blocking storage call without a result
+     */
+    @FunctionalInterface
+    public interface StorageAction {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Blocking file work with a result
+     */
+    @FunctionalInterface
+    public interface FileTask<T> {
+        T call() throws IOException;
+    }
+}
@@ -0,0 +1,119 @@
+package com.candyrush.storage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency counters for database access
+ * Updated from the writer thread and from reading threads without locking
+ */
+public class StorageMetrics {
+
+    private final long startedAtNanos;
+    private final LongAdder writeCount;
+    private final LongAdder writeFailures;
+    private final LongAdder writeQueueNanos;
+    private final LongAdder writeExecNanos;
+    private final AtomicLong writeExecMaxNanos;
+    private final LongAdder readCount;
+    private final LongAdder readBorrowNanos;
+    private final AtomicLong readBorrowMaxNanos;
+
+    public StorageMetrics() {
+        this.startedAtNanos = System.nanoTime();
+        this.writeCount = new LongAdder();
+        this.writeFailures = new LongAdder();
+        this.writeQueueNanos = new LongAdder();
+        this.writeExecNanos = new LongAdder();
+        this.writeExecMaxNanos = new AtomicLong();
+        this.readCount = new LongAdder();
+        this.readBorrowNanos = new LongAdder();
+        this.readBorrowMaxNanos = new AtomicLong();
+    }
+
+    /**
+     * Record a completed write
+     * @param queueNanos Time spent waiting before the write started
+     * @param execNanos Time spent executing the write
+     * @param failed true if the write threw
+     */
+    public void recordWrite(long queueNanos, long execNanos, boolean failed) {
+        writeCount.increment();
+        if (failed) {
+            writeFailures.increment();
+        }
+        writeQueueNanos.add(queueNanos);
+        writeExecNanos.add(execNanos);
+        writeExecMaxNanos.accumulateAndGet(execNanos, Math::max);
+    }
+
+    /**
+     * Record a read connection borrow
+     * @param borrowNanos Time spent waiting for a connection
+     */
+    public void recordRead(long borrowNanos) {
+        readCount.increment();
+        readBorrowNanos.add(borrowNanos);
+        readBorrowMaxNanos.accumulateAndGet(borrowNanos, Math::max);
+    }
+
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    public long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    public long getReadCount() {
+        return readCount.sum();
+    }
+
+    /**
+     * Average time a write waited in the queue (ms)
+     */
+    public double getAverageWriteQueueMillis() {
+        return average(writeQueueNanos.sum(), writeCount.sum());
+    }
+
+    /**
+     * Average time a write took to execute (ms)
+     */
+    public double getAverageWriteExecMillis() {
+        return average(writeExecNanos.sum(), writeCount.sum());
+    }
+
+    /**
+     * Slowest write seen so far (ms)
+     */
+    public double getMaxWriteExecMillis() {
+        return writeExecMaxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Average wait for a read connection (ms)
+     */
+    public double getAverageReadBorrowMillis() {
+        return average(readBorrowNanos.sum(), readCount.sum());
+    }
+
+    /**
+     * Slowest read connection borrow seen so far (ms)
+     */
+    public double getMaxReadBorrowMillis() {
+        return readBorrowMaxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Writes per second since startup
+     */
+    public double getWritesPerSecond() {
+        double seconds = (System.nanoTime() - startedAtNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        return seconds > 0 ? writeCount.sum() / seconds : 0;
+    }
+
+    private static double average(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000.0;
+    }
+}
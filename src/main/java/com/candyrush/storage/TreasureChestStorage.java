@@ -0,0 +1,137 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.ChestType;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface for treasure chest bookkeeping
+ * Rows let chests from an earlier round be removed after a restart
+ */
+public interface TreasureChestStorage {
+
+    /**
+     * Record spawned chests in a single transaction
+     * @param chests Chests to record
+     * @throws SQLException if database error occurs (the whole batch is rolled back)
+     */
+    void saveChests(Collection<ChestPlacement> chests) throws SQLException;
+
+    /**
+     * Load chests that do not belong to the given round
+     * @param currentRoundId Round whose chests are still in use
+     * @return Chests from earlier rounds in every world
+     * @throws SQLException if database error occurs
+     */
+    List<StoredChest> loadStaleChests(int currentRoundId) throws SQLException;
+
+    /**
+     * Delete chest rows in a single transaction
+     * @param ids Row IDs
+     * @return Number of rows deleted
+     * @throws SQLException if database error occurs
+     */
+    int deleteChests(Collection<Integer> ids) throws SQLException;
+
+    /**
+     * Delete up to {@code limit} chest rows of the given rounds in one statement
+     * Used by idle-time maintenance once the rounds' chests are gone from the world
+     * @param roundIds Finished rounds
+     * @param limit Maximum number of rows to delete
+     * @return Number of rows deleted, less than {@code limit} once no rows are left
+     * @throws SQLException if database error occurs
+     */
+    int deleteRoundChests(Collection<Integer> roundIds, int limit) throws SQLException;
+
+    /**
+     * Data class for a stored chest position
+     */
+    class StoredChest {
+        private final int id;
+        private final String world;
+        private final int x;
+        private final int y;
+        private final int z;
+
+        public StoredChest(int id, String world, int x, int y, int z) {
+            this.id = id;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+    }
+
+    /**
+     * Data class for a chest waiting to be recorded
+     */
+    class ChestPlacement {
+        private final int roundId;
+        private final String world;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final ChestType chestType;
+        private final long spawnedAt;
+
+        public ChestPlacement(int roundId, String world, int x, int y, int z, ChestType chestType, long spawnedAt) {
+            this.roundId = roundId;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.chestType = chestType;
+            this.spawnedAt = spawnedAt;
+        }
+
+        public int getRoundId() {
+            return roundId;
+        }
+
+        public String getWorld() {
+            return world;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public ChestType getChestType() {
+            return chestType;
+        }
+
+        public long getSpawnedAt() {
+            return spawnedAt;
+        }
+    }
+}
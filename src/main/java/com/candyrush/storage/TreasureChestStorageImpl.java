@@ -0,0 +1,120 @@
+package com.candyrush.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC implementation of TreasureChestStorage
+ */
+public class TreasureChestStorageImpl implements TreasureChestStorage {
+
+    private final DatabaseInitializer databaseInitializer;
+
+    public TreasureChestStorageImpl(DatabaseInitializer databaseInitializer) {
+        this.databaseInitializer = databaseInitializer;
+    }
+
+    @Override
+    public void saveChests(Collection<ChestPlacement> chests) throws SQLException {
+        if (chests.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO treasure_chests (round_id, world, x, y, z, chest_type, spawned_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        databaseInitializer.executeTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (ChestPlacement chest : chests) {
+                    stmt.setInt(1, chest.getRoundId());
+                    stmt.setString(2, chest.getWorld());
+                    stmt.setInt(3, chest.getX());
+                    stmt.setInt(4, chest.getY());
+                    stmt.setInt(5, chest.getZ());
+                    StorageCodecs.CHEST_TYPE.bind(stmt, 6, chest.getChestType());
+                    stmt.setLong(7, chest.getSpawnedAt());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch().length;
+            }
+        });
+    }
+
+    @Override
+    public List<StoredChest> loadStaleChests(int currentRoundId) throws SQLException {
+        String sql = "SELECT id, world, x, y, z FROM treasure_chests WHERE round_id != ?";
+
+        List<StoredChest> chests = new ArrayList<>();
+
+        try (Connection conn = databaseInitializer.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, currentRoundId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    chests.add(new StoredChest(
+                        rs.getInt("id"),
+                        rs.getString("world"),
+                        rs.getInt("x"),
+                        rs.getInt("y"),
+                        rs.getInt("z")
+                    ));
+                }
+            }
+        }
+
+        return chests;
+    }
+
+    @Override
+    public int deleteChests(Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "DELETE FROM treasure_chests WHERE id = ?";
+
+        return databaseInitializer.executeTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int id : ids) {
+                    stmt.setInt(1, id);
+                    stmt.addBatch();
+                }
+
+                int deleted = 0;
+                for (int count : stmt.executeBatch()) {
+                    deleted += Math.max(count, 0);
+                }
+                return deleted;
+            }
+        });
+    }
+
+    @Override
+    public int deleteRoundChests(Collection<Integer> roundIds, int limit) throws SQLException {
+        if (roundIds.isEmpty()) {
+            return 0;
+        }
+
+        // Bounded so one call never holds the writer for long
+        String sql = databaseInitializer.getDialect().deleteLimited("treasure_chests",
+            "round_id IN (" + String.join(", ", Collections.nCopies(roundIds.size(), "?")) + ")");
+
+        return databaseInitializer.executeWrite(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (int roundId : roundIds) {
+                    stmt.setInt(index++, roundId);
+                }
+                stmt.setInt(index, limit);
+                return stmt.executeUpdate();
+            }
+        });
+    }
+}
@@ -56,6 +56,46 @@ public class ConfigManager {
         return null;
     }
 
+    public boolean isCheckpointEnabled() {
+        return config.getBoolean("game.checkpoint.enabled", true);
+    }
+
+    public double getSchedulerTickBudgetMillis() {
+        return config.getDouble("game.scheduler.tick-budget-millis", 5.0);
+    }
+
+    public double getRoundPipelineBudgetMillis() {
+        return config.getDouble("game.scheduler.round-pipeline-budget-millis", 10.0);
+    }
+
+    public boolean isMapCenterPoolEnabled() {
+        return config.getBoolean("game.map-center-pool.enabled", true);
+    }
+
+    public int getMapCenterSearchIntervalTicks() {
+        return Math.max(20, config.getInt("game.map-center-pool.search-interval-ticks", 100));
+    }
+
+    public int getMapCenterOriginSpacing() {
+        return config.getInt("game.map-center-pool.origin-spacing", 1000);
+    }
+
+    public boolean isChunkPrewarmEnabled() {
+        return config.getBoolean("game.chunk-prewarm.enabled", true);
+    }
+
+    public int getChunkPrewarmMaxInFlight() {
+        return Math.max(1, config.getInt("game.chunk-prewarm.max-in-flight", 8));
+    }
+
+    public int getCheckpointIntervalSeconds() {
+        return config.getInt("game.checkpoint.interval-seconds", 5);
+    }
+
+    public int getCheckpointResumeMaxDowntimeSeconds() {
+        return config.getInt("game.checkpoint.resume-max-downtime-seconds", 300);
+    }
+
     /**
      * マップ中心座標を設定して保存
      */
@@ -178,6 +218,138 @@ public class ConfigManager {
         return config.getString("database.sqlite.file", "data.db");
     }
 
+    public String getSqliteEngine() {
+        return config.getString("database.sqlite.engine", "single-writer");
+    }
+
+    public int getSqliteReadPoolSize() {
+        return config.getInt("database.sqlite.read-pool-size", 3);
+    }
+
+    public int getSqliteBusyTimeoutMillis() {
+        return config.getInt("database.sqlite.busy-timeout-millis", 5000);
+    }
+
+    public String getMysqlHost() {
+        return config.getString("database.mysql.host", "localhost");
+    }
+
+    public int getMysqlPort() {
+        return config.getInt("database.mysql.port", 3306);
+    }
+
+    public String getMysqlDatabase() {
+        return config.getString("database.mysql.database", "candyrush");
+    }
+
+    public String getMysqlUsername() {
+        return config.getString("database.mysql.username", "root");
+    }
+
+    public String getMysqlPassword() {
+        return config.getString("database.mysql.password", "");
+    }
+
+    public int getMysqlPoolSize() {
+        return config.getInt("database.mysql.pool-size", 10);
+    }
+
+    public int getMysqlConnectionTimeoutMillis() {
+        return config.getInt("database.mysql.connection-timeout-millis", 10000);
+    }
+
+    public int getMysqlMaxLifetimeMillis() {
+        return config.getInt("database.mysql.max-lifetime-millis", 1800000);
+    }
+
+    public int getStorageThreads() {
+        return config.getInt("database.io-threads", 2);
+    }
+
+    public int getStorageQueueSize() {
+        return config.getInt("database.io-queue-size", 256);
+    }
+
+    public String getStorageExecutorMode() {
+        return config.getString("database.io-executor", "auto");
+    }
+
+    public int getStorageMaxInFlight() {
+        return config.getInt("database.io-max-in-flight", 16);
+    }
+
+    public int getPlayerCacheMaxSize() {
+        return config.getInt("database.player-cache.max-size", 500);
+    }
+
+    public int getPlayerCacheTtlSeconds() {
+        return config.getInt("database.player-cache.ttl-seconds", 600);
+    }
+
+    public int getPlayerCacheNegativeTtlSeconds() {
+        return config.getInt("database.player-cache.negative-ttl-seconds", 60);
+    }
+
+    public int getWriteBehindFlushIntervalMillis() {
+        return config.getInt("database.write-behind.flush-interval-millis", 2000);
+    }
+
+    public int getPointLedgerBufferSize() {
+        return config.getInt("database.point-ledger.buffer-size", 4096);
+    }
+
+    public int getPointLedgerFlushIntervalTicks() {
+        return config.getInt("database.point-ledger.flush-interval-ticks", 20);
+    }
+
+    public boolean isMaintenanceEnabled() {
+        return config.getBoolean("database.maintenance.enabled", true);
+    }
+
+    public int getMaintenanceIntervalMinutes() {
+        return config.getInt("database.maintenance.interval-minutes", 60);
+    }
+
+    public int getMaintenanceSliceIntervalTicks() {
+        return config.getInt("database.maintenance.slice-interval-ticks", 10);
+    }
+
+    public int getMaintenancePurgeBatchSize() {
+        return config.getInt("database.maintenance.purge-batch-size", 500);
+    }
+
+    public int getMaintenanceAnalysisLimit() {
+        return config.getInt("database.maintenance.analysis-limit", 1000);
+    }
+
+    public int getMaintenanceVacuumPages() {
+        return config.getInt("database.maintenance.vacuum-pages", 256);
+    }
+
+    public int getArchiveRetentionDays() {
+        return config.getInt("database.archive.retention-days", 30);
+    }
+
+    public int getArchiveBatchSize() {
+        return config.getInt("database.archive.batch-size", 20);
+    }
+
+    public String getMainThreadIoMode() {
+        return config.getString("database.main-thread-io.mode", "off");
+    }
+
+    public int getMainThreadIoStackDepth() {
+        return config.getInt("database.main-thread-io.stack-depth", 12);
+    }
+
+    public int getExportChunkSize() {
+        return config.getInt("database.export.chunk-size", 1000);
+    }
+
+    public int getExportProgressIntervalSeconds() {
+        return config.getInt("database.export.progress-interval-seconds", 5);
+    }
+
     // Debug settings
     public boolean isDebugEnabled() {
         return config.getBoolean("debug.enabled", false);
@@ -25,25 +25,27 @@ public class LanguageManager {
     public LanguageManager(CandyRushPlugin plugin) {
         this.plugin = plugin;
         this.currentLanguage = plugin.getConfigManager().getLanguage();
-        loadMessages();
+        // 起動時はI/Oスレッドの準備前で、以降の初期化が文言を使うためその場で読み込む
+        this.messages = loadMessages(currentLanguage);
     }
 
     /**
-     * 言語ファイルを読み込む
+     * 言語ファイルを読み込む（どのスレッドからでも呼べる）
      */
-    private void loadMessages() {
-        String languageFile = "messages_" + currentLanguage + ".yml";
+    private FileConfiguration loadMessages(String language) {
+        String languageFile = "messages_" + language + ".yml";
         File customFile = new File(plugin.getDataFolder(), languageFile);
+        FileConfiguration loaded;
 
         // カスタムファイルが存在すれば使用
         if (customFile.exists()) {
-            messages = YamlConfiguration.loadConfiguration(customFile);
+            loaded = YamlConfiguration.loadConfiguration(customFile);
             plugin.getLogger().info("Loaded custom language file: " + languageFile);
         } else {
             // jarから読み込む
             InputStream defaultStream = plugin.getResource(languageFile);
             if (defaultStream != null) {
-                messages = YamlConfiguration.loadConfiguration(
+                loaded = YamlConfiguration.loadConfiguration(
                     new InputStreamReader(defaultStream, StandardCharsets.UTF_8));
                 plugin.getLogger().info("Loaded language file from jar: " + languageFile);
             } else {
@@ -51,14 +53,30 @@ public class LanguageManager {
                 plugin.getLogger().warning("Language file not found: " + languageFile + ", falling back to English");
                 InputStream fallbackStream = plugin.getResource("messages_en.yml");
                 if (fallbackStream != null) {
-                    messages = YamlConfiguration.loadConfiguration(
+                    loaded = YamlConfiguration.loadConfiguration(
                         new InputStreamReader(fallbackStream, StandardCharsets.UTF_8));
                 } else {
                     plugin.getLogger().severe("Could not load any language file!");
-                    messages = new YamlConfiguration(); // 空の設定
+                    loaded = new YamlConfiguration(); // 空の設定
                 }
             }
         }
+        return loaded;
+    }
+
+    /**
+     * I/Oスレッドで言語ファイルを読み込み、メインスレッドで差し替える
+     */
+    private void reloadMessages(String language) {
+        plugin.getStorageExecutor().supplyFile(() -> loadMessages(language))
+            .thenAcceptAsync(loaded -> {
+                messages = loaded;
+                plugin.getLogger().info("Language set to: " + language);
+            }, plugin.getMainThreadExecutor())
+            .exceptionally(e -> {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load language file for " + language, e);
+                return null;
+            });
     }
 
     /**
@@ -111,12 +129,11 @@ public class LanguageManager {
     }
 
     /**
-     * 言語を変更
+     * 言語を変更（読み込みが終わるまでは現在の言語のまま）
      */
     public void setLanguage(String language) {
         this.currentLanguage = language;
-        loadMessages();
-        plugin.getLogger().info("Language changed to: " + language);
+        reloadMessages(language);
     }
 
     /**
@@ -131,6 +148,6 @@ public class LanguageManager {
      */
     public void reload() {
         this.currentLanguage = plugin.getConfigManager().getLanguage();
-        loadMessages();
+        reloadMessages(currentLanguage);
     }
 }
@@ -0,0 +1,38 @@
+package com.candyrush.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that runs work on the server main thread
+ * Used to hop CompletableFuture results from storage threads back to Bukkit API code
+ */
+public class MainThreadExecutor implements Executor {
+
+    private final Plugin plugin;
+
+    public MainThreadExecutor(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Run immediately when already on the main thread, otherwise schedule for the next tick
+     * Work submitted after the plugin has been disabled is dropped
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (Bukkit.isPrimaryThread()) {
+            command.run();
+            return;
+        }
+
+        if (!plugin.isEnabled()) {
+            plugin.getLogger().fine("Dropped main thread callback after plugin was disabled");
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(plugin, command);
+    }
+}
@@ -0,0 +1,131 @@
+package com.candyrush.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSchedulerTest {
+
+    private static final Logger LOGGER = Logger.getLogger(GameSchedulerTest.class.getName());
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long now = 0;
+
+    private GameScheduler scheduler() {
+        return new GameScheduler(LOGGER, () -> now, BUDGET_NANOS);
+    }
+
+    @Test
+    void jobsWithTheSamePeriodRunOnDifferentTicks() {
+        GameScheduler scheduler = scheduler();
+        Map<Long, List<String>> runsByTick = new HashMap<>();
+        for (String name : List.of("a", "b", "c", "d")) {
+            scheduler.schedule(name, 1, 4, () ->
+                runsByTick.computeIfAbsent(scheduler.getCurrentTick(), tick -> new ArrayList<>()).add(name));
+        }
+
+        for (int i = 0; i < 12; i++) {
+            scheduler.tick();
+        }
+
+        for (List<String> names : runsByTick.values()) {
+            assertEquals(1, names.size(), names.toString());
+        }
+        assertEquals(12, runsByTick.size());
+    }
+
+    @Test
+    void jobWithLongerPeriodAvoidsTicksOfShorterOne() {
+        GameScheduler scheduler = scheduler();
+        Set<Long> fastTicks = new HashSet<>();
+        Set<Long> slowTicks = new HashSet<>();
+        scheduler.schedule("fast", 1, 2, () -> fastTicks.add(scheduler.getCurrentTick()));
+        scheduler.schedule("slow", 1, 6, () -> slowTicks.add(scheduler.getCurrentTick()));
+
+        for (int i = 0; i < 24; i++) {
+            scheduler.tick();
+        }
+
+        assertEquals(12, fastTicks.size());
+        assertEquals(4, slowTicks.size());
+        slowTicks.retainAll(fastTicks);
+        assertTrue(slowTicks.isEmpty(), slowTicks.toString());
+    }
+
+    @Test
+    void firstRunIsNeverBeforeDelay() {
+        GameScheduler scheduler = scheduler();
+        List<Long> ticks = new ArrayList<>();
+        scheduler.schedule("filler", 1, 5, () -> { });
+        scheduler.schedule("delayed", 7, 5, () -> ticks.add(scheduler.getCurrentTick()));
+
+        for (int i = 0; i < 20; i++) {
+            scheduler.tick();
+        }
+
+        assertTrue(ticks.get(0) >= 7 && ticks.get(0) < 12, ticks.toString());
+        assertEquals(5, ticks.get(1) - ticks.get(0));
+    }
+
+    @Test
+    void jobsPastTheBudgetAreDeferredOnceAndRunFirst() {
+        GameScheduler scheduler = scheduler();
+        List<String> order = new ArrayList<>();
+        scheduler.schedule("slow", 1, 1, () -> {
+            order.add("slow");
+            now += 2 * BUDGET_NANOS;
+        });
+        scheduler.schedule("b", 1, 1, () -> order.add("b"));
+        scheduler.schedule("c", 1, 1, () -> order.add("c"));
+
+        scheduler.tick();
+        assertEquals(List.of("slow"), order);
+
+        // Deferred jobs run before anything else, even though the slow job overruns again
+        order.clear();
+        scheduler.tick();
+        assertEquals(List.of("b", "c", "slow"), order);
+
+        assertEquals(2, scheduler.getTicksOverBudget());
+        Map<String, Long> deferrals = new HashMap<>();
+        for (GameScheduler.JobStats stats : scheduler.getJobStats()) {
+            deferrals.put(stats.getName(), stats.getDeferrals());
+        }
+        assertEquals(Map.of("slow", 0L, "b", 1L, "c", 1L), deferrals);
+        assertEquals("slow", scheduler.getJobStats().get(0).getName());
+    }
+
+    @Test
+    void cancelledJobStopsAndFailuresDoNotStopOthers() {
+        GameScheduler scheduler = scheduler();
+        List<Long> ticks = new ArrayList<>();
+        GameScheduler.Job[] self = new GameScheduler.Job[1];
+        self[0] = scheduler.schedule("once", 1, 1, () -> {
+            ticks.add(scheduler.getCurrentTick());
+            self[0].cancel();
+        });
+        scheduler.schedule("broken", 1, 1, () -> {
+            throw new IllegalStateException("expected");
+        });
+        int[] healthyRuns = {0};
+        scheduler.schedule("healthy", 1, 1, () -> healthyRuns[0]++);
+
+        for (int i = 0; i < 3; i++) {
+            scheduler.tick();
+        }
+
+        assertEquals(1, ticks.size());
+        assertTrue(self[0].isCancelled());
+        assertEquals(3, healthyRuns[0]);
+    }
+}
@@ -0,0 +1,214 @@
+package com.candyrush.managers;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoundPipelineTest {
+
+    private static final Logger LOGGER = Logger.getLogger(RoundPipelineTest.class.getName());
+    private static final long LARGE_BUDGET = TimeUnit.SECONDS.toNanos(60);
+
+    private final GameScheduler scheduler = new GameScheduler(LOGGER, System::nanoTime, LARGE_BUDGET);
+    private final List<String> log = new ArrayList<>();
+
+    private RoundPipeline pipeline(long budgetNanos) {
+        return new RoundPipeline(LOGGER, scheduler, "test", budgetNanos);
+    }
+
+    private int runToCompletion(RoundPipeline pipeline) {
+        int ticks = 0;
+        while (pipeline.isRunning()) {
+            scheduler.tick();
+            ticks++;
+            assertTrue(ticks < 100, "pipeline did not finish");
+        }
+        return ticks;
+    }
+
+    @Test
+    void stagesRunInOrderWithinOneTickWhenBudgetAllows() {
+        RoundPipeline pipeline = pipeline(LARGE_BUDGET)
+            .stage("a", RoundPipeline.once(() -> log.add("a")))
+            .stage("b", RoundPipeline.each(() -> List.of("b1", "b2", "b3"), log::add))
+            .stage("c", RoundPipeline.once(() -> log.add("c")));
+
+        pipeline.start(() -> log.add("done"));
+        assertTrue(pipeline.isRunning());
+
+        assertEquals(1, runToCompletion(pipeline));
+        assertEquals(List.of("a", "b1", "b2", "b3", "c", "done"), log);
+    }
+
+    @Test
+    void exhaustedBudgetResumesNextTickWhereItStopped() {
+        RoundPipeline pipeline = pipeline(0)
+            .stage("items", RoundPipeline.each(() -> List.of("x", "y", "z"), item -> log.add(scheduler.getCurrentTick() + item)))
+            .stage("last", RoundPipeline.once(() -> log.add(scheduler.getCurrentTick() + "last")));
+
+        pipeline.start(() -> log.add("done"));
+        runToCompletion(pipeline);
+
+        // One element per tick, and the next stage waits for a tick of its own
+        long first = Long.parseLong(log.get(0).substring(0, log.get(0).length() - 1));
+        assertEquals(List.of(first + "x", (first + 1) + "y", (first + 2) + "z", (first + 3) + "last", "done"), log);
+    }
+
+    @Test
+    void deadlineIsTickStartPlusBudget() {
+        long budget = TimeUnit.MILLISECONDS.toNanos(5);
+        long[] seen = new long[2];
+        RoundPipeline pipeline = pipeline(budget)
+            .stage("probe", deadlineNanos -> {
+                seen[0] = deadlineNanos;
+                seen[1] = System.nanoTime();
+                return true;
+            });
+
+        pipeline.start(null);
+        runToCompletion(pipeline);
+
+        long remaining = seen[0] - seen[1];
+        assertTrue(remaining > 0 && remaining <= budget, String.valueOf(remaining));
+    }
+
+    @Test
+    void unfinishedStageBlocksLaterStages() {
+        int[] calls = {0};
+        RoundPipeline pipeline = pipeline(LARGE_BUDGET)
+            .stage("slow", deadlineNanos -> ++calls[0] == 3)
+            .stage("after", RoundPipeline.once(() -> log.add("after@" + calls[0])));
+
+        pipeline.start(null);
+
+        assertEquals(3, runToCompletion(pipeline));
+        assertEquals(List.of("after@3"), log);
+    }
+
+    @Test
+    void awaitPollsUntilFutureCompletesAndHandsOverResult() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        RoundPipeline pipeline = pipeline(LARGE_BUDGET)
+            .stage("load", RoundPipeline.await(() -> future, (result, error) -> log.add(result + "/" + error)))
+            .stage("after", RoundPipeline.once(() -> log.add("after")));
+
+        pipeline.start(() -> log.add("done"));
+        for (int i = 0; i < 3; i++) {
+            scheduler.tick();
+        }
+        assertTrue(pipeline.isRunning());
+        assertTrue(log.isEmpty());
+
+        future.complete("rows");
+        scheduler.tick();
+
+        assertFalse(pipeline.isRunning());
+        assertEquals(List.of("rows/null", "after", "done"), log);
+    }
+
+    @Test
+    void awaitHandsOverCauseOfFailure() {
+        IllegalStateException failure = new IllegalStateException("expected");
+        Throwable[] received = new Throwable[1];
+        RoundPipeline pipeline = pipeline(LARGE_BUDGET)
+            .stage("load", RoundPipeline.await(() -> CompletableFuture.<String>failedFuture(failure), (result, error) -> {
+                assertNull(result);
+                received[0] = error;
+            }));
+
+        pipeline.start(null);
+        runToCompletion(pipeline);
+
+        assertEquals(failure, received[0]);
+    }
+
+    @Test
+    void awaitIsWaitingOnlyOnPollOnlyTicks() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        RoundPipeline.Stage stage = RoundPipeline.await(() -> future, (result, error) -> { });
+
+        // The tick that starts the task did real work
+        assertFalse(stage.run(Long.MAX_VALUE));
+        assertFalse(stage.isWaiting());
+
+        assertFalse(stage.run(Long.MAX_VALUE));
+        assertTrue(stage.isWaiting());
+
+        future.complete(null);
+        assertTrue(stage.run(Long.MAX_VALUE));
+        assertFalse(stage.isWaiting());
+    }
+
+    @Test
+    void failingStageIsSkipped() {
+        RoundPipeline pipeline = pipeline(LARGE_BUDGET)
+            .stage("broken", RoundPipeline.once(() -> {
+                throw new IllegalStateException("expected");
+            }))
+            .stage("after", RoundPipeline.once(() -> log.add("after")));
+
+        pipeline.start(() -> log.add("done"));
+        runToCompletion(pipeline);
+
+        assertEquals(List.of("after", "done"), log);
+    }
+
+    @Test
+    void cancelFromStageSkipsCompletion() {
+        RoundPipeline[] self = new RoundPipeline[1];
+        self[0] = pipeline(LARGE_BUDGET)
+            .stage("cancel", RoundPipeline.once(() -> self[0].cancel()))
+            .stage("after", RoundPipeline.once(() -> log.add("after")));
+
+        self[0].start(() -> log.add("done"));
+        runToCompletion(self[0]);
+
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    void eachChunkHandsOverOneChunkPerStepGroupedByWorld() {
+        World world = world("world");
+        World nether = world("world_nether");
+        Map<String, Location> points = Map.of(
+            "a", new Location(world, 0, 64, 0),
+            "b", new Location(nether, 3, 64, 3),
+            "c", new Location(world, 15.9, 64, 15.9),
+            "d", new Location(world, -0.5, 64, 0),
+            "e", new Location(nether, 5, 64, 5),
+            "f", new Location(world, 16, 64, 0));
+        List<List<String>> chunks = new ArrayList<>();
+        RoundPipeline pipeline = pipeline(0)
+            .stage("remove", RoundPipeline.eachChunk(() -> Arrays.asList("a", "b", "c", "d", "e", "f"), points::get, chunks::add));
+
+        pipeline.start(null);
+
+        assertEquals(4, runToCompletion(pipeline));
+        assertEquals(List.of(List.of("a", "c"), List.of("d"), List.of("f"), List.of("b", "e")), chunks);
+    }
+
+    private static World world(String name) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] {World.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getName", "toString" -> name;
+                case "hashCode" -> name.hashCode();
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,203 @@
+package com.candyrush.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseInitializerMigrationTest {
+
+    private static final UUID ALICE = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private static final UUID NPC = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+
+    @TempDir
+    File dataFolder;
+
+    @Test
+    void migratesVersionZeroFile() throws SQLException {
+        File file = new File(dataFolder, "candyrush.db");
+        createVersionZeroFile(file);
+
+        initialize(file);
+
+        try (Connection conn = open(file); Statement stmt = conn.createStatement()) {
+            assertEquals(DatabaseInitializer.SCHEMA_VERSION, queryInt(stmt, "PRAGMA user_version"));
+            assertEquals(0, queryInt(stmt, "SELECT COUNT(*) FROM sqlite_master WHERE name LIKE '%\\_v0' ESCAPE '\\'"));
+            assertEquals(2, queryInt(stmt, "PRAGMA auto_vacuum"));
+
+            // The malformed UUID and the upper-case duplicate of ALICE are dropped
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM players"));
+            try (ResultSet rs = stmt.executeQuery("SELECT uuid, points, version FROM players")) {
+                assertTrue(rs.next());
+                assertArrayEquals(StorageCodecs.uuidToBytes(ALICE), rs.getBytes("uuid"));
+                assertEquals(120, rs.getInt("points"));
+                assertEquals(0, rs.getInt("version"));
+            }
+
+            assertEquals(1, queryInt(stmt, "SELECT winner_team FROM game_rounds WHERE id = 1"));
+            try (ResultSet rs = stmt.executeQuery("SELECT winner_team FROM game_rounds WHERE id = 2")) {
+                assertTrue(rs.next());
+                assertNull(rs.getObject(1));
+            }
+            assertEquals(2, queryInt(stmt, "SELECT team_color FROM team_scores WHERE final_points = 200"));
+            assertEquals(1, queryInt(stmt, "SELECT team_color FROM player_stats WHERE round_id = 1"));
+            assertEquals(2, queryInt(stmt, "SELECT team_color FROM round_players WHERE round_id = 2"));
+
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM treasure_chests"));
+            assertEquals(3, queryInt(stmt, "SELECT chest_type FROM treasure_chests"));
+            try (ResultSet rs = stmt.executeQuery("SELECT entity_uuid FROM event_npcs")) {
+                assertTrue(rs.next());
+                assertEquals(NPC, StorageCodecs.readUuid(rs, "entity_uuid"));
+            }
+
+            // Summary tables are backfilled from the closed round only
+            assertEquals(1, queryInt(stmt, "SELECT games_played FROM game_totals WHERE id = 1"));
+            assertEquals(600, queryInt(stmt, "SELECT total_duration_seconds FROM game_totals WHERE id = 1"));
+            assertEquals(1, queryInt(stmt, "SELECT wins FROM team_totals WHERE team_color = 1"));
+            assertEquals(300, queryInt(stmt, "SELECT points FROM team_totals WHERE team_color = 1"));
+            assertEquals(0, queryInt(stmt, "SELECT wins FROM team_totals WHERE team_color = 2"));
+            try (ResultSet rs = stmt.executeQuery("SELECT games_played, wins, best_round_points FROM player_totals")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt("games_played"));
+                assertEquals(1, rs.getInt("wins"));
+                assertEquals(120, rs.getInt("best_round_points"));
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    @Test
+    void secondStartKeepsMigratedData() throws SQLException {
+        File file = new File(dataFolder, "candyrush.db");
+        createVersionZeroFile(file);
+
+        initialize(file);
+        initialize(file);
+
+        try (Connection conn = open(file); Statement stmt = conn.createStatement()) {
+            assertEquals(DatabaseInitializer.SCHEMA_VERSION, queryInt(stmt, "PRAGMA user_version"));
+            assertEquals(1, queryInt(stmt, "SELECT COUNT(*) FROM players"));
+            assertEquals(1, queryInt(stmt, "SELECT games_played FROM game_totals WHERE id = 1"));
+        }
+    }
+
+    @Test
+    void createsCurrentSchemaForNewFile() throws SQLException {
+        File file = new File(dataFolder, "candyrush.db");
+
+        initialize(file);
+
+        try (Connection conn = open(file); Statement stmt = conn.createStatement()) {
+            assertEquals(DatabaseInitializer.SCHEMA_VERSION, queryInt(stmt, "PRAGMA user_version"));
+            assertEquals(0, queryInt(stmt, "SELECT COUNT(*) FROM players"));
+            assertEquals(0, queryInt(stmt, "SELECT COUNT(*) FROM point_events"));
+            assertEquals(2, queryInt(stmt, "PRAGMA auto_vacuum"));
+        }
+    }
+
+    @Test
+    void refusesNewerSchema() throws SQLException {
+        File file = new File(dataFolder, "candyrush.db");
+        try (Connection conn = open(file); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("PRAGMA user_version = " + (DatabaseInitializer.SCHEMA_VERSION + 1));
+        }
+
+        DatabaseInitializer initializer = new DatabaseInitializer(settings(file), Logger.getLogger(getClass().getName()));
+        try {
+            assertThrows(SQLException.class, initializer::initialize);
+        } finally {
+            initializer.close();
+        }
+    }
+
+    private void initialize(File file) throws SQLException {
+        DatabaseInitializer initializer = new DatabaseInitializer(settings(file), Logger.getLogger(getClass().getName()));
+        try {
+            initializer.initialize();
+        } finally {
+            initializer.close();
+        }
+    }
+
+    private static DatabaseSettings settings(File file) {
+        return new DatabaseSettings(file, DatabaseSettings.Engine.SINGLE_WRITER, 2, 5000);
+    }
+
+    private static Connection open(File file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+    }
+
+    private static int queryInt(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Schema and rows as written by releases before the compact encoding (user_version 0)
+     */
+    private static void createVersionZeroFile(File file) throws SQLException {
+        try (Connection conn = open(file); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE players (uuid TEXT PRIMARY KEY, name TEXT NOT NULL, team_color TEXT, " +
+                "points INTEGER DEFAULT 0, kills INTEGER DEFAULT 0, deaths INTEGER DEFAULT 0, " +
+                "is_murderer INTEGER DEFAULT 0, murderer_until INTEGER, last_seen INTEGER, " +
+                "created_at INTEGER NOT NULL, updated_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE game_rounds (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "started_at INTEGER NOT NULL, ended_at INTEGER, winner_team TEXT, total_players INTEGER DEFAULT 0, " +
+                "duration_seconds INTEGER, created_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE team_scores (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "round_id INTEGER NOT NULL, team_color TEXT NOT NULL, final_points INTEGER DEFAULT 0, " +
+                "total_kills INTEGER DEFAULT 0, total_deaths INTEGER DEFAULT 0, players_count INTEGER DEFAULT 0, " +
+                "created_at INTEGER NOT NULL, FOREIGN KEY (round_id) REFERENCES game_rounds(id) ON DELETE CASCADE)");
+            stmt.executeUpdate("CREATE TABLE player_stats (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "round_id INTEGER NOT NULL, player_uuid TEXT NOT NULL, team_color TEXT NOT NULL, " +
+                "points_earned INTEGER DEFAULT 0, kills INTEGER DEFAULT 0, deaths INTEGER DEFAULT 0, " +
+                "chests_opened INTEGER DEFAULT 0, food_deposited INTEGER DEFAULT 0, became_murderer INTEGER DEFAULT 0, " +
+                "created_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE round_players (round_id INTEGER NOT NULL, player_uuid TEXT NOT NULL, " +
+                "team_color TEXT, points INTEGER DEFAULT 0, updated_at INTEGER NOT NULL, " +
+                "PRIMARY KEY (round_id, player_uuid)) WITHOUT ROWID");
+            stmt.executeUpdate("CREATE TABLE treasure_chests (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "round_id INTEGER NOT NULL, world TEXT NOT NULL, x INTEGER NOT NULL, y INTEGER NOT NULL, " +
+                "z INTEGER NOT NULL, chest_type TEXT NOT NULL, spawned_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE TABLE event_npcs (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "round_id INTEGER NOT NULL, entity_uuid TEXT, world TEXT NOT NULL, x REAL NOT NULL, y REAL NOT NULL, " +
+                "z REAL NOT NULL, yaw REAL NOT NULL, pitch REAL NOT NULL, npc_type TEXT NOT NULL, " +
+                "spawned_at INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE INDEX idx_players_team ON players(team_color)");
+            stmt.executeUpdate("CREATE INDEX idx_round_players_team ON round_players(round_id, team_color)");
+
+            stmt.executeUpdate("INSERT INTO players (uuid, name, team_color, points, created_at, updated_at) VALUES " +
+                "('" + ALICE + "', 'alice', 'RED', 120, 1, 2), " +
+                "('" + ALICE.toString().toUpperCase() + "', 'ALICE', NULL, 5, 1, 2), " +
+                "('not-a-uuid', 'broken', NULL, 0, 1, 2)");
+            stmt.executeUpdate("INSERT INTO game_rounds (id, started_at, ended_at, winner_team, total_players, " +
+                "duration_seconds, created_at) VALUES (1, 100, 700, 'RED', 1, 600, 100), (2, 800, NULL, NULL, 1, NULL, 800)");
+            stmt.executeUpdate("INSERT INTO team_scores (round_id, team_color, final_points, created_at) VALUES " +
+                "(1, 'RED', 300, 700), (1, 'BLUE', 200, 700)");
+            stmt.executeUpdate("INSERT INTO player_stats (round_id, player_uuid, team_color, points_earned, created_at) " +
+                "VALUES (1, '" + ALICE + "', 'RED', 120, 700)");
+            stmt.executeUpdate("INSERT INTO round_players (round_id, player_uuid, team_color, points, updated_at) VALUES " +
+                "(1, '" + ALICE + "', 'RED', 120, 700), (2, '" + ALICE + "', 'BLUE', 5, 900)");
+            stmt.executeUpdate("INSERT INTO treasure_chests (round_id, world, x, y, z, chest_type, spawned_at) VALUES " +
+                "(2, 'world', 1, 64, 1, 'BARREL', 800), (2, 'world', 2, 64, 2, 'SHULKER', 800)");
+            stmt.executeUpdate("INSERT INTO event_npcs (round_id, entity_uuid, world, x, y, z, yaw, pitch, npc_type, " +
+                "spawned_at) VALUES (2, '" + NPC + "', 'world', 0.5, 64, 0.5, 0, 0, 'FoodMerchant', 800)");
+        }
+    }
+}
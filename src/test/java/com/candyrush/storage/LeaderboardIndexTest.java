@@ -0,0 +1,163 @@
+package com.candyrush.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardIndexTest {
+
+    private static final UUID ALICE = new UUID(0, 1);
+    private static final UUID BOB = new UUID(0, 2);
+    private static final UUID CAROL = new UUID(0, 3);
+
+    @Test
+    void ranksByPointsThenUuid() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(CAROL, "carol", 10);
+        index.update(BOB, "bob", 30);
+        index.update(ALICE, "alice", 10);
+
+        assertEquals(1, index.getRank(BOB));
+        assertEquals(2, index.getRank(ALICE));
+        assertEquals(3, index.getRank(CAROL));
+        assertEquals(List.of(BOB, ALICE, CAROL), uuids(index.getTop(10)));
+    }
+
+    @Test
+    void updateMovesPlayer() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(ALICE, "alice", 10);
+        index.update(BOB, "bob", 20);
+
+        index.update(ALICE, "alice", 25);
+
+        assertEquals(1, index.getRank(ALICE));
+        assertEquals(2, index.getRank(BOB));
+        assertEquals(2, index.size());
+        assertEquals(25, index.getEntry(ALICE).getPoints());
+    }
+
+    @Test
+    void updateWithSamePointsOnlyRenames() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(ALICE, "alice", 10);
+
+        index.update(ALICE, "alice2", 10);
+
+        LeaderboardIndex.Entry entry = index.getEntry(ALICE);
+        assertEquals("alice2", entry.getName());
+        assertEquals(1, entry.getRank());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removeDropsPlayer() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(ALICE, "alice", 10);
+        index.update(BOB, "bob", 20);
+
+        index.remove(BOB);
+        index.remove(CAROL);
+
+        assertEquals(0, index.getRank(BOB));
+        assertNull(index.getEntry(BOB));
+        assertEquals(1, index.getRank(ALICE));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rangeIsClampedToIndex() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (int i = 0; i < 5; i++) {
+            index.update(new UUID(0, i), "p" + i, i);
+        }
+
+        List<LeaderboardIndex.Entry> range = index.getRange(-3, 3);
+        assertEquals(List.of(4, 3, 2), points(range));
+        assertEquals(1, range.get(0).getRank());
+        assertEquals(List.of(0), points(index.getRange(5, 10)));
+        assertTrue(index.getRange(6, 10).isEmpty());
+    }
+
+    @Test
+    void aroundReturnsNeighbours() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (int i = 0; i < 10; i++) {
+            index.update(new UUID(0, i), "p" + i, i * 10);
+        }
+
+        List<LeaderboardIndex.Entry> around = index.getAround(new UUID(0, 5), 2);
+        assertEquals(List.of(70, 60, 50, 40, 30), points(around));
+        assertEquals(List.of(3, 4, 5, 6, 7), ranks(around));
+        // Near the top the window keeps its size instead of shrinking
+        assertEquals(List.of(90, 80, 70), points(index.getAround(new UUID(0, 9), 1)));
+        assertTrue(index.getAround(new UUID(1, 0), 2).isEmpty());
+    }
+
+    @Test
+    void loadReplacesContents() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(CAROL, "carol", 50);
+
+        index.load(List.of(new LeaderboardIndex.Entry(ALICE, "alice", 1), new LeaderboardIndex.Entry(BOB, "bob", 2)));
+
+        assertEquals(0, index.getRank(CAROL));
+        assertEquals(List.of(BOB, ALICE), uuids(index.getTop(10)));
+    }
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        LeaderboardIndex index = new LeaderboardIndex();
+        Map<UUID, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            UUID uuid = new UUID(0, random.nextInt(300));
+            if (random.nextInt(10) == 0) {
+                index.remove(uuid);
+                expected.remove(uuid);
+            } else {
+                int points = random.nextInt(50);
+                index.update(uuid, uuid.toString(), points);
+                expected.put(uuid, points);
+            }
+        }
+
+        List<UUID> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator.comparing((UUID uuid) -> -expected.get(uuid)).thenComparing(uuid -> uuid));
+
+        assertEquals(sorted.size(), index.size());
+        assertEquals(sorted, uuids(index.getTop(sorted.size())));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, index.getRank(sorted.get(i)));
+        }
+    }
+
+    private static List<UUID> uuids(List<LeaderboardIndex.Entry> entries) {
+        List<UUID> uuids = new ArrayList<>();
+        entries.forEach(entry -> uuids.add(entry.getUuid()));
+        return uuids;
+    }
+
+    private static List<Integer> points(List<LeaderboardIndex.Entry> entries) {
+        List<Integer> points = new ArrayList<>();
+        entries.forEach(entry -> points.add(entry.getPoints()));
+        return points;
+    }
+
+    private static List<Integer> ranks(List<LeaderboardIndex.Entry> entries) {
+        List<Integer> ranks = new ArrayList<>();
+        entries.forEach(entry -> ranks.add(entry.getRank()));
+        return ranks;
+    }
+}
@@ -0,0 +1,130 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerDataCacheTest {
+
+    private static final UUID ALICE = new UUID(0, 1);
+    private static final UUID BOB = new UUID(0, 2);
+    private static final UUID CAROL = new UUID(0, 3);
+    private static final UUID DAVE = new UUID(0, 4);
+
+    private long now = 0;
+
+    private PlayerDataCache cache(int maxSize, long ttlSeconds, long negativeTtlSeconds) {
+        return new PlayerDataCache(maxSize, ttlSeconds, negativeTtlSeconds, () -> now);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedFirst() {
+        PlayerDataCache cache = cache(3, 600, 60);
+        cache.put(ALICE, new PlayerData(ALICE, "alice"));
+        advanceSeconds(1);
+        cache.put(BOB, new PlayerData(BOB, "bob"));
+        advanceSeconds(1);
+        cache.put(CAROL, new PlayerData(CAROL, "carol"));
+        advanceSeconds(1);
+        assertNotNull(cache.lookup(ALICE));
+
+        // Over the limit: trimmed to 90% (2 entries), BOB and CAROL are the oldest by access
+        advanceSeconds(1);
+        cache.put(DAVE, new PlayerData(DAVE, "dave"));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.containsPlayer(ALICE));
+        assertTrue(cache.containsPlayer(DAVE));
+        assertFalse(cache.containsPlayer(BOB));
+        assertFalse(cache.containsPlayer(CAROL));
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void pinnedPlayersSurviveEvictionAndExpiry() {
+        PlayerDataCache cache = cache(3, 60, 60);
+        cache.put(ALICE, new PlayerData(ALICE, "alice"));
+        cache.pin(ALICE);
+        advanceSeconds(1);
+        cache.put(BOB, new PlayerData(BOB, "bob"));
+        advanceSeconds(1);
+        cache.put(CAROL, new PlayerData(CAROL, "carol"));
+        advanceSeconds(1);
+        cache.put(DAVE, new PlayerData(DAVE, "dave"));
+
+        // ALICE is the oldest but pinned, so the next two go instead
+        assertTrue(cache.containsPlayer(ALICE));
+        assertFalse(cache.containsPlayer(BOB));
+        assertFalse(cache.containsPlayer(CAROL));
+        assertTrue(cache.containsPlayer(DAVE));
+
+        advanceSeconds(120);
+        assertNotNull(cache.lookup(ALICE));
+        assertNull(cache.lookup(DAVE));
+
+        cache.unpin(ALICE);
+        advanceSeconds(120);
+        assertNull(cache.lookup(ALICE));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void idleEntriesExpireButLookupsKeepThemAlive() {
+        PlayerDataCache cache = cache(10, 60, 60);
+        cache.put(ALICE, new PlayerData(ALICE, "alice"));
+        cache.put(BOB, new PlayerData(BOB, "bob"));
+
+        advanceSeconds(40);
+        assertNotNull(cache.lookup(ALICE));
+        advanceSeconds(40);
+
+        assertNotNull(cache.lookup(ALICE));
+        assertNull(cache.lookup(BOB));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void negativeEntriesExpireByAgeEvenWhenHit() {
+        PlayerDataCache cache = cache(10, 600, 30);
+        cache.putNegative(ALICE);
+
+        advanceSeconds(20);
+        PlayerDataCache.CachedValue value = cache.lookup(ALICE);
+        assertNotNull(value);
+        assertTrue(value.isNegative());
+        assertFalse(cache.containsPlayer(ALICE));
+
+        advanceSeconds(20);
+        assertNull(cache.lookup(ALICE));
+        assertEquals(1, cache.getNegativeHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void loadedDataReplacesNegativeEntryButNotPositiveOne() {
+        PlayerDataCache cache = cache(10, 600, 60);
+        PlayerData first = new PlayerData(ALICE, "alice");
+        PlayerData second = new PlayerData(ALICE, "alice");
+
+        cache.putNegative(ALICE);
+        assertSame(first, cache.putIfAbsent(ALICE, first));
+        assertSame(first, cache.putIfAbsent(ALICE, second));
+
+        cache.putNegative(ALICE);
+        assertSame(first, cache.lookup(ALICE).getData());
+        assertEquals(1, cache.values().size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerDataStorageImplTest {
+
+    private static final Logger LOGGER = Logger.getLogger(PlayerDataStorageImplTest.class.getName());
+
+    @TempDir
+    File dataFolder;
+
+    private DatabaseInitializer initializer;
+    private PlayerDataStorageImpl storage;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        initializer = new DatabaseInitializer(
+            new DatabaseSettings(new File(dataFolder, "candyrush.db"), DatabaseSettings.Engine.SINGLE_WRITER, 2, 5000),
+            LOGGER);
+        initializer.initialize();
+        storage = new PlayerDataStorageImpl(initializer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        initializer.close();
+    }
+
+    @Test
+    void drainedSnapshotsKeepTheRoundActiveWhenMarked() throws SQLException {
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage, LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+        PlayerData bob = new PlayerData(UUID.randomUUID(), "bob");
+
+        storage.setActiveRound(1);
+        alice.addPoints(5);
+        writeBehind.markDirty(alice);
+        bob.addPoints(7);
+        writeBehind.markDirty(bob);
+
+        // Round changes before the flush; only alice is marked again in the new round
+        storage.setActiveRound(2);
+        alice.setPoints(0);
+        alice.addPoints(3);
+        writeBehind.markDirty(alice);
+
+        assertEquals(3, writeBehind.flushNow());
+        assertEquals(Map.of(1, 12, 2, 3), roundPoints());
+        assertEquals(Map.of(1, 2, 2, 1), roundPlayers());
+        assertEquals(8, storage.loadPlayer(alice.getUuid()).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void snapshotWithoutRoundOnlyUpdatesPlayerRow() throws SQLException {
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage, LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+
+        alice.addPoints(5);
+        writeBehind.markDirty(alice);
+        storage.setActiveRound(1);
+
+        assertEquals(1, writeBehind.flushNow());
+        assertEquals(Map.of(), roundPoints());
+        assertEquals(0, storage.loadPlayer(alice.getUuid()).orElseThrow().getPoints());
+        assertEquals(5, storage.loadPlayer(alice.getUuid()).orElseThrow().getTotalPoints());
+    }
+
+    @Test
+    void saveAfterConflictingSaveMergesOwnDelta() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        storage.loadOrCreatePlayer(uuid, "alice");
+
+        // Two servers hold the same row at version 0
+        PlayerData first = storage.loadPlayer(uuid).orElseThrow();
+        PlayerData second = storage.loadPlayer(uuid).orElseThrow();
+
+        first.addPoints(5);
+        first.incrementKills();
+        storage.savePlayer(first);
+        assertEquals(1, first.getSyncState().version);
+
+        second.addPoints(3);
+        storage.savePlayer(second);
+
+        // The stale version forces a re-read; only second's own changes are added on top
+        assertEquals(List.of(8, 1, 2), storedPointsKillsVersion());
+        assertEquals(2, second.getSyncState().version);
+        assertEquals(8, second.getSyncState().storedPoints);
+        assertEquals(3, second.getSyncState().localPoints);
+
+        // Saving again without changes keeps the merged values
+        storage.savePlayer(second);
+        assertEquals(List.of(8, 1, 3), storedPointsKillsVersion());
+    }
+
+    @Test
+    void saveGivesUpAfterMaxWriteAttempts() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        PlayerData alice = storage.loadOrCreatePlayer(uuid, "alice");
+        PlayerData.SyncState before = alice.getSyncState();
+
+        // Every compare-and-set misses, as if another server won each race
+        execute("CREATE TRIGGER lose_every_race BEFORE UPDATE ON players BEGIN SELECT RAISE(IGNORE); END");
+        alice.addPoints(5);
+        SQLException error = assertThrows(SQLException.class, () -> storage.savePlayer(alice));
+        assertTrue(error.getMessage().contains("save attempts"), error.getMessage());
+
+        // Nothing was committed and the sync state did not move
+        assertSame(before, alice.getSyncState());
+        assertEquals(List.of(0, 0, 0), storedPointsKillsVersion());
+
+        execute("DROP TRIGGER lose_every_race");
+        storage.savePlayer(alice);
+        assertEquals(List.of(5, 0, 1), storedPointsKillsVersion());
+    }
+
+    private List<Integer> storedPointsKillsVersion() throws SQLException {
+        try (Connection conn = initializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT points, kills, version FROM players")) {
+            assertTrue(rs.next());
+            List<Integer> values = List.of(rs.getInt("points"), rs.getInt("kills"), rs.getInt("version"));
+            assertFalse(rs.next());
+            return values;
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        initializer.executeWrite(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.executeUpdate(sql);
+            }
+        });
+    }
+
+    private Map<Integer, Integer> roundPoints() throws SQLException {
+        return queryByRound("SELECT round_id, SUM(points) FROM round_players GROUP BY round_id ORDER BY round_id");
+    }
+
+    private Map<Integer, Integer> roundPlayers() throws SQLException {
+        return queryByRound("SELECT round_id, COUNT(*) FROM round_players GROUP BY round_id ORDER BY round_id");
+    }
+
+    private Map<Integer, Integer> queryByRound(String sql) throws SQLException {
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        try (Connection conn = initializer.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                result.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return result;
+    }
+}
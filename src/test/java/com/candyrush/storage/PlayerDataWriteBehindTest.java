@@ -0,0 +1,204 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.PlayerData;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerDataWriteBehindTest {
+
+    private static final Logger LOGGER = Logger.getLogger(PlayerDataWriteBehindTest.class.getName());
+
+    @Test
+    void repeatedUpdatesAreMergedIntoOneWrite() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+
+        alice.addPoints(5);
+        writeBehind.markDirty(alice);
+        alice.addPoints(2);
+        writeBehind.markDirty(alice);
+
+        assertEquals(1, writeBehind.getPendingCount());
+        assertEquals(2, writeBehind.getMarkedCount());
+        assertEquals(1, writeBehind.getMergedCount());
+
+        assertEquals(1, writeBehind.flushNow());
+        assertEquals(1, storage.batches.size());
+        assertEquals(7, storage.batches.get(0).get(0).getPoints());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void snapshotIsTakenWhenMarked() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+
+        alice.addPoints(5);
+        writeBehind.markDirty(alice);
+        alice.addPoints(100);
+        writeBehind.flushNow();
+
+        assertEquals(5, storage.batches.get(0).get(0).getPoints());
+    }
+
+    @Test
+    void playersAreFlushedInOneBatch() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        for (int i = 0; i < 10; i++) {
+            writeBehind.markDirty(new PlayerData(UUID.randomUUID(), "p" + i));
+        }
+
+        assertEquals(10, writeBehind.flushNow());
+        assertEquals(1, storage.batches.size());
+        assertEquals(10, storage.batches.get(0).size());
+        assertEquals(1, writeBehind.getFlushCount());
+        assertEquals(10, writeBehind.getWrittenCount());
+    }
+
+    @Test
+    void emptyFlushDoesNotTouchStorage() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+
+        assertEquals(0, writeBehind.flushNow());
+        assertTrue(storage.batches.isEmpty());
+    }
+
+    @Test
+    void failedFlushKeepsUpdatesForRetry() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        writeBehind.markDirty(new PlayerData(UUID.randomUUID(), "alice"));
+
+        storage.failures = 1;
+        assertEquals(0, writeBehind.flushNow());
+        assertEquals(1, writeBehind.getFailedFlushCount());
+        assertEquals(1, writeBehind.getPendingCount());
+
+        assertEquals(1, writeBehind.flushNow());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void updateDuringFlushIsWrittenByNextFlush() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+        alice.addPoints(1);
+        writeBehind.markDirty(alice);
+
+        // Another thread marks a newer snapshot while the first batch is being written
+        storage.duringSave = () -> {
+            alice.addPoints(10);
+            writeBehind.markDirty(alice);
+        };
+        writeBehind.flushNow();
+        storage.duringSave = null;
+
+        assertEquals(1, writeBehind.getPendingCount());
+        writeBehind.flushNow();
+        assertEquals(List.of(1, 11), List.of(storage.batches.get(0).get(0).getPoints(),
+            storage.batches.get(1).get(0).getPoints()));
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void asyncFlushWithoutExecutorRunsInline() throws Exception {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        writeBehind.markDirty(new PlayerData(UUID.randomUUID(), "alice"));
+
+        assertEquals(1, writeBehind.flushAsync().get());
+        assertEquals(1, storage.batches.size());
+    }
+
+    @Test
+    void backgroundFlushAndShutdownWriteEverything() throws Exception {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        writeBehind.start(50);
+
+        writeBehind.markDirty(new PlayerData(UUID.randomUUID(), "alice"));
+        assertEquals(1, writeBehind.flushAsync().get());
+
+        writeBehind.markDirty(new PlayerData(UUID.randomUUID(), "bob"));
+        writeBehind.shutdown();
+
+        assertEquals(0, writeBehind.getPendingCount());
+        assertEquals(2, writeBehind.getWrittenCount());
+    }
+
+    @Test
+    void snapshotsFromDifferentRoundsAreNotMerged() {
+        RecordingStorage storage = new RecordingStorage();
+        PlayerDataWriteBehind writeBehind = new PlayerDataWriteBehind(storage.proxy(), LOGGER);
+        PlayerData alice = new PlayerData(UUID.randomUUID(), "alice");
+
+        storage.activeRound = 1;
+        alice.addPoints(5);
+        writeBehind.markDirty(alice);
+        storage.activeRound = 2;
+        alice.setPoints(3);
+        writeBehind.markDirty(alice);
+
+        assertEquals(0, writeBehind.getMergedCount());
+        assertEquals(2, writeBehind.getPendingCount());
+        assertEquals(2, writeBehind.flushNow());
+        assertEquals(List.of(1, 2), storage.rounds);
+        assertEquals(5, storage.batches.get(0).get(0).getPoints());
+        assertEquals(3, storage.batches.get(1).get(0).getPoints());
+    }
+
+    /**
+     * PlayerDataStorage that records savePlayers batches; other methods are not used by the write-behind
+     */
+    private static class RecordingStorage implements InvocationHandler {
+        private final List<List<PlayerData>> batches = new ArrayList<>();
+        private final List<Integer> rounds = new ArrayList<>();
+        private Integer activeRound;
+        private int failures;
+        private Runnable duringSave;
+
+        PlayerDataStorage proxy() {
+            return (PlayerDataStorage) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PlayerDataStorage.class}, this);
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getActiveRound")) {
+                return activeRound;
+            }
+            if (!method.getName().equals("savePlayers")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            if (failures > 0) {
+                failures--;
+                throw new SQLException("simulated failure");
+            }
+            if (duringSave != null) {
+                duringSave.run();
+            }
+            @SuppressWarnings("unchecked")
+            Collection<PlayerData> players = (Collection<PlayerData>) args[0];
+            batches.add(new ArrayList<>(players));
+            rounds.add(args.length > 1 ? (Integer) args[1] : activeRound);
+            return null;
+        }
+    }
+}
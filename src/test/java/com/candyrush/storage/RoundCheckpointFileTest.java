@@ -0,0 +1,225 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.TeamColor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoundCheckpointFileTest {
+
+    // Slot header: magic, version, reserved, sequence, length, crc
+    private static final int HEADER_SIZE = 28;
+    private static final int MIN_SLOT_SIZE = 64 * 1024;
+
+    @TempDir
+    File dataFolder;
+
+    @Test
+    void newFileHasNoCheckpoint() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertFalse(checkpoints.read().isPresent());
+        }
+        assertEquals(2L * MIN_SLOT_SIZE, file.length());
+    }
+
+    @Test
+    void readsBackLatestCheckpoint() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        UUID player = UUID.randomUUID();
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+            checkpoints.write(new RoundCheckpoint(1, 1000, 1000, 1, 2000, 280, 0, "world", 10, 64, -10, 150,
+                List.of(new RoundCheckpoint.TeamEntry(TeamColor.BLUE, 40, 2, 1)),
+                List.of(new RoundCheckpoint.PlayerEntry(player, TeamColor.BLUE, 40, 12345)),
+                List.of(new RoundCheckpoint.ChestEntry(1, 2, 3, ChestType.BARREL, true, 999))));
+
+            RoundCheckpoint read = checkpoints.read().orElseThrow();
+            assertEquals(280, read.getGameTimeRemaining());
+            assertEquals(150, read.getMapRadius());
+            assertEquals(player, read.getPlayers().get(0).uuid);
+            assertEquals(TeamColor.BLUE, read.getTeams().get(0).color);
+            assertEquals(ChestType.BARREL, read.getChests().get(0).type);
+            assertTrue(read.getChests().get(0).awaitingRespawn);
+        }
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertEquals(280, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+    }
+
+    @Test
+    void writesAlternateBetweenSlots() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+        }
+
+        assertTrue(slotHasMagic(file, 0));
+        assertTrue(slotHasMagic(file, 1));
+        assertEquals(1, slotSequence(file, 0));
+        assertEquals(2, slotSequence(file, 1));
+    }
+
+    @Test
+    void tornWriteFallsBackToPreviousSlot() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+        }
+
+        // Payload of the newer slot half-written: its CRC no longer matches
+        corruptPayload(file, 1);
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertEquals(300, checkpoints.read().orElseThrow().getGameTimeRemaining());
+
+            // The next write must reuse the broken slot and leave the good one alone
+            checkpoints.write(checkpoint(1, 280, 0));
+            assertEquals(280, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+
+        corruptPayload(file, 1);
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertEquals(300, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+    }
+
+    @Test
+    void missingHeaderFallsBackToPreviousSlot() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+        }
+
+        // Crash before the header's magic was written
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() / 2);
+            raf.writeInt(0);
+        }
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertEquals(300, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+    }
+
+    @Test
+    void bothSlotsBrokenReadsEmpty() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+        }
+
+        corruptPayload(file, 0);
+        corruptPayload(file, 1);
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertFalse(checkpoints.read().isPresent());
+        }
+    }
+
+    @Test
+    void growsSlotsForLargeCheckpoint() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+            checkpoints.write(checkpoint(1, 280, 10_000));
+
+            assertTrue(checkpoints.getLastPayloadSize() > MIN_SLOT_SIZE);
+            assertEquals(10_000, checkpoints.read().orElseThrow().getChests().size());
+        }
+
+        long slotSize = file.length() / 2;
+        assertTrue(slotSize > MIN_SLOT_SIZE);
+        assertEquals(0, slotSize & (slotSize - 1), "Slot size must stay a power of two");
+
+        // The grown checkpoint went to the new second slot; the first still holds an older one
+        corruptPayload(file, 1);
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            RoundCheckpoint previous = checkpoints.read().orElseThrow();
+            assertEquals(300, previous.getGameTimeRemaining());
+
+            checkpoints.write(checkpoint(1, 270, 10_000));
+            checkpoints.write(checkpoint(1, 260, 0));
+            assertEquals(260, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertEquals(260, checkpoints.read().orElseThrow().getGameTimeRemaining());
+        }
+    }
+
+    @Test
+    void clearInvalidatesBothSlots() throws IOException {
+        File file = new File(dataFolder, "round.ckpt");
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            checkpoints.write(checkpoint(1, 300, 0));
+            checkpoints.write(checkpoint(1, 290, 0));
+            checkpoints.clear();
+            assertFalse(checkpoints.read().isPresent());
+        }
+
+        try (RoundCheckpointFile checkpoints = open(file)) {
+            assertFalse(checkpoints.read().isPresent());
+            checkpoints.write(checkpoint(2, 300, 0));
+            assertEquals(2, checkpoints.read().orElseThrow().getRoundId());
+        }
+    }
+
+    private RoundCheckpointFile open(File file) throws IOException {
+        RoundCheckpointFile checkpoints = new RoundCheckpointFile(file, Logger.getLogger(getClass().getName()));
+        checkpoints.open();
+        return checkpoints;
+    }
+
+    private static RoundCheckpoint checkpoint(int roundId, int remaining, int chestCount) {
+        List<RoundCheckpoint.ChestEntry> chests = new ArrayList<>(chestCount);
+        for (int i = 0; i < chestCount; i++) {
+            chests.add(new RoundCheckpoint.ChestEntry(i, 64, -i, ChestType.CHEST, i % 2 == 0, i));
+        }
+        return new RoundCheckpoint(roundId, 1000, 1000, 0, 2000, remaining, 0, "world", 0, 64, 0, 100,
+            List.of(), List.of(), chests);
+    }
+
+    private static void corruptPayload(File file, int slot) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long offset = slot * (raf.length() / 2) + HEADER_SIZE + 8;
+            raf.seek(offset);
+            int value = raf.read();
+            raf.seek(offset);
+            raf.write(value ^ 0xFF);
+        }
+    }
+
+    private static boolean slotHasMagic(File file, int slot) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(slot * (raf.length() / 2));
+            return raf.readInt() == 0x43524350;
+        }
+    }
+
+    private static long slotSequence(File file, int slot) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(slot * (raf.length() / 2) + 8);
+            return raf.readLong();
+        }
+    }
+}
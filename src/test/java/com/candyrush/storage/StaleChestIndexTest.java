@@ -0,0 +1,81 @@
+package com.candyrush.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaleChestIndexTest {
+
+    @Test
+    void chunkKeyRoundTripsNegativeCoordinates() {
+        int[][] chunks = {{0, 0}, {-1, -1}, {-30000000 >> 4, 30000000 >> 4}, {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+        for (int[] chunk : chunks) {
+            long key = StaleChestIndex.chunkKey(chunk[0], chunk[1]);
+            assertEquals(chunk[0], StaleChestIndex.chunkX(key));
+            assertEquals(chunk[1], StaleChestIndex.chunkZ(key));
+        }
+        assertTrue(StaleChestIndex.chunkKey(-1, 0) != StaleChestIndex.chunkKey(0, -1));
+    }
+
+    @Test
+    void chestsAreGroupedByWorldAndChunk() {
+        StaleChestIndex index = new StaleChestIndex();
+        index.load(List.of(
+            chest(1, "world", 0, 0),
+            chest(2, "world", 15, 15),
+            chest(3, "world", -1, -1),
+            chest(4, "world_nether", 0, 0)
+        ));
+
+        assertEquals(4, index.size());
+        assertEquals(Set.of(StaleChestIndex.chunkKey(0, 0), StaleChestIndex.chunkKey(-1, -1)),
+            index.getChunkKeys("world"));
+        assertEquals(Set.of(StaleChestIndex.chunkKey(0, 0)), index.getChunkKeys("world_nether"));
+        assertTrue(index.getChunkKeys("world_the_end").isEmpty());
+    }
+
+    @Test
+    void removeChunkTakesChestsOutOnce() {
+        StaleChestIndex index = new StaleChestIndex();
+        index.load(List.of(
+            chest(1, "world", 0, 0),
+            chest(2, "world", 15, 15),
+            chest(3, "world", 16, 0),
+            chest(4, "world_nether", 0, 0)
+        ));
+
+        List<TreasureChestStorage.StoredChest> removed = index.removeChunk("world", 0, 0);
+        assertEquals(List.of(1, 2), removed.stream().map(TreasureChestStorage.StoredChest::getId).toList());
+        assertEquals(2, index.size());
+
+        assertTrue(index.removeChunk("world", 0, 0).isEmpty());
+        assertTrue(index.removeChunk("missing", 0, 0).isEmpty());
+        assertEquals(1, index.removeChunk("world", 1, 0).size());
+        assertEquals(1, index.removeChunk("world_nether", 0, 0).size());
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    void loadReplacesPreviousContents() {
+        StaleChestIndex index = new StaleChestIndex();
+        index.load(List.of(chest(1, "world", 0, 0), chest(2, "world", 100, 100)));
+        index.load(List.of(chest(3, "world", 100, 100)));
+
+        assertEquals(1, index.size());
+        assertTrue(index.removeChunk("world", 0, 0).isEmpty());
+        assertEquals(3, index.removeChunk("world", 6, 6).get(0).getId());
+
+        index.load(List.of(chest(4, "world", 0, 0)));
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertTrue(index.getChunkKeys("world").isEmpty());
+    }
+
+    private static TreasureChestStorage.StoredChest chest(int id, String world, int x, int z) {
+        return new TreasureChestStorage.StoredChest(id, world, x, 64, z);
+    }
+}
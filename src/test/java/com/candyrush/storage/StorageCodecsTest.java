@@ -0,0 +1,195 @@
+package com.candyrush.storage;
+
+import com.candyrush.models.ChestType;
+import com.candyrush.models.PointSource;
+import com.candyrush.models.TeamColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorageCodecsTest {
+
+    private enum Letter { A, B, C }
+
+    private Connection conn;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void uuidBytesAreBigEndian() throws SQLException {
+        UUID uuid = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+        byte[] bytes = StorageCodecs.uuidToBytes(uuid);
+
+        assertArrayEquals(new byte[]{
+            0x00, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77,
+            (byte) 0x88, (byte) 0x99, (byte) 0xaa, (byte) 0xbb, (byte) 0xcc, (byte) 0xdd, (byte) 0xee, (byte) 0xff
+        }, bytes);
+        assertEquals(uuid, StorageCodecs.uuidFromBytes(bytes));
+    }
+
+    @Test
+    void uuidFromBytesRejectsWrongLength() {
+        assertThrows(SQLException.class, () -> StorageCodecs.uuidFromBytes(new byte[15]));
+    }
+
+    @Test
+    void uuidRoundTripsThroughDatabase() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE t (id INTEGER, u BLOB)");
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO t VALUES (?, ?)")) {
+            stmt.setInt(1, 1);
+            StorageCodecs.bindUuid(stmt, 2, uuid);
+            stmt.executeUpdate();
+            stmt.setInt(1, 2);
+            StorageCodecs.bindUuid(stmt, 2, null);
+            stmt.executeUpdate();
+        }
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT u FROM t ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals(uuid, StorageCodecs.readUuid(rs, "u"));
+            assertTrue(rs.next());
+            assertNull(StorageCodecs.readUuid(rs, "u"));
+        }
+    }
+
+    @Test
+    void uuidTextConvertsToSameBlob() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE t (id INTEGER, u TEXT)");
+            stmt.executeUpdate("INSERT INTO t VALUES (1, '" + uuid + "'), (2, 'not-a-uuid'), (3, NULL)");
+        }
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " + StorageCodecs.uuidTextToBlobSql("u") + " FROM t ORDER BY id")) {
+            assertTrue(rs.next());
+            assertArrayEquals(StorageCodecs.uuidToBytes(uuid), rs.getBytes(1));
+            assertTrue(rs.next());
+            assertNull(rs.getBytes(1));
+            assertTrue(rs.next());
+            assertNull(rs.getBytes(1));
+        }
+    }
+
+    @Test
+    void storedCodesNeverChange() {
+        // Part of the on-disk format: a failure here means existing databases would be misread
+        assertEquals(1, StorageCodecs.TEAM_COLOR.encode(TeamColor.RED));
+        assertEquals(4, StorageCodecs.TEAM_COLOR.encode(TeamColor.YELLOW));
+        assertEquals(1, StorageCodecs.CHEST_TYPE.encode(ChestType.CHEST));
+        assertEquals(3, StorageCodecs.CHEST_TYPE.encode(ChestType.BARREL));
+        assertEquals(11, StorageCodecs.CHEST_TYPE.encode(ChestType.TRAPPED_CHEST));
+        assertEquals(1, StorageCodecs.POINT_SOURCE.encode(PointSource.TREASURE_CHEST));
+        assertEquals(7, StorageCodecs.POINT_SOURCE.encode(PointSource.SHOP_PURCHASE));
+    }
+
+    @Test
+    void everyConstantRoundTrips() throws SQLException {
+        for (TeamColor color : TeamColor.values()) {
+            assertEquals(color, StorageCodecs.TEAM_COLOR.decode(StorageCodecs.TEAM_COLOR.encode(color)));
+        }
+        for (ChestType type : ChestType.values()) {
+            assertEquals(type, StorageCodecs.CHEST_TYPE.decode(StorageCodecs.CHEST_TYPE.encode(type)));
+        }
+        for (PointSource source : PointSource.values()) {
+            assertEquals(source, StorageCodecs.POINT_SOURCE.decode(StorageCodecs.POINT_SOURCE.encode(source)));
+        }
+    }
+
+    @Test
+    void codesFollowConstructorOrderNotOrdinal() throws SQLException {
+        EnumCodec<Letter> codec = new EnumCodec<>(Letter.class, Letter.C, Letter.A, Letter.B);
+
+        assertEquals(1, codec.encode(Letter.C));
+        assertEquals(2, codec.encode(Letter.A));
+        assertEquals(Letter.B, codec.decode(3));
+    }
+
+    @Test
+    void decodeRejectsUnknownCodes() {
+        EnumCodec<Letter> codec = new EnumCodec<>(Letter.class, Letter.A, Letter.B, Letter.C);
+
+        assertThrows(SQLException.class, () -> codec.decode(0));
+        assertThrows(SQLException.class, () -> codec.decode(4));
+    }
+
+    @Test
+    void constructorRejectsMissingOrDuplicateConstants() {
+        assertThrows(IllegalStateException.class, () -> new EnumCodec<>(Letter.class, Letter.A, Letter.B));
+        assertThrows(IllegalStateException.class,
+            () -> new EnumCodec<>(Letter.class, Letter.A, Letter.B, Letter.C, Letter.A));
+    }
+
+    @Test
+    void nullableConstantRoundTripsThroughDatabase() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE t (id INTEGER, team INTEGER)");
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO t VALUES (?, ?)")) {
+            stmt.setInt(1, 1);
+            StorageCodecs.TEAM_COLOR.bind(stmt, 2, TeamColor.GREEN);
+            stmt.executeUpdate();
+            stmt.setInt(1, 2);
+            StorageCodecs.TEAM_COLOR.bind(stmt, 2, null);
+            stmt.executeUpdate();
+        }
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT team FROM t ORDER BY id")) {
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt("team"));
+            assertEquals(TeamColor.GREEN, StorageCodecs.TEAM_COLOR.read(rs, "team"));
+            assertTrue(rs.next());
+            assertNull(StorageCodecs.TEAM_COLOR.read(rs, "team"));
+        }
+    }
+
+    @Test
+    void nameToCodeSqlMatchesEncode() throws SQLException {
+        Set<ChestType> checked = EnumSet.noneOf(ChestType.class);
+        try (Statement stmt = conn.createStatement()) {
+            for (ChestType type : ChestType.values()) {
+                String sql = "SELECT " + StorageCodecs.CHEST_TYPE.nameToCodeSql("'" + type.name() + "'");
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    assertTrue(rs.next());
+                    assertEquals(StorageCodecs.CHEST_TYPE.encode(type), rs.getInt(1));
+                    checked.add(type);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT " + StorageCodecs.CHEST_TYPE.nameToCodeSql("'SHULKER'"))) {
+                assertTrue(rs.next());
+                rs.getInt(1);
+                assertTrue(rs.wasNull());
+            }
+        }
+        assertEquals(EnumSet.allOf(ChestType.class), checked);
+    }
+}